@@ -0,0 +1,73 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.benchmarks.builder;
+
+import com.izpan.starter.database.mybatis.plus.builder.QueryConditionBuilder;
+import com.izpan.starter.database.mybatis.plus.enums.ParameterTypeEnum;
+import com.izpan.starter.database.mybatis.plus.enums.QueryConditionsEnum;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 查询条件构建器基准测试
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.benchmarks.builder.QueryConditionBuilderBenchmark
+ * @CreateTime 2026/10/17 - 18:55
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryConditionBuilderBenchmark {
+
+    @Benchmark
+    public Set<QueryConditionsEnum> scalarDefault() {
+        return QueryConditionBuilder.of("userName", ParameterTypeEnum.SCALAR).build();
+    }
+
+    @Benchmark
+    public Set<QueryConditionsEnum> scalarCustomized() {
+        return QueryConditionBuilder.of("userName", ParameterTypeEnum.SCALAR)
+                .add(QueryConditionsEnum.LIKE, QueryConditionsEnum.LEFT_LIKE, QueryConditionsEnum.RIGHT_LIKE)
+                .remove(QueryConditionsEnum.NO_EQUAL)
+                .build();
+    }
+
+    @Benchmark
+    public Set<QueryConditionsEnum> listDefault() {
+        return QueryConditionBuilder.of("deptIds", ParameterTypeEnum.LIST).build();
+    }
+
+    @Benchmark
+    public Set<QueryConditionsEnum> datetimeDefault() {
+        return QueryConditionBuilder.of("createTime", ParameterTypeEnum.DATETIME).build();
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.benchmarks.interceptor;
+
+import com.izpan.starter.database.mybatis.plus.config.DataScopeProperties;
+import com.izpan.starter.database.mybatis.plus.domain.DataScope;
+import com.izpan.starter.database.mybatis.plus.domain.ScopeIdSet;
+import com.izpan.starter.database.mybatis.plus.enums.DataScopeBindModeEnum;
+import com.izpan.starter.database.mybatis.plus.enums.DataScopeTypeEnum;
+import com.izpan.starter.database.mybatis.plus.handler.IDataScopeHandler;
+import com.izpan.starter.database.mybatis.plus.interceptor.DataScopeInterceptor;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * 数据权限拦截器 beforeQuery 基准测试
+ * <p>
+ * 覆盖 ALL、SELF、IN（10 / 1k / 100k 个用户 ID）、CUSTOM 自定义规则，以及 UNION、JOIN 查询，
+ * 每次调用使用新的 BoundSql，与真实查询一致。rewriteCache 为 false 时每次都重新解析 SQL，可用于观察解析成本。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.benchmarks.interceptor.DataScopeInterceptorBenchmark
+ * @CreateTime 2026/10/17 - 18:45
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataScopeInterceptorBenchmark {
+
+    // 单表查询
+    private static final String SIMPLE_SQL = "SELECT id, user_name, status FROM t_order WHERE status = ? AND deleted = 0 ORDER BY id DESC";
+
+    // UNION 查询
+    private static final String UNION_SQL = "SELECT id, user_name FROM t_order WHERE status = ? "
+            + "UNION ALL SELECT id, user_name FROM t_order_history WHERE status = ?";
+
+    // JOIN 查询
+    private static final String JOIN_SQL = "SELECT o.id, o.user_name, i.sku FROM t_order o "
+            + "LEFT JOIN t_order_item i ON o.id = i.order_id WHERE o.status = ? AND i.deleted = 0";
+
+    // 自定义规则
+    private static final String CUSTOM_RULES = "dept_id IN (10, 20, 30) AND (status = 1 OR create_user_id = 7)";
+
+    // 测试场景
+    @Param({"ALL", "SELF", "IN_10", "IN_1K", "IN_100K", "CUSTOM", "UNION", "JOIN"})
+    private String scenario;
+
+    // 权限值绑定方式
+    @Param({"LITERAL", "PARAMETER"})
+    private DataScopeBindModeEnum bindMode;
+
+    // 是否启用 SQL 改写缓存
+    @Param({"true", "false"})
+    private boolean rewriteCache;
+
+    private DataScopeInterceptor interceptor;
+
+    private MappedStatement mappedStatement;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DataScope dataScope = dataScope(scenario);
+        IDataScopeHandler handler = new IDataScopeHandler() {
+            @Override
+            public String getPermissionCode() {
+                return "bench:order:page";
+            }
+
+            @Override
+            public Long getCurrentUserId() {
+                return 7L;
+            }
+
+            @Override
+            public DataScope getDataScope(MappedStatement ms, String permissionCode) {
+                return dataScope;
+            }
+        };
+        DataScopeProperties properties = new DataScopeProperties();
+        properties.setBindMode(bindMode);
+        properties.getRewriteCache().setEnabled(rewriteCache);
+        // 关闭审计日志，避免日志输出干扰测量结果
+        properties.getAudit().setEnabled(false);
+        interceptor = new DataScopeInterceptor(handler, properties);
+        mappedStatement = mappedStatement(switch (scenario) {
+            case "UNION" -> UNION_SQL;
+            case "JOIN" -> JOIN_SQL;
+            default -> SIMPLE_SQL;
+        });
+    }
+
+    @Benchmark
+    public BoundSql beforeQuery() {
+        BoundSql boundSql = mappedStatement.getBoundSql(null);
+        interceptor.beforeQuery(null, mappedStatement, null, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER, boundSql);
+        return boundSql;
+    }
+
+    /**
+     * 根据场景构建数据权限
+     *
+     * @param scenario 测试场景
+     * @return {@link DataScope} 数据权限
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 18:47:12
+     */
+    private static DataScope dataScope(String scenario) {
+        DataScope.DataScopeBuilder builder = DataScope.builder().currentUserId(7L).permissionCode("bench:order:page");
+        return switch (scenario) {
+            case "ALL" -> builder.scopeType(DataScopeTypeEnum.ALL).build();
+            case "SELF" -> builder.scopeType(DataScopeTypeEnum.SELF).build();
+            case "IN_10" -> builder.scopeType(DataScopeTypeEnum.UNIT).scopeUserIdSet(sparseIds(10)).build();
+            case "IN_1K" -> builder.scopeType(DataScopeTypeEnum.UNIT).scopeUserIdSet(sparseIds(1_000)).build();
+            case "IN_100K" -> builder.scopeType(DataScopeTypeEnum.UNIT).scopeUserIdSet(sparseIds(100_000)).build();
+            case "CUSTOM" -> builder.scopeType(DataScopeTypeEnum.CUSTOM).customRules(CUSTOM_RULES).build();
+            // UNION、JOIN 场景使用中等规模的 IN 权限
+            case "UNION", "JOIN" -> builder.scopeType(DataScopeTypeEnum.UNIT).scopeUserIdSet(sparseIds(100)).build();
+            default -> throw new IllegalArgumentException("不支持的测试场景: " + scenario);
+        };
+    }
+
+    // 生成不连续的用户 ID，避免被压缩为区间，模拟真实组织下的用户分布
+    private static ScopeIdSet sparseIds(int count) {
+        return ScopeIdSet.of(LongStream.range(0, count).map(i -> i * 2 + 1).toArray());
+    }
+
+    /**
+     * 构建查询语句，参数映射数量与 SQL 中的占位符一致
+     *
+     * @param sql SQL
+     * @return {@link MappedStatement} 查询语句
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 18:48:30
+     */
+    private static MappedStatement mappedStatement(String sql) {
+        Configuration configuration = new Configuration();
+        List<ParameterMapping> parameterMappings = new ArrayList<>();
+        for (int i = 0, length = sql.length(); i < length; i++) {
+            if (sql.charAt(i) == '?') {
+                parameterMappings.add(new ParameterMapping.Builder(configuration, "status" + parameterMappings.size(), Integer.class).build());
+            }
+        }
+        return new MappedStatement.Builder(configuration, "com.izpan.bench.OrderMapper.selectPage",
+                new StaticSqlSource(configuration, sql, parameterMappings), SqlCommandType.SELECT)
+                .resultMaps(new ArrayList<>())
+                .build();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.benchmarks.resolver;
+
+import com.izpan.starter.database.mybatis.plus.enums.QueryConditionsEnum;
+import com.izpan.starter.database.mybatis.plus.resolver.DataScopeVariableResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * 数据权限变量解析器基准测试
+ * <p>
+ * 覆盖固定值、字符串变量、LIKE、集合 IN、基本类型数组、需转义的字符串集合以及时间区间等常见格式化路径。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.benchmarks.resolver.DataScopeVariableResolverBenchmark
+ * @CreateTime 2026/10/17 - 18:52
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataScopeVariableResolverBenchmark {
+
+    private static final Long USER_ID = 7L;
+
+    private List<Long> deptIds;
+
+    private long[] deptIdArray;
+
+    private List<String> userNames;
+
+    private LocalDateTime[] timeRange;
+
+    @Setup
+    public void setUp() {
+        deptIds = LongStream.rangeClosed(1, 100).boxed().toList();
+        deptIdArray = LongStream.rangeClosed(1, 100).toArray();
+        userNames = LongStream.rangeClosed(1, 20).mapToObj(i -> "user'" + i).toList();
+        LocalDateTime now = LocalDateTime.of(2026, 10, 17, 18, 0, 0);
+        timeRange = new LocalDateTime[]{now.minusDays(30), now};
+    }
+
+    @Benchmark
+    public String fixedValue() {
+        return DataScopeVariableResolver.resolveVariables(USER_ID, "'admin'", null, QueryConditionsEnum.EQUAL);
+    }
+
+    @Benchmark
+    public String scalarVariable() {
+        return DataScopeVariableResolver.resolveVariables(USER_ID, "#{userName}", "admin", QueryConditionsEnum.EQUAL);
+    }
+
+    @Benchmark
+    public String likeVariable() {
+        return DataScopeVariableResolver.resolveVariables(USER_ID, "#{userName}", "admin", QueryConditionsEnum.LIKE);
+    }
+
+    @Benchmark
+    public String listVariable() {
+        return DataScopeVariableResolver.resolveVariables(USER_ID, "#{deptIds}", deptIds, QueryConditionsEnum.IN);
+    }
+
+    @Benchmark
+    public String longArrayVariable() {
+        return DataScopeVariableResolver.resolveVariables(USER_ID, "#{deptIds}", deptIdArray, QueryConditionsEnum.IN);
+    }
+
+    @Benchmark
+    public String stringListVariable() {
+        return DataScopeVariableResolver.resolveVariables(USER_ID, "#{userNames}", userNames, QueryConditionsEnum.IN);
+    }
+
+    @Benchmark
+    public String rangeVariable() {
+        return DataScopeVariableResolver.resolveVariables(USER_ID, "#{createTime}", timeRange, QueryConditionsEnum.BETWEEN);
+    }
+}
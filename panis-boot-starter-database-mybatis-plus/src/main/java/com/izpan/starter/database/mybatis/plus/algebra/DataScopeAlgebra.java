@@ -0,0 +1,255 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.algebra;
+
+import com.izpan.starter.database.mybatis.plus.domain.DataScope;
+import com.izpan.starter.database.mybatis.plus.domain.ScopeIdSet;
+import com.izpan.starter.database.mybatis.plus.enums.DataScopeTypeEnum;
+import com.izpan.starter.database.mybatis.plus.org.DataScopeOrgTree;
+import com.izpan.starter.database.mybatis.plus.resolver.DataScopeRuleTemplate;
+import com.izpan.starter.database.mybatis.plus.resolver.DataScopeVariableRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.sf.jsqlparser.JSQLParserException;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 数据权限合并
+ * <p>
+ * 用户拥有多个角色时，将各角色的数据权限合并为一个最小等价的数据权限（各角色权限取并集），代替按优先级只取其一：
+ * 1. ALL 吸收其余权限；UN_KNOWN（恒假）不贡献任何数据，仅全部为 UN_KNOWN 时保留 <br>
+ * 2. 用户 ID 集合与组织单位 ID 集合分别取并集，重复与被包含的集合（如 UNIT 之于 UNIT_AND_CHILD）自然消除 <br>
+ * 3. 独立的用户条件（含 SELF 的本人）全部包含在组织类权限的用户集合中时不再单独输出；
+ * 仅本人组织单位在单位集合中不足以覆盖：表中可能无单位列（按用户列过滤），数据行的单位也未必等于创建人的单位 <br>
+ * 4. 自定义规则按原文（去除首尾空白）去重后以 OR 合并；同时存在用户 / 组织条件时写入 {@link DataScope#getMergedRules()}，与权限占位以 OR 连接。
+ * 条件列表规则以字面量渲染后参与合并，编译失败的规则不贡献任何数据
+ * </p>
+ * <p>
+ * 合并结果的类型：同时存在组织单位与独立的用户条件时为 SELF_AND_CHILD（用户列 OR 单位列）；仅组织单位时为 UNIT_AND_CHILD / UNIT；
+ * 仅用户条件时取参与合并的最高优先级类型；仅自定义规则时为 CUSTOM。
+ * 与 SELF_AND_CHILD 一致，用户列条件使用合并后的全部用户 ID，表中无单位列时仍可按用户过滤。
+ * </p>
+ * <p>
+ * 传入的数据权限可能是处理器缓存中被并发请求共享的实例，合并与展开均不修改传入实例，结果总是新的数据权限对象。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.algebra.DataScopeAlgebra
+ * @CreateTime 2026/10/17 - 23:52
+ */
+@Slf4j
+public class DataScopeAlgebra {
+
+    // 组织树索引，未配置时为 null
+    private final DataScopeOrgTree orgTree;
+
+    // 规则变量注册表，未配置时为 null
+    private final DataScopeVariableRegistry variableRegistry;
+
+    public DataScopeAlgebra(DataScopeOrgTree orgTree) {
+        this(orgTree, null);
+    }
+
+    public DataScopeAlgebra(DataScopeOrgTree orgTree, DataScopeVariableRegistry variableRegistry) {
+        this.orgTree = orgTree;
+        this.variableRegistry = variableRegistry;
+    }
+
+    /**
+     * 合并多个数据权限为最小等价的数据权限
+     *
+     * @param dataScopes 各角色的数据权限，允许包含 null
+     * @return {@link DataScope} 合并后的数据权限，无任何数据权限时返回 null
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:55:10
+     */
+    public DataScope combine(Collection<DataScope> dataScopes) {
+        List<DataScope> scopes = dataScopes == null ? List.of() : dataScopes.stream().filter(Objects::nonNull).toList();
+        if (scopes.size() <= 1) {
+            return scopes.isEmpty() ? null : scopes.getFirst();
+        }
+        DataScope first = scopes.getFirst();
+        // ALL 吸收其余权限
+        if (scopes.stream().anyMatch(scope -> scope.getScopeType() == DataScopeTypeEnum.ALL)) {
+            return merged(first, DataScopeTypeEnum.ALL, scopes).build();
+        }
+
+        Long userId = first.getCurrentUserId();
+        // 独立的用户条件、组织单位及其对应的用户、自定义规则
+        ScopeIdSet owners = ScopeIdSet.EMPTY;
+        ScopeIdSet units = ScopeIdSet.EMPTY;
+        ScopeIdSet unitUsers = ScopeIdSet.EMPTY;
+        Set<String> rules = new LinkedHashSet<>();
+        DataScopeTypeEnum ownerType = null;
+        DataScopeTypeEnum unitType = null;
+        DataScopeTypeEnum emptyType = null;
+        for (DataScope original : scopes) {
+            DataScopeTypeEnum type = original.getScopeType();
+            if (type == null || type == DataScopeTypeEnum.UN_KNOWN) {
+                continue;
+            }
+            DataScope scope = resolveUnitScope(original);
+            ScopeIdSet users = scope.getScopeUserIdSet();
+            switch (type) {
+                case SELF -> {
+                    owners = withUser(owners, userId);
+                    ownerType = higher(ownerType, type);
+                }
+                case SELF_AND_CHILD -> {
+                    owners = withUser(owners.union(users), userId);
+                    ownerType = higher(ownerType, type);
+                    if (!scope.getScopeUnitIdSet().isEmpty()) {
+                        units = units.union(scope.getScopeUnitIdSet());
+                        unitType = higher(unitType, type);
+                    }
+                }
+                case UNIT, UNIT_AND_CHILD -> {
+                    if (!scope.getScopeUnitIdSet().isEmpty()) {
+                        units = units.union(scope.getScopeUnitIdSet());
+                        unitUsers = unitUsers.union(users);
+                        unitType = higher(unitType, type);
+                    } else if (!users.isEmpty()) {
+                        owners = owners.union(users);
+                        ownerType = higher(ownerType, type);
+                    }
+                }
+                default -> {
+                    if (type == DataScopeTypeEnum.CUSTOM && !CollectionUtils.isEmpty(scope.getRuleConditions())) {
+                        String rule = conditionRule(scope);
+                        if (rule != null) {
+                            rules.add(rule);
+                        }
+                    } else if (StringUtils.hasText(scope.getCustomRules())) {
+                        rules.add(scope.getCustomRules().trim());
+                    } else if (!users.isEmpty()) {
+                        owners = owners.union(users);
+                        ownerType = higher(ownerType, type);
+                    }
+                }
+            }
+            emptyType = higher(emptyType, type);
+        }
+
+        // 独立的用户条件被组织单位的用户集合覆盖时不再单独输出，否则保留并输出 SELF_AND_CHILD
+        if (!units.isEmpty() && unitUsers.containsAll(owners)) {
+            owners = ScopeIdSet.EMPTY;
+            ownerType = null;
+        }
+        String mergedRules = rules.isEmpty() ? null : rules.size() == 1 ? rules.iterator().next()
+                : rules.stream().map(rule -> "(" + rule + ")").collect(Collectors.joining(" OR "));
+
+        DataScopeTypeEnum type;
+        if (!units.isEmpty()) {
+            type = owners.isEmpty() ? unitType == DataScopeTypeEnum.UNIT ? DataScopeTypeEnum.UNIT : DataScopeTypeEnum.UNIT_AND_CHILD
+                    : DataScopeTypeEnum.SELF_AND_CHILD;
+        } else if (!owners.isEmpty()) {
+            type = owners.size() == 1 && userId != null && owners.contains(userId) ? DataScopeTypeEnum.SELF : ownerType;
+        } else if (mergedRules != null) {
+            return merged(first, DataScopeTypeEnum.CUSTOM, scopes).customRules(mergedRules).build();
+        } else {
+            // 均无可用条件：保留最高优先级类型，按空集合渲染恒假条件
+            type = emptyType == null ? DataScopeTypeEnum.UN_KNOWN : emptyType;
+        }
+        return merged(first, type, scopes)
+                .scopeUserIdSet(owners.union(unitUsers))
+                .scopeUnitIdSet(units)
+                .mergedRules(mergedRules)
+                .build();
+    }
+
+    /**
+     * 未提供组织单位 ID 集合时按当前组织单位展开：UNIT 为本单位，UNIT_AND_CHILD 为组织树子树，
+     * SELF_AND_CHILD 为下级组织（本人由用户列匹配）。展开结果写入副本，不修改传入实例（可能为跨请求共享的缓存对象），
+     * 组织树按节点缓存子树，重复展开开销很小
+     *
+     * @param dataScope 数据权限信息
+     * @return {@link DataScope} 展开后的数据权限副本，无需展开时返回传入实例
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:02:18
+     */
+    public DataScope resolveUnitScope(DataScope dataScope) {
+        Long unitId = dataScope.getCurrentUnitId();
+        if (unitId == null || !dataScope.getScopeUnitIdSet().isEmpty()) {
+            return dataScope;
+        }
+        ScopeIdSet units = switch (dataScope.getScopeType()) {
+            case UNIT -> ScopeIdSet.of(unitId);
+            case UNIT_AND_CHILD -> orgTree == null ? null : orgTree.subtree(unitId);
+            case SELF_AND_CHILD -> orgTree == null ? null : orgTree.descendants(unitId);
+            default -> null;
+        };
+        return units == null ? dataScope : dataScope.toBuilder().scopeUnitIdSet(units).build();
+    }
+
+    // 以第一个数据权限的用户信息构建合并结果，可见字段取并集（任一角色不限制时不限制）
+    private static DataScope.DataScopeBuilder merged(DataScope first, DataScopeTypeEnum type, List<DataScope> scopes) {
+        String customFields = null;
+        if (scopes.stream().allMatch(scope -> StringUtils.hasText(scope.getCustomFields()))) {
+            customFields = scopes.stream()
+                    .flatMap(scope -> StringUtils.commaDelimitedListToSet(scope.getCustomFields()).stream())
+                    .map(String::trim)
+                    .filter(StringUtils::hasLength)
+                    .distinct()
+                    .collect(Collectors.joining(","));
+        }
+        return DataScope.builder()
+                .scopeType(type)
+                .currentUserId(first.getCurrentUserId())
+                .currentUnitId(first.getCurrentUnitId())
+                .permissionCode(first.getPermissionCode())
+                .customFields(customFields);
+    }
+
+    /**
+     * 将条件列表规则以字面量渲染为规则原文
+     *
+     * @param dataScope 数据权限信息
+     * @return {@link String} 规则原文，编译失败时返回 null
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:57:20
+     */
+    private String conditionRule(DataScope dataScope) {
+        try {
+            return DataScopeRuleTemplate.compile(dataScope.getRuleConditions())
+                    .renderLiteral(variableRegistry == null ? dataScope.getRuleVariables() : variableRegistry.variables(dataScope));
+        } catch (JSQLParserException e) {
+            log.error("[DataScope] 用户ID={} 权限码={} - 规则条件编译失败, 不参与合并, ruleConditions={}, 错误={}",
+                    dataScope.getCurrentUserId(), dataScope.getPermissionCode(), dataScope.getRuleConditions(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static ScopeIdSet withUser(ScopeIdSet users, Long userId) {
+        return userId == null ? users : users.union(ScopeIdSet.of(userId));
+    }
+
+    // 取优先级更高的类型
+    private static DataScopeTypeEnum higher(DataScopeTypeEnum current, DataScopeTypeEnum type) {
+        return current == null || type.comparePriority(current) < 0 ? type : current;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 数据权限列注解
+ * <p>
+ * 标注在实体类上，指定该表数据权限过滤使用的列：用户列替代默认的 create_user_id，
+ * 组织单位列用于 UNIT / UNIT_AND_CHILD 权限直接按单位过滤，无需展开为用户 ID。
+ * 配置项 panis.data-scope.tables 中同名表的配置优先于注解。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.annotation.DataScopeColumn
+ * @CreateTime 2026/10/17 - 21:40
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DataScopeColumn {
+
+    /**
+     * 用户列名，为空时使用默认用户列
+     */
+    String owner() default "";
+
+    /**
+     * 组织单位列名，为空时组织类权限仍按用户 ID 过滤
+     */
+    String unit() default "";
+}
@@ -0,0 +1,140 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.cache;
+
+import com.izpan.starter.database.mybatis.plus.domain.DataScope;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 跨请求的数据权限缓存
+ * <p>
+ * 按 (用户 ID, 权限标识, MappedStatement ID) 缓存数据权限处理器的结果，条目在 TTL 到期后失效；
+ * 处理器结果不依赖 MappedStatement 时 MappedStatement ID 为 null，同一用户的不同语句共享条目。
+ * 角色、组织等变更时应调用 invalidate 系列方法主动失效；失效操作会推进版本号，
+ * 丢弃失效前已开始、失效后才完成的加载结果，避免旧数据重新写回缓存。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.cache.DataScopeHandlerCache
+ * @CreateTime 2026/10/17 - 15:24
+ */
+public class DataScopeHandlerCache {
+
+    // 缓存条目，未启用时为 null
+    private final LruCache<Key, Entry> cache;
+
+    // 存活时间（纳秒）
+    private final long ttlNanos;
+
+    // 失效版本号
+    private final AtomicLong generation = new AtomicLong();
+
+    public DataScopeHandlerCache(boolean enabled, int maxSize, Duration ttl) {
+        this.cache = enabled ? new LruCache<>(maxSize) : null;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * 获取数据权限，不存在或已过期时通过加载函数获取并写入
+     *
+     * @param userId         用户 ID
+     * @param permissionCode 权限标识
+     * @param msId           MappedStatement ID，不区分语句时为 null
+     * @param loader         加载函数
+     * @return {@link DataScope} 数据权限，可能为 null
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 15:27:44
+     */
+    public DataScope get(Long userId, String permissionCode, String msId, Supplier<DataScope> loader) {
+        if (cache == null || userId == null) {
+            return loader.get();
+        }
+        Key key = new Key(userId, permissionCode, msId);
+        Entry entry = cache.get(key);
+        long now = System.nanoTime();
+        if (entry != null && now - entry.createdAt() < ttlNanos) {
+            return entry.value();
+        }
+        long version = generation.get();
+        DataScope value = loader.get();
+        // 加载期间发生失效则不写回
+        if (version == generation.get()) {
+            cache.put(key, new Entry(value, now));
+        }
+        return value;
+    }
+
+    /**
+     * 失效指定用户的全部数据权限缓存
+     *
+     * @param userId 用户 ID
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 15:29:10
+     */
+    public void invalidate(Long userId) {
+        if (cache != null) {
+            generation.incrementAndGet();
+            cache.invalidateIf(key -> Objects.equals(key.userId(), userId));
+        }
+    }
+
+    /**
+     * 失效指定用户指定权限标识的数据权限缓存
+     *
+     * @param userId         用户 ID
+     * @param permissionCode 权限标识
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 15:29:38
+     */
+    public void invalidate(Long userId, String permissionCode) {
+        if (cache != null) {
+            generation.incrementAndGet();
+            cache.invalidateIf(key -> Objects.equals(key.userId(), userId) && Objects.equals(key.permissionCode(), permissionCode));
+        }
+    }
+
+    /**
+     * 失效全部数据权限缓存，角色或组织树整体变更时使用
+     *
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 15:30:05
+     */
+    public void invalidateAll() {
+        if (cache != null) {
+            generation.incrementAndGet();
+            cache.clear();
+        }
+    }
+
+    private record Key(Long userId, String permissionCode, String msId) {
+    }
+
+    private record Entry(DataScope value, long createdAt) {
+    }
+}
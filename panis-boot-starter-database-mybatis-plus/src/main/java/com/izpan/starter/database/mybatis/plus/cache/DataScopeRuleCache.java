@@ -0,0 +1,111 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.operators.relational.ParenthesedExpressionList;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+
+/**
+ * 自定义数据权限规则表达式缓存
+ * <p>
+ * 以规则原文为键缓存解析后的条件表达式，解析失败的规则同样缓存，避免每次查询重复解析与重复记录错误。
+ * 缓存的表达式树在多个线程间共享，只允许读取与打印：{@link #get(String)} 每次返回新的括号节点包装，
+ * 调用方可以自由挂载到自己的 AST 上，但不得修改其内部节点。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.cache.DataScopeRuleCache
+ * @CreateTime 2026/10/17 - 16:10
+ */
+@Slf4j
+public class DataScopeRuleCache {
+
+    // 解析结果缓存，未启用时为 null
+    private final LruCache<String, CompiledRule> cache;
+
+    public DataScopeRuleCache(boolean enabled, int maxSize) {
+        this.cache = enabled ? new LruCache<>(maxSize) : null;
+    }
+
+    /**
+     * 获取自定义规则表达式
+     *
+     * @param rules 自定义规则原文
+     * @return {@link Expression} 以括号包装的规则表达式
+     * @throws JSQLParserException 规则解析失败
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 16:13:27
+     */
+    public Expression get(String rules) throws JSQLParserException {
+        CompiledRule compiled = cache == null ? compile(rules) : cache.computeIfAbsent(rules, DataScopeRuleCache::compile);
+        if (compiled.error() != null) {
+            throw compiled.error();
+        }
+        return new ParenthesedExpressionList<>(compiled.expression());
+    }
+
+    public long hitCount() {
+        return cache == null ? 0 : cache.hitCount();
+    }
+
+    public long missCount() {
+        return cache == null ? 0 : cache.missCount();
+    }
+
+    public int size() {
+        return cache == null ? 0 : cache.size();
+    }
+
+    /**
+     * 清空缓存，规则定义批量变更时使用
+     *
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 16:14:02
+     */
+    public void clear() {
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * 解析自定义规则
+     *
+     * @param rules 自定义规则原文
+     * @return {@link CompiledRule} 解析结果
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 16:15:40
+     */
+    private static CompiledRule compile(String rules) {
+        try {
+            return new CompiledRule(CCJSqlParserUtil.parseCondExpression(rules), null);
+        } catch (JSQLParserException e) {
+            return new CompiledRule(null, e);
+        }
+    }
+
+    // 规则解析结果，表达式与异常二选一
+    private record CompiledRule(Expression expression, JSQLParserException error) {
+    }
+}
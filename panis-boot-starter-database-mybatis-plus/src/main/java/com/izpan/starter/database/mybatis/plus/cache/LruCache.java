@@ -0,0 +1,224 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 有界近似 LRU 缓存
+ * <p>
+ * 基于 ConcurrentHashMap 实现，读取不加锁：命中时只在条目尚未标记时写入访问标记，热点条目不会反复写同一缓存行。
+ * 超出容量时按 CLOCK（二次机会）算法淘汰：淘汰指针遍历条目，清除已访问条目的标记并跳过，淘汰第一个未被访问的条目（刚写入的条目除外），
+ * 效果近似淘汰最久未访问的条目。淘汰只在写入后超出容量时进行，由写入线程在淘汰锁内完成，不影响读取。
+ * </p>
+ * <p>
+ * 加载函数不持有任何锁，并发未命中时可能重复加载，但不会阻塞其他读取。并发写入时容量可能短暂超出，随后的淘汰会回落到上限。
+ * </p>
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.cache.LruCache
+ * @CreateTime 2026/10/17 - 10:12
+ */
+public class LruCache<K, V> {
+
+    // 最大容量
+    private final int maxSize;
+
+    // 缓存条目
+    private final Map<K, Node<V>> map;
+
+    // 淘汰锁，保护淘汰指针
+    private final Object evictionLock = new Object();
+
+    // 淘汰指针，遍历结束后重新开始
+    private Iterator<Map.Entry<K, Node<V>>> hand;
+
+    // 命中次数
+    private final LongAdder hits = new LongAdder();
+
+    // 未命中次数
+    private final LongAdder misses = new LongAdder();
+
+    public LruCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("LruCache maxSize 必须大于 0: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.map = new ConcurrentHashMap<>(Math.min(maxSize, 256));
+    }
+
+    /**
+     * 获取缓存值，并记录命中情况
+     *
+     * @param key 键
+     * @return {@link V} 缓存值，不存在时返回 null
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 10:14:05
+     */
+    public V get(K key) {
+        Node<V> node = map.get(key);
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+        if (!node.referenced) {
+            node.referenced = true;
+        }
+        hits.increment();
+        return node.value;
+    }
+
+    /**
+     * 写入缓存值，null 值不缓存，超出容量时淘汰
+     *
+     * @param key   键
+     * @param value 值
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 10:14:30
+     */
+    public void put(K key, V value) {
+        if (value == null) {
+            return;
+        }
+        Node<V> node = new Node<>(value);
+        map.put(key, node);
+        if (map.size() > maxSize) {
+            evict(node);
+        }
+    }
+
+    /**
+     * 获取缓存值，不存在时通过加载函数计算并写入
+     *
+     * @param key    键
+     * @param loader 加载函数，返回 null 时不缓存
+     * @return {@link V} 缓存值或新加载的值
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 10:15:12
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value == null) {
+            value = loader.apply(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * 按 CLOCK 算法淘汰条目直至不超出容量；刚写入的条目不参与淘汰，连续清除的标记达到容量时直接淘汰当前条目，避免持续命中时无法推进
+     *
+     * @param inserted 刚写入的条目
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 15:48:20
+     */
+    private void evict(Node<V> inserted) {
+        synchronized (evictionLock) {
+            int cleared = 0;
+            while (map.size() > maxSize) {
+                if (hand == null || !hand.hasNext()) {
+                    hand = map.entrySet().iterator();
+                    if (!hand.hasNext()) {
+                        return;
+                    }
+                }
+                Map.Entry<K, Node<V>> entry = hand.next();
+                Node<V> node = entry.getValue();
+                if (node == inserted) {
+                    continue;
+                }
+                if (node.referenced && cleared < maxSize) {
+                    node.referenced = false;
+                    cleared++;
+                    continue;
+                }
+                map.remove(entry.getKey(), node);
+            }
+        }
+    }
+
+    /**
+     * 移除指定缓存
+     *
+     * @param key 键
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 10:15:40
+     */
+    public void invalidate(K key) {
+        map.remove(key);
+    }
+
+    /**
+     * 移除满足条件的缓存
+     *
+     * @param predicate 键匹配条件
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 15:02:33
+     */
+    public void invalidateIf(Predicate<? super K> predicate) {
+        map.keySet().removeIf(predicate);
+    }
+
+    /**
+     * 清空缓存
+     *
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 10:15:52
+     */
+    public void clear() {
+        map.clear();
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    public int maxSize() {
+        return maxSize;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    // 缓存条目，referenced 为 CLOCK 访问标记，丢失并发写入只影响淘汰精度
+    private static final class Node<V> {
+
+        private final V value;
+
+        private volatile boolean referenced;
+
+        private Node(V value) {
+            this.value = value;
+        }
+    }
+}
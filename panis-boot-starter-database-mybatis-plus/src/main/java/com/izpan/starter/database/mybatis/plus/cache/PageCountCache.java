@@ -0,0 +1,120 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.cache;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 分页总数缓存
+ * <p>
+ * 按 COUNT SQL 与参数值缓存总数，条目在 TTL 到期后失效。COUNT SQL 由数据权限模板派生，已包含本次查询的权限条件
+ * （字面量或参数），不同权限的用户不会共享总数；TTL 内新增或删除的数据不反映在总数中，TTL 应按可接受的误差设置。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.cache.PageCountCache
+ * @CreateTime 2026/10/17 - 10:16
+ */
+public class PageCountCache {
+
+    // 缓存条目，未启用时为 null
+    private final LruCache<Key, Entry> cache;
+
+    // 存活时间（纳秒）
+    private final long ttlNanos;
+
+    public PageCountCache(boolean enabled, int maxSize, Duration ttl) {
+        this.cache = enabled ? new LruCache<>(maxSize) : null;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * 获取未过期的总数
+     *
+     * @param key 缓存键
+     * @return {@link Entry} 总数，不存在或已过期时返回 null
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 10:18:24
+     */
+    public Entry get(Key key) {
+        if (cache == null) {
+            return null;
+        }
+        Entry entry = cache.get(key);
+        return entry != null && System.nanoTime() - entry.createdAt() < ttlNanos ? entry : null;
+    }
+
+    /**
+     * 写入总数
+     *
+     * @param key       缓存键
+     * @param total     总数
+     * @param estimated 是否为估算值
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 10:18:52
+     */
+    public void put(Key key, long total, boolean estimated) {
+        if (cache != null) {
+            cache.put(key, new Entry(total, estimated, System.nanoTime()));
+        }
+    }
+
+    /**
+     * 失效全部总数缓存，批量导入或删除后使用
+     *
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 10:19:20
+     */
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    public LruCache<Key, Entry> getCache() {
+        return cache;
+    }
+
+    /**
+     * 总数缓存键
+     *
+     * @param sql        COUNT SQL
+     * @param parameters 参数值，按参数映射顺序
+     * @param estimated  是否允许估算，估算结果不提供给精确统计
+     */
+    public record Key(String sql, List<Object> parameters, boolean estimated) {
+    }
+
+    /**
+     * 总数缓存条目
+     *
+     * @param total     总数
+     * @param estimated 是否为估算值
+     * @param createdAt 写入时间（纳秒）
+     */
+    public record Entry(long total, boolean estimated, long createdAt) {
+    }
+}
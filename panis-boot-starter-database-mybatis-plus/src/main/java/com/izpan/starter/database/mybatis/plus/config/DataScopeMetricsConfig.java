@@ -0,0 +1,53 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.config;
+
+import com.izpan.starter.database.mybatis.plus.metrics.DataScopeMetrics;
+import com.izpan.starter.database.mybatis.plus.metrics.MicrometerDataScopeMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 数据权限指标配置
+ * <p>
+ * 仅在类路径存在 Micrometer 时生效，未配置时拦截器使用空操作指标。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.config.DataScopeMetricsConfig
+ * @CreateTime 2026/10/17 - 19:55
+ */
+@Configuration
+@ConditionalOnClass(MeterRegistry.class)
+public class DataScopeMetricsConfig {
+
+    @Bean
+    public DataScopeMetrics dataScopeMetrics(ObjectProvider<MeterRegistry> meterRegistry, DataScopeProperties dataScopeProperties) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry == null || !dataScopeProperties.getMetrics().isEnabled()) {
+            return DataScopeMetrics.NOOP;
+        }
+        return new MicrometerDataScopeMetrics(registry);
+    }
+}
@@ -0,0 +1,441 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.config;
+
+import com.izpan.starter.database.mybatis.plus.enums.DataScopeBindModeEnum;
+import com.izpan.starter.database.mybatis.plus.enums.DataScopeMemoScopeEnum;
+import com.izpan.starter.database.mybatis.plus.enums.DataScopeTypeEnum;
+import com.izpan.starter.database.mybatis.plus.enums.PageCountModeEnum;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 数据权限配置属性
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.config.DataScopeProperties
+ * @CreateTime 2026/10/17 - 10:45
+ */
+@Data
+@ConfigurationProperties(prefix = "panis.data-scope")
+public class DataScopeProperties {
+
+    /**
+     * 权限值绑定方式，默认字面量内联
+     */
+    private DataScopeBindModeEnum bindMode = DataScopeBindModeEnum.LITERAL;
+
+    /**
+     * 参数绑定模式下单条谓词允许的最大参数数量，超出时降级为字面量
+     */
+    private int maxBindParameters = 1024;
+
+    /**
+     * 是否在启动时构建静态决策表，跳过无需处理的语句
+     */
+    private boolean decisionTable = true;
+
+    /**
+     * 默认用户列名
+     */
+    private String ownerColumn = "create_user_id";
+
+    /**
+     * 是否在启动时检查权限列是否存在索引（以该列为首列），缺失时输出告警
+     */
+    private boolean indexCheck = true;
+
+    /**
+     * 按表配置权限列，键为表名（不区分大小写），优先于实体上的 @DataScopeColumn 注解
+     */
+    private Map<String, TableColumns> tables = new LinkedHashMap<>();
+
+    @Data
+    public static class TableColumns {
+
+        /**
+         * 用户列名，为空时使用默认用户列
+         */
+        private String ownerColumn;
+
+        /**
+         * 组织单位列名，配置后 UNIT / UNIT_AND_CHILD 权限按单位过滤
+         */
+        private String unitColumn;
+    }
+
+    /**
+     * 可见性物化表
+     */
+    private Visibility visibility = new Visibility();
+
+    @Data
+    public static class Visibility {
+
+        /**
+         * 是否启用，需容器中有 DataSource
+         */
+        private boolean enabled = false;
+
+        /**
+         * 物化表名
+         */
+        private String table = "data_scope_visibility";
+
+        /**
+         * 查看人列名
+         */
+        private String viewerColumn = "viewer_id";
+
+        /**
+         * 权限用户集合摘要列名，同一查看人不同集合的行以此区分
+         */
+        private String scopeKeyColumn = "scope_key";
+
+        /**
+         * 可见用户列名
+         */
+        private String ownerColumn = "owner_id";
+
+        /**
+         * 权限用户数量达到该值时使用物化表
+         */
+        private long threshold = 10000;
+
+        /**
+         * 批量写入大小
+         */
+        private int batchSize = 1000;
+
+        /**
+         * 是否在后台线程物化，物化完成前权限谓词使用 IN 列表；关闭后在查询线程同步写入，首次查询需等待 1 万至数十万行写入完成
+         */
+        private boolean async = true;
+
+        /**
+         * 本地物化记录的有效期，到期后核对物化表中的行数，避免其他节点删除或替换后继续使用本地记录
+         */
+        private Duration verifyInterval = Duration.ofSeconds(30);
+
+        /**
+         * 是否在启动时创建物化表（不存在时），主键为 (查看人, 集合摘要, 可见用户)
+         */
+        private boolean initializeTable = false;
+    }
+
+    /**
+     * 组织树索引
+     */
+    private OrgTree orgTree = new OrgTree();
+
+    @Data
+    public static class OrgTree {
+
+        /**
+         * 是否在后台线程重建区间索引，重建完成前查询使用旧索引；关闭后在变更线程同步重建，每次变更都需完整遍历组织树
+         */
+        private boolean async = true;
+    }
+
+    /**
+     * 指标
+     */
+    private Metrics metrics = new Metrics();
+
+    @Data
+    public static class Metrics {
+
+        /**
+         * 是否启用，需类路径存在 Micrometer 且容器中有 MeterRegistry
+         */
+        private boolean enabled = true;
+    }
+
+    /**
+     * 审计日志
+     */
+    private Audit audit = new Audit();
+
+    @Data
+    public static class Audit {
+
+        /**
+         * 是否启用
+         */
+        private boolean enabled = true;
+
+        /**
+         * 采样率，取值 0 ~ 1
+         */
+        private double sampleRate = 1.0;
+
+        /**
+         * 每秒最多输出条数，小于等于 0 表示不限流
+         */
+        private int maxPerSecond = 10;
+    }
+
+    /**
+     * SQL 改写缓存
+     */
+    private RewriteCache rewriteCache = new RewriteCache();
+
+    @Data
+    public static class RewriteCache {
+
+        /**
+         * 是否启用
+         */
+        private boolean enabled = true;
+
+        /**
+         * 最大缓存条目数
+         */
+        private int maxSize = 2048;
+    }
+
+    /**
+     * 简单单表查询快速改写
+     */
+    private FastPath fastPath = new FastPath();
+
+    @Data
+    public static class FastPath {
+
+        /**
+         * 是否启用
+         */
+        private boolean enabled = true;
+
+        /**
+         * 是否与 JSqlParser 改写结果做差异校验，建议仅在测试环境开启
+         */
+        private boolean verify = false;
+    }
+
+    /**
+     * SQL 解析预算与熔断
+     */
+    private Parser parser = new Parser();
+
+    @Data
+    public static class Parser {
+
+        /**
+         * SQL 最大长度，超出时不解析
+         */
+        private int maxLength = 65536;
+
+        /**
+         * 词法单元（标识符、数字、字面量、符号）最大数量，超出时不解析
+         */
+        private int maxTokens = 32768;
+
+        /**
+         * 括号表达式（含子查询、函数调用与 IN 列表）最大数量，超出时不解析
+         */
+        private int maxParentheses = 2048;
+
+        /**
+         * 括号最大嵌套深度
+         */
+        private int maxNestingDepth = 32;
+
+        /**
+         * AND / OR 条件最大数量
+         */
+        private int maxBooleanTerms = 2000;
+
+        /**
+         * 单次解析耗时上限，解析无法中断，仅在解析结束后检查，超出时计为一次失败并参与熔断；硬性限制由上述预扫描上限保证
+         */
+        private Duration timeout = Duration.ofMillis(500);
+
+        /**
+         * 解析或处理失败时是否使用恒假条件（不返回数据），关闭后失败的 SQL 不做数据权限处理
+         * <p>
+         * 恒假条件将原 SQL 包裹为派生表，原 SQL 结果列存在重名（如 {@code SELECT a.id, b.id ... JOIN}）时数据库会拒绝执行，
+         * 查询以 SQL 异常结束而非返回空结果，同样不会返回数据；需要空结果时请为重名列指定别名
+         * </p>
+         */
+        private boolean failClosed = true;
+
+        /**
+         * 同一语句连续失败多少次后熔断
+         */
+        private int failureThreshold = 3;
+
+        /**
+         * 熔断时长，期间不再解析该语句
+         */
+        private Duration openDuration = Duration.ofMinutes(10);
+    }
+
+    /**
+     * 分页 COUNT / ORDER BY 及游标分页派生 SQL 缓存
+     */
+    private DerivedSqlCache derivedSqlCache = new DerivedSqlCache();
+
+    @Data
+    public static class DerivedSqlCache {
+
+        /**
+         * 是否启用
+         */
+        private boolean enabled = true;
+
+        /**
+         * 最大缓存条目数
+         */
+        private int maxSize = 2048;
+    }
+
+    /**
+     * 自定义规则表达式缓存
+     */
+    private RuleCache ruleCache = new RuleCache();
+
+    @Data
+    public static class RuleCache {
+
+        /**
+         * 是否启用
+         */
+        private boolean enabled = true;
+
+        /**
+         * 最大缓存条目数
+         */
+        private int maxSize = 512;
+    }
+
+    /**
+     * 数据权限处理器结果缓存
+     */
+    private Memo memo = new Memo();
+
+    @Data
+    public static class Memo {
+
+        /**
+         * 缓存作用域，默认按请求缓存，非 Web 环境降级为线程作用域
+         */
+        private DataScopeMemoScopeEnum scope = DataScopeMemoScopeEnum.REQUEST;
+
+        /**
+         * 缓存键是否包含 MappedStatement ID，默认开启；处理器结果不依赖 MappedStatement 时可关闭，
+         * 同一请求的多条语句只解析一次数据权限
+         */
+        private boolean statementScoped = true;
+
+        /**
+         * 跨请求 TTL 缓存
+         */
+        private SharedCache sharedCache = new SharedCache();
+    }
+
+    @Data
+    public static class SharedCache {
+
+        /**
+         * 是否启用，默认关闭，启用后需在角色、组织变更时主动失效
+         */
+        private boolean enabled = false;
+
+        /**
+         * 存活时间
+         */
+        private Duration ttl = Duration.ofMinutes(1);
+
+        /**
+         * 最大缓存条目数
+         */
+        private int maxSize = 10000;
+    }
+
+    /**
+     * 分页总数统计
+     */
+    private PageCount pageCount = new PageCount();
+
+    @Data
+    public static class PageCount {
+
+        /**
+         * 默认统计方式，分页对象实现 PageCountOption 时以分页对象为准
+         */
+        private PageCountModeEnum mode = PageCountModeEnum.EXACT;
+
+        /**
+         * 是否启用总数缓存，关闭时 CACHED / ESTIMATED 每次重新统计
+         */
+        private boolean cacheEnabled = true;
+
+        /**
+         * 总数缓存存活时间
+         */
+        private Duration cacheTtl = Duration.ofSeconds(30);
+
+        /**
+         * 总数缓存最大条目数
+         */
+        private int cacheMaxSize = 1024;
+
+        /**
+         * 估算模式下使用估算值的最小行数，低于该值时执行 COUNT 查询
+         */
+        private long estimateThreshold = 100000;
+    }
+
+    /**
+     * 启动预热，遍历所有 MappedStatement 预先解析 SQL 并填充改写缓存
+     */
+    private Warmup warmup = new Warmup();
+
+    @Data
+    public static class Warmup {
+
+        /**
+         * 是否启用，默认关闭，启用后在 Web 服务器接收流量前完成
+         */
+        private boolean enabled = false;
+
+        /**
+         * 预热线程数
+         */
+        private int parallelism = 4;
+
+        /**
+         * 预热最长等待时间，超时后剩余语句在首次查询时再解析
+         */
+        private Duration timeout = Duration.ofSeconds(60);
+
+        /**
+         * 预热的权限类型，每种类型对应一种改写形态
+         */
+        private List<DataScopeTypeEnum> scopeTypes = List.of(DataScopeTypeEnum.SELF, DataScopeTypeEnum.UNIT_AND_CHILD);
+    }
+}
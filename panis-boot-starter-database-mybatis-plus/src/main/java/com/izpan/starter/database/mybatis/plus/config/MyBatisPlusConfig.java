@@ -1,15 +1,48 @@
 package com.izpan.starter.database.mybatis.plus.config;
 
 import com.baomidou.mybatisplus.annotation.DbType;
+import com.baomidou.mybatisplus.core.injector.ISqlInjector;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.BlockAttackInnerInterceptor;
-import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.izpan.starter.database.mybatis.plus.algebra.DataScopeAlgebra;
+import com.izpan.starter.database.mybatis.plus.cache.DataScopeHandlerCache;
+import com.izpan.starter.database.mybatis.plus.cache.LruCache;
+import com.izpan.starter.database.mybatis.plus.cache.PageCountCache;
+import com.izpan.starter.database.mybatis.plus.decision.DataScopeDecisionTable;
+import com.izpan.starter.database.mybatis.plus.decision.DataScopeIndexChecker;
+import com.izpan.starter.database.mybatis.plus.enums.DataScopeMemoScopeEnum;
+import com.izpan.starter.database.mybatis.plus.handler.CachingDataScopeHandler;
 import com.izpan.starter.database.mybatis.plus.handler.IDataScopeHandler;
+import com.izpan.starter.database.mybatis.plus.injector.MultiRowBatch;
+import com.izpan.starter.database.mybatis.plus.injector.PanisSqlInjector;
 import com.izpan.starter.database.mybatis.plus.interceptor.DataScopeInterceptor;
+import com.izpan.starter.database.mybatis.plus.interceptor.DataScopePaginationInterceptor;
+import com.izpan.starter.database.mybatis.plus.interceptor.DataScopeWarmup;
+import com.izpan.starter.database.mybatis.plus.interceptor.KeysetPaginationInterceptor;
+import com.izpan.starter.database.mybatis.plus.memo.DataScopeMemoStore;
+import com.izpan.starter.database.mybatis.plus.memo.RequestAttributeDataScopeMemoStore;
+import com.izpan.starter.database.mybatis.plus.memo.ThreadLocalDataScopeMemoStore;
+import com.izpan.starter.database.mybatis.plus.metrics.DataScopeMetrics;
+import com.izpan.starter.database.mybatis.plus.org.DataScopeOrgTree;
+import com.izpan.starter.database.mybatis.plus.resolver.DataScopeVariableProvider;
+import com.izpan.starter.database.mybatis.plus.resolver.DataScopeVariableRegistry;
+import com.izpan.starter.database.mybatis.plus.visibility.DataScopeVisibilityStore;
 import lombok.AllArgsConstructor;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 /**
  * MyBatis Plus 全局配置
@@ -21,18 +54,233 @@ import org.springframework.context.annotation.Configuration;
  */
 @Configuration
 @AllArgsConstructor
+@EnableConfigurationProperties({DataScopeProperties.class, MyBatisPlusProperties.class})
 public class MyBatisPlusConfig {
 
+    // Web 请求上下文类，存在时才能使用请求作用域缓存
+    private static final String REQUEST_CONTEXT_HOLDER_CLASS = "org.springframework.web.context.request.RequestContextHolder";
+
+    @Bean
+    public DataScopeHandlerCache dataScopeHandlerCache(DataScopeProperties dataScopeProperties) {
+        DataScopeProperties.SharedCache sharedCache = dataScopeProperties.getMemo().getSharedCache();
+        return new DataScopeHandlerCache(sharedCache.isEnabled(), sharedCache.getMaxSize(), sharedCache.getTtl());
+    }
+
+    /**
+     * 分页总数缓存，批量写入后可调用 invalidateAll 失效
+     *
+     * @param dataScopeProperties 数据权限配置
+     * @return {@link PageCountCache} 分页总数缓存
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 10:40:12
+     */
+    @Bean
+    public PageCountCache pageCountCache(DataScopeProperties dataScopeProperties) {
+        DataScopeProperties.PageCount pageCount = dataScopeProperties.getPageCount();
+        return new PageCountCache(pageCount.isCacheEnabled(), pageCount.getCacheMaxSize(), pageCount.getCacheTtl());
+    }
+
+    /**
+     * 组织树索引，由应用在启动时加载并在组织变更时增量更新
+     *
+     * @param dataScopeProperties 数据权限配置
+     * @return {@link DataScopeOrgTree} 组织树索引
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:06:40
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public DataScopeOrgTree dataScopeOrgTree(DataScopeProperties dataScopeProperties) {
+        if (!dataScopeProperties.getOrgTree().isAsync()) {
+            return new DataScopeOrgTree();
+        }
+        // 区间索引在单个守护线程重建，连续变更合并为一次
+        return new DataScopeOrgTree(Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "data-scope-org-tree");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    /**
+     * 数据权限可见性物化表，权限用户数量较大时以子查询代替 IN 列表
+     *
+     * @param dataSource          数据源
+     * @param dataScopeProperties 数据权限配置
+     * @return {@link DataScopeVisibilityStore} 可见性物化表
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:40:12
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "panis.data-scope.visibility", name = "enabled", havingValue = "true")
+    public DataScopeVisibilityStore dataScopeVisibilityStore(DataSource dataSource, DataScopeProperties dataScopeProperties) {
+        DataScopeProperties.Visibility visibility = dataScopeProperties.getVisibility();
+        // 后台物化使用单个守护线程，物化完成前权限谓词使用 IN 列表
+        Executor executor = !visibility.isAsync() ? null : Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "data-scope-visibility");
+            thread.setDaemon(true);
+            return thread;
+        });
+        DataScopeVisibilityStore store = new DataScopeVisibilityStore(dataSource, visibility.getTable(), visibility.getViewerColumn(),
+                visibility.getScopeKeyColumn(), visibility.getOwnerColumn(), visibility.getThreshold(), visibility.getBatchSize(),
+                visibility.getVerifyInterval(), executor);
+        if (visibility.isInitializeTable()) {
+            store.initializeTable();
+        }
+        return store;
+    }
+
     @Bean
     @ConditionalOnBean(IDataScopeHandler.class)
-    public MybatisPlusInterceptor mybatisPlusInterceptor(IDataScopeHandler dataScopeHandler) {
+    public MybatisPlusInterceptor mybatisPlusInterceptor(IDataScopeHandler dataScopeHandler, DataScopeProperties dataScopeProperties,
+                                                         DataScopeHandlerCache dataScopeHandlerCache, DataScopeOrgTree dataScopeOrgTree,
+                                                         PageCountCache pageCountCache,
+                                                         ObjectProvider<DataScopeMetrics> dataScopeMetrics,
+                                                         ObjectProvider<DataScopeVisibilityStore> dataScopeVisibilityStore,
+                                                         ObjectProvider<DataScopeVariableProvider> dataScopeVariableProviders) {
         MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
-        // 数据权限
-        interceptor.addInnerInterceptor(new DataScopeInterceptor(dataScopeHandler));
-        // 分页插件
-        interceptor.addInnerInterceptor(new PaginationInnerInterceptor(DbType.MYSQL));
+        DataScopeMetrics metrics = dataScopeMetrics.getIfAvailable(() -> DataScopeMetrics.NOOP);
+        DataScopeMemoStore memoStore = memoStore(dataScopeProperties.getMemo().getScope());
+        // 规则变量按需解析，与数据权限共用缓存作用域
+        List<DataScopeVariableProvider> variableProviders = dataScopeVariableProviders.orderedStream().toList();
+        DataScopeVariableRegistry variableRegistry = variableProviders.isEmpty() ? null : new DataScopeVariableRegistry(variableProviders, memoStore);
+        // 数据权限，多角色权限合并后按作用域缓存
+        IDataScopeHandler cachingHandler = new CachingDataScopeHandler(dataScopeHandler, memoStore, dataScopeHandlerCache,
+                new DataScopeAlgebra(dataScopeOrgTree, variableRegistry), dataScopeProperties.getMemo().isStatementScoped());
+        DataScopeInterceptor dataScopeInterceptor = new DataScopeInterceptor(cachingHandler, dataScopeProperties, metrics, dataScopeOrgTree);
+        dataScopeInterceptor.setVariableRegistry(variableRegistry);
+        dataScopeVisibilityStore.ifAvailable(dataScopeInterceptor::setVisibilityStore);
+        // 游标分页，先于数据权限追加游标条件，权限模板只含参数占位
+        DataScopeProperties.DerivedSqlCache derivedSqlCache = dataScopeProperties.getDerivedSqlCache();
+        KeysetPaginationInterceptor keysetInterceptor = new KeysetPaginationInterceptor(derivedSqlCache.isEnabled(), derivedSqlCache.getMaxSize());
+        if (keysetInterceptor.getCache() != null) {
+            LruCache<?, ?> cache = keysetInterceptor.getCache();
+            metrics.bindCache("keyset-sql", cache::hitCount, cache::missCount, cache::size);
+        }
+        interceptor.addInnerInterceptor(keysetInterceptor);
+        interceptor.addInnerInterceptor(dataScopeInterceptor);
+        // 分页插件，从数据权限模板派生 COUNT 语句
+        DataScopeProperties.PageCount pageCount = dataScopeProperties.getPageCount();
+        DataScopePaginationInterceptor paginationInterceptor = new DataScopePaginationInterceptor(DbType.MYSQL, derivedSqlCache.isEnabled(),
+                derivedSqlCache.getMaxSize(), pageCountCache, pageCount.getMode(), pageCount.getEstimateThreshold());
+        if (paginationInterceptor.getDerivedCache() != null) {
+            LruCache<?, ?> cache = paginationInterceptor.getDerivedCache();
+            metrics.bindCache("derived-sql", cache::hitCount, cache::missCount, cache::size);
+        }
+        if (pageCountCache.isEnabled()) {
+            LruCache<?, ?> cache = pageCountCache.getCache();
+            metrics.bindCache("page-count", cache::hitCount, cache::missCount, cache::size);
+        }
+        interceptor.addInnerInterceptor(paginationInterceptor);
         // 防止全表更新与删除
         interceptor.addInnerInterceptor(new BlockAttackInnerInterceptor());
         return interceptor;
     }
+
+    /**
+     * SQL 注入器，为继承 PanisBaseMapper 的 Mapper 注入多行批量写入与流式查询方法
+     *
+     * @param myBatisPlusProperties MyBatis-Plus 扩展配置属性
+     * @return {@link ISqlInjector} SQL 注入器
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 11:18:40
+     */
+    @Bean
+    @ConditionalOnMissingBean(ISqlInjector.class)
+    public ISqlInjector panisSqlInjector(MyBatisPlusProperties myBatisPlusProperties) {
+        return new PanisSqlInjector(myBatisPlusProperties.getStream().getFetchSize());
+    }
+
+    /**
+     * 启动后读取数据库 max_allowed_packet，供多行批量写入分批
+     *
+     * @param dataSource 数据源，存在多个时不读取，使用默认值
+     * @return {@link SmartInitializingSingleton} 初始化回调
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 11:19:16
+     */
+    @Bean
+    public SmartInitializingSingleton multiRowBatchInitializer(ObjectProvider<DataSource> dataSource) {
+        return () -> dataSource.ifUnique(MultiRowBatch::detectMaxPacketBytes);
+    }
+
+    /**
+     * 所有单例初始化完成后构建数据权限静态决策表并检查权限列索引，此时 Mapper 与表信息均已加载
+     *
+     * @param sqlSessionFactories     SqlSessionFactory
+     * @param mybatisPlusInterceptors MyBatis Plus 拦截器
+     * @param dataScopeProperties     数据权限配置
+     * @return {@link SmartInitializingSingleton} 初始化回调
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 17:14:36
+     */
+    @Bean
+    public SmartInitializingSingleton dataScopeDecisionTableInitializer(ObjectProvider<SqlSessionFactory> sqlSessionFactories,
+                                                                        ObjectProvider<MybatisPlusInterceptor> mybatisPlusInterceptors,
+                                                                        DataScopeProperties dataScopeProperties) {
+        return () -> {
+            List<DataScopeInterceptor> dataScopeInterceptors = dataScopeInterceptors(mybatisPlusInterceptors);
+            if (dataScopeInterceptors.isEmpty()) {
+                return;
+            }
+            List<org.apache.ibatis.session.Configuration> configurations = sqlSessionFactories.orderedStream()
+                    .map(SqlSessionFactory::getConfiguration).toList();
+            if (dataScopeProperties.isDecisionTable()) {
+                dataScopeInterceptors.forEach(interceptor -> interceptor.setDecisionTable(
+                        DataScopeDecisionTable.build(configurations, interceptor.getColumnMapping())));
+            }
+            // 权限列索引检查，各拦截器使用同一配置，检查一次即可
+            if (dataScopeProperties.isIndexCheck()) {
+                DataScopeIndexChecker.check(configurations, dataScopeInterceptors.getFirst().getColumnMapping());
+            }
+        };
+    }
+
+    /**
+     * 数据权限改写启动预热，在决策表构建之后、Web 服务器接收流量之前执行
+     *
+     * @param sqlSessionFactories     SqlSessionFactory
+     * @param mybatisPlusInterceptors MyBatis Plus 拦截器
+     * @param dataScopeProperties     数据权限配置
+     * @return {@link DataScopeWarmup} 改写预热
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:59:12
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "panis.data-scope.warmup", name = "enabled", havingValue = "true")
+    public DataScopeWarmup dataScopeWarmup(ObjectProvider<SqlSessionFactory> sqlSessionFactories,
+                                           ObjectProvider<MybatisPlusInterceptor> mybatisPlusInterceptors,
+                                           DataScopeProperties dataScopeProperties) {
+        DataScopeProperties.Warmup warmup = dataScopeProperties.getWarmup();
+        return new DataScopeWarmup(() -> sqlSessionFactories.orderedStream().map(SqlSessionFactory::getConfiguration).toList(),
+                () -> dataScopeInterceptors(mybatisPlusInterceptors), warmup.getScopeTypes(), warmup.getParallelism(), warmup.getTimeout());
+    }
+
+    // 所有 MyBatis Plus 拦截器中的数据权限拦截器
+    private static List<DataScopeInterceptor> dataScopeInterceptors(ObjectProvider<MybatisPlusInterceptor> mybatisPlusInterceptors) {
+        return mybatisPlusInterceptors.orderedStream()
+                .flatMap(interceptor -> interceptor.getInterceptors().stream())
+                .filter(DataScopeInterceptor.class::isInstance)
+                .map(DataScopeInterceptor.class::cast)
+                .toList();
+    }
+
+    /**
+     * 根据配置的作用域创建缓存存储
+     *
+     * @param scope 缓存作用域
+     * @return {@link DataScopeMemoStore} 缓存存储
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 15:46:18
+     */
+    private static DataScopeMemoStore memoStore(DataScopeMemoScopeEnum scope) {
+        return switch (scope) {
+            case NONE -> DataScopeMemoStore.NONE;
+            case THREAD -> new ThreadLocalDataScopeMemoStore();
+            case REQUEST -> ClassUtils.isPresent(REQUEST_CONTEXT_HOLDER_CLASS, MyBatisPlusConfig.class.getClassLoader())
+                    ? new RequestAttributeDataScopeMemoStore()
+                    : new ThreadLocalDataScopeMemoStore();
+        };
+    }
 }
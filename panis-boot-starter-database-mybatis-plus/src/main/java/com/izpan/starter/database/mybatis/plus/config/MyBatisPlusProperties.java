@@ -0,0 +1,51 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * MyBatis-Plus 扩展配置属性（数据权限之外的通用能力）
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.config.MyBatisPlusProperties
+ * @CreateTime 2026/10/17 - 11:46
+ */
+@Data
+@ConfigurationProperties(prefix = "panis.mybatis-plus")
+public class MyBatisPlusProperties {
+
+    /**
+     * 流式查询
+     */
+    private Stream stream = new Stream();
+
+    @Data
+    public static class Stream {
+
+        /**
+         * 流式查询语句的 fetchSize，MySQL 默认 Integer.MIN_VALUE 逐行读取；
+         * JDBC URL 开启 useCursorFetch=true 或使用其他数据库时设置为正数
+         */
+        private int fetchSize = Integer.MIN_VALUE;
+    }
+}
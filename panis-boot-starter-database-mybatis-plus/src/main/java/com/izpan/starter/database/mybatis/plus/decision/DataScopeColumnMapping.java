@@ -0,0 +1,207 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.decision;
+
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.core.toolkit.StringUtils;
+import com.izpan.starter.database.mybatis.plus.annotation.DataScopeColumn;
+import com.izpan.starter.database.mybatis.plus.config.DataScopeProperties;
+import com.izpan.starter.database.mybatis.plus.enums.DataScopeDecisionTypeEnum;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 数据权限列映射
+ * <p>
+ * 确定每张表数据权限过滤使用的列，优先级：配置项 panis.data-scope.tables > 实体上的 {@link DataScopeColumn} 注解 >
+ * 实体字段（列名或属性名与默认用户列一致）。组织单位列仅来自配置与注解，
+ * 出现过的单位列名会被登记，渲染谓词时据此判断占位使用用户 ID 还是组织单位 ID，因此单位列名不应与用户列名相同。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.decision.DataScopeColumnMapping
+ * @CreateTime 2026/10/17 - 21:52
+ */
+@Slf4j
+public final class DataScopeColumnMapping {
+
+    // 默认用户列名
+    private final String ownerColumn;
+
+    // 表名小写 -> 配置的权限列
+    private final Map<String, DataScopeProperties.TableColumns> tables;
+
+    // 已登记的组织单位列名（小写）
+    private final Set<String> unitColumns = ConcurrentHashMap.newKeySet();
+
+    public DataScopeColumnMapping(String ownerColumn, Map<String, DataScopeProperties.TableColumns> tables) {
+        this.ownerColumn = ownerColumn;
+        Map<String, DataScopeProperties.TableColumns> normalized = new HashMap<>();
+        if (tables != null) {
+            tables.forEach((table, columns) -> {
+                normalized.put(normalize(table), columns);
+                registerUnitColumn(columns.getUnitColumn());
+            });
+        }
+        this.tables = Collections.unmodifiableMap(normalized);
+    }
+
+    /**
+     * 按表信息确定权限列
+     *
+     * @param tableInfo 表信息
+     * @return {@link DataScopeDecision} 决策
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 21:55:18
+     */
+    public DataScopeDecision decide(TableInfo tableInfo) {
+        DataScopeProperties.TableColumns configured = tables.get(normalize(tableInfo.getTableName()));
+        Class<?> entityType = tableInfo.getEntityType();
+        DataScopeColumn annotation = entityType == null ? null : entityType.getAnnotation(DataScopeColumn.class);
+        String owner = configured != null && StringUtils.isNotBlank(configured.getOwnerColumn()) ? configured.getOwnerColumn()
+                : annotation != null && StringUtils.isNotBlank(annotation.owner()) ? annotation.owner() : null;
+        String unit = configured != null && StringUtils.isNotBlank(configured.getUnitColumn()) ? configured.getUnitColumn()
+                : annotation != null && StringUtils.isNotBlank(annotation.unit()) ? annotation.unit() : null;
+        registerUnitColumn(unit);
+        if (owner != null) {
+            return ownerDecision(owner, unit);
+        }
+        // 未显式指定时按实体字段查找默认用户列
+        String ownerProperty = StringUtils.underlineToCamel(ownerColumn);
+        TableFieldInfo mapped = null;
+        for (TableFieldInfo field : tableInfo.getFieldList()) {
+            if (ownerColumn.equalsIgnoreCase(unquote(field.getColumn()))) {
+                return new DataScopeDecision(DataScopeDecisionTypeEnum.OWNER_COLUMN, ownerColumn, unit);
+            }
+            if (ownerProperty.equals(field.getProperty())) {
+                mapped = field;
+            }
+        }
+        if (mapped != null) {
+            return new DataScopeDecision(DataScopeDecisionTypeEnum.MAPPED_COLUMN, mapped.getColumn(), unit);
+        }
+        return unit == null ? DataScopeDecision.NO_OWNER_COLUMN : new DataScopeDecision(DataScopeDecisionTypeEnum.NO_OWNER_COLUMN, null, unit);
+    }
+
+    /**
+     * 按表名确定权限列，用于多表查询中定位权限列所属的表
+     *
+     * @param tableName 表名，可带库名与转义符
+     * @return {@link DataScopeDecision} 决策，表既未注册实体也未配置时返回 null
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 21:57:40
+     */
+    public DataScopeDecision decideTable(String tableName) {
+        TableInfo tableInfo = tableInfo(tableName);
+        if (tableInfo != null) {
+            return decide(tableInfo);
+        }
+        DataScopeProperties.TableColumns configured = tables.get(normalize(unquote(tableName.substring(tableName.lastIndexOf('.') + 1))));
+        if (configured == null) {
+            return null;
+        }
+        String owner = StringUtils.isNotBlank(configured.getOwnerColumn()) ? configured.getOwnerColumn() : ownerColumn;
+        return ownerDecision(owner, StringUtils.isNotBlank(configured.getUnitColumn()) ? configured.getUnitColumn() : null);
+    }
+
+    /**
+     * 按 SQL 中的表名查找 MyBatis-Plus 表信息，去除库名与转义符，大小写不一致时按小写再查一次
+     *
+     * @param tableName 表名，可带库名与转义符
+     * @return {@link TableInfo} 表信息，未注册时返回 null
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 19:31:44
+     */
+    public TableInfo tableInfo(String tableName) {
+        String name = unquote(tableName.substring(tableName.lastIndexOf('.') + 1));
+        TableInfo tableInfo = TableInfoHelper.getTableInfo(name);
+        return tableInfo != null ? tableInfo : TableInfoHelper.getTableInfo(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * 是否为组织单位列
+     *
+     * @param column 列名，可带表限定名
+     * @return boolean 是否为组织单位列
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 21:59:02
+     */
+    public boolean isUnitColumn(String column) {
+        return !unitColumns.isEmpty() && unitColumns.contains(normalize(column.substring(column.lastIndexOf('.') + 1)));
+    }
+
+    public String ownerColumn() {
+        return ownerColumn;
+    }
+
+    /**
+     * 已配置权限列的表名（小写）
+     *
+     * @return {@link Set} 表名集合
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 22:00:14
+     */
+    public Set<String> configuredTables() {
+        return tables.keySet();
+    }
+
+    // 显式指定的用户列
+    private DataScopeDecision ownerDecision(String owner, String unit) {
+        DataScopeDecisionTypeEnum type = ownerColumn.equalsIgnoreCase(unquote(owner))
+                ? DataScopeDecisionTypeEnum.OWNER_COLUMN : DataScopeDecisionTypeEnum.MAPPED_COLUMN;
+        return new DataScopeDecision(type, owner, unit);
+    }
+
+    // 登记组织单位列名，与默认用户列同名时无法区分，忽略并告警
+    private void registerUnitColumn(String unit) {
+        if (StringUtils.isBlank(unit)) {
+            return;
+        }
+        String name = normalize(unit);
+        if (name.equals(normalize(ownerColumn))) {
+            log.warn("[DataScope] 组织单位列 {} 与默认用户列同名, 无法区分, 请更换列名", unit);
+            return;
+        }
+        unitColumns.add(name);
+    }
+
+    // 去除转义符并转为小写
+    private static String normalize(String name) {
+        return unquote(name).toLowerCase(Locale.ROOT);
+    }
+
+    // 去除列名两侧的转义符
+    private static String unquote(String column) {
+        if (column.length() > 1 && (column.charAt(0) == '`' || column.charAt(0) == '"')
+                && column.charAt(column.length() - 1) == column.charAt(0)) {
+            return column.substring(1, column.length() - 1);
+        }
+        return column;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.decision;
+
+import com.izpan.starter.database.mybatis.plus.enums.DataScopeDecisionTypeEnum;
+
+/**
+ * 数据权限静态决策
+ *
+ * @param type       决策类型
+ * @param column     用户列名，仅 OWNER_COLUMN 与 MAPPED_COLUMN 时有值
+ * @param unitColumn 组织单位列名，未配置时为 null
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.decision.DataScopeDecision
+ * @CreateTime 2026/10/17 - 16:42
+ */
+public record DataScopeDecision(DataScopeDecisionTypeEnum type, String column, String unitColumn) {
+
+    /**
+     * 跳过处理
+     */
+    public static final DataScopeDecision SKIP = new DataScopeDecision(DataScopeDecisionTypeEnum.SKIP, null, null);
+
+    /**
+     * 表中无用户列
+     */
+    public static final DataScopeDecision NO_OWNER_COLUMN = new DataScopeDecision(DataScopeDecisionTypeEnum.NO_OWNER_COLUMN, null, null);
+
+    /**
+     * 获取权限过滤列：按组织单位过滤且表中有单位列时使用单位列，否则使用用户列
+     *
+     * @param unit 是否按组织单位过滤
+     * @return {@link String} 权限过滤列，表中无可用列时返回 null
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 21:46:10
+     */
+    public String scopeColumn(boolean unit) {
+        return unit && unitColumn != null ? unitColumn : column;
+    }
+}
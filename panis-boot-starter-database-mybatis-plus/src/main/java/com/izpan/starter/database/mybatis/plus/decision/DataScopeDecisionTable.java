@@ -0,0 +1,188 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.decision;
+
+import com.baomidou.mybatisplus.core.enums.SqlMethod;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.core.plugins.InterceptorIgnoreHelper;
+import com.izpan.starter.database.mybatis.plus.injector.SelectStreamList;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.SelectProvider;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 数据权限静态决策表
+ * <p>
+ * 启动时扫描 MyBatis Configuration 与 MyBatis-Plus 表信息，为每个 MappedStatement 预先计算处理方式：
+ * 非 SELECT 与已声明忽略数据权限的语句直接跳过；MyBatis-Plus 内置注入的单表查询（{@link SqlMethod} 中的查询方法与流式查询）
+ * 按 {@link DataScopeColumnMapping} 确定权限列，
+ * 表中无用户列时不再注入用户权限谓词。XML、注解等自定义 SQL 无法静态确定所涉及的表，不进入决策表，仍走完整解析流程。
+ * 注意：运行时通过 {@link InterceptorIgnoreHelper#handle} 设置的线程级忽略策略对未跳过的语句依然生效。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.decision.DataScopeDecisionTable
+ * @CreateTime 2026/10/17 - 16:48
+ */
+@Slf4j
+public final class DataScopeDecisionTable {
+
+    /**
+     * 空决策表，所有语句均走完整解析流程
+     */
+    public static final DataScopeDecisionTable EMPTY = new DataScopeDecisionTable(Map.of());
+
+    // MyBatis-Plus 注解构建器为 Mapper 接口生成的 resource 后缀
+    private static final String MAPPER_RESOURCE_SUFFIX = ".java (best guess)";
+
+    // 已知为单表查询的注入方法名，其余注入器（如多表关联插件）注入的方法不做静态决策
+    private static final Set<String> SINGLE_TABLE_METHODS = Stream.concat(
+                    Arrays.stream(SqlMethod.values()).filter(method -> method.name().startsWith("SELECT_")).map(SqlMethod::getMethod),
+                    Stream.of(SelectStreamList.METHOD))
+            .collect(Collectors.toUnmodifiableSet());
+
+    // msId -> 决策
+    private final Map<String, DataScopeDecision> decisions;
+
+    private DataScopeDecisionTable(Map<String, DataScopeDecision> decisions) {
+        this.decisions = decisions;
+    }
+
+    /**
+     * 扫描 Configuration 构建决策表
+     *
+     * @param configurations MyBatis 配置集合
+     * @param columnMapping  权限列映射
+     * @return {@link DataScopeDecisionTable} 决策表
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 16:52:10
+     */
+    public static DataScopeDecisionTable build(Collection<Configuration> configurations, DataScopeColumnMapping columnMapping) {
+        // namespace -> 表信息
+        Map<String, TableInfo> tableInfos = new HashMap<>();
+        TableInfoHelper.getTableInfos().forEach(tableInfo -> tableInfos.put(tableInfo.getCurrentNamespace(), tableInfo));
+
+        Map<String, DataScopeDecision> decisions = new HashMap<>();
+        for (Configuration configuration : configurations) {
+            Map<String, Class<?>> mappers = new HashMap<>();
+            configuration.getMapperRegistry().getMappers().forEach(mapper -> mappers.put(mapper.getName(), mapper));
+            // 语句名同时包含全名与短名（短名冲突时为歧义占位），仅处理带命名空间的全名
+            for (String msId : configuration.getMappedStatementNames()) {
+                if (msId.indexOf('.') > 0 && !decisions.containsKey(msId)) {
+                    MappedStatement ms = configuration.getMappedStatement(msId, false);
+                    DataScopeDecision decision = decide(ms, tableInfos, mappers, columnMapping);
+                    if (decision != null) {
+                        decisions.put(msId, decision);
+                    }
+                }
+            }
+        }
+        log.info("[DataScope] 数据权限静态决策表构建完成, 语句数={}", decisions.size());
+        return new DataScopeDecisionTable(Map.copyOf(decisions));
+    }
+
+    /**
+     * 获取语句的静态决策
+     *
+     * @param msId MappedStatement ID
+     * @return {@link DataScopeDecision} 决策，未确定时返回 null
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 16:53:02
+     */
+    public DataScopeDecision get(String msId) {
+        return decisions.get(msId);
+    }
+
+    public int size() {
+        return decisions.size();
+    }
+
+    /**
+     * 计算单条语句的决策
+     *
+     * @param ms            MappedStatement
+     * @param tableInfos    namespace -> 表信息
+     * @param mappers       Mapper 全类名 -> Mapper 接口
+     * @param columnMapping 权限列映射
+     * @return {@link DataScopeDecision} 决策，无法静态确定时返回 null
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 16:55:36
+     */
+    private static DataScopeDecision decide(MappedStatement ms, Map<String, TableInfo> tableInfos,
+                                            Map<String, Class<?>> mappers, DataScopeColumnMapping columnMapping) {
+        String msId = ms.getId();
+        if (ms.getSqlCommandType() != SqlCommandType.SELECT || InterceptorIgnoreHelper.willIgnoreDataPermission(msId)) {
+            return DataScopeDecision.SKIP;
+        }
+        int index = msId.lastIndexOf('.');
+        if (index <= 0) {
+            return null;
+        }
+        String namespace = msId.substring(0, index);
+        TableInfo tableInfo = tableInfos.get(namespace);
+        Class<?> mapperClass = mappers.get(namespace);
+        if (tableInfo == null || mapperClass == null || !isInjected(ms, mapperClass, msId.substring(index + 1))) {
+            return null;
+        }
+        return columnMapping.decide(tableInfo);
+    }
+
+    /**
+     * 是否为 MyBatis-Plus 注入的单表语句：方法名属于已知单表查询方法，语句由 Mapper 接口构建（非 XML），
+     * 且同名方法（含重载）均未使用 @Select / @SelectProvider 注解
+     *
+     * @param ms          MappedStatement
+     * @param mapperClass Mapper 接口
+     * @param methodName  方法名
+     * @return boolean 是否为注入语句
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 16:59:44
+     */
+    private static boolean isInjected(MappedStatement ms, Class<?> mapperClass, String methodName) {
+        if (!SINGLE_TABLE_METHODS.contains(methodName)) {
+            return false;
+        }
+        String resource = ms.getResource();
+        if (resource == null || !resource.endsWith(MAPPER_RESOURCE_SUFFIX)) {
+            return false;
+        }
+        for (Method method : mapperClass.getMethods()) {
+            if (method.getName().equals(methodName)
+                    && (method.isAnnotationPresent(Select.class) || method.isAnnotationPresent(SelectProvider.class))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
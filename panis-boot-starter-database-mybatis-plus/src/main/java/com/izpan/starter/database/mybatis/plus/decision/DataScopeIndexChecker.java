@@ -0,0 +1,198 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.decision;
+
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 数据权限列索引检查
+ * <p>
+ * 启动时读取 JDBC 元数据，检查每张表的权限列（用户列与组织单位列）是否为某个索引的首列，
+ * 缺失时输出告警：权限谓词无法使用索引时会退化为全表扫描。仅做检查，不影响启动。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.decision.DataScopeIndexChecker
+ * @CreateTime 2026/10/17 - 22:04
+ */
+@Slf4j
+public final class DataScopeIndexChecker {
+
+    private DataScopeIndexChecker() {
+    }
+
+    /**
+     * 检查权限列索引
+     *
+     * @param configurations MyBatis 配置集合，实体表使用注册其 Mapper 的配置的数据源，未注册实体的配置表使用第一个配置的数据源
+     * @param columnMapping  权限列映射
+     * @return int 缺少索引的权限列数量
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 22:06:32
+     */
+    public static int check(Collection<Configuration> configurations, DataScopeColumnMapping columnMapping) {
+        // 数据源 -> 表名 -> 权限列
+        Map<DataSource, Map<String, Set<String>>> targets = new LinkedHashMap<>();
+        // namespace -> 表信息，按各配置注册的 Mapper 确定表所在的数据源
+        Map<String, TableInfo> tableInfos = new HashMap<>();
+        TableInfoHelper.getTableInfos().forEach(tableInfo -> tableInfos.put(tableInfo.getCurrentNamespace(), tableInfo));
+        Set<String> registered = new HashSet<>();
+        for (Configuration configuration : configurations) {
+            DataSource dataSource = dataSource(configuration);
+            for (Class<?> mapper : configuration.getMapperRegistry().getMappers()) {
+                TableInfo tableInfo = tableInfos.get(mapper.getName());
+                if (tableInfo != null && registered.add(tableInfo.getTableName().toLowerCase(Locale.ROOT))) {
+                    addTarget(targets, dataSource, tableInfo.getTableName(), columnMapping.decide(tableInfo));
+                }
+            }
+        }
+        DataSource defaultDataSource = configurations.stream().map(DataScopeIndexChecker::dataSource)
+                .filter(Objects::nonNull).findFirst().orElse(null);
+        for (String table : columnMapping.configuredTables()) {
+            if (!registered.contains(table)) {
+                addTarget(targets, defaultDataSource, table, columnMapping.decideTable(table));
+            }
+        }
+
+        int missing = 0;
+        int checked = 0;
+        for (Map.Entry<DataSource, Map<String, Set<String>>> entry : targets.entrySet()) {
+            try (Connection connection = entry.getKey().getConnection()) {
+                DatabaseMetaData metaData = connection.getMetaData();
+                for (Map.Entry<String, Set<String>> table : entry.getValue().entrySet()) {
+                    Set<String> indexed = leadingIndexColumns(metaData, connection, table.getKey());
+                    for (String column : table.getValue()) {
+                        checked++;
+                        if (!indexed.contains(column.toLowerCase(Locale.ROOT))) {
+                            missing++;
+                            log.warn("[DataScope] 表 {} 的权限列 {} 未找到以其为首列的索引, 权限过滤可能全表扫描", table.getKey(), column);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                log.warn("[DataScope] 权限列索引检查失败, 错误={}", e.getMessage());
+            }
+        }
+        log.info("[DataScope] 权限列索引检查完成, 检查列数={}, 缺少索引={}", checked, missing);
+        return missing;
+    }
+
+    // 登记表的权限列，无数据源或无权限列时忽略
+    private static void addTarget(Map<DataSource, Map<String, Set<String>>> targets, DataSource dataSource,
+                                  String table, DataScopeDecision decision) {
+        if (dataSource == null || decision == null) {
+            return;
+        }
+        Set<String> columns = new LinkedHashSet<>(2);
+        if (decision.column() != null) {
+            columns.add(unquote(decision.column()));
+        }
+        if (decision.unitColumn() != null) {
+            columns.add(unquote(decision.unitColumn()));
+        }
+        if (!columns.isEmpty()) {
+            targets.computeIfAbsent(dataSource, key -> new LinkedHashMap<>())
+                    .computeIfAbsent(table, key -> new LinkedHashSet<>()).addAll(columns);
+        }
+    }
+
+    /**
+     * 读取表上所有索引的首列（含主键），按数据库标识符大小写规则尝试表名
+     *
+     * @param metaData   数据库元数据
+     * @param connection 数据库连接
+     * @param table      表名，可带库名
+     * @return {@link Set} 首列列名（小写）
+     * @throws SQLException 读取元数据失败
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 22:09:14
+     */
+    private static Set<String> leadingIndexColumns(DatabaseMetaData metaData, Connection connection, String table) throws SQLException {
+        String schema = connection.getSchema();
+        String catalog = connection.getCatalog();
+        int index = table.lastIndexOf('.');
+        if (index > 0) {
+            // 带库名时 MySQL 库名对应 catalog，其他数据库对应 schema
+            String qualifier = unquote(table.substring(0, index));
+            if (metaData.supportsCatalogsInTableDefinitions()) {
+                catalog = qualifier;
+            } else {
+                schema = qualifier;
+            }
+        }
+        String name = unquote(table.substring(index + 1));
+        Set<String> candidates = new LinkedHashSet<>(3);
+        candidates.add(name);
+        if (metaData.storesUpperCaseIdentifiers()) {
+            candidates.add(name.toUpperCase(Locale.ROOT));
+        } else if (metaData.storesLowerCaseIdentifiers()) {
+            candidates.add(name.toLowerCase(Locale.ROOT));
+        }
+        Set<String> columns = new HashSet<>();
+        for (String candidate : candidates) {
+            try (ResultSet rs = metaData.getIndexInfo(catalog, schema, candidate, false, true)) {
+                while (rs.next()) {
+                    String column = rs.getString("COLUMN_NAME");
+                    if (column != null && rs.getShort("ORDINAL_POSITION") == 1) {
+                        columns.add(column.toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+            if (!columns.isEmpty()) {
+                break;
+            }
+        }
+        return columns;
+    }
+
+    private static DataSource dataSource(Configuration configuration) {
+        Environment environment = configuration == null ? null : configuration.getEnvironment();
+        return environment == null ? null : environment.getDataSource();
+    }
+
+    // 去除两侧的转义符
+    private static String unquote(String name) {
+        if (name.length() > 1 && (name.charAt(0) == '`' || name.charAt(0) == '"')
+                && name.charAt(name.length() - 1) == name.charAt(0)) {
+            return name.substring(1, name.length() - 1);
+        }
+        return name;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.domain;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.izpan.starter.database.mybatis.plus.enums.PageCountModeEnum;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serial;
+
+/**
+ * 可指定总数统计方式的分页，用法与 {@link Page} 相同
+ * <p>
+ * 列表翻页时可使用 {@link PageCountModeEnum#CACHED} 复用短时间内的总数；大表可使用 {@link PageCountModeEnum#ESTIMATED}，
+ * 此时 {@link #isTotalEstimated()} 标识总数是否为估算值，便于前端显示为约数。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.domain.CountPage
+ * @CreateTime 2026/10/17 - 10:12
+ */
+@Getter
+@Setter
+public class CountPage<T> extends Page<T> implements PageCountOption {
+
+    @Serial
+    private static final long serialVersionUID = -3861529640713052418L;
+
+    /**
+     * 总数统计方式，为 null 时使用全局配置
+     */
+    private PageCountModeEnum countMode;
+
+    /**
+     * 总数是否为估算值
+     */
+    private boolean totalEstimated;
+
+    public CountPage(long current, long size, PageCountModeEnum countMode) {
+        super(current, size);
+        this.countMode = countMode;
+    }
+
+    public static <T> CountPage<T> of(long current, long size, PageCountModeEnum countMode) {
+        return new CountPage<>(current, size, countMode);
+    }
+}
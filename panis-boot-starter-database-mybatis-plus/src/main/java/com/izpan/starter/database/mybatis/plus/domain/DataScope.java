@@ -19,17 +19,30 @@
 
 package com.izpan.starter.database.mybatis.plus.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.izpan.starter.database.mybatis.plus.enums.DataScopeTypeEnum;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serial;
 import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * 数据权限
  * 用于存储数据权限相关的信息
+ * <p>
+ * 紧凑的用户 / 组织单位 ID 集合在构造、设置与反序列化时计算一次并保存在 transient 字段中，getter 不修改对象，
+ * 跨请求共享或经 Redis 缓存的实例读取时不会产生写入；JSON 序列化时 ID 集合以区间数组表示（见 {@link ScopeIdSet}）。
+ * </p>
  *
  * @Author payne.zhuang <paynezhuang@gmail.com>
  * @ProjectName panis-boot
@@ -38,7 +51,6 @@ import java.util.Set;
  */
 
 @Data
-@Builder
 public class DataScope implements Serializable {
 
     @Serial
@@ -54,11 +66,53 @@ public class DataScope implements Serializable {
      */
     private Long currentUserId;
 
+    /**
+     * 当前登录用户所属组织单位 ID
+     * 未设置 scopeUnitIds 时，由组织树按该单位展开 UNIT / UNIT_AND_CHILD / SELF_AND_CHILD 的组织单位集合
+     */
+    private Long currentUnitId;
+
     /**
      * 权限用户 IDs
      */
     private Set<Long> scopeUserIds;
 
+    /**
+     * 权限用户 ID 集合（紧凑存储）
+     * 优先于 scopeUserIds 使用，用户量较大时建议直接设置该字段；调用 setScopeUserIds 后清空，重新由 scopeUserIds 转换
+     */
+    private ScopeIdSet scopeUserIdSet;
+
+    /**
+     * 生效的权限用户 ID 集合，由 scopeUserIdSet 或 scopeUserIds 计算，不参与序列化
+     */
+    @JsonIgnore
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient ScopeIdSet resolvedUserIdSet = ScopeIdSet.EMPTY;
+
+    /**
+     * 权限组织单位 IDs
+     * 表配置了组织单位列时，UNIT / UNIT_AND_CHILD 权限按该集合过滤
+     */
+    private Set<Long> scopeUnitIds;
+
+    /**
+     * 权限组织单位 ID 集合（紧凑存储）
+     * 优先于 scopeUnitIds 使用；调用 setScopeUnitIds 后清空，重新由 scopeUnitIds 转换
+     */
+    private ScopeIdSet scopeUnitIdSet;
+
+    /**
+     * 生效的权限组织单位 ID 集合，由 scopeUnitIdSet 或 scopeUnitIds 计算，不参与序列化
+     */
+    @JsonIgnore
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient ScopeIdSet resolvedUnitIdSet = ScopeIdSet.EMPTY;
+
     /**
      * 权限编码
      * 用于存储权限编码
@@ -76,4 +130,132 @@ public class DataScope implements Serializable {
      * 当数据权限类型为自定义时使用
      */
     private String customRules;
+
+    /**
+     * 合并的自定义规则条件
+     * 多角色合并时（见 DataScopeAlgebra），其他角色的自定义规则与本权限的用户 / 组织条件以 OR 连接
+     */
+    private String mergedRules;
+
+    /**
+     * 自定义规则条件列表
+     * 当数据权限类型为自定义时使用，优先于 customRules；由 DataScopeRuleCompiler 编译为谓词模板，变量值以 JDBC 参数绑定
+     */
+    private List<DataScopeCondition> ruleConditions;
+
+    /**
+     * 自定义规则变量值
+     * 变量名 -> 变量值，对应条件值中的 #{变量名}
+     */
+    private Map<String, Object> ruleVariables;
+
+    public DataScope() {
+    }
+
+    @Builder(toBuilder = true)
+    public DataScope(DataScopeTypeEnum scopeType, Long currentUserId, Long currentUnitId, Set<Long> scopeUserIds,
+                     ScopeIdSet scopeUserIdSet, Set<Long> scopeUnitIds, ScopeIdSet scopeUnitIdSet, String permissionCode,
+                     String customFields, String customRules, String mergedRules, List<DataScopeCondition> ruleConditions,
+                     Map<String, Object> ruleVariables) {
+        this.scopeType = scopeType;
+        this.currentUserId = currentUserId;
+        this.currentUnitId = currentUnitId;
+        this.scopeUserIds = scopeUserIds;
+        this.scopeUserIdSet = scopeUserIdSet;
+        this.scopeUnitIds = scopeUnitIds;
+        this.scopeUnitIdSet = scopeUnitIdSet;
+        this.permissionCode = permissionCode;
+        this.customFields = customFields;
+        this.customRules = customRules;
+        this.mergedRules = mergedRules;
+        this.ruleConditions = ruleConditions;
+        this.ruleVariables = ruleVariables;
+        resolveIdSets();
+    }
+
+    /**
+     * 设置权限用户 IDs，同时清除此前设置的紧凑集合，生效集合改由新值转换，避免谓词使用过期的 ID
+     *
+     * @param scopeUserIds 权限用户 IDs
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 14:41:05
+     */
+    public void setScopeUserIds(Set<Long> scopeUserIds) {
+        this.scopeUserIds = scopeUserIds;
+        this.scopeUserIdSet = null;
+        resolveIdSets();
+    }
+
+    /**
+     * 设置紧凑存储的权限用户 ID 集合，为 null 时生效集合回退为 scopeUserIds 的转换结果
+     *
+     * @param scopeUserIdSet 权限用户 ID 集合
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 14:41:30
+     */
+    public void setScopeUserIdSet(ScopeIdSet scopeUserIdSet) {
+        this.scopeUserIdSet = scopeUserIdSet;
+        resolveIdSets();
+    }
+
+    /**
+     * 设置权限组织单位 IDs，同时清除此前设置的紧凑集合，生效集合改由新值转换
+     *
+     * @param scopeUnitIds 权限组织单位 IDs
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 21:51:12
+     */
+    public void setScopeUnitIds(Set<Long> scopeUnitIds) {
+        this.scopeUnitIds = scopeUnitIds;
+        this.scopeUnitIdSet = null;
+        resolveIdSets();
+    }
+
+    /**
+     * 设置紧凑存储的权限组织单位 ID 集合，为 null 时生效集合回退为 scopeUnitIds 的转换结果
+     *
+     * @param scopeUnitIdSet 权限组织单位 ID 集合
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 21:51:30
+     */
+    public void setScopeUnitIdSet(ScopeIdSet scopeUnitIdSet) {
+        this.scopeUnitIdSet = scopeUnitIdSet;
+        resolveIdSets();
+    }
+
+    /**
+     * 获取紧凑存储的权限用户 ID 集合
+     * 优先取 scopeUserIdSet，未设置时为 scopeUserIds 的转换结果
+     *
+     * @return {@link ScopeIdSet} 权限用户 ID 集合，不会返回 null
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 14:40:22
+     */
+    public ScopeIdSet getScopeUserIdSet() {
+        return resolvedUserIdSet;
+    }
+
+    /**
+     * 获取紧凑存储的权限组织单位 ID 集合
+     * 优先取 scopeUnitIdSet，未设置时为 scopeUnitIds 的转换结果
+     *
+     * @return {@link ScopeIdSet} 权限组织单位 ID 集合，不会返回 null
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 21:50:36
+     */
+    public ScopeIdSet getScopeUnitIdSet() {
+        return resolvedUnitIdSet;
+    }
+
+    // 计算生效的紧凑集合
+    private void resolveIdSets() {
+        this.resolvedUserIdSet = scopeUserIdSet != null ? scopeUserIdSet : ScopeIdSet.of(scopeUserIds);
+        this.resolvedUnitIdSet = scopeUnitIdSet != null ? scopeUnitIdSet : ScopeIdSet.of(scopeUnitIds);
+    }
+
+    @Serial
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        resolveIdSets();
+    }
 }
@@ -0,0 +1,249 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.domain;
+
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.metadata.OrderItem;
+import com.izpan.starter.database.mybatis.plus.enums.PageCountModeEnum;
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.ibatis.reflection.SystemMetaObject;
+
+import java.io.Serial;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 游标（Keyset）分页
+ * <p>
+ * 按排序键定位：首页只按排序键排序并限制条数，后续页以上一页最后一条记录的排序键值为游标，
+ * 由 {@link com.izpan.starter.database.mybatis.plus.interceptor.KeysetPaginationInterceptor} 追加
+ * {@code (k1, k2) > (?, ?)} 条件，不再使用 OFFSET，深分页耗时与首页一致。
+ * </p>
+ * <p>
+ * 排序键须能唯一确定顺序（通常以主键收尾）且值不为 NULL；原 SQL 中的 ORDER BY 会被排序键替换。
+ * 默认不执行 COUNT 查询，需要总数时通过 {@link #setSearchCount(boolean)} 开启；COUNT 仅在首页执行，
+ * 带游标时分页插件统计的 SQL 已含游标条件，后续页由调用方沿用首页返回的总数。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.domain.KeysetPage
+ * @CreateTime 2026/10/17 - 09:12
+ */
+@Getter
+public class KeysetPage<T> implements IPage<T>, PageCountOption {
+
+    @Serial
+    private static final long serialVersionUID = 6127340938561249717L;
+
+    /**
+     * 排序键
+     */
+    private final List<Key> keys;
+
+    /**
+     * 游标，上一页最后一条记录的排序键值，首页为 null
+     */
+    private Object[] cursor;
+
+    /**
+     * 查询数据列表
+     */
+    private List<T> records = Collections.emptyList();
+
+    /**
+     * 总数，未查询时为 0
+     */
+    private long total;
+
+    /**
+     * 每页条数
+     */
+    private long size;
+
+    /**
+     * 是否在首页执行 COUNT 查询
+     */
+    private boolean searchCount;
+
+    /**
+     * 首页总数统计方式，为 null 时使用全局配置
+     */
+    @Setter
+    private PageCountModeEnum countMode;
+
+    /**
+     * 总数是否为估算值
+     */
+    @Setter
+    private boolean totalEstimated;
+
+    private KeysetPage(long size, List<Key> keys) {
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("游标分页排序键不可为空");
+        }
+        this.size = size;
+        this.keys = List.copyOf(keys);
+    }
+
+    /**
+     * 创建首页
+     *
+     * @param size 每页条数
+     * @param keys 排序键
+     * @return {@link KeysetPage} 游标分页
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 09:13:20
+     */
+    public static <T> KeysetPage<T> of(long size, Key... keys) {
+        return new KeysetPage<>(size, Arrays.asList(keys));
+    }
+
+    /**
+     * 设置游标，查询排序在游标之后的记录
+     *
+     * @param cursor 上一页最后一条记录的排序键值，顺序与排序键一致，为 null 时查询首页
+     * @return {@link KeysetPage} 当前分页
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 09:13:48
+     */
+    public KeysetPage<T> after(Object... cursor) {
+        if (cursor != null && cursor.length != keys.size()) {
+            throw new IllegalArgumentException("游标值数量 " + cursor.length + " 与排序键数量 " + keys.size() + " 不一致");
+        }
+        if (cursor != null && Arrays.asList(cursor).contains(null)) {
+            throw new IllegalArgumentException("游标值不可为 NULL");
+        }
+        this.cursor = cursor == null ? null : cursor.clone();
+        return this;
+    }
+
+    /**
+     * 下一页游标，取本页最后一条记录的排序键值；本页不满一页时已无后续数据，返回 null
+     *
+     * @return Object[] 下一页游标
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 09:14:20
+     */
+    public Object[] nextCursor() {
+        if (records.isEmpty() || records.size() < size) {
+            return null;
+        }
+        var metaObject = SystemMetaObject.forObject(records.getLast());
+        Object[] next = new Object[keys.size()];
+        for (int i = 0; i < next.length; i++) {
+            next[i] = metaObject.getValue(keys.get(i).property());
+        }
+        return next;
+    }
+
+    public boolean hasNext() {
+        return nextCursor() != null;
+    }
+
+    public KeysetPage<T> setSearchCount(boolean searchCount) {
+        this.searchCount = searchCount;
+        return this;
+    }
+
+    @Override
+    public List<OrderItem> orders() {
+        return keys.stream().map(key -> key.asc() ? OrderItem.asc(key.column()) : OrderItem.desc(key.column())).toList();
+    }
+
+    @Override
+    public KeysetPage<T> setRecords(List<T> records) {
+        this.records = records;
+        return this;
+    }
+
+    @Override
+    public KeysetPage<T> setTotal(long total) {
+        this.total = total;
+        return this;
+    }
+
+    @Override
+    public KeysetPage<T> setSize(long size) {
+        this.size = size;
+        return this;
+    }
+
+    /**
+     * 游标分页始终从游标处读取，当前页固定为 1，即 OFFSET 为 0
+     */
+    @Override
+    public long getCurrent() {
+        return 1;
+    }
+
+    @Override
+    public KeysetPage<T> setCurrent(long current) {
+        return this;
+    }
+
+    /**
+     * 仅首页执行 COUNT 查询，带游标时统计结果不是总数
+     */
+    @Override
+    public boolean searchCount() {
+        return searchCount && cursor == null;
+    }
+
+    /**
+     * 排序键
+     *
+     * @param column   SQL 列名，可带表别名
+     * @param property 记录中对应的属性名，用于读取下一页游标
+     * @param asc      是否升序
+     */
+    public record Key(String column, String property, boolean asc) {
+
+        public Key {
+            if (!isColumn(column)) {
+                throw new IllegalArgumentException("游标分页排序列不合法: " + column);
+            }
+        }
+
+        public static Key asc(String column, String property) {
+            return new Key(column, property, true);
+        }
+
+        public static Key desc(String column, String property) {
+            return new Key(column, property, false);
+        }
+
+        // 排序列只允许标识符、转义符与限定名分隔点，防止拼接注入
+        private static boolean isColumn(String column) {
+            if (column == null || column.isBlank()) {
+                return false;
+            }
+            for (int i = 0; i < column.length(); i++) {
+                char c = column.charAt(i);
+                if (!Character.isLetterOrDigit(c) && c != '_' && c != '$' && c != '.' && c != '`' && c != '"') {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
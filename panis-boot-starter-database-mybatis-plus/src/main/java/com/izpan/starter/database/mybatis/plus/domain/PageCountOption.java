@@ -0,0 +1,52 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.domain;
+
+import com.izpan.starter.database.mybatis.plus.enums.PageCountModeEnum;
+
+/**
+ * 分页总数统计选项，由分页对象实现，
+ * {@link com.izpan.starter.database.mybatis.plus.interceptor.DataScopePaginationInterceptor} 据此选择统计方式
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.domain.PageCountOption
+ * @CreateTime 2026/10/17 - 10:08
+ */
+public interface PageCountOption {
+
+    /**
+     * 总数统计方式
+     *
+     * @return {@link PageCountModeEnum} 统计方式，为 null 时使用全局配置
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 10:08:40
+     */
+    PageCountModeEnum getCountMode();
+
+    /**
+     * 记录总数是否为估算值
+     *
+     * @param totalEstimated 是否为估算值
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 10:09:12
+     */
+    void setTotalEstimated(boolean totalEstimated);
+}
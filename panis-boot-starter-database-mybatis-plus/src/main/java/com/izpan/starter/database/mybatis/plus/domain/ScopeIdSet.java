@@ -0,0 +1,363 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.domain;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.stream.LongStream;
+
+/**
+ * 数据权限 ID 集合
+ * <p>
+ * 不可变的有序 long 集合，以连续区间（run）形式存储：[start0, end0, start1, end1, ...]。
+ * 组织内连续编号的用户只占用一个区间，离散 ID 每个占用 16 字节，相比 {@code Set<Long>} 装箱存储可大幅降低内存，
+ * 生成 SQL 时连续区间可直接输出为 BETWEEN 条件。
+ * </p>
+ * <p>
+ * JSON 形式为区间边界数组，如 {@code [1, 3, 5, 5]} 表示 {@code [1..3, 5]}，由 {@link #ofRuns(long[])} 校验后还原。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.domain.ScopeIdSet
+ * @CreateTime 2026/10/17 - 14:20
+ */
+public final class ScopeIdSet implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 5383142297162585049L;
+
+    /**
+     * 空集合
+     */
+    public static final ScopeIdSet EMPTY = new ScopeIdSet(new long[0], 0);
+
+    // 区间边界，偶数下标为起始值，奇数下标为结束值（包含）
+    private final long[] runs;
+
+    // 元素数量
+    private final long size;
+
+    private ScopeIdSet(long[] runs, long size) {
+        this.runs = runs;
+        this.size = size;
+    }
+
+    /**
+     * 根据 ID 数组构建集合，自动排序去重
+     *
+     * @param ids ID 数组
+     * @return {@link ScopeIdSet} ID 集合
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 14:23:10
+     */
+    public static ScopeIdSet of(long... ids) {
+        if (ids == null || ids.length == 0) {
+            return EMPTY;
+        }
+        long[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        return fromSorted(sorted, sorted.length);
+    }
+
+    /**
+     * 根据 ID 集合构建集合，自动排序去重，忽略 null
+     *
+     * @param ids ID 集合
+     * @return {@link ScopeIdSet} ID 集合
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 14:24:02
+     */
+    public static ScopeIdSet of(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return EMPTY;
+        }
+        long[] sorted = new long[ids.size()];
+        int length = 0;
+        for (Long id : ids) {
+            if (id != null) {
+                sorted[length++] = id;
+            }
+        }
+        Arrays.sort(sorted, 0, length);
+        return fromSorted(sorted, length);
+    }
+
+    /**
+     * 根据闭区间构建集合
+     *
+     * @param start 起始值（包含）
+     * @param end   结束值（包含）
+     * @return {@link ScopeIdSet} ID 集合
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 14:24:40
+     */
+    public static ScopeIdSet range(long start, long end) {
+        if (start > end) {
+            return EMPTY;
+        }
+        return new ScopeIdSet(new long[]{start, end}, end - start + 1);
+    }
+
+    /**
+     * 根据区间边界数组构建集合，为 {@link #toRuns()} 的逆操作
+     * 区间须按升序排列、互不重叠且不相邻，否则视为非法输入
+     *
+     * @param runs 区间边界 [start0, end0, start1, end1, ...]
+     * @return {@link ScopeIdSet} ID 集合
+     * @throws IllegalArgumentException 区间边界非法
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 14:25:30
+     */
+    @JsonCreator
+    public static ScopeIdSet ofRuns(long[] runs) {
+        if (runs == null || runs.length == 0) {
+            return EMPTY;
+        }
+        if ((runs.length & 1) != 0) {
+            throw new IllegalArgumentException("ScopeIdSet runs must contain start/end pairs");
+        }
+        long size = 0;
+        for (int i = 0; i < runs.length; i += 2) {
+            if (runs[i] > runs[i + 1] || (i > 0 && (runs[i - 1] == Long.MAX_VALUE || runs[i] <= runs[i - 1] + 1))) {
+                throw new IllegalArgumentException("ScopeIdSet runs must be ascending and disjoint: " + Arrays.toString(runs));
+            }
+            size += runs[i + 1] - runs[i] + 1;
+        }
+        return new ScopeIdSet(runs.clone(), size);
+    }
+
+    /**
+     * 获取区间边界数组（副本），作为 JSON 序列化形式
+     *
+     * @return long[] 区间边界 [start0, end0, start1, end1, ...]
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 14:25:55
+     */
+    @JsonValue
+    public long[] toRuns() {
+        return runs.clone();
+    }
+
+    // 由已排序数组构建区间
+    private static ScopeIdSet fromSorted(long[] sorted, int length) {
+        if (length == 0) {
+            return EMPTY;
+        }
+        long[] runs = new long[8];
+        int runLength = 0;
+        long size = 0;
+        long start = sorted[0];
+        long end = start;
+        for (int i = 1; i < length; i++) {
+            long id = sorted[i];
+            if (id == end || id == end + 1) {
+                end = id;
+                continue;
+            }
+            if (runLength + 2 > runs.length) {
+                runs = Arrays.copyOf(runs, runs.length * 2);
+            }
+            runs[runLength++] = start;
+            runs[runLength++] = end;
+            size += end - start + 1;
+            start = end = id;
+        }
+        if (runLength + 2 > runs.length) {
+            runs = Arrays.copyOf(runs, runLength + 2);
+        }
+        runs[runLength++] = start;
+        runs[runLength++] = end;
+        size += end - start + 1;
+        return new ScopeIdSet(Arrays.copyOf(runs, runLength), size);
+    }
+
+    /**
+     * 合并两个集合
+     *
+     * @param other 另一个集合
+     * @return {@link ScopeIdSet} 并集
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 14:27:15
+     */
+    public ScopeIdSet union(ScopeIdSet other) {
+        if (other == null || other.isEmpty()) {
+            return this;
+        }
+        if (this.isEmpty()) {
+            return other;
+        }
+        long[] merged = new long[runs.length + other.runs.length];
+        int i = 0;
+        int j = 0;
+        int length = 0;
+        long size = 0;
+        long start = 0;
+        long end = 0;
+        boolean open = false;
+        while (i < runs.length || j < other.runs.length) {
+            long nextStart;
+            long nextEnd;
+            if (j >= other.runs.length || (i < runs.length && runs[i] <= other.runs[j])) {
+                nextStart = runs[i];
+                nextEnd = runs[i + 1];
+                i += 2;
+            } else {
+                nextStart = other.runs[j];
+                nextEnd = other.runs[j + 1];
+                j += 2;
+            }
+            if (open && nextStart <= end + 1) {
+                end = Math.max(end, nextEnd);
+                continue;
+            }
+            if (open) {
+                merged[length++] = start;
+                merged[length++] = end;
+                size += end - start + 1;
+            }
+            start = nextStart;
+            end = nextEnd;
+            open = true;
+        }
+        merged[length++] = start;
+        merged[length++] = end;
+        size += end - start + 1;
+        return new ScopeIdSet(Arrays.copyOf(merged, length), size);
+    }
+
+    /**
+     * 判断是否包含指定 ID
+     *
+     * @param id ID
+     * @return boolean 是否包含
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 14:28:30
+     */
+    public boolean contains(long id) {
+        return findRun(id) >= 0;
+    }
+
+    /**
+     * 判断是否包含另一个集合的全部 ID
+     *
+     * @param other 另一个集合
+     * @return boolean 是否包含
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 14:29:05
+     */
+    public boolean containsAll(ScopeIdSet other) {
+        for (int i = 0; i < other.runCount(); i++) {
+            long start = other.runStart(i);
+            long end = other.runEnd(i);
+            // 区间被完整包含，当且仅当起止值落在同一区间内
+            int run = findRun(start);
+            if (run < 0 || runs[(run << 1) + 1] < end) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 查找包含 id 的区间下标，不存在返回 -1
+    private int findRun(long id) {
+        int low = 0;
+        int high = runCount() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (id < runs[mid << 1]) {
+                high = mid - 1;
+            } else if (id > runs[(mid << 1) + 1]) {
+                low = mid + 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * 区间数量
+     *
+     * @return int 区间数量
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 14:30:12
+     */
+    public int runCount() {
+        return runs.length >> 1;
+    }
+
+    public long runStart(int run) {
+        return runs[run << 1];
+    }
+
+    public long runEnd(int run) {
+        return runs[(run << 1) + 1];
+    }
+
+    /**
+     * 以 LongStream 形式遍历全部 ID
+     *
+     * @return {@link LongStream} 有序 ID 流
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 14:30:48
+     */
+    public LongStream stream() {
+        return LongStream.range(0, runCount()).flatMap(run -> LongStream.rangeClosed(runStart((int) run), runEnd((int) run)));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof ScopeIdSet other && Arrays.equals(runs, other.runs));
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(runs);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < runCount(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(runStart(i));
+            if (runEnd(i) != runStart(i)) {
+                sb.append("..").append(runEnd(i));
+            }
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.enums;
+
+import lombok.Getter;
+
+/**
+ * 数据权限值绑定方式枚举
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.enums.DataScopeBindModeEnum
+ * @CreateTime 2026/10/17 - 13:30
+ */
+
+@Getter
+public enum DataScopeBindModeEnum {
+    LITERAL,    // 字面量内联（如 create_user_id IN (1, 2)）
+    PARAMETER   // JDBC 参数绑定（如 create_user_id IN (?, ?)），语句形态与用户无关
+}
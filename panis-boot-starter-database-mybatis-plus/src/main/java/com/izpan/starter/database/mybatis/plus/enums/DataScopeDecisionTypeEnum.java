@@ -0,0 +1,39 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.enums;
+
+import lombok.Getter;
+
+/**
+ * 数据权限静态决策类型枚举
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.enums.DataScopeDecisionTypeEnum
+ * @CreateTime 2026/10/17 - 16:40
+ */
+
+@Getter
+public enum DataScopeDecisionTypeEnum {
+    SKIP,               // 跳过处理（非 SELECT 或已声明忽略数据权限）
+    OWNER_COLUMN,       // 按默认用户列（create_user_id）注入
+    MAPPED_COLUMN,      // 按实体映射或配置的用户列注入（列名与默认值不同）
+    NO_OWNER_COLUMN     // 表中无用户列，仅自定义规则与未知类型的恒假条件生效
+}
@@ -0,0 +1,38 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.enums;
+
+import lombok.Getter;
+
+/**
+ * 数据权限请求级缓存作用域枚举
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.enums.DataScopeMemoScopeEnum
+ * @CreateTime 2026/10/17 - 15:05
+ */
+
+@Getter
+public enum DataScopeMemoScopeEnum {
+    NONE,       // 不缓存，每次查询都调用数据权限处理器
+    THREAD,     // 线程作用域，需通过 ThreadLocalDataScopeMemoStore 显式开启
+    REQUEST     // 请求作用域，存储在 Web 请求属性中，无请求时回退到线程作用域
+}
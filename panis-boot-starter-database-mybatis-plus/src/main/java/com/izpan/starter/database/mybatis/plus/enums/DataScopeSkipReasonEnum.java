@@ -0,0 +1,43 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.enums;
+
+import lombok.Getter;
+
+/**
+ * 数据权限跳过原因枚举
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.enums.DataScopeSkipReasonEnum
+ * @CreateTime 2026/10/17 - 19:20
+ */
+
+@Getter
+public enum DataScopeSkipReasonEnum {
+    STATIC_DECISION,        // 静态决策表判定跳过
+    IGNORE_STRATEGY,        // 忽略数据权限策略
+    NOT_SELECT,             // 非 SELECT 语句
+    NO_PERMISSION_CODE,     // 权限标识为空
+    NO_DATA_SCOPE,          // 数据权限未配置
+    ALL_SCOPE,              // 全部数据权限
+    NO_OWNER_COLUMN,        // 表中无用户列
+    UNSUPPORTED_SQL         // SQL 无法改写（解析失败或包含保留标记）
+}
@@ -0,0 +1,38 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.enums;
+
+import lombok.Getter;
+
+/**
+ * 数据权限组织单位过滤方式枚举
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.enums.DataScopeUnitModeEnum
+ * @CreateTime 2026/10/17 - 22:52
+ */
+
+@Getter
+public enum DataScopeUnitModeEnum {
+    NONE,           // 仅按用户列过滤
+    UNIT,           // 表中有组织单位列时按单位列过滤（UNIT / UNIT_AND_CHILD）
+    OWNER_OR_UNIT   // 表中有组织单位列时按 用户列 OR 单位列 过滤（SELF_AND_CHILD，单位为下级组织）
+}
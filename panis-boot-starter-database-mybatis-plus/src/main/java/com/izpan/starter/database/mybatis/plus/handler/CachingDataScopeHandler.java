@@ -0,0 +1,133 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.handler;
+
+import com.izpan.starter.database.mybatis.plus.algebra.DataScopeAlgebra;
+import com.izpan.starter.database.mybatis.plus.cache.DataScopeHandlerCache;
+import com.izpan.starter.database.mybatis.plus.domain.DataScope;
+import com.izpan.starter.database.mybatis.plus.memo.DataScopeMemoStore;
+import org.apache.ibatis.mapping.MappedStatement;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 带缓存的数据权限处理器
+ * <p>
+ * 包装业务实现的 {@link IDataScopeHandler}，同一作用域（如一次 HTTP 请求）内按用户 ID、权限标识与 MappedStatement ID 缓存数据权限，
+ * 同一语句在一次请求中只解析一次角色与组织；可选叠加跨请求的 TTL 缓存。
+ * 处理器返回多角色数据权限时先合并（见 {@link DataScopeAlgebra}），缓存合并结果。
+ * 处理器结果仅与用户及权限标识相关（不依赖 MappedStatement）时，可关闭 statementScoped，使同一请求的不同语句共享缓存。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.handler.CachingDataScopeHandler
+ * @CreateTime 2026/10/17 - 15:34
+ */
+public class CachingDataScopeHandler implements IDataScopeHandler {
+
+    // 被包装的数据权限处理器
+    private final IDataScopeHandler delegate;
+
+    // 作用域缓存存储
+    private final DataScopeMemoStore memoStore;
+
+    // 跨请求缓存
+    private final DataScopeHandlerCache sharedCache;
+
+    // 多角色数据权限合并
+    private final DataScopeAlgebra scopeAlgebra;
+
+    // 缓存键是否包含 MappedStatement ID
+    private final boolean statementScoped;
+
+    public CachingDataScopeHandler(IDataScopeHandler delegate, DataScopeMemoStore memoStore, DataScopeHandlerCache sharedCache) {
+        this(delegate, memoStore, sharedCache, new DataScopeAlgebra(null));
+    }
+
+    public CachingDataScopeHandler(IDataScopeHandler delegate, DataScopeMemoStore memoStore, DataScopeHandlerCache sharedCache,
+                                   DataScopeAlgebra scopeAlgebra) {
+        this(delegate, memoStore, sharedCache, scopeAlgebra, true);
+    }
+
+    public CachingDataScopeHandler(IDataScopeHandler delegate, DataScopeMemoStore memoStore, DataScopeHandlerCache sharedCache,
+                                   DataScopeAlgebra scopeAlgebra, boolean statementScoped) {
+        this.delegate = delegate;
+        this.memoStore = memoStore;
+        this.sharedCache = sharedCache;
+        this.scopeAlgebra = scopeAlgebra;
+        this.statementScoped = statementScoped;
+    }
+
+    @Override
+    public String getPermissionCode() {
+        return delegate.getPermissionCode();
+    }
+
+    @Override
+    public Long getCurrentUserId() {
+        return delegate.getCurrentUserId();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public DataScope getDataScope(MappedStatement ms, String permissionCode) {
+        Map<Object, Object> memo = memoStore.current();
+        // 作用域内可能切换用户（如线程作用域内的批处理任务），缓存键与跨请求缓存一致，包含用户 ID
+        Long userId = delegate.getCurrentUserId();
+        String msId = statementScoped && ms != null ? ms.getId() : null;
+        MemoKey key = new MemoKey(userId, permissionCode, msId);
+        if (memo != null) {
+            Optional<DataScope> cached = (Optional<DataScope>) memo.get(key);
+            if (cached != null) {
+                return cached.orElse(null);
+            }
+        }
+
+        DataScope dataScope = sharedCache.isEnabled()
+                ? sharedCache.get(userId, permissionCode, msId, () -> load(ms, permissionCode))
+                : load(ms, permissionCode);
+        if (memo != null) {
+            memo.put(key, Optional.ofNullable(dataScope));
+        }
+        return dataScope;
+    }
+
+    @Override
+    public List<DataScope> getDataScopes(MappedStatement ms, String permissionCode) {
+        return delegate.getDataScopes(ms, permissionCode);
+    }
+
+    // 从被包装的处理器加载数据权限，多角色时合并
+    private DataScope load(MappedStatement ms, String permissionCode) {
+        List<DataScope> dataScopes = delegate.getDataScopes(ms, permissionCode);
+        return dataScopes == null ? delegate.getDataScope(ms, permissionCode) : scopeAlgebra.combine(dataScopes);
+    }
+
+    public IDataScopeHandler getDelegate() {
+        return delegate;
+    }
+
+    // 作用域缓存键，msId 为 null 表示不区分语句
+    private record MemoKey(Long userId, String permissionCode, String msId) {
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.handler;
+
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 分块结果处理器：流式读取时按块收集记录并交给消费者，内存中最多保留一块
+ * <p>
+ * 每块使用新的列表，消费者可自行保留；查询结束后需调用 {@link #flush()} 交付最后不足一块的记录。
+ * 消费者在读取过程中执行，MySQL 流式结果集未读完前同一连接不能执行其他语句，消费者需使用其他连接写库。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.handler.ChunkResultHandler
+ * @CreateTime 2026/10/17 - 11:38
+ */
+public class ChunkResultHandler<T> implements ResultHandler<T> {
+
+    // 每块记录数
+    private final int chunkSize;
+
+    // 块消费者
+    private final Consumer<List<T>> consumer;
+
+    // 当前块
+    private List<T> chunk;
+
+    // 已读取记录数
+    private long count;
+
+    public ChunkResultHandler(int chunkSize, Consumer<List<T>> consumer) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        this.consumer = consumer;
+        this.chunk = new ArrayList<>(chunkSize);
+    }
+
+    @Override
+    public void handleResult(ResultContext<? extends T> resultContext) {
+        chunk.add(resultContext.getResultObject());
+        count++;
+        if (chunk.size() >= chunkSize) {
+            flush();
+        }
+    }
+
+    /**
+     * 交付当前块，当前块为空时不调用消费者
+     *
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 11:40:22
+     */
+    public void flush() {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<T> full = chunk;
+        chunk = new ArrayList<>(chunkSize);
+        consumer.accept(full);
+    }
+
+    /**
+     * 已读取记录数
+     *
+     * @return long 记录数
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 11:40:48
+     */
+    public long getCount() {
+        return count;
+    }
+}
@@ -22,6 +22,8 @@ package com.izpan.starter.database.mybatis.plus.handler;
 import com.izpan.starter.database.mybatis.plus.domain.DataScope;
 import org.apache.ibatis.mapping.MappedStatement;
 
+import java.util.List;
+
 /**
  * 数据权限处理器接口
  * 用于获取数据权限信息
@@ -62,4 +64,19 @@ public interface IDataScopeHandler {
      */
     DataScope getDataScope(MappedStatement ms, String permissionCode);
 
+    /**
+     * 获取多角色数据权限信息
+     * 用户拥有多个角色时返回各角色的数据权限，由 DataScopeAlgebra 合并为最小等价的数据权限；
+     * 默认返回 null，表示使用 {@link #getDataScope(MappedStatement, String)}
+     *
+     * @param ms             MyBatis 映射语句对象
+     * @param permissionCode 权限标识
+     * @return 各角色的数据权限信息
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:48:16
+     */
+    default List<DataScope> getDataScopes(MappedStatement ms, String permissionCode) {
+        return null;
+    }
+
 }
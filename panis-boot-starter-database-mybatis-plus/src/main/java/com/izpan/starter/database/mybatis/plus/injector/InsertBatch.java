@@ -0,0 +1,115 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.injector;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.core.injector.AbstractMethod;
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+import com.baomidou.mybatisplus.core.toolkit.sql.SqlInjectionUtils;
+import com.baomidou.mybatisplus.core.toolkit.sql.SqlScriptUtils;
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
+import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlSource;
+
+import java.io.Serial;
+import java.util.stream.Collectors;
+
+/**
+ * 多行 VALUES 批量插入：一条 INSERT 语句写入整批记录
+ * <p>
+ * 写入全部字段，不按插入策略省略空值，保证每行列数一致；主键生成与自动填充与 MyBatis Plus 单条插入一致。
+ * 单条语句的行数不做限制，由 {@link MultiRowBatch} 按 max_allowed_packet 与参数数量上限分批调用。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.injector.InsertBatch
+ * @CreateTime 2026/10/17 - 10:52
+ */
+public class InsertBatch extends AbstractMethod {
+
+    @Serial
+    private static final long serialVersionUID = 2901818434459603198L;
+
+    /**
+     * 注入的 Mapper 方法名
+     */
+    public static final String METHOD = "insertBatchValues";
+
+    // 多行插入脚本：表名、列、VALUES 列表、后缀
+    private static final String SQL = "<script>\nINSERT INTO %s %s VALUES %s%s\n</script>";
+
+    public InsertBatch() {
+        super(METHOD);
+    }
+
+    protected InsertBatch(String methodName) {
+        super(methodName);
+    }
+
+    @Override
+    public MappedStatement injectMappedStatement(Class<?> mapperClass, Class<?> modelClass, TableInfo tableInfo) {
+        String columns = tableInfo.getKeyInsertSqlColumn(true, null, false)
+                + tableInfo.getFieldList().stream().map(TableFieldInfo::getInsertSqlColumn).collect(Collectors.joining());
+        String properties = tableInfo.getKeyInsertSqlProperty(true, ENTITY_DOT, false)
+                + tableInfo.getFieldList().stream().map(field -> field.getInsertSqlProperty(ENTITY_DOT)).collect(Collectors.joining());
+        String values = SqlScriptUtils.convertForeach(wrap(properties), Constants.LIST, null, Constants.ENTITY, COMMA);
+
+        KeyGenerator keyGenerator = NoKeyGenerator.INSTANCE;
+        String keyProperty = null;
+        String keyColumn = null;
+        if (tableInfo.havePK()) {
+            if (tableInfo.getIdType() == IdType.AUTO) {
+                keyGenerator = Jdbc3KeyGenerator.INSTANCE;
+                keyProperty = tableInfo.getKeyProperty();
+                keyColumn = SqlInjectionUtils.removeEscapeCharacter(tableInfo.getKeyColumn());
+            } else if (tableInfo.getKeySequence() != null) {
+                keyGenerator = TableInfoHelper.genKeyGenerator(methodName, tableInfo, builderAssistant);
+                keyProperty = tableInfo.getKeyProperty();
+                keyColumn = tableInfo.getKeyColumn();
+            }
+        }
+        String sql = String.format(SQL, tableInfo.getTableName(), wrap(columns), values, suffix(tableInfo));
+        SqlSource sqlSource = super.createSqlSource(configuration, sql, modelClass);
+        return addInsertMappedStatement(mapperClass, modelClass, methodName, sqlSource, keyGenerator, keyProperty, keyColumn);
+    }
+
+    /**
+     * VALUES 列表之后追加的子句，多行插入无后缀
+     *
+     * @param tableInfo 表信息
+     * @return {@link String} 子句
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 10:55:36
+     */
+    protected String suffix(TableInfo tableInfo) {
+        return EMPTY;
+    }
+
+    // 去掉末尾逗号并加括号
+    private static String wrap(String items) {
+        return LEFT_BRACKET + items.substring(0, items.length() - 1) + RIGHT_BRACKET;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.injector;
+
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.core.toolkit.ExceptionUtils;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * 多行批量写入分批器
+ * <p>
+ * 按记录估算 SQL 文本大小，累计到 max_allowed_packet 的 3/4 时切分，同时保证单条语句的参数数量不超过 MySQL 上限 65535。
+ * MySQL 驱动默认在客户端拼接参数，估算按字面量长度的上界计算（字符串按每字符 3 字节），宁可多分批也不超出包大小。
+ * max_allowed_packet 在启动时从数据源读取，读取失败时使用 MySQL 5.7 的默认值 4MB。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.injector.MultiRowBatch
+ * @CreateTime 2026/10/17 - 11:06
+ */
+@Slf4j
+@UtilityClass
+public class MultiRowBatch {
+
+    /**
+     * 默认包大小上限
+     */
+    public static final long DEFAULT_MAX_PACKET_BYTES = 4L * 1024 * 1024;
+
+    // 单条预编译语句的参数数量上限
+    private static final int MAX_PARAMETERS = 65535;
+
+    // INSERT 语句头部与 ON DUPLICATE KEY UPDATE 子句的预留大小
+    private static final int STATEMENT_OVERHEAD = 8192;
+
+    // 包大小上限
+    private static volatile long maxPacketBytes = DEFAULT_MAX_PACKET_BYTES;
+
+    /**
+     * 从数据源读取 max_allowed_packet，失败时保留当前值
+     *
+     * @param dataSource 数据源
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 11:08:24
+     */
+    public static void detectMaxPacketBytes(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT @@max_allowed_packet")) {
+            if (resultSet.next() && resultSet.getLong(1) > 0) {
+                maxPacketBytes = resultSet.getLong(1);
+                log.debug("[MultiRowBatch] max_allowed_packet={}", maxPacketBytes);
+            }
+        } catch (SQLException e) {
+            log.warn("[MultiRowBatch] 读取 max_allowed_packet 失败, 使用 {} 字节, 错误={}", maxPacketBytes, e.getMessage());
+        }
+    }
+
+    public static long getMaxPacketBytes() {
+        return maxPacketBytes;
+    }
+
+    public static void setMaxPacketBytes(long maxPacketBytes) {
+        MultiRowBatch.maxPacketBytes = maxPacketBytes;
+    }
+
+    /**
+     * 分批执行多行写入
+     *
+     * @param entities  实体集合
+     * @param statement 单批写入语句，返回影响行数
+     * @return int 影响行数之和
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 11:10:52
+     */
+    public static <T> int execute(Collection<T> entities, ToIntFunction<List<T>> statement) {
+        if (entities == null || entities.isEmpty()) {
+            return 0;
+        }
+        List<T> list = entities instanceof List<T> entityList ? entityList : new ArrayList<>(entities);
+        TableInfo tableInfo = TableInfoHelper.getTableInfo(list.getFirst().getClass());
+        if (tableInfo == null) {
+            throw ExceptionUtils.mpe("未找到实体 %s 的表信息", list.getFirst().getClass().getName());
+        }
+        List<TableFieldInfo> fields = tableInfo.getFieldList();
+        String keyProperty = tableInfo.havePK() ? tableInfo.getKeyProperty() : null;
+        int columns = fields.size() + (keyProperty == null ? 0 : 1);
+        int maxRows = Math.max(1, MAX_PARAMETERS / columns);
+        long budget = Math.max(STATEMENT_OVERHEAD, maxPacketBytes * 3 / 4 - STATEMENT_OVERHEAD);
+
+        int affected = 0;
+        int from = 0;
+        long bytes = 0;
+        for (int i = 0, size = list.size(); i < size; i++) {
+            long rowBytes = rowBytes(tableInfo, fields, keyProperty, list.get(i));
+            if (i > from && (bytes + rowBytes > budget || i - from >= maxRows)) {
+                affected += statement.applyAsInt(list.subList(from, i));
+                from = i;
+                bytes = 0;
+            }
+            bytes += rowBytes;
+        }
+        return affected + statement.applyAsInt(list.subList(from, list.size()));
+    }
+
+    // 单行 VALUES 文本大小上界：各值字面量长度 + 分隔符与括号
+    private static long rowBytes(TableInfo tableInfo, List<TableFieldInfo> fields, String keyProperty, Object entity) {
+        long bytes = 4 + fields.size() * 2L;
+        if (keyProperty != null) {
+            bytes += valueBytes(tableInfo.getPropertyValue(entity, keyProperty));
+        }
+        for (TableFieldInfo field : fields) {
+            bytes += valueBytes(tableInfo.getPropertyValue(entity, field.getProperty()));
+        }
+        return bytes;
+    }
+
+    private static long valueBytes(Object value) {
+        return switch (value) {
+            case null -> 4;
+            case Number ignored -> 24;
+            case Boolean ignored -> 5;
+            case Temporal ignored -> 32;
+            case Date ignored -> 32;
+            case CharSequence text -> text.length() * 3L + 2;
+            case byte[] binary -> binary.length * 2L + 3;
+            default -> value.toString().length() * 3L + 2;
+        };
+    }
+}
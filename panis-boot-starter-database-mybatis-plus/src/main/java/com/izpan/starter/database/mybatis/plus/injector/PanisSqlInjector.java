@@ -0,0 +1,68 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.injector;
+
+import com.baomidou.mybatisplus.core.injector.AbstractMethod;
+import com.baomidou.mybatisplus.core.injector.DefaultSqlInjector;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.izpan.starter.database.mybatis.plus.mapper.PanisBaseMapper;
+import org.apache.ibatis.session.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SQL 注入器，在默认方法之外为 {@link PanisBaseMapper} 注入多行批量插入、批量插入或更新与流式查询
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.injector.PanisSqlInjector
+ * @CreateTime 2026/10/17 - 11:02
+ */
+public class PanisSqlInjector extends DefaultSqlInjector {
+
+    /**
+     * 流式查询默认 fetchSize，MySQL 驱动逐行读取
+     */
+    public static final int DEFAULT_STREAM_FETCH_SIZE = Integer.MIN_VALUE;
+
+    // 流式查询 fetchSize
+    private final int streamFetchSize;
+
+    public PanisSqlInjector() {
+        this(DEFAULT_STREAM_FETCH_SIZE);
+    }
+
+    public PanisSqlInjector(int streamFetchSize) {
+        this.streamFetchSize = streamFetchSize;
+    }
+
+    @Override
+    public List<AbstractMethod> getMethodList(Configuration configuration, Class<?> mapperClass, TableInfo tableInfo) {
+        List<AbstractMethod> methods = new ArrayList<>(super.getMethodList(configuration, mapperClass, tableInfo));
+        // 仅继承 PanisBaseMapper 的 Mapper 声明了扩展方法，其余 Mapper 不注入
+        if (PanisBaseMapper.class.isAssignableFrom(mapperClass)) {
+            methods.add(new InsertBatch());
+            methods.add(new UpsertBatch());
+            methods.add(new SelectStreamList(streamFetchSize));
+        }
+        return methods;
+    }
+}
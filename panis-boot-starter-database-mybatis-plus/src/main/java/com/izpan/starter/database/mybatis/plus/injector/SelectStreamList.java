@@ -0,0 +1,83 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.injector;
+
+import com.baomidou.mybatisplus.core.enums.SqlMethod;
+import com.baomidou.mybatisplus.core.injector.AbstractMethod;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.mapping.StatementType;
+
+import java.io.Serial;
+
+/**
+ * 流式条件查询：SQL 与 selectList 一致，语句设置 fetchSize 与只进结果集，配合 ResultHandler 逐行读取
+ * <p>
+ * MySQL 下 fetchSize 为 Integer.MIN_VALUE 时驱动逐行读取结果，JDBC URL 开启 useCursorFetch=true 时可使用正数按批读取。
+ * 查询经由 Executor#query 执行，分页、数据权限等内部拦截器照常生效；Cursor 查询不经过 MybatisPlusInterceptor，因此不使用 Cursor。
+ * 语句不使用二级缓存，避免结果被整体缓存。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.injector.SelectStreamList
+ * @CreateTime 2026/10/17 - 11:32
+ */
+public class SelectStreamList extends AbstractMethod {
+
+    @Serial
+    private static final long serialVersionUID = 2611956771690458041L;
+
+    /**
+     * 注入的 Mapper 方法名
+     */
+    public static final String METHOD = "selectStreamList";
+
+    // 语句 fetchSize
+    private final int fetchSize;
+
+    public SelectStreamList(int fetchSize) {
+        super(METHOD);
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public MappedStatement injectMappedStatement(Class<?> mapperClass, Class<?> modelClass, TableInfo tableInfo) {
+        String statementName = mapperClass.getName() + DOT + methodName;
+        if (configuration.hasStatement(statementName, false)) {
+            // 与 MyBatis-Plus 一致，XML 或注解已定义同名语句时不注入
+            logger.warn("[" + statementName + "] Has been loaded by XML or SqlProvider or Mybatis's Annotation, so ignoring this injection for [" + getClass() + "]");
+            return null;
+        }
+        String sql = String.format(SqlMethod.SELECT_LIST.getSql(), sqlFirst(), sqlSelectColumns(tableInfo, true),
+                tableInfo.getTableName(), sqlWhereEntityWrapper(true, tableInfo), sqlOrderBy(tableInfo), sqlComment());
+        SqlSource sqlSource = super.createSqlSource(configuration, sql, modelClass);
+        String resultMap = tableInfo.getResultMap();
+        Class<?> resultType = resultMap == null ? modelClass : null;
+        return builderAssistant.addMappedStatement(methodName, sqlSource, StatementType.PREPARED, SqlCommandType.SELECT,
+                fetchSize, null, null, null, resultMap, resultType, ResultSetType.FORWARD_ONLY,
+                false, false, false, NoKeyGenerator.INSTANCE, null, null, configuration.getDatabaseId(),
+                languageDriver, null);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.injector;
+
+import com.baomidou.mybatisplus.annotation.FieldFill;
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+
+import java.io.Serial;
+import java.util.stream.Collectors;
+
+/**
+ * 多行批量插入或更新：{@code INSERT ... VALUES (...), (...) ON DUPLICATE KEY UPDATE col = VALUES(col)}
+ * <p>
+ * 主键或唯一键冲突时更新除主键、逻辑删除字段与仅插入时填充字段（如创建人、创建时间）外的全部字段。
+ * 使用 {@code VALUES(col)} 写法以兼容 MariaDB 与 MySQL 8.0.19 之前的版本。
+ * MySQL 对每条插入的行计 1、更新的行计 2，返回值为二者之和。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.injector.UpsertBatch
+ * @CreateTime 2026/10/17 - 10:58
+ */
+public class UpsertBatch extends InsertBatch {
+
+    @Serial
+    private static final long serialVersionUID = -5615547785075771054L;
+
+    /**
+     * 注入的 Mapper 方法名
+     */
+    public static final String METHOD = "upsertBatchValues";
+
+    // 冲突更新子句
+    private static final String ON_DUPLICATE_KEY_UPDATE = " ON DUPLICATE KEY UPDATE ";
+
+    public UpsertBatch() {
+        super(METHOD);
+    }
+
+    @Override
+    protected String suffix(TableInfo tableInfo) {
+        String assignments = tableInfo.getFieldList().stream()
+                .filter(field -> field.getFieldFill() != FieldFill.INSERT && !field.isLogicDelete())
+                .map(TableFieldInfo::getColumn)
+                .map(column -> column + " = VALUES(" + column + ")")
+                .collect(Collectors.joining(COMMA));
+        if (assignments.isEmpty()) {
+            // 无可更新字段时以主键自赋值忽略冲突行
+            String keyColumn = tableInfo.getKeyColumn();
+            assignments = keyColumn + " = " + keyColumn;
+        }
+        return ON_DUPLICATE_KEY_UPDATE + assignments;
+    }
+}
@@ -22,34 +22,64 @@ package com.izpan.starter.database.mybatis.plus.interceptor;
 import com.baomidou.mybatisplus.core.plugins.InterceptorIgnoreHelper;
 import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
 import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
+import com.izpan.starter.database.mybatis.plus.algebra.DataScopeAlgebra;
+import com.izpan.starter.database.mybatis.plus.cache.DataScopeRuleCache;
+import com.izpan.starter.database.mybatis.plus.cache.LruCache;
+import com.izpan.starter.database.mybatis.plus.config.DataScopeProperties;
+import com.izpan.starter.database.mybatis.plus.decision.DataScopeColumnMapping;
+import com.izpan.starter.database.mybatis.plus.decision.DataScopeDecision;
+import com.izpan.starter.database.mybatis.plus.decision.DataScopeDecisionTable;
 import com.izpan.starter.database.mybatis.plus.domain.DataScope;
+import com.izpan.starter.database.mybatis.plus.domain.ScopeIdSet;
+import com.izpan.starter.database.mybatis.plus.enums.DataScopeBindModeEnum;
+import com.izpan.starter.database.mybatis.plus.enums.DataScopeDecisionTypeEnum;
+import com.izpan.starter.database.mybatis.plus.enums.DataScopeSkipReasonEnum;
 import com.izpan.starter.database.mybatis.plus.enums.DataScopeTypeEnum;
+import com.izpan.starter.database.mybatis.plus.enums.DataScopeUnitModeEnum;
 import com.izpan.starter.database.mybatis.plus.handler.IDataScopeHandler;
-import lombok.RequiredArgsConstructor;
+import com.izpan.starter.database.mybatis.plus.metrics.DataScopeAuditSampler;
+import com.izpan.starter.database.mybatis.plus.metrics.DataScopeMetrics;
+import com.izpan.starter.database.mybatis.plus.org.DataScopeOrgTree;
+import com.izpan.starter.database.mybatis.plus.resolver.DataScopeRuleCompiler;
+import com.izpan.starter.database.mybatis.plus.resolver.DataScopeRuleTemplate;
+import com.izpan.starter.database.mybatis.plus.resolver.DataScopeVariableRegistry;
+import com.izpan.starter.database.mybatis.plus.rewrite.DataScopeFingerprint;
+import com.izpan.starter.database.mybatis.plus.rewrite.DataScopeParameterBinder;
+import com.izpan.starter.database.mybatis.plus.rewrite.DataScopeParseBudgetException;
+import com.izpan.starter.database.mybatis.plus.rewrite.DataScopeParseCircuitBreaker;
+import com.izpan.starter.database.mybatis.plus.rewrite.DataScopeParseContext;
+import com.izpan.starter.database.mybatis.plus.rewrite.DataScopePredicate;
+import com.izpan.starter.database.mybatis.plus.rewrite.DataScopePredicatePushdown;
+import com.izpan.starter.database.mybatis.plus.rewrite.DataScopePredicateRenderer;
+import com.izpan.starter.database.mybatis.plus.rewrite.DataScopeProjectionPruner;
+import com.izpan.starter.database.mybatis.plus.rewrite.DataScopeRewriteKey;
+import com.izpan.starter.database.mybatis.plus.rewrite.DataScopeSqlParser;
+import com.izpan.starter.database.mybatis.plus.rewrite.DataScopeSqlTemplate;
+import com.izpan.starter.database.mybatis.plus.rewrite.SimpleSelectRewriter;
+import com.izpan.starter.database.mybatis.plus.visibility.DataScopeVisibilityStore;
 import lombok.extern.slf4j.Slf4j;
 import net.sf.jsqlparser.JSQLParserException;
 import net.sf.jsqlparser.expression.Expression;
 import net.sf.jsqlparser.expression.LongValue;
-import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
 import net.sf.jsqlparser.expression.operators.relational.EqualsTo;
-import net.sf.jsqlparser.expression.operators.relational.InExpression;
-import net.sf.jsqlparser.expression.operators.relational.ParenthesedExpressionList;
-import net.sf.jsqlparser.parser.CCJSqlParserUtil;
 import net.sf.jsqlparser.schema.Column;
-import net.sf.jsqlparser.statement.select.PlainSelect;
 import net.sf.jsqlparser.statement.select.Select;
-import net.sf.jsqlparser.statement.select.SetOperationList;
+import org.apache.ibatis.builder.annotation.ProviderSqlSource;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.scripting.xmltags.DynamicSqlSource;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 数据权限拦截器
@@ -61,15 +91,122 @@ import java.util.Set;
  * @CreateTime 2025/5/12 - 11:26
  */
 @Slf4j
-@RequiredArgsConstructor
 public class DataScopeInterceptor implements InnerInterceptor {
 
-    // 用户ID列名，用于权限过滤
-    private static final String USER_ID_COLUMN = "create_user_id";
+    // 默认用户ID列名，用于权限过滤，可通过 panis.data-scope.owner-column 修改
+    public static final String USER_ID_COLUMN = "create_user_id";
 
-    // 数据权限处理器，负责获取权限信息和缓存 SQL
+    // 恒假谓词，规则条件编译失败时使用
+    private static final String FALSE_PREDICATE = "1 = 0";
+
+    // 预热使用的占位权限标识
+    private static final String WARMUP_PERMISSION_CODE = "__warmup";
+
+    // 数据权限处理器，负责获取权限信息
     private final IDataScopeHandler dataScopeHandler;
 
+    // SQL 改写模板缓存，未启用时为 null
+    private final LruCache<DataScopeRewriteKey, DataScopeSqlTemplate> rewriteCache;
+
+    // 自定义规则表达式缓存
+    private final DataScopeRuleCache ruleCache;
+
+    // 条件列表规则编译器，按规则内容缓存预编译的谓词模板
+    private final DataScopeRuleCompiler ruleCompiler;
+
+    // 是否启用简单单表查询的快速改写
+    private final boolean fastPath;
+
+    // 是否对快速改写结果做差异校验
+    private final boolean fastPathVerify;
+
+    // 带预算的 SQL 解析器
+    private final DataScopeSqlParser sqlParser;
+
+    // 按 msId 的解析熔断器
+    private final DataScopeParseCircuitBreaker circuitBreaker;
+
+    // 解析失败时是否使用恒假条件
+    private final boolean failClosed;
+
+    // 权限列映射
+    private final DataScopeColumnMapping columnMapping;
+
+    // 组织树索引，未配置时为 null
+    private final DataScopeOrgTree orgTree;
+
+    // 数据权限合并，负责按组织树展开组织单位
+    private final DataScopeAlgebra scopeAlgebra;
+
+    // 权限谓词渲染器，按权限列名区分
+    private final Map<String, DataScopePredicateRenderer> predicateRenderers = new ConcurrentHashMap<>();
+
+    // 权限值绑定方式
+    private final DataScopeBindModeEnum bindMode;
+
+    // 单条谓词允许的最大参数数量
+    private final int maxBindParameters;
+
+    // 指标上报
+    private final DataScopeMetrics metrics;
+
+    // 审计日志采样器
+    private final DataScopeAuditSampler auditSampler;
+
+    // 启动时计算的静态决策表
+    private volatile DataScopeDecisionTable decisionTable = DataScopeDecisionTable.EMPTY;
+
+    // 权限参数绑定器
+    private final DataScopeParameterBinder parameterBinder = new DataScopeParameterBinder();
+
+    // 可见性物化表，未启用时为 null
+    private volatile DataScopeVisibilityStore visibilityStore;
+
+    // 规则变量注册表，未配置时只使用 DataScope 中的变量值
+    private volatile DataScopeVariableRegistry variableRegistry;
+
+    public DataScopeInterceptor(IDataScopeHandler dataScopeHandler) {
+        this(dataScopeHandler, new DataScopeProperties());
+    }
+
+    public DataScopeInterceptor(IDataScopeHandler dataScopeHandler, DataScopeProperties properties) {
+        this(dataScopeHandler, properties, DataScopeMetrics.NOOP);
+    }
+
+    public DataScopeInterceptor(IDataScopeHandler dataScopeHandler, DataScopeProperties properties, DataScopeMetrics metrics) {
+        this(dataScopeHandler, properties, metrics, null);
+    }
+
+    public DataScopeInterceptor(IDataScopeHandler dataScopeHandler, DataScopeProperties properties, DataScopeMetrics metrics,
+                                DataScopeOrgTree orgTree) {
+        this.dataScopeHandler = dataScopeHandler;
+        this.orgTree = orgTree;
+        this.scopeAlgebra = new DataScopeAlgebra(orgTree);
+        this.metrics = metrics;
+        DataScopeProperties.Audit audit = properties.getAudit();
+        this.auditSampler = new DataScopeAuditSampler(audit.isEnabled(), audit.getSampleRate(), audit.getMaxPerSecond());
+        DataScopeProperties.RewriteCache cacheProperties = properties.getRewriteCache();
+        this.rewriteCache = cacheProperties.isEnabled() ? new LruCache<>(cacheProperties.getMaxSize()) : null;
+        DataScopeProperties.RuleCache ruleCacheProperties = properties.getRuleCache();
+        this.ruleCache = new DataScopeRuleCache(ruleCacheProperties.isEnabled(), ruleCacheProperties.getMaxSize());
+        this.ruleCompiler = new DataScopeRuleCompiler(ruleCacheProperties.isEnabled(), ruleCacheProperties.getMaxSize());
+        this.fastPath = properties.getFastPath().isEnabled();
+        this.fastPathVerify = properties.getFastPath().isVerify();
+        DataScopeProperties.Parser parser = properties.getParser();
+        this.sqlParser = new DataScopeSqlParser(parser.getMaxLength(), parser.getMaxTokens(), parser.getMaxParentheses(),
+                parser.getMaxNestingDepth(), parser.getMaxBooleanTerms(), parser.getTimeout());
+        this.circuitBreaker = new DataScopeParseCircuitBreaker(parser.getFailureThreshold(), parser.getOpenDuration());
+        this.failClosed = parser.isFailClosed();
+        this.bindMode = properties.getBindMode();
+        this.maxBindParameters = properties.getMaxBindParameters();
+        this.columnMapping = new DataScopeColumnMapping(properties.getOwnerColumn(), properties.getTables());
+        if (rewriteCache != null) {
+            metrics.bindCache("rewrite", rewriteCache::hitCount, rewriteCache::missCount, rewriteCache::size);
+        }
+        metrics.bindCache("rule", ruleCache::hitCount, ruleCache::missCount, ruleCache::size);
+        metrics.bindCache("rule-template", ruleCompiler::hitCount, ruleCompiler::missCount, ruleCompiler::size);
+    }
+
     /**
      * 拦截 SQL 查询，添加数据权限条件
      *
@@ -84,125 +221,350 @@ public class DataScopeInterceptor implements InnerInterceptor {
      */
     @Override
     public void beforeQuery(Executor executor, MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql) {
-        log.debug("[DataScope] msId={} - SQL 拦截器开始执行", ms.getId());
-        // 检查是否忽略数据权限
-        boolean strategy = InterceptorIgnoreHelper.willIgnoreDataPermission(ms.getId());
+        String msId = ms.getId();
+        // 静态决策为跳过时直接返回
+        DataScopeDecision decision = decisionTable.get(msId);
+        if (decision != null && decision.type() == DataScopeDecisionTypeEnum.SKIP) {
+            metrics.recordSkip(DataScopeSkipReasonEnum.STATIC_DECISION);
+            return;
+        }
+        // 检查是否忽略数据权限（静态决策已排除注解声明的忽略，此处仍需兼顾线程级忽略策略）
+        boolean strategy = InterceptorIgnoreHelper.willIgnoreDataPermission(msId);
         if (strategy) {
-            log.debug("[DataScope] msId={} - 忽略数据权限策略", ms.getId());
+            log.debug("[DataScope] msId={} - 忽略数据权限策略", msId);
+            metrics.recordSkip(DataScopeSkipReasonEnum.IGNORE_STRATEGY);
             return;
         }
 
         String permissionCode = null;
+        // 保留原 SQL 与参数映射，处理异常时据此降级为恒假条件
+        String sourceSql = boundSql.getSql();
+        List<ParameterMapping> sourceMappings = boundSql.getParameterMappings();
         try {
             // 仅处理 SELECT 语句
-            if (ms.getSqlCommandType() != SqlCommandType.SELECT) {
-                log.debug("[DataScope] msId={} - 非 SELECT 语句, 命令类型={}, 跳过处理", ms.getId(), ms.getSqlCommandType());
+            if (decision == null && ms.getSqlCommandType() != SqlCommandType.SELECT) {
+                log.debug("[DataScope] msId={} - 非 SELECT 语句, 命令类型={}, 跳过处理", msId, ms.getSqlCommandType());
+                metrics.recordSkip(DataScopeSkipReasonEnum.NOT_SELECT);
                 return;
             }
 
             // 获取权限标识
             permissionCode = dataScopeHandler.getPermissionCode();
             if (permissionCode == null || permissionCode.isEmpty()) {
-                log.debug("[DataScope] msId={} - 权限标识为空, 跳过处理", ms.getId());
+                log.debug("[DataScope] msId={} - 权限标识为空, 跳过处理", msId);
+                metrics.recordSkip(DataScopeSkipReasonEnum.NO_PERMISSION_CODE);
                 return;
             }
 
             // 获取数据权限
             DataScope dataScope = dataScopeHandler.getDataScope(ms, permissionCode);
             if (null == dataScope) {
-                log.debug("[DataScope] 权限码={} msId={} - 数据权限未配置, 跳过处理", permissionCode, ms.getId());
+                log.debug("[DataScope] 权限码={} msId={} - 数据权限未配置, 跳过处理", permissionCode, msId);
+                metrics.recordSkip(DataScopeSkipReasonEnum.NO_DATA_SCOPE);
                 return;
             }
 
             Long userId = dataScope.getCurrentUserId();
-            if (DataScopeTypeEnum.ALL.equals(dataScope.getScopeType())) {
-                log.debug("[DataScope] 用户ID={} 权限码={} msId={} - 数据权限为 ALL, 无需处理",
-                        userId, permissionCode, ms.getId());
+            // 配置了可见字段时仍需裁剪结果列，不限制数据行
+            boolean projection = StringUtils.hasText(dataScope.getCustomFields());
+            boolean rowScope = !DataScopeTypeEnum.ALL.equals(dataScope.getScopeType());
+            if (!rowScope && !projection) {
+                log.debug("[DataScope] 用户ID={} 权限码={} msId={} - 数据权限为 ALL, 无需处理", userId, permissionCode, msId);
+                metrics.recordSkip(DataScopeSkipReasonEnum.ALL_SCOPE);
                 return;
             }
 
-            // 构建带权限条件的 SQL（移除SQL缓存，因为不同查询参数会导致缓存错误）
+            // 未提供组织单位集合时按当前组织单位展开（返回副本，不修改处理器缓存的实例），表中无可用权限列时权限谓词无意义，不做改写
+            dataScope = scopeAlgebra.resolveUnitScope(dataScope);
+            // 权限用户数量达到阈值时物化可见关系，后台物化完成前或失败时仍使用 IN 列表
+            DataScopeVisibilityStore visibility = visibilityStore;
+            if (visibility != null) {
+                visibility.materialize(dataScope);
+            }
+            DataScopeUnitModeEnum unitMode = unitMode(dataScope);
+            boolean unit = unitMode != DataScopeUnitModeEnum.NONE;
+            if (rowScope && decision != null && decision.scopeColumn(unit) == null && hasOwnerSlot(dataScope)) {
+                if (!projection) {
+                    log.debug("[DataScope] 用户ID={} 权限码={} msId={} - 表中无用户列, 跳过处理", userId, permissionCode, msId);
+                    metrics.recordSkip(DataScopeSkipReasonEnum.NO_OWNER_COLUMN);
+                    return;
+                }
+                rowScope = false;
+            }
+
+            // 构建带权限条件的 SQL（模板按 msId + 原始 SQL + 权限指纹缓存，权限值在渲染时填入）
+            long startNanos = System.nanoTime();
+            String column = decision != null && decision.scopeColumn(unit) != null ? decision.scopeColumn(unit) : columnMapping.ownerColumn();
             PluginUtils.MPBoundSql mpBs = PluginUtils.mpBoundSql(boundSql);
             String originalSql = mpBs.sql();
-            String processedSql = buildDataScopeSql(originalSql, dataScope);
-            mpBs.sql(processedSql);
+            DataScopeSqlTemplate template = resolveTemplate(msId, originalSql, dataScope, column, unitMode, rowScope);
+            if (template == null) {
+                metrics.recordSkip(DataScopeSkipReasonEnum.UNSUPPORTED_SQL);
+                return;
+            }
+            Map<String, String> predicates = null;
+            int predicateLength = 0;
+            String scopedSql;
+            String[] slotKeys = template.slotKeys();
+            if (slotKeys.length == 1) {
+                // 单一占位键（常见情况），所有占位使用同一谓词
+                String slotKey = slotKeys[0];
+                DataScopePredicate predicate = renderPredicate(slotKey, column, dataScope, false);
+                String predicateSql = predicate.sql();
+                if (predicate.hasParameters() && !parameterBinder.bind(boundSql, ms.getConfiguration(), template, predicate.values())) {
+                    // 参数位置无法对应时降级为字面量
+                    log.warn("[DataScope] msId={} - 权限参数位置与原参数不一致, 降级为字面量", msId);
+                    predicateSql = renderPredicate(slotKey, column, dataScope, true).sql();
+                }
+                predicates = Map.of(slotKey, predicateSql);
+                predicateLength = predicateSql.length();
+                scopedSql = template.render(predicateSql);
+            } else if (slotKeys.length > 1) {
+                predicates = renderPredicates(ms, boundSql, template, dataScope, column);
+                predicateLength = predicates.get(slotKeys[0]).length();
+                scopedSql = template.render(predicates);
+            } else {
+                scopedSql = template.render((String) null);
+            }
+            mpBs.sql(scopedSql);
+            // 挂载解析上下文，供分页拦截器从模板派生 COUNT 语句
+            DataScopeParseContext.attach(boundSql, new DataScopeParseContext(scopedSql, template.markedSql(), predicates));
+            metrics.recordRewrite(dataScope.getScopeType(), System.nanoTime() - startNanos, predicateLength);
 
-            // 记录 SQL 处理日志
-            log.info("[DataScope] 用户ID={} 权限码={}, 权限类型={}, msId={} - SQL 处理完成",
-                    userId, permissionCode, dataScope.getScopeType(), ms.getId());
+            // 审计日志按采样率与每秒上限输出
+            if (auditSampler.tryAcquire()) {
+                log.info("[DataScope] 用户ID={} 权限码={}, 权限类型={}, msId={} - SQL 处理完成",
+                        userId, permissionCode, dataScope.getScopeType(), msId);
+            }
         } catch (Exception e) {
             log.error("[DataScope] 权限码={} msId={} - SQL 处理异常, sql={}, 错误={}",
-                    permissionCode, ms.getId(), boundSql.getSql(), e.getMessage(), e);
+                    permissionCode, msId, sourceSql, e.getMessage(), e);
+            if (!failClosed) {
+                return;
+            }
+            if (ms.getSqlCommandType() != SqlCommandType.SELECT) {
+                throw e;
+            }
+            // 处理器、谓词渲染、参数绑定等非解析异常同样不能以原 SQL 执行：恢复原参数映射并使用恒假条件
+            metrics.recordFailClosed();
+            String failClosedSql = circuitBreaker.failClosedTemplate(msId, sourceSql).render((String) null);
+            PluginUtils.MPBoundSql mpBs = PluginUtils.mpBoundSql(boundSql);
+            mpBs.parameterMappings(sourceMappings);
+            mpBs.sql(failClosedSql);
+            DataScopeParseContext.attach(boundSql, new DataScopeParseContext(failClosedSql, failClosedSql, null));
+        }
+    }
+
+
+    /**
+     * 预热指定语句的改写模板：以占位权限值按与查询相同的流程解析 SQL 并填充改写缓存，同时预热谓词渲染
+     * <p>
+     * 仅处理可在无参数时生成 SQL 的语句，Provider 语句需执行用户代码，不做预热；动态 SQL 以空参数生成一种形态，失败时跳过
+     * </p>
+     *
+     * @param ms        MappedStatement
+     * @param scopeType 预热的权限类型
+     * @return boolean 是否已生成可缓存的模板
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:58:24
+     */
+    public boolean warmUp(MappedStatement ms, DataScopeTypeEnum scopeType) {
+        String msId = ms.getId();
+        DataScopeDecision decision = decisionTable.get(msId);
+        if (decision != null && decision.type() == DataScopeDecisionTypeEnum.SKIP
+                || decision == null && ms.getSqlCommandType() != SqlCommandType.SELECT
+                || scopeType == DataScopeTypeEnum.ALL || ms.getSqlSource() instanceof ProviderSqlSource) {
+            return false;
+        }
+        String originalSql;
+        try {
+            originalSql = ms.getSqlSource() instanceof DynamicSqlSource
+                    ? ms.getBoundSql(new HashMap<>()).getSql() : ms.getBoundSql(null).getSql();
+        } catch (Exception e) {
+            log.debug("[DataScope] msId={} - 无法以空参数生成 SQL, 跳过预热, 错误={}", msId, e.getMessage());
+            return false;
+        }
+        ScopeIdSet placeholder = ScopeIdSet.of(0L);
+        DataScope dataScope = DataScope.builder().scopeType(scopeType).currentUserId(0L).permissionCode(WARMUP_PERMISSION_CODE)
+                .scopeUserIdSet(placeholder).scopeUnitIdSet(placeholder).build();
+        DataScopeUnitModeEnum unitMode = unitMode(dataScope);
+        boolean unit = unitMode != DataScopeUnitModeEnum.NONE;
+        if (decision != null && decision.scopeColumn(unit) == null) {
+            return false;
+        }
+        String column = decision != null ? decision.scopeColumn(unit) : columnMapping.ownerColumn();
+        DataScopeSqlTemplate template = resolveTemplate(msId, originalSql, dataScope, column, unitMode, true);
+        if (template == null || template.isFailClosed()) {
+            return false;
+        }
+        for (String slotKey : template.slotKeys()) {
+            renderPredicate(slotKey, column, dataScope, false);
+        }
+        return true;
+    }
+
+
+    /**
+     * 获取数据权限 SQL 模板，优先从缓存读取
+     *
+     * @param msId        MappedStatement ID
+     * @param originalSql 原始 SQL
+     * @param dataScope   数据权限信息
+     * @param column      权限列名
+     * @param unitMode    组织单位过滤方式
+     * @param rowScope    是否注入数据行权限条件，为 false 时仅裁剪结果列
+     * @return {@link DataScopeSqlTemplate} SQL 模板，若无法处理则返回 null
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 11:02:16
+     */
+    private DataScopeSqlTemplate resolveTemplate(String msId, String originalSql, DataScope dataScope, String column,
+                                                 DataScopeUnitModeEnum unitMode, boolean rowScope) {
+        if (originalSql.contains(DataScopeSqlTemplate.SLOT_MARKER)) {
+            log.warn("[DataScope] msId={} - SQL 包含保留占位标记 {}, 跳过处理", msId, DataScopeSqlTemplate.SLOT_MARKER);
+            return null;
+        }
+        if (rewriteCache == null) {
+            return buildTemplate(msId, originalSql, dataScope, column, unitMode, rowScope);
+        }
+        boolean customRule = isCustomRule(dataScope);
+        DataScopeFingerprint fingerprint = new DataScopeFingerprint(dataScope.getScopeType(), column,
+                customRule && !hasRuleConditions(dataScope) ? dataScope.getCustomRules() : dataScope.getMergedRules(),
+                rowScope && hasOwnerSlot(dataScope), rowScope && hasRuleConditions(dataScope), unitMode != DataScopeUnitModeEnum.NONE, StringUtils.hasText(dataScope.getCustomFields()) ? dataScope.getCustomFields() : null);
+        DataScopeRewriteKey key = new DataScopeRewriteKey(msId, originalSql, fingerprint);
+        DataScopeSqlTemplate template = rewriteCache.get(key);
+        if (template == null) {
+            template = buildTemplate(msId, originalSql, dataScope, column, unitMode, rowScope);
+            // 恒假模板不缓存，熔断到期后仍可重新解析
+            if (template != null && !template.isFailClosed()) {
+                rewriteCache.put(key, template);
+            }
+            log.debug("[DataScope] msId={} - SQL 模板未命中缓存, 已重新解析", msId);
         }
+        return template;
     }
 
     /**
-     * 构建带权限条件的 SQL
+     * 解析 SQL 并注入权限条件，构建 SQL 模板
+     * <p>
+     * 解析失败或超出预算时计入熔断，并返回恒假模板；熔断期间不再解析，直接返回恒假模板
+     * </p>
      *
+     * @param msId        MappedStatement ID
      * @param originalSql 原始 SQL
      * @param dataScope   数据权限信息
-     * @return {@link String} 处理后的 SQL，若无需处理则返回原 SQL
+     * @param column      权限列名
+     * @param unitMode    组织单位过滤方式
+     * @param rowScope    是否注入数据行权限条件，为 false 时仅裁剪结果列
+     * @return {@link DataScopeSqlTemplate} SQL 模板，解析失败且未启用恒假条件时返回 null
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 11:04:50
      */
-    private String buildDataScopeSql(String originalSql, DataScope dataScope) {
+    private DataScopeSqlTemplate buildTemplate(String msId, String originalSql, DataScope dataScope, String column,
+                                               DataScopeUnitModeEnum unitMode, boolean rowScope) {
+        Expression scopeExpression = rowScope ? buildScopeExpression(dataScope) : null;
+        DataScopePredicatePushdown pushdown = scopeExpression == null ? null
+                : new DataScopePredicatePushdown(scopeExpression, buildMergedRulesExpression(dataScope), column, unitMode, columnMapping::decideTable);
+        DataScopeProjectionPruner pruner = StringUtils.hasText(dataScope.getCustomFields())
+                ? new DataScopeProjectionPruner(dataScope.getCustomFields(), columnMapping::tableInfo) : null;
         try {
-            Select select = (Select) CCJSqlParserUtil.parse(originalSql);
-            processSelect(select, dataScope);
-            return select.toString();
+            // 简单单表查询优先使用词法快速改写，无法识别时回退到 JSqlParser 完整解析；裁剪结果列需完整解析
+            if (fastPath && pruner == null) {
+                String markedSql = SimpleSelectRewriter.rewrite(originalSql, pushdown == null ? null : pushdown::tableExpression);
+                if (markedSql != null && (!fastPathVerify || verifyFastPath(originalSql, markedSql, pushdown, dataScope))) {
+                    return DataScopeSqlTemplate.compile(markedSql);
+                }
+            }
+            if (!circuitBreaker.allowParse(msId)) {
+                log.debug("[DataScope] msId={} - SQL 解析已熔断, 使用恒假条件", msId);
+                return failClosedTemplate(msId, originalSql);
+            }
+            DataScopeSqlTemplate template = DataScopeSqlTemplate.compile(rewriteByParser(originalSql, pushdown, pruner, dataScope));
+            circuitBreaker.recordSuccess(msId);
+            return template;
         } catch (JSQLParserException e) {
-            log.error("[DataScope] 用户ID={} 权限码={} - SQL 解析失败, sql={}, 错误={}",
-                    dataScope.getCurrentUserId(), dataScope.getPermissionCode(), originalSql, e.getMessage(), e);
-            // 解析失败返回原 SQL
-            return originalSql;
+            boolean overBudget = e instanceof DataScopeParseBudgetException;
+            metrics.recordParseFailure(overBudget ? DataScopeMetrics.PARSE_BUDGET : DataScopeMetrics.PARSE_SQL);
+            circuitBreaker.recordFailure(msId);
+            if (overBudget) {
+                log.error("[DataScope] 用户ID={} 权限码={} msId={} - SQL 超出解析预算, {}",
+                        dataScope.getCurrentUserId(), dataScope.getPermissionCode(), msId, e.getMessage());
+            } else {
+                log.error("[DataScope] 用户ID={} 权限码={} msId={} - SQL 解析失败, sql={}, 错误={}",
+                        dataScope.getCurrentUserId(), dataScope.getPermissionCode(), msId, originalSql, e.getMessage(), e);
+            }
+            return failClosedTemplate(msId, originalSql);
         }
     }
 
     /**
-     * 处理 SELECT 语句，注入权限条件
+     * 获取恒假模板，未启用恒假条件时返回 null（保持原 SQL）
      *
-     * @param select    解析后的 SELECT 语句
-     * @param dataScope 数据权限信息
+     * @param msId        MappedStatement ID
+     * @param originalSql 原始 SQL
+     * @return {@link DataScopeSqlTemplate} 恒假模板
      * @author payne.zhuang
-     * @CreateTime 2025-05-29 - 13:48:38
-     */
-    private void processSelect(Select select, DataScope dataScope) {
-        if (select.getPlainSelect() != null) {
-            setWhere(select.getPlainSelect(), dataScope);
-        } else if (select.getSetOperationList() != null) {
-            SetOperationList setOperationList = select.getSetOperationList();
-            setOperationList.getSelects().forEach(s -> {
-                if (s instanceof PlainSelect plainSelect) {
-                    setWhere(plainSelect, dataScope);
-                } else {
-                    log.warn("[DataScope] 用户ID={} 权限码={} 权限类型={} - 复杂查询包含非 PlainSelect 类型, 跳过处理",
-                            dataScope.getCurrentUserId(), dataScope.getPermissionCode(), dataScope.getScopeType());
-                }
-            });
+     * @CreateTime 2026-10-17 - 20:22:18
+     */
+    private DataScopeSqlTemplate failClosedTemplate(String msId, String originalSql) {
+        if (!failClosed) {
+            return null;
         }
+        metrics.recordFailClosed();
+        return circuitBreaker.failClosedTemplate(msId, originalSql);
     }
 
     /**
-     * 为 PlainSelect 注入 WHERE 条件
+     * 使用 JSqlParser 解析 SQL 并注入权限条件，多表、派生表与 CTE 的处理见 {@link DataScopePredicatePushdown}
      *
-     * @param plainSelect 简单 SELECT 语句
+     * @param originalSql 原始 SQL
+     * @param pushdown    权限条件下推，无权限条件时为 null
+     * @param pruner      结果列裁剪，未配置可见字段时为 null
      * @param dataScope   数据权限信息
+     * @return {@link String} 带占位标记的 SQL
+     * @throws JSQLParserException SQL 解析失败
      * @author payne.zhuang
-     * @CreateTime 2025-05-29 - 12:17:37
+     * @CreateTime 2026-10-17 - 18:02:14
      */
-    private void setWhere(PlainSelect plainSelect, DataScope dataScope) {
-        Expression whereExpression = plainSelect.getWhere();
-        Expression dataScopeExpression = buildScopeExpression(dataScope);
-        if (dataScopeExpression != null) {
-            if (whereExpression != null) {
-                plainSelect.setWhere(new AndExpression(whereExpression, dataScopeExpression));
-            } else {
-                plainSelect.setWhere(dataScopeExpression);
-            }
+    private String rewriteByParser(String originalSql, DataScopePredicatePushdown pushdown, DataScopeProjectionPruner pruner,
+                                   DataScope dataScope) throws JSQLParserException {
+        Select select = (Select) sqlParser.parse(originalSql);
+        if (pushdown != null) {
+            pushdown.apply(select);
             log.debug("[DataScope] 用户ID={} 权限码={} scopeType={} - WHERE 条件注入完成", dataScope.getCurrentUserId(), dataScope.getPermissionCode(), dataScope.getScopeType());
         }
+        if (pruner != null && pruner.apply(select)) {
+            log.debug("[DataScope] 用户ID={} 权限码={} - 结果列裁剪完成, customFields={}", dataScope.getCurrentUserId(), dataScope.getPermissionCode(), dataScope.getCustomFields());
+        }
+        return select.toString();
+    }
+
+    /**
+     * 差异校验：将快速改写结果与 JSqlParser 改写结果规范化后比较，不一致时记录告警并使用 JSqlParser 结果
+     *
+     * @param originalSql 原始 SQL
+     * @param markedSql   快速改写结果
+     * @param pushdown    权限条件下推，无权限条件时为 null
+     * @param dataScope   数据权限信息
+     * @return boolean 是否一致
+     * @throws JSQLParserException SQL 解析失败
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 18:05:40
+     */
+    private boolean verifyFastPath(String originalSql, String markedSql, DataScopePredicatePushdown pushdown, DataScope dataScope) throws JSQLParserException {
+        String expected = rewriteByParser(originalSql, pushdown, null, dataScope);
+        String actual = sqlParser.parse(markedSql).toString();
+        if (expected.equals(actual)) {
+            return true;
+        }
+        log.warn("[DataScope] 快速改写与完整解析结果不一致, 使用完整解析结果, sql={}, fastPath={}, parser={}", originalSql, actual, expected);
+        return false;
     }
 
     /**
      * 构建数据权限的 SQL 表达式
+     * <p>
+     * 用户权限以占位标记注入，实际谓词在模板渲染时由 {@link DataScopePredicateRenderer} 填入
+     * </p>
      *
      * @param dataScope 数据权限信息
      * @return {@link Expression} 权限表达式，若无权限条件则返回 null
@@ -219,16 +581,17 @@ public class DataScopeInterceptor implements InnerInterceptor {
             return new EqualsTo(new LongValue(1), new LongValue(0));
         }
 
-        // 处理 SELF 类型（当前用户）
-        if (scope == DataScopeTypeEnum.SELF) {
-            return new EqualsTo(new Column(USER_ID_COLUMN), new LongValue(userId));
+        // 处理 CUSTOM 类型的条件列表规则，注入规则占位，渲染时由预编译模板绑定变量值
+        if (hasRuleConditions(dataScope)) {
+            return new Column(DataScopeSqlTemplate.marker(null, DataScopeSqlTemplate.RULE_SLOT_KEY));
         }
 
-        // 处理 CUSTOM 类型（自定义规则）
-        if (scope == DataScopeTypeEnum.CUSTOM && StringUtils.hasLength(dataScope.getCustomRules())) {
+        // 处理 CUSTOM 类型（自定义规则），解析结果按规则原文缓存
+        if (isCustomRule(dataScope)) {
             try {
-                return CCJSqlParserUtil.parseCondExpression(dataScope.getCustomRules());
+                return ruleCache.get(dataScope.getCustomRules());
             } catch (JSQLParserException e) {
+                metrics.recordParseFailure(DataScopeMetrics.PARSE_RULE);
                 log.error("[DataScope] 用户ID={} 权限码={} 权限类型={} - 自定义规则解析失败, customRules={}, 错误={}",
                         userId, dataScope.getPermissionCode(), dataScope.getScopeType(),
                         dataScope.getCustomRules(), e.getMessage(), e);
@@ -236,14 +599,225 @@ public class DataScopeInterceptor implements InnerInterceptor {
             }
         }
 
-        // 处理用户 ID 集合
-        Set<Long> scopeUserIds = dataScope.getScopeUserIds();
-        if (!CollectionUtils.isEmpty(scopeUserIds)) {
-            Column column = new Column(USER_ID_COLUMN);
-            List<Expression> expressions = scopeUserIds.stream().map(id -> (Expression) new LongValue(id)).toList();
-            return new InExpression(column, new ParenthesedExpressionList<>(expressions));
+        // 处理 SELF 类型与用户 ID 集合，注入占位标记
+        if (hasOwnerSlot(dataScope)) {
+            return new Column(DataScopeSqlTemplate.SLOT_MARKER);
         }
 
         return null;
     }
+
+    /**
+     * 构建多角色合并的自定义规则表达式，解析失败时忽略合并规则（仅保留用户 / 组织条件，不会扩大数据范围）
+     *
+     * @param dataScope 数据权限信息
+     * @return {@link Expression} 合并规则表达式，无合并规则时返回 null
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:58:30
+     */
+    private Expression buildMergedRulesExpression(DataScope dataScope) {
+        if (isCustomRule(dataScope) || !StringUtils.hasLength(dataScope.getMergedRules())) {
+            return null;
+        }
+        try {
+            return ruleCache.get(dataScope.getMergedRules());
+        } catch (JSQLParserException e) {
+            metrics.recordParseFailure(DataScopeMetrics.PARSE_RULE);
+            log.error("[DataScope] 用户ID={} 权限码={} 权限类型={} - 合并规则解析失败, mergedRules={}, 错误={}",
+                    dataScope.getCurrentUserId(), dataScope.getPermissionCode(), dataScope.getScopeType(),
+                    dataScope.getMergedRules(), e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * 获取条件列表规则的预编译模板，编译失败时记录错误并返回 null
+     *
+     * @param dataScope 数据权限信息
+     * @return {@link DataScopeRuleTemplate} 规则模板
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:54:36
+     */
+    private DataScopeRuleTemplate ruleTemplate(DataScope dataScope) {
+        try {
+            return ruleCompiler.get(dataScope.getRuleConditions());
+        } catch (JSQLParserException e) {
+            metrics.recordParseFailure(DataScopeMetrics.PARSE_RULE);
+            log.error("[DataScope] 用户ID={} 权限码={} 权限类型={} - 规则条件编译失败, ruleConditions={}, 错误={}",
+                    dataScope.getCurrentUserId(), dataScope.getPermissionCode(), dataScope.getScopeType(),
+                    dataScope.getRuleConditions(), e.getMessage(), e);
+            return null;
+        }
+    }
+
+    // 是否为有规则内容的自定义权限
+    private static boolean isCustomRule(DataScope dataScope) {
+        return dataScope.getScopeType() == DataScopeTypeEnum.CUSTOM
+                && (StringUtils.hasLength(dataScope.getCustomRules()) || hasRuleConditions(dataScope));
+    }
+
+    // 是否为条件列表形式的自定义权限，优先于规则原文
+    private static boolean hasRuleConditions(DataScope dataScope) {
+        return dataScope.getScopeType() == DataScopeTypeEnum.CUSTOM && !CollectionUtils.isEmpty(dataScope.getRuleConditions());
+    }
+
+    // 是否需要注入用户权限占位（SELF、存在用户 ID 集合或可按组织单位过滤）
+    private static boolean hasOwnerSlot(DataScope dataScope) {
+        DataScopeTypeEnum scope = dataScope.getScopeType();
+        if (scope == DataScopeTypeEnum.UN_KNOWN || isCustomRule(dataScope)) {
+            return false;
+        }
+        return scope == DataScopeTypeEnum.SELF || !dataScope.getScopeUserIdSet().isEmpty()
+                || unitMode(dataScope) != DataScopeUnitModeEnum.NONE;
+    }
+
+    // 组织单位过滤方式：组织类权限且存在组织单位 ID 集合时可按单位列过滤，表中无单位列时仍按用户 ID 过滤
+    private static DataScopeUnitModeEnum unitMode(DataScope dataScope) {
+        DataScopeTypeEnum scope = dataScope.getScopeType();
+        if (scope != DataScopeTypeEnum.UNIT && scope != DataScopeTypeEnum.UNIT_AND_CHILD && scope != DataScopeTypeEnum.SELF_AND_CHILD
+                || dataScope.getScopeUnitIdSet().isEmpty()) {
+            return DataScopeUnitModeEnum.NONE;
+        }
+        return scope == DataScopeTypeEnum.SELF_AND_CHILD ? DataScopeUnitModeEnum.OWNER_OR_UNIT : DataScopeUnitModeEnum.UNIT;
+    }
+
+    /**
+     * 按占位键分别渲染权限谓词（多表查询中不同占位的限定名或权限列不同），各占位的参数按占位键分别绑定
+     *
+     * @param ms        MappedStatement
+     * @param boundSql  绑定 SQL
+     * @param template  SQL 模板
+     * @param dataScope 数据权限信息
+     * @param column    默认权限列名
+     * @return {@link Map} 占位键 -> 权限谓词
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 21:24:36
+     */
+    private Map<String, String> renderPredicates(MappedStatement ms, BoundSql boundSql, DataScopeSqlTemplate template,
+                                                 DataScope dataScope, String column) {
+        Map<String, String> predicates = new HashMap<>();
+        Map<String, Object[]> values = null;
+        for (String slotKey : template.slotKeys()) {
+            DataScopePredicate predicate = renderPredicate(slotKey, column, dataScope, false);
+            predicates.put(slotKey, predicate.sql());
+            if (predicate.hasParameters()) {
+                if (values == null) {
+                    values = new HashMap<>();
+                }
+                values.put(slotKey, predicate.values());
+            }
+        }
+        if (values != null && !parameterBinder.bind(boundSql, ms.getConfiguration(), template, values)) {
+            // 参数位置无法对应时降级为字面量
+            log.warn("[DataScope] msId={} - 权限参数位置与原参数不一致, 降级为字面量", ms.getId());
+            for (String slotKey : template.slotKeys()) {
+                predicates.put(slotKey, renderPredicate(slotKey, column, dataScope, true).sql());
+            }
+        }
+        return predicates;
+    }
+
+    /**
+     * 渲染占位键对应的权限谓词：规则占位由预编译模板绑定变量值，参数数量超过上限时使用字面量，规则编译失败时为恒假条件；
+     * 其余占位按权限列渲染用户 / 组织条件
+     *
+     * @param slotKey   占位键
+     * @param column    默认权限列名
+     * @param dataScope 数据权限信息
+     * @param literal   是否以字面量渲染
+     * @return {@link DataScopePredicate} 权限谓词
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:56:02
+     */
+    private DataScopePredicate renderPredicate(String slotKey, String column, DataScope dataScope, boolean literal) {
+        if (DataScopeSqlTemplate.RULE_SLOT_KEY.equals(slotKey)) {
+            DataScopeRuleTemplate ruleTemplate = ruleTemplate(dataScope);
+            if (ruleTemplate == null) {
+                return new DataScopePredicate(FALSE_PREDICATE, null);
+            }
+            // 变量在绑定时按名称惰性解析，只计算规则引用到的变量
+            DataScopeVariableRegistry registry = variableRegistry;
+            Map<String, Object> variables = registry == null ? dataScope.getRuleVariables() : registry.variables(dataScope);
+            if (!literal) {
+                DataScopePredicate predicate = ruleTemplate.bind(variables);
+                if (!predicate.hasParameters() || predicate.values().length <= maxBindParameters) {
+                    return predicate;
+                }
+            }
+            return new DataScopePredicate(ruleTemplate.renderLiteral(variables), null);
+        }
+        DataScopePredicateRenderer predicateRenderer = predicateRenderer(DataScopeSqlTemplate.slotColumn(slotKey, column));
+        return literal ? predicateRenderer.renderLiteral(dataScope) : predicateRenderer.render(dataScope);
+    }
+
+    /**
+     * 获取指定权限列的谓词渲染器，组织单位列按组织单位 ID 渲染
+     *
+     * @param column 权限列名
+     * @return {@link DataScopePredicateRenderer} 谓词渲染器
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 17:08:25
+     */
+    private DataScopePredicateRenderer predicateRenderer(String column) {
+        return predicateRenderers.computeIfAbsent(column,
+                c -> new DataScopePredicateRenderer(c, columnMapping.isUnitColumn(c), bindMode, maxBindParameters, visibilityStore));
+    }
+
+    /**
+     * 设置静态决策表，由启动流程在 MyBatis 配置加载完成后调用
+     *
+     * @param decisionTable 静态决策表
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 17:10:02
+     */
+    public void setDecisionTable(DataScopeDecisionTable decisionTable) {
+        this.decisionTable = decisionTable;
+    }
+
+    /**
+     * 设置可见性物化表，已创建的谓词渲染器随之重建
+     *
+     * @param visibilityStore 可见性物化表
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:36:18
+     */
+    public void setVisibilityStore(DataScopeVisibilityStore visibilityStore) {
+        this.visibilityStore = visibilityStore;
+        predicateRenderers.clear();
+    }
+
+    /**
+     * 设置规则变量注册表
+     *
+     * @param variableRegistry 规则变量注册表
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:59:58
+     */
+    public void setVariableRegistry(DataScopeVariableRegistry variableRegistry) {
+        this.variableRegistry = variableRegistry;
+    }
+
+    public DataScopeVariableRegistry getVariableRegistry() {
+        return variableRegistry;
+    }
+
+    public DataScopeVisibilityStore getVisibilityStore() {
+        return visibilityStore;
+    }
+
+    public DataScopeOrgTree getOrgTree() {
+        return orgTree;
+    }
+
+    public DataScopeColumnMapping getColumnMapping() {
+        return columnMapping;
+    }
+
+    public DataScopeRuleCache getRuleCache() {
+        return ruleCache;
+    }
+
+    public DataScopeParseCircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
 }
@@ -0,0 +1,326 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.interceptor;
+
+import com.baomidou.mybatisplus.annotation.DbType;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.metadata.OrderItem;
+import com.baomidou.mybatisplus.core.toolkit.ParameterUtils;
+import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
+import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.izpan.starter.database.mybatis.plus.cache.LruCache;
+import com.izpan.starter.database.mybatis.plus.cache.PageCountCache;
+import com.izpan.starter.database.mybatis.plus.domain.PageCountOption;
+import com.izpan.starter.database.mybatis.plus.enums.PageCountModeEnum;
+import com.izpan.starter.database.mybatis.plus.rewrite.DataScopeParseContext;
+import com.izpan.starter.database.mybatis.plus.rewrite.DataScopeSqlTemplate;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * 共享解析结果的分页拦截器
+ * <p>
+ * COUNT 语句与 ORDER BY 拼接结果按源 SQL 缓存为模板：若数据权限拦截器已挂载 {@link DataScopeParseContext}，
+ * 则从带占位的权限模板派生，再填入本次查询的权限谓词，不同用户共享同一派生结果；否则直接按原 SQL 缓存。
+ * 稳定状态下分页查询不再调用 JSqlParser。防全表更新删除插件仅处理 UPDATE / DELETE，与查询改写无重复解析。
+ * </p>
+ * <p>
+ * 总数统计方式见 {@link PageCountModeEnum}，分页对象实现 {@link PageCountOption} 时按分页对象指定，否则使用全局配置。
+ * 缓存与估算模式下总数按派生的 COUNT SQL 与参数值缓存；估算模式以 EXPLAIN 的行数估算（仅 MySQL / MariaDB），
+ * 估算值低于阈值或无法估算时仍执行 COUNT 查询。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.interceptor.DataScopePaginationInterceptor
+ * @CreateTime 2026/10/17 - 18:50
+ */
+@Slf4j
+public class DataScopePaginationInterceptor extends PaginationInnerInterceptor {
+
+    // 当前拦截调用的解析上下文，仅在 willDoQuery / beforeQuery 执行期间有效
+    private static final ThreadLocal<DataScopeParseContext> CONTEXT = new ThreadLocal<>();
+
+    // 行数估算语句前缀
+    private static final String EXPLAIN = "EXPLAIN ";
+
+    // 派生 SQL 模板缓存，未启用时为 null
+    private final LruCache<DerivedSqlKey, DataScopeSqlTemplate> derivedCache;
+
+    // 总数缓存
+    private final PageCountCache countCache;
+
+    // 默认总数统计方式
+    private final PageCountModeEnum countMode;
+
+    // 估算模式下使用估算值的最小行数
+    private final long estimateThreshold;
+
+    public DataScopePaginationInterceptor(DbType dbType, boolean cacheEnabled, int cacheMaxSize) {
+        this(dbType, cacheEnabled, cacheMaxSize, new PageCountCache(false, 1, Duration.ZERO), PageCountModeEnum.EXACT, Long.MAX_VALUE);
+    }
+
+    public DataScopePaginationInterceptor(DbType dbType, boolean cacheEnabled, int cacheMaxSize,
+                                          PageCountCache countCache, PageCountModeEnum countMode, long estimateThreshold) {
+        super(dbType);
+        this.derivedCache = cacheEnabled ? new LruCache<>(cacheMaxSize) : null;
+        this.countCache = countCache;
+        this.countMode = countMode;
+        this.estimateThreshold = estimateThreshold;
+    }
+
+    @Override
+    public boolean willDoQuery(Executor executor, MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql) throws SQLException {
+        CONTEXT.set(DataScopeParseContext.of(boundSql));
+        try {
+            IPage<?> page = ParameterUtils.findPage(parameter).orElse(null);
+            PageCountModeEnum mode = countMode(page);
+            if (mode == PageCountModeEnum.EXACT || page.getSize() < 0 || !page.searchCount() || resultHandler != Executor.NO_RESULT_HANDLER) {
+                return super.willDoQuery(executor, ms, parameter, rowBounds, resultHandler, boundSql);
+            }
+            return countWithOption(executor, ms, parameter, rowBounds, resultHandler, boundSql, page, mode);
+        } finally {
+            CONTEXT.remove();
+        }
+    }
+
+    /**
+     * 按缓存或估算方式统计总数，与父类相同支持自定义 COUNT 语句（countId）
+     *
+     * @param executor      MyBatis 执行器
+     * @param ms            MappedStatement
+     * @param parameter     查询参数
+     * @param rowBounds     分页参数
+     * @param resultHandler 结果处理器
+     * @param boundSql      绑定 SQL（已含数据权限条件）
+     * @param page          分页对象
+     * @param mode          统计方式
+     * @return boolean 是否继续执行分页查询
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 10:24:16
+     */
+    private boolean countWithOption(Executor executor, MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler,
+                                    BoundSql boundSql, IPage<?> page, PageCountModeEnum mode) throws SQLException {
+        BoundSql countSql;
+        MappedStatement countMs = buildCountMappedStatement(ms, page.countId());
+        if (countMs != null) {
+            countSql = countMs.getBoundSql(parameter);
+        } else {
+            countMs = buildAutoCountMappedStatement(ms);
+            PluginUtils.MPBoundSql mpBoundSql = PluginUtils.mpBoundSql(boundSql);
+            countSql = new BoundSql(countMs.getConfiguration(), autoCountSql(page, boundSql.getSql()), mpBoundSql.parameterMappings(), parameter);
+            PluginUtils.setAdditionalParameter(countSql, mpBoundSql.additionalParameters());
+        }
+
+        boolean estimate = mode == PageCountModeEnum.ESTIMATED;
+        PageCountCache.Key key = new PageCountCache.Key(countSql.getSql(), parameterValues(countMs.getConfiguration(), countSql, parameter), estimate);
+        PageCountCache.Entry cached = countCache.get(key);
+        long total;
+        boolean estimated;
+        if (cached != null) {
+            total = cached.total();
+            estimated = cached.estimated();
+        } else {
+            Long rows = estimate ? estimateRows(executor, countMs, parameter, countSql) : null;
+            estimated = rows != null && rows >= estimateThreshold;
+            total = estimated ? rows : exactCount(executor, countMs, parameter, rowBounds, resultHandler, countSql);
+            countCache.put(key, total, estimated);
+        }
+        page.setTotal(total);
+        if (page instanceof PageCountOption option) {
+            option.setTotalEstimated(estimated);
+        }
+        return continuePage(page);
+    }
+
+    // 分页对象指定的统计方式优先，无分页对象时按精确统计交由父类处理
+    private PageCountModeEnum countMode(IPage<?> page) {
+        if (page == null) {
+            return PageCountModeEnum.EXACT;
+        }
+        PageCountModeEnum mode = page instanceof PageCountOption option ? option.getCountMode() : null;
+        return mode != null ? mode : countMode;
+    }
+
+    // 执行 COUNT 查询，与父类逻辑一致
+    private static long exactCount(Executor executor, MappedStatement countMs, Object parameter, RowBounds rowBounds,
+                                   ResultHandler resultHandler, BoundSql countSql) throws SQLException {
+        CacheKey cacheKey = executor.createCacheKey(countMs, parameter, rowBounds, countSql);
+        List<Object> result = executor.query(countMs, parameter, rowBounds, resultHandler, cacheKey, countSql);
+        return result.isEmpty() || result.getFirst() == null ? 0 : Long.parseLong(result.getFirst().toString());
+    }
+
+    /**
+     * 以 EXPLAIN 估算 COUNT 语句的结果行数：取最外层查询（id = 1）各表的 rows * filtered / 100 之积，
+     * 即优化器对结果行数的估计；非 MySQL / MariaDB、估算失败或优化器未给出行数时返回 null
+     *
+     * @param executor  MyBatis 执行器
+     * @param countMs   COUNT 语句
+     * @param parameter 查询参数
+     * @param countSql  COUNT SQL
+     * @return {@link Long} 估算行数
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 10:31:48
+     */
+    private Long estimateRows(Executor executor, MappedStatement countMs, Object parameter, BoundSql countSql) {
+        if (getDbType() != DbType.MYSQL && getDbType() != DbType.MARIADB) {
+            return null;
+        }
+        Configuration configuration = countMs.getConfiguration();
+        BoundSql explainSql = new BoundSql(configuration, EXPLAIN + countSql.getSql(), countSql.getParameterMappings(), parameter);
+        PluginUtils.setAdditionalParameter(explainSql, PluginUtils.mpBoundSql(countSql).additionalParameters());
+        try (PreparedStatement statement = executor.getTransaction().getConnection().prepareStatement(explainSql.getSql())) {
+            configuration.newParameterHandler(countMs, parameter, explainSql).setParameters(statement);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                double rows = 1;
+                boolean found = false;
+                while (resultSet.next()) {
+                    if (resultSet.getLong("id") != 1) {
+                        continue;
+                    }
+                    long tableRows = resultSet.getLong("rows");
+                    if (resultSet.wasNull()) {
+                        return null;
+                    }
+                    double filtered = resultSet.getDouble("filtered");
+                    rows *= tableRows * (resultSet.wasNull() ? 100 : filtered) / 100;
+                    found = true;
+                }
+                return found ? (long) Math.min(rows, Long.MAX_VALUE) : null;
+            }
+        } catch (SQLException e) {
+            log.warn("[DataScope] msId={} - 行数估算失败, 改为 COUNT 查询, 错误={}", countMs.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 按参数映射顺序取出参数值，取值方式与 MyBatis 默认参数处理器一致，用作总数缓存键
+     *
+     * @param configuration MyBatis 配置
+     * @param boundSql      绑定 SQL
+     * @param parameter     查询参数
+     * @return {@link List} 参数值
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 10:28:04
+     */
+    private static List<Object> parameterValues(Configuration configuration, BoundSql boundSql, Object parameter) {
+        List<ParameterMapping> mappings = boundSql.getParameterMappings();
+        List<Object> values = new ArrayList<>(mappings.size());
+        MetaObject metaObject = null;
+        for (ParameterMapping mapping : mappings) {
+            if (mapping.getMode() == ParameterMode.OUT) {
+                continue;
+            }
+            String property = mapping.getProperty();
+            if (boundSql.hasAdditionalParameter(property)) {
+                values.add(boundSql.getAdditionalParameter(property));
+            } else if (parameter == null || configuration.getTypeHandlerRegistry().hasTypeHandler(parameter.getClass())) {
+                values.add(parameter);
+            } else {
+                if (metaObject == null) {
+                    metaObject = configuration.newMetaObject(parameter);
+                }
+                values.add(metaObject.getValue(property));
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public void beforeQuery(Executor executor, MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql) {
+        CONTEXT.set(DataScopeParseContext.of(boundSql));
+        try {
+            super.beforeQuery(executor, ms, parameter, rowBounds, resultHandler, boundSql);
+        } finally {
+            CONTEXT.remove();
+        }
+    }
+
+    @Override
+    public String autoCountSql(IPage<?> page, String sql) {
+        String variant = !page.optimizeCountSql() ? "count" : page.optimizeJoinOfCountSql() ? "count:optimize-join" : "count:optimize";
+        return derive(sql, variant, source -> super.autoCountSql(page, source));
+    }
+
+    @Override
+    public String concatOrderBy(String originalSql, List<OrderItem> orderList) {
+        StringBuilder variant = new StringBuilder("order");
+        orderList.forEach(item -> variant.append(':').append(item.getColumn()).append(item.isAsc() ? " ASC" : " DESC"));
+        return derive(originalSql, variant.toString(), source -> super.concatOrderBy(source, orderList));
+    }
+
+    /**
+     * 从缓存模板派生 SQL，未命中时调用父类逻辑解析一次
+     *
+     * @param sql     当前 SQL
+     * @param variant 派生方式
+     * @param deriver 父类派生逻辑
+     * @return {@link String} 派生后的 SQL
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 18:56:40
+     */
+    private String derive(String sql, String variant, UnaryOperator<String> deriver) {
+        DataScopeParseContext context = CONTEXT.get();
+        boolean scoped = context != null && context.sql().equals(sql);
+        // 未挂载上下文的 SQL 若包含占位标记则无法安全切分，直接走父类逻辑
+        if (derivedCache == null || !scoped && sql.contains(DataScopeSqlTemplate.SLOT_MARKER)) {
+            return deriver.apply(sql);
+        }
+        String source = scoped ? context.markedSql() : sql;
+        DataScopeSqlTemplate template = derivedCache.computeIfAbsent(new DerivedSqlKey(source, variant),
+                key -> DataScopeSqlTemplate.compile(deriver.apply(source)));
+        return scoped && context.predicates() != null ? template.render(context.predicates()) : template.render((String) null);
+    }
+
+    public LruCache<DerivedSqlKey, DataScopeSqlTemplate> getDerivedCache() {
+        return derivedCache;
+    }
+
+    public PageCountCache getCountCache() {
+        return countCache;
+    }
+
+    /**
+     * 派生 SQL 缓存键
+     *
+     * @param source  源 SQL（带占位标记或原 SQL）
+     * @param variant 派生方式
+     */
+    public record DerivedSqlKey(String source, String variant) {
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.interceptor;
+
+import com.izpan.starter.database.mybatis.plus.enums.DataScopeTypeEnum;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 数据权限改写启动预热
+ * <p>
+ * 启动时遍历所有 MappedStatement，以占位权限值按配置的权限类型预先解析 SQL，填充改写缓存并预热谓词渲染，
+ * 避免首批请求集中承担解析开销。预热在有界线程池中并行执行，超时后放弃剩余语句，由首次查询再解析。
+ * </p>
+ * <p>
+ * 生命周期阶段早于 Web 服务器，{@link #start()} 阻塞至预热完成，应用在此之前不会进入接收流量的就绪状态；
+ * 预热结果可通过 {@link #isReady()} 查询。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.interceptor.DataScopeWarmup
+ * @CreateTime 2026/10/17 - 23:59
+ */
+@Slf4j
+public class DataScopeWarmup implements SmartLifecycle {
+
+    /**
+     * 生命周期阶段，早于 Web 服务器的优雅关闭与启动阶段
+     */
+    public static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    // MyBatis 配置，启动时获取
+    private final Supplier<List<Configuration>> configurations;
+
+    // 数据权限拦截器，启动时获取
+    private final Supplier<List<DataScopeInterceptor>> interceptors;
+
+    // 预热的权限类型
+    private final List<DataScopeTypeEnum> scopeTypes;
+
+    // 预热线程数
+    private final int parallelism;
+
+    // 预热最长等待时间
+    private final Duration timeout;
+
+    private volatile boolean running;
+
+    private volatile boolean ready;
+
+    public DataScopeWarmup(Supplier<List<Configuration>> configurations, Supplier<List<DataScopeInterceptor>> interceptors,
+                           List<DataScopeTypeEnum> scopeTypes, int parallelism, Duration timeout) {
+        this.configurations = configurations;
+        this.interceptors = interceptors;
+        this.scopeTypes = List.copyOf(scopeTypes);
+        this.parallelism = Math.max(1, parallelism);
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        try {
+            warmUp();
+        } finally {
+            ready = true;
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * 预热是否已结束（含超时放弃），结束前应用不应接收流量
+     *
+     * @return boolean 是否就绪
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:59:48
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 并行预热所有语句，等待至完成或超时
+     *
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:59:56
+     */
+    private void warmUp() {
+        List<DataScopeInterceptor> dataScopeInterceptors = interceptors.get();
+        List<MappedStatement> statements = mappedStatements(configurations.get());
+        if (dataScopeInterceptors.isEmpty() || statements.isEmpty() || scopeTypes.isEmpty()) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        AtomicInteger warmed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, statements.size()), threadFactory());
+        try {
+            for (MappedStatement ms : statements) {
+                executor.execute(() -> {
+                    for (DataScopeInterceptor interceptor : dataScopeInterceptors) {
+                        for (DataScopeTypeEnum scopeType : scopeTypes) {
+                            try {
+                                if (interceptor.warmUp(ms, scopeType)) {
+                                    warmed.incrementAndGet();
+                                }
+                            } catch (Exception e) {
+                                failed.incrementAndGet();
+                                log.debug("[DataScope] msId={} 权限类型={} - 预热失败, 错误={}", ms.getId(), scopeType, e.getMessage());
+                            }
+                        }
+                    }
+                });
+            }
+            executor.shutdown();
+            if (!executor.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("[DataScope] 改写预热超时, 超时时间={}, 剩余语句将在首次查询时解析", timeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+        log.info("[DataScope] 改写预热完成, 语句数={}, 模板数={}, 失败数={}, 耗时={}ms", statements.size(), warmed.get(), failed.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    // 所有配置中的语句，与静态决策表相同只取全名登记，短名与全名指向同一语句
+    private static List<MappedStatement> mappedStatements(List<Configuration> configurations) {
+        Map<String, MappedStatement> statements = new LinkedHashMap<>();
+        for (Configuration configuration : configurations) {
+            for (String msId : configuration.getMappedStatementNames()) {
+                if (msId.indexOf('.') > 0 && !statements.containsKey(msId)) {
+                    statements.put(msId, configuration.getMappedStatement(msId, false));
+                }
+            }
+        }
+        return new ArrayList<>(statements.values());
+    }
+
+    private static ThreadFactory threadFactory() {
+        AtomicInteger index = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "data-scope-warmup-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
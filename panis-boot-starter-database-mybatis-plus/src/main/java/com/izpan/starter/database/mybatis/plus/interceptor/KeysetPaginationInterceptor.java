@@ -0,0 +1,237 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.interceptor;
+
+import com.baomidou.mybatisplus.core.toolkit.ExceptionUtils;
+import com.baomidou.mybatisplus.core.toolkit.ParameterUtils;
+import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
+import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
+import com.izpan.starter.database.mybatis.plus.cache.LruCache;
+import com.izpan.starter.database.mybatis.plus.domain.KeysetPage;
+import com.izpan.starter.database.mybatis.plus.rewrite.DataScopeSqlTemplate;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.expression.Alias;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
+import net.sf.jsqlparser.expression.operators.conditional.OrExpression;
+import net.sf.jsqlparser.expression.operators.conditional.XorExpression;
+import net.sf.jsqlparser.expression.operators.relational.ParenthesedExpressionList;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.select.AllColumns;
+import net.sf.jsqlparser.statement.select.ParenthesedSelect;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.Select;
+import net.sf.jsqlparser.statement.select.SelectItem;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 游标分页拦截器
+ * <p>
+ * 查询参数中存在 {@link KeysetPage} 且带游标时，在最外层查询的 WHERE 中追加游标条件：排序方向一致时使用行值比较
+ * {@code (k1, k2) > (?, ?)}，方向混合时展开为 {@code k1 > ? OR (k1 = ? AND k2 < ?)}，游标值以 JDBC 参数绑定；
+ * 原 ORDER BY 移除，排序与 LIMIT 由分页插件按 {@link KeysetPage#orders()} 与 OFFSET 0 拼接。
+ * 集合查询（UNION 等）包装为派生表后追加条件。
+ * </p>
+ * <p>
+ * 须注册在数据权限拦截器之前：改写后的 SQL 只含参数占位而不含游标值，数据权限模板按形态缓存，
+ * 且权限参数的插入位置已计入游标参数。改写结果按原 SQL 与排序键缓存，稳定状态下不再解析。
+ * 分页插件的 COUNT 查询在本拦截器之后执行，会包含游标条件，因此 {@link KeysetPage} 仅在首页统计总数。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.interceptor.KeysetPaginationInterceptor
+ * @CreateTime 2026/10/17 - 09:20
+ */
+public class KeysetPaginationInterceptor implements InnerInterceptor {
+
+    /**
+     * 游标附加参数名前缀
+     */
+    public static final String PARAMETER_PREFIX = "__keyset_";
+
+    // 集合查询包装为派生表时使用的别名
+    private static final String DERIVED_ALIAS = "__panis_keyset";
+
+    // 改写结果缓存，未启用时为 null
+    private final LruCache<KeysetSqlKey, KeysetSql> cache;
+
+    public KeysetPaginationInterceptor(boolean cacheEnabled, int cacheMaxSize) {
+        this.cache = cacheEnabled ? new LruCache<>(cacheMaxSize) : null;
+    }
+
+    @Override
+    public void beforeQuery(Executor executor, MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql) {
+        if (!(ParameterUtils.findPage(parameter).orElse(null) instanceof KeysetPage<?> page)) {
+            return;
+        }
+        PluginUtils.MPBoundSql mpBs = PluginUtils.mpBoundSql(boundSql);
+        Object[] cursor = page.getCursor();
+        KeysetSql keysetSql = resolve(new KeysetSqlKey(mpBs.sql(), page.getKeys(), cursor != null));
+        mpBs.sql(keysetSql.sql());
+        if (cursor == null) {
+            return;
+        }
+
+        // 游标值写入附加参数，参数映射插入游标条件之前的原参数之后
+        List<ParameterMapping> original = mpBs.parameterMappings();
+        if (keysetSql.parameterOffset() > original.size()) {
+            throw ExceptionUtils.mpe("游标分页参数位置与原参数不一致, msId=%s", ms.getId());
+        }
+        Configuration configuration = ms.getConfiguration();
+        List<ParameterMapping> merged = new ArrayList<>(original.size() + keysetSql.valueIndexes().length);
+        merged.addAll(original.subList(0, keysetSql.parameterOffset()));
+        int[] valueIndexes = keysetSql.valueIndexes();
+        for (int i = 0; i < valueIndexes.length; i++) {
+            String property = PARAMETER_PREFIX + i;
+            boundSql.setAdditionalParameter(property, cursor[valueIndexes[i]]);
+            merged.add(new ParameterMapping.Builder(configuration, property, Object.class).build());
+        }
+        merged.addAll(original.subList(keysetSql.parameterOffset(), original.size()));
+        mpBs.parameterMappings(merged);
+    }
+
+    /**
+     * 获取游标分页改写结果，优先从缓存读取
+     *
+     * @param key 原 SQL、排序键与是否带游标
+     * @return {@link KeysetSql} 改写结果
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 09:24:36
+     */
+    private KeysetSql resolve(KeysetSqlKey key) {
+        return cache == null ? rewrite(key) : cache.computeIfAbsent(key, KeysetPaginationInterceptor::rewrite);
+    }
+
+    /**
+     * 解析 SQL 并追加游标条件，游标条件位置以占位标记定位，用于计算之前原参数的数量；
+     * 首页不追加条件，仅移除原 ORDER BY，保证与后续页排序一致
+     *
+     * @param key 原 SQL、排序键与是否带游标
+     * @return {@link KeysetSql} 改写结果
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 09:26:12
+     */
+    private static KeysetSql rewrite(KeysetSqlKey key) {
+        Statement statement;
+        try {
+            statement = CCJSqlParserUtil.parse(key.sql());
+        } catch (JSQLParserException e) {
+            throw ExceptionUtils.mpe("游标分页 SQL 解析失败: %s", e, key.sql());
+        }
+        if (!(statement instanceof Select select)) {
+            throw ExceptionUtils.mpe("游标分页仅支持 SELECT 语句: %s", key.sql());
+        }
+        PlainSelect plainSelect;
+        if (select instanceof PlainSelect plain) {
+            plainSelect = plain;
+        } else {
+            // 集合查询与带括号的查询包装为派生表，排序键需为结果列
+            plainSelect = new PlainSelect().addSelectItems(SelectItem.from(new AllColumns()))
+                    .withFromItem(new ParenthesedSelect().withSelect(select).withAlias(new Alias(DERIVED_ALIAS)));
+            select.setOrderByElements(null);
+            select.setLimit(null);
+        }
+        plainSelect.setOrderByElements(null);
+        if (!key.cursor()) {
+            return new KeysetSql(plainSelect.toString(), 0, new int[0]);
+        }
+        Column marker = new Column(DataScopeSqlTemplate.marker(null, DataScopeSqlTemplate.KEYSET_SLOT_KEY));
+        Expression where = plainSelect.getWhere();
+        if (where == null) {
+            plainSelect.setWhere(marker);
+        } else if (where instanceof OrExpression || where instanceof XorExpression) {
+            plainSelect.setWhere(new AndExpression(new ParenthesedExpressionList<>(where), marker));
+        } else {
+            plainSelect.setWhere(new AndExpression(where, marker));
+        }
+        DataScopeSqlTemplate template = DataScopeSqlTemplate.compile(plainSelect.toString());
+
+        List<KeysetPage.Key> keys = key.keys();
+        StringBuilder predicate = new StringBuilder();
+        int[] valueIndexes;
+        if (keys.stream().allMatch(KeysetPage.Key::asc) || keys.stream().noneMatch(KeysetPage.Key::asc)) {
+            // 方向一致：行值比较，单列时退化为普通比较
+            String operator = keys.getFirst().asc() ? " > " : " < ";
+            valueIndexes = new int[keys.size()];
+            if (keys.size() == 1) {
+                predicate.append(keys.getFirst().column()).append(operator).append('?');
+            } else {
+                predicate.append('(');
+                for (int i = 0; i < keys.size(); i++) {
+                    predicate.append(i == 0 ? "" : ", ").append(keys.get(i).column());
+                    valueIndexes[i] = i;
+                }
+                predicate.append(')').append(operator).append('(').append("?, ".repeat(keys.size() - 1)).append("?)");
+            }
+        } else {
+            // 方向混合：按前缀相等、当前键越过展开
+            List<Integer> indexes = new ArrayList<>();
+            predicate.append('(');
+            for (int i = 0; i < keys.size(); i++) {
+                predicate.append(i == 0 ? "" : " OR ").append('(');
+                for (int j = 0; j < i; j++) {
+                    predicate.append(keys.get(j).column()).append(" = ? AND ");
+                    indexes.add(j);
+                }
+                predicate.append(keys.get(i).column()).append(keys.get(i).asc() ? " > ?" : " < ?").append(')');
+                indexes.add(i);
+            }
+            predicate.append(')');
+            valueIndexes = indexes.stream().mapToInt(Integer::intValue).toArray();
+        }
+        return new KeysetSql(template.render(predicate.toString()), template.parameterOffset(0), valueIndexes);
+    }
+
+    public LruCache<KeysetSqlKey, KeysetSql> getCache() {
+        return cache;
+    }
+
+    /**
+     * 游标分页改写缓存键
+     *
+     * @param sql    原 SQL
+     * @param keys   排序键
+     * @param cursor 是否带游标，首页不带
+     */
+    public record KeysetSqlKey(String sql, List<KeysetPage.Key> keys, boolean cursor) {
+    }
+
+    /**
+     * 游标分页改写结果
+     *
+     * @param sql             追加游标条件后的 SQL
+     * @param parameterOffset 游标条件之前原 SQL 中 JDBC 参数的数量
+     * @param valueIndexes    游标条件中每个参数对应的游标值下标
+     */
+    public record KeysetSql(String sql, int parameterOffset, int[] valueIndexes) {
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.mapper;
+
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+import com.izpan.starter.database.mybatis.plus.handler.ChunkResultHandler;
+import com.izpan.starter.database.mybatis.plus.injector.MultiRowBatch;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 扩展 Mapper，在 {@link BaseMapper} 基础上提供多行 VALUES 批量写入与流式查询，需配合
+ * {@link com.izpan.starter.database.mybatis.plus.injector.PanisSqlInjector} 使用
+ * <p>
+ * 与 saveBatch 逐条执行 INSERT 不同，每批记录只发送一条语句，无需在 JDBC URL 中开启 rewriteBatchedStatements。
+ * 流式查询逐行读取结果集并分块交付，导出大量数据时内存占用与总行数无关，数据权限照常生效。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.mapper.PanisBaseMapper
+ * @CreateTime 2026/10/17 - 11:14
+ */
+public interface PanisBaseMapper<T> extends BaseMapper<T> {
+
+    /**
+     * 单条语句插入整批记录，不分批，通常使用 {@link #insertBatch(Collection)}
+     *
+     * @param entityList 实体列表
+     * @return int 影响行数
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 11:15:08
+     */
+    int insertBatchValues(List<T> entityList);
+
+    /**
+     * 单条语句插入或更新整批记录，不分批，通常使用 {@link #upsertBatch(Collection)}
+     *
+     * @param entityList 实体列表
+     * @return int 影响行数，插入计 1、更新计 2
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 11:15:36
+     */
+    int upsertBatchValues(List<T> entityList);
+
+    /**
+     * 多行批量插入，按 max_allowed_packet 与参数数量上限自动分批
+     *
+     * @param entityList 实体集合
+     * @return int 影响行数
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 11:16:04
+     */
+    default int insertBatch(Collection<T> entityList) {
+        return MultiRowBatch.execute(entityList, this::insertBatchValues);
+    }
+
+    /**
+     * 多行批量插入，主键或唯一键冲突时更新，按 max_allowed_packet 与参数数量上限自动分批
+     *
+     * @param entityList 实体集合
+     * @return int 影响行数，插入计 1、更新计 2
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 11:16:32
+     */
+    default int upsertBatch(Collection<T> entityList) {
+        return MultiRowBatch.execute(entityList, this::upsertBatchValues);
+    }
+
+    /**
+     * 流式条件查询，逐行交给结果处理器，通常使用 {@link #selectStream(Wrapper, int, Consumer)}
+     *
+     * @param queryWrapper 查询条件
+     * @param handler      结果处理器
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 11:42:16
+     */
+    void selectStreamList(@Param(Constants.WRAPPER) Wrapper<T> queryWrapper, ResultHandler<T> handler);
+
+    /**
+     * 流式条件查询，按块交给消费者；方法返回时结果集与语句均已关闭，消费者抛出异常时同样关闭
+     *
+     * @param queryWrapper 查询条件
+     * @param chunkSize    每块记录数
+     * @param consumer     块消费者，读取过程中执行，不能使用当前连接执行其他语句
+     * @return long 读取记录数
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 11:43:02
+     */
+    default long selectStream(Wrapper<T> queryWrapper, int chunkSize, Consumer<List<T>> consumer) {
+        ChunkResultHandler<T> handler = new ChunkResultHandler<>(chunkSize, consumer);
+        selectStreamList(queryWrapper, handler);
+        handler.flush();
+        return handler.getCount();
+    }
+}
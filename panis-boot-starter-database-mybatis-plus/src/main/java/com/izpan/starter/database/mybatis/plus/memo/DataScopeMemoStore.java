@@ -0,0 +1,50 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.memo;
+
+import java.util.Map;
+
+/**
+ * 数据权限缓存作用域存储
+ * <p>
+ * 提供当前作用域（如一次 HTTP 请求）内共享的缓存 Map，作用域结束后缓存随之失效。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.memo.DataScopeMemoStore
+ * @CreateTime 2026/10/17 - 15:08
+ */
+public interface DataScopeMemoStore {
+
+    /**
+     * 不缓存的作用域存储
+     */
+    DataScopeMemoStore NONE = () -> null;
+
+    /**
+     * 获取当前作用域的缓存 Map
+     *
+     * @return {@link Map} 缓存 Map，不在任何作用域内时返回 null
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 15:09:20
+     */
+    Map<Object, Object> current();
+}
@@ -0,0 +1,58 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.memo;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 请求作用域的数据权限缓存存储
+ * <p>
+ * 缓存 Map 存放于当前 Web 请求属性中，请求结束即释放；当前线程未绑定请求时回退到线程作用域。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.memo.RequestAttributeDataScopeMemoStore
+ * @CreateTime 2026/10/17 - 15:18
+ */
+public class RequestAttributeDataScopeMemoStore extends ThreadLocalDataScopeMemoStore {
+
+    // 请求属性名
+    private static final String ATTRIBUTE_NAME = RequestAttributeDataScopeMemoStore.class.getName();
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<Object, Object> current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return super.current();
+        }
+        Map<Object, Object> memo = (Map<Object, Object>) attributes.getAttribute(ATTRIBUTE_NAME, RequestAttributes.SCOPE_REQUEST);
+        if (memo == null) {
+            memo = new ConcurrentHashMap<>();
+            attributes.setAttribute(ATTRIBUTE_NAME, memo, RequestAttributes.SCOPE_REQUEST);
+        }
+        return memo;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.memo;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 线程作用域的数据权限缓存存储
+ * <p>
+ * 仅在 {@link #call(Supplier)} / {@link #run(Runnable)} 包裹的代码块内生效，执行结束后自动清理，
+ * 适用于定时任务、消息消费等非 Web 请求场景。嵌套调用复用外层作用域。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.memo.ThreadLocalDataScopeMemoStore
+ * @CreateTime 2026/10/17 - 15:12
+ */
+public class ThreadLocalDataScopeMemoStore implements DataScopeMemoStore {
+
+    private static final ThreadLocal<Map<Object, Object>> HOLDER = new ThreadLocal<>();
+
+    @Override
+    public Map<Object, Object> current() {
+        return HOLDER.get();
+    }
+
+    /**
+     * 在线程缓存作用域内执行
+     *
+     * @param supplier 执行逻辑
+     * @return {@link T} 执行结果
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 15:14:06
+     */
+    public static <T> T call(Supplier<T> supplier) {
+        if (HOLDER.get() != null) {
+            return supplier.get();
+        }
+        HOLDER.set(new ConcurrentHashMap<>());
+        try {
+            return supplier.get();
+        } finally {
+            HOLDER.remove();
+        }
+    }
+
+    /**
+     * 在线程缓存作用域内执行
+     *
+     * @param runnable 执行逻辑
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 15:14:40
+     */
+    public static void run(Runnable runnable) {
+        call(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.metrics;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 数据权限审计日志采样器
+ * <p>
+ * 先按采样率抽样，再按每秒上限限流，决定本次改写是否输出审计日志，避免高并发下每条查询都写 INFO 日志。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.metrics.DataScopeAuditSampler
+ * @CreateTime 2026/10/17 - 19:40
+ */
+public class DataScopeAuditSampler {
+
+    // 是否启用
+    private final boolean enabled;
+
+    // 采样率 [0, 1]
+    private final double sampleRate;
+
+    // 每秒最多输出条数，小于等于 0 表示不限流
+    private final int maxPerSecond;
+
+    // 当前计数窗口（秒）
+    private final AtomicLong window = new AtomicLong();
+
+    // 当前窗口已输出条数
+    private final AtomicInteger count = new AtomicInteger();
+
+    public DataScopeAuditSampler(boolean enabled, double sampleRate, int maxPerSecond) {
+        this.enabled = enabled && sampleRate > 0;
+        this.sampleRate = sampleRate;
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    /**
+     * 判断本次是否输出审计日志
+     *
+     * @return boolean 是否输出
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 19:42:36
+     */
+    public boolean tryAcquire() {
+        if (!enabled) {
+            return false;
+        }
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return false;
+        }
+        if (maxPerSecond <= 0) {
+            return true;
+        }
+        long second = System.currentTimeMillis() / 1000;
+        long current = window.get();
+        if (current != second && window.compareAndSet(current, second)) {
+            count.set(0);
+        }
+        return count.incrementAndGet() <= maxPerSecond;
+    }
+}
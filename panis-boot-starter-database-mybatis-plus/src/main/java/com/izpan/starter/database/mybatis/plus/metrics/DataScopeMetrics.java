@@ -0,0 +1,116 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.metrics;
+
+import com.izpan.starter.database.mybatis.plus.enums.DataScopeSkipReasonEnum;
+import com.izpan.starter.database.mybatis.plus.enums.DataScopeTypeEnum;
+
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * 数据权限指标
+ * <p>
+ * 拦截器通过该接口上报改写耗时、跳过原因、解析失败与谓词长度等指标，默认实现为空操作，
+ * 类路径存在 Micrometer 时由 {@link MicrometerDataScopeMetrics} 实现。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.metrics.DataScopeMetrics
+ * @CreateTime 2026/10/17 - 19:24
+ */
+public interface DataScopeMetrics {
+
+    /**
+     * 解析失败类型：SQL
+     */
+    String PARSE_SQL = "sql";
+
+    /**
+     * 解析失败类型：自定义规则
+     */
+    String PARSE_RULE = "rule";
+
+    /**
+     * 解析失败类型：超出解析预算
+     */
+    String PARSE_BUDGET = "budget";
+
+    /**
+     * 空操作实现
+     */
+    DataScopeMetrics NOOP = new DataScopeMetrics() {
+    };
+
+    /**
+     * 记录一次 SQL 改写
+     *
+     * @param scopeType       数据权限类型
+     * @param nanos           改写耗时（纳秒）
+     * @param predicateLength 权限谓词长度，无谓词时为 0
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 19:26:10
+     */
+    default void recordRewrite(DataScopeTypeEnum scopeType, long nanos, int predicateLength) {
+    }
+
+    /**
+     * 记录一次跳过
+     *
+     * @param reason 跳过原因
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 19:26:42
+     */
+    default void recordSkip(DataScopeSkipReasonEnum reason) {
+    }
+
+    /**
+     * 记录一次解析失败
+     *
+     * @param kind 失败类型，{@link #PARSE_SQL}、{@link #PARSE_RULE} 或 {@link #PARSE_BUDGET}
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 19:27:15
+     */
+    default void recordParseFailure(String kind) {
+    }
+
+    /**
+     * 记录一次恒假条件降级（解析失败或熔断）
+     *
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 20:24:06
+     */
+    default void recordFailClosed() {
+    }
+
+    /**
+     * 绑定缓存命中指标
+     *
+     * @param name   缓存名称
+     * @param hits   命中次数
+     * @param misses 未命中次数
+     * @param size   当前条目数
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 19:28:02
+     */
+    default void bindCache(String name, LongSupplier hits, LongSupplier misses, IntSupplier size) {
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.metrics;
+
+import com.izpan.starter.database.mybatis.plus.enums.DataScopeSkipReasonEnum;
+import com.izpan.starter.database.mybatis.plus.enums.DataScopeTypeEnum;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * 基于 Micrometer 的数据权限指标
+ * <p>
+ * 所有计量器在构造时按枚举预先注册，记录时只做数组级查找，不在查询路径上创建标签或计量器。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.metrics.MicrometerDataScopeMetrics
+ * @CreateTime 2026/10/17 - 19:32
+ */
+public class MicrometerDataScopeMetrics implements DataScopeMetrics {
+
+    // 指标名前缀
+    private static final String PREFIX = "panis.data.scope";
+
+    private final MeterRegistry registry;
+
+    // 改写耗时，按权限类型区分
+    private final Map<DataScopeTypeEnum, Timer> rewriteTimers = new EnumMap<>(DataScopeTypeEnum.class);
+
+    // 跳过次数，按原因区分
+    private final Map<DataScopeSkipReasonEnum, Counter> skipCounters = new EnumMap<>(DataScopeSkipReasonEnum.class);
+
+    // SQL 解析失败次数
+    private final Counter sqlParseFailures;
+
+    // 自定义规则解析失败次数
+    private final Counter ruleParseFailures;
+
+    // 超出解析预算次数
+    private final Counter budgetParseFailures;
+
+    // 恒假条件降级次数
+    private final Counter failClosed;
+
+    // 权限谓词长度
+    private final DistributionSummary predicateSize;
+
+    public MicrometerDataScopeMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (DataScopeTypeEnum scopeType : DataScopeTypeEnum.values()) {
+            rewriteTimers.put(scopeType, Timer.builder(PREFIX + ".rewrite")
+                    .description("数据权限 SQL 改写耗时")
+                    .tag("scope.type", scopeType.name())
+                    .register(registry));
+        }
+        for (DataScopeSkipReasonEnum reason : DataScopeSkipReasonEnum.values()) {
+            skipCounters.put(reason, Counter.builder(PREFIX + ".skip")
+                    .description("数据权限跳过次数")
+                    .tag("reason", reason.name())
+                    .register(registry));
+        }
+        this.sqlParseFailures = parseFailureCounter(PARSE_SQL);
+        this.ruleParseFailures = parseFailureCounter(PARSE_RULE);
+        this.budgetParseFailures = parseFailureCounter(PARSE_BUDGET);
+        this.failClosed = Counter.builder(PREFIX + ".fail.closed")
+                .description("数据权限恒假条件降级次数")
+                .register(registry);
+        this.predicateSize = DistributionSummary.builder(PREFIX + ".predicate.size")
+                .description("数据权限谓词长度")
+                .baseUnit("characters")
+                .register(registry);
+    }
+
+    @Override
+    public void recordRewrite(DataScopeTypeEnum scopeType, long nanos, int predicateLength) {
+        rewriteTimers.get(scopeType).record(nanos, TimeUnit.NANOSECONDS);
+        if (predicateLength > 0) {
+            predicateSize.record(predicateLength);
+        }
+    }
+
+    @Override
+    public void recordSkip(DataScopeSkipReasonEnum reason) {
+        skipCounters.get(reason).increment();
+    }
+
+    @Override
+    public void recordParseFailure(String kind) {
+        switch (kind) {
+            case PARSE_RULE -> ruleParseFailures.increment();
+            case PARSE_BUDGET -> budgetParseFailures.increment();
+            default -> sqlParseFailures.increment();
+        }
+    }
+
+    @Override
+    public void recordFailClosed() {
+        failClosed.increment();
+    }
+
+    @Override
+    public void bindCache(String name, LongSupplier hits, LongSupplier misses, IntSupplier size) {
+        FunctionCounter.builder(PREFIX + ".cache.gets", hits, LongSupplier::getAsLong)
+                .description("数据权限缓存命中次数")
+                .tags("cache", name, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder(PREFIX + ".cache.gets", misses, LongSupplier::getAsLong)
+                .description("数据权限缓存未命中次数")
+                .tags("cache", name, "result", "miss")
+                .register(registry);
+        Gauge.builder(PREFIX + ".cache.size", size, IntSupplier::getAsInt)
+                .description("数据权限缓存条目数")
+                .tag("cache", name)
+                .register(registry);
+    }
+
+    private Counter parseFailureCounter(String kind) {
+        return Counter.builder(PREFIX + ".parse.failure")
+                .description("数据权限解析失败次数")
+                .tag("kind", kind)
+                .register(registry);
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.org;
+
+import com.izpan.starter.database.mybatis.plus.domain.ScopeIdSet;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 数据权限组织树索引
+ * <p>
+ * 在内存中维护组织单位的上下级关系，并按先序遍历（Euler-tour）为每个节点分配区间 [begin, end)：
+ * 节点的下级组织恰好是遍历序列中该区间内的元素，查询子树只需一次哈希定位和一次数组切片，结果按节点缓存，
+ * 开销与组织数量和层级相关，与人员数量无关。组织 ID 按层级连续编号时，子树在 {@link ScopeIdSet} 中只占一个区间，
+ * 渲染为 {@code unit_id BETWEEN ? AND ?}。
+ * </p>
+ * <p>
+ * 区间索引为不可变快照，查询只读取当前快照，从不在查询线程重建。结构变更（{@link #put}、{@link #remove}）修改上下级关系后
+ * 全量重建索引（先序遍历开销与组织数量成正比），构建完成后整体替换快照（copy-on-write）：指定执行器时在后台线程重建，
+ * 重建完成前查询使用旧快照，连续变更合并为一次重建；未指定执行器时在变更线程同步重建。
+ * 由组织树展开的组织单位集合会进入合并后的 DataScope，启用跨请求共享缓存时需在组织变更后主动失效。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.org.DataScopeOrgTree
+ * @CreateTime 2026/10/17 - 22:36
+ */
+@Slf4j
+public class DataScopeOrgTree {
+
+    // 组织 ID -> 上级组织 ID，根节点的上级为 null
+    private final Map<Long, Long> parents = new HashMap<>();
+
+    // 组织 ID -> 下级组织 ID，按 ID 排序保证遍历顺序稳定
+    private final Map<Long, Set<Long>> children = new HashMap<>();
+
+    // 后台重建执行器，为 null 时在变更线程同步重建
+    private final Executor executor;
+
+    // 结构版本，每次变更递增
+    private long version;
+
+    // 已提交后台重建、尚未开始执行
+    private boolean rebuildScheduled;
+
+    // 当前区间索引快照，构建完成后整体替换
+    private volatile Index index = Index.EMPTY;
+
+    public DataScopeOrgTree() {
+        this(null);
+    }
+
+    public DataScopeOrgTree(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * 全量加载组织树，替换已有数据
+     *
+     * @param parents 组织 ID -> 上级组织 ID，根节点的上级为 null 或不存在的 ID
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 22:40:12
+     */
+    public synchronized void load(Map<Long, Long> parents) {
+        this.parents.clear();
+        this.children.clear();
+        parents.forEach((id, parentId) -> {
+            this.parents.put(id, parentId);
+            if (parentId != null) {
+                this.children.computeIfAbsent(parentId, key -> new TreeSet<>()).add(id);
+            }
+        });
+        // 全量加载通常在启动时进行，直接同步构建，加载完成即可查询
+        version++;
+        index = Index.build(version, this.parents, this.children);
+        log.info("[DataScope] 组织树加载完成, 组织数={}", this.parents.size());
+    }
+
+    /**
+     * 新增组织或调整组织的上级
+     *
+     * @param id       组织 ID
+     * @param parentId 上级组织 ID，根节点为 null
+     * @throws IllegalArgumentException 上级为自身或自身的下级时抛出
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 22:41:36
+     */
+    public synchronized void put(long id, Long parentId) {
+        // 沿上级链检查环路，开销与层级深度成正比
+        for (Long ancestor = parentId; ancestor != null; ancestor = parents.get(ancestor)) {
+            if (ancestor == id) {
+                throw new IllegalArgumentException("组织 " + id + " 的上级不能为自身或自身的下级: " + parentId);
+            }
+        }
+        boolean exists = parents.containsKey(id);
+        Long previous = parents.put(id, parentId);
+        if (exists && Objects.equals(previous, parentId)) {
+            return;
+        }
+        if (previous != null) {
+            detach(id, previous);
+        }
+        if (parentId != null) {
+            children.computeIfAbsent(parentId, key -> new TreeSet<>()).add(id);
+        }
+        changed();
+    }
+
+    /**
+     * 删除组织，其下级组织挂到被删除组织的上级
+     *
+     * @param id 组织 ID
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 22:43:02
+     */
+    public synchronized void remove(long id) {
+        if (!parents.containsKey(id)) {
+            return;
+        }
+        Long parentId = parents.remove(id);
+        if (parentId != null) {
+            detach(id, parentId);
+        }
+        Set<Long> orphans = children.remove(id);
+        if (orphans != null) {
+            for (Long child : orphans) {
+                parents.put(child, parentId);
+                if (parentId != null) {
+                    children.computeIfAbsent(parentId, key -> new TreeSet<>()).add(child);
+                }
+            }
+        }
+        changed();
+    }
+
+    /**
+     * 查询组织及其所有下级组织
+     *
+     * @param id 组织 ID
+     * @return {@link ScopeIdSet} 组织 ID 集合，组织不存在时仅包含自身
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 22:44:20
+     */
+    public ScopeIdSet subtree(long id) {
+        return index.subtree(id, true);
+    }
+
+    /**
+     * 查询组织的所有下级组织，不含自身
+     *
+     * @param id 组织 ID
+     * @return {@link ScopeIdSet} 组织 ID 集合，组织不存在时为空集合
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 22:45:08
+     */
+    public ScopeIdSet descendants(long id) {
+        return index.subtree(id, false);
+    }
+
+    public boolean contains(long id) {
+        return index.positions.containsKey(id);
+    }
+
+    public int size() {
+        return index.order.length;
+    }
+
+    /**
+     * 立即按当前结构重建区间索引，等待后台重建完成前需要读到最新结构时调用
+     *
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 22:46:10
+     */
+    public synchronized void refresh() {
+        if (index.version != version) {
+            index = Index.build(version, parents, children);
+        }
+    }
+
+    // 从上级的下级集合中移除
+    private void detach(long id, Long parentId) {
+        Set<Long> siblings = children.get(parentId);
+        if (siblings != null) {
+            siblings.remove(id);
+            if (siblings.isEmpty()) {
+                children.remove(parentId);
+            }
+        }
+    }
+
+    // 结构变更后重建索引，调用方持有锁
+    private void changed() {
+        version++;
+        if (executor == null) {
+            index = Index.build(version, parents, children);
+            return;
+        }
+        if (!rebuildScheduled) {
+            rebuildScheduled = true;
+            try {
+                executor.execute(this::rebuild);
+            } catch (RejectedExecutionException e) {
+                // 执行器已关闭时退回同步重建
+                rebuildScheduled = false;
+                index = Index.build(version, parents, children);
+            }
+        }
+    }
+
+    // 后台重建：在锁内复制结构，在锁外构建，完成后替换较旧的快照
+    private void rebuild() {
+        long snapshotVersion;
+        Map<Long, Long> parentsCopy;
+        Map<Long, Set<Long>> childrenCopy;
+        synchronized (this) {
+            rebuildScheduled = false;
+            if (index.version == version) {
+                return;
+            }
+            snapshotVersion = version;
+            parentsCopy = new HashMap<>(parents);
+            childrenCopy = new HashMap<>(children.size() * 2);
+            children.forEach((id, nodeChildren) -> childrenCopy.put(id, new TreeSet<>(nodeChildren)));
+        }
+        Index built = Index.build(snapshotVersion, parentsCopy, childrenCopy);
+        synchronized (this) {
+            if (built.version > index.version) {
+                index = built;
+            }
+        }
+    }
+
+    /**
+     * 区间索引，构建后不再修改（子树结果缓存除外）
+     */
+    private static final class Index {
+
+        private static final Index EMPTY = new Index(0, new long[0], new int[0], Map.of());
+
+        // 构建时的结构版本
+        private final long version;
+
+        // 先序遍历序列
+        private final long[] order;
+
+        // 每个位置对应子树区间的结束位置（不包含）
+        private final int[] ends;
+
+        // 组织 ID -> 遍历位置
+        private final Map<Long, Integer> positions;
+
+        // 按位置缓存的子树（含自身）与下级集合，并发写入相同结果，无需加锁
+        private final ScopeIdSet[] subtrees;
+
+        private final ScopeIdSet[] descendants;
+
+        private Index(long version, long[] order, int[] ends, Map<Long, Integer> positions) {
+            this.version = version;
+            this.order = order;
+            this.ends = ends;
+            this.positions = positions;
+            this.subtrees = new ScopeIdSet[order.length];
+            this.descendants = new ScopeIdSet[order.length];
+        }
+
+        // 从根节点（无上级或上级不存在）开始迭代先序遍历，记录每个节点的子树区间
+        private static Index build(long version, Map<Long, Long> parents, Map<Long, Set<Long>> children) {
+            int size = parents.size();
+            long[] order = new long[size];
+            int[] ends = new int[size];
+            Map<Long, Integer> positions = new HashMap<>(size * 2);
+            Set<Long> roots = new TreeSet<>();
+            parents.forEach((id, parentId) -> {
+                if (parentId == null || !parents.containsKey(parentId)) {
+                    roots.add(id);
+                }
+            });
+            int next = 0;
+            Deque<Iterator<Long>> stack = new ArrayDeque<>();
+            Deque<Integer> starts = new ArrayDeque<>();
+            stack.push(roots.iterator());
+            while (!stack.isEmpty()) {
+                Iterator<Long> iterator = stack.peek();
+                if (!iterator.hasNext()) {
+                    stack.pop();
+                    if (!starts.isEmpty()) {
+                        ends[starts.pop()] = next;
+                    }
+                    continue;
+                }
+                Long id = iterator.next();
+                positions.put(id, next);
+                order[next] = id;
+                starts.push(next++);
+                Set<Long> nodeChildren = children.get(id);
+                stack.push(nodeChildren == null ? Collections.<Long>emptyIterator() : nodeChildren.iterator());
+            }
+            if (next < size) {
+                log.warn("[DataScope] 组织树存在环路, 已忽略无法从根节点到达的组织 {} 个", size - next);
+            }
+            return new Index(version, next == size ? order : Arrays.copyOf(order, next), ends, positions);
+        }
+
+        private ScopeIdSet subtree(long id, boolean inclusive) {
+            Integer position = positions.get(id);
+            if (position == null) {
+                return inclusive ? ScopeIdSet.of(id) : ScopeIdSet.EMPTY;
+            }
+            ScopeIdSet[] cache = inclusive ? subtrees : descendants;
+            ScopeIdSet result = cache[position];
+            if (result == null) {
+                int from = inclusive ? position : position + 1;
+                result = ScopeIdSet.of(Arrays.copyOfRange(order, from, ends[position]));
+                cache[position] = result;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.resolver;
+
+import com.izpan.starter.database.mybatis.plus.cache.LruCache;
+import com.izpan.starter.database.mybatis.plus.domain.DataScopeCondition;
+import net.sf.jsqlparser.JSQLParserException;
+
+import java.util.List;
+
+/**
+ * 数据权限规则编译器
+ * <p>
+ * 以条件列表内容为键缓存编译后的规则模板（{@link DataScopeRuleTemplate}），规则变更即内容变更，每个规则版本只编译一次；
+ * 编译失败的规则同样缓存，避免每次查询重复编译与重复记录错误。模板不可变，可在多个线程间共享。
+ * 缓存以条件列表为键，调用方在规则变更时应提供新的列表实例，不得原地修改已使用过的列表。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.resolver.DataScopeRuleCompiler
+ * @CreateTime 2026/10/17 - 23:50
+ */
+public class DataScopeRuleCompiler {
+
+    // 编译结果缓存，未启用时为 null
+    private final LruCache<List<DataScopeCondition>, CompiledTemplate> cache;
+
+    public DataScopeRuleCompiler(boolean enabled, int maxSize) {
+        this.cache = enabled ? new LruCache<>(maxSize) : null;
+    }
+
+    /**
+     * 获取条件列表对应的规则模板
+     *
+     * @param conditions 条件列表
+     * @return {@link DataScopeRuleTemplate} 规则模板
+     * @throws JSQLParserException 条件定义不合法或编译失败
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:51:24
+     */
+    public DataScopeRuleTemplate get(List<DataScopeCondition> conditions) throws JSQLParserException {
+        CompiledTemplate compiled = cache == null ? compile(conditions) : cache.computeIfAbsent(conditions, DataScopeRuleCompiler::compile);
+        if (compiled.error() != null) {
+            throw compiled.error();
+        }
+        return compiled.template();
+    }
+
+    /**
+     * 清空缓存，规则定义批量变更时使用
+     *
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:52:10
+     */
+    public void clear() {
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    public long hitCount() {
+        return cache == null ? 0 : cache.hitCount();
+    }
+
+    public long missCount() {
+        return cache == null ? 0 : cache.missCount();
+    }
+
+    public int size() {
+        return cache == null ? 0 : cache.size();
+    }
+
+    // 编译条件列表，异常同样作为结果缓存
+    private static CompiledTemplate compile(List<DataScopeCondition> conditions) {
+        try {
+            return new CompiledTemplate(DataScopeRuleTemplate.compile(conditions), null);
+        } catch (JSQLParserException e) {
+            return new CompiledTemplate(null, e);
+        }
+    }
+
+    // 编译结果，模板与异常二选一
+    private record CompiledTemplate(DataScopeRuleTemplate template, JSQLParserException error) {
+    }
+}
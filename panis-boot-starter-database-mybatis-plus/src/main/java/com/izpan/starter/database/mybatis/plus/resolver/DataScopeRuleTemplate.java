@@ -0,0 +1,387 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.resolver;
+
+import com.izpan.starter.common.pool.StringPools;
+import com.izpan.starter.database.mybatis.plus.domain.DataScopeCondition;
+import com.izpan.starter.database.mybatis.plus.enums.ParameterTypeEnum;
+import com.izpan.starter.database.mybatis.plus.enums.QueryConditionsEnum;
+import com.izpan.starter.database.mybatis.plus.rewrite.DataScopePredicate;
+import com.izpan.starter.database.mybatis.plus.rewrite.DataScopeSqlTemplate;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 数据权限规则谓词模板
+ * <p>
+ * 由条件列表（{@link DataScopeCondition}）一次性编译而来：条件值中的 {@code #{变量名}} 编译为带类型的参数组，
+ * 固定值按 {@link DataScopeVariableResolver} 的既有规则写入模板文本，整体经 JSqlParser 校验并保留表达式树。
+ * 查询时只需按变量名取值并绑定为 JDBC 参数，不再进行正则替换与字符串格式化。
+ * </p>
+ * <p>
+ * 参数组按操作符的参数类型展开：SCALAR / DATETIME 为单个 ?；RANGE 为 ? AND ?；
+ * LIST 为 (?, ...)，个数补齐到 2 的幂（以最后一个值填充），减少不同长度产生的语句形态；空集合渲染为 (NULL)，不匹配任何数据。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.resolver.DataScopeRuleTemplate
+ * @CreateTime 2026/10/17 - 23:40
+ */
+public final class DataScopeRuleTemplate {
+
+    // 变量占位符前缀与后缀
+    private static final String VARIABLE_PREFIX = "#{";
+    private static final String VARIABLE_SUFFIX = "}";
+
+    // 空集合参数组
+    private static final String EMPTY_LIST = "(NULL)";
+
+    // 模板片段，长度为参数组数量 + 1，首尾包含括号
+    private final String[] fragments;
+
+    // 每个参数组对应的变量名
+    private final String[] variables;
+
+    // 每个参数组的参数类型
+    private final ParameterTypeEnum[] types;
+
+    // 校验后的表达式树，LIST 参数组以单个参数表示，只允许读取
+    private final Expression expression;
+
+    // 不含 LIST 参数组时的谓词 SQL，绑定时直接复用
+    private final String fixedSql;
+
+    // 不含 LIST 参数组时的参数数量
+    private final int fixedParameters;
+
+    private DataScopeRuleTemplate(String[] fragments, String[] variables, ParameterTypeEnum[] types, Expression expression) {
+        this.fragments = fragments;
+        this.variables = variables;
+        this.types = types;
+        this.expression = expression;
+        boolean list = false;
+        int parameters = 0;
+        for (ParameterTypeEnum type : types) {
+            list |= type == ParameterTypeEnum.LIST;
+            parameters += type == ParameterTypeEnum.RANGE ? 2 : 1;
+        }
+        this.fixedParameters = list ? -1 : parameters;
+        this.fixedSql = list ? null : join(fragments, types, null);
+    }
+
+    /**
+     * 编译条件列表为规则模板
+     * <p>
+     * 条件之间按各自的逻辑关系（AND / OR，首个条件忽略）连接，优先级遵循 SQL（AND 先于 OR）。
+     * 字段名只允许标识符与限定名，变量占位符须独占条件值
+     * </p>
+     *
+     * @param conditions 条件列表
+     * @return {@link DataScopeRuleTemplate} 规则模板
+     * @throws JSQLParserException 条件定义不合法或编译结果无法解析
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:42:16
+     */
+    public static DataScopeRuleTemplate compile(List<DataScopeCondition> conditions) throws JSQLParserException {
+        if (conditions == null || conditions.isEmpty()) {
+            throw new JSQLParserException("规则条件为空");
+        }
+        List<String> fragments = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        List<ParameterTypeEnum> types = new ArrayList<>();
+        StringBuilder fragment = new StringBuilder("(");
+        for (int i = 0; i < conditions.size(); i++) {
+            DataScopeCondition condition = conditions.get(i);
+            QueryConditionsEnum operator;
+            try {
+                operator = QueryConditionsEnum.of(condition.getOperator());
+            } catch (IllegalArgumentException e) {
+                throw new JSQLParserException("规则条件操作符不合法: " + condition.getOperator());
+            }
+            String field = condition.getField();
+            if (!isField(field)) {
+                throw new JSQLParserException("规则条件字段不合法: " + field);
+            }
+            if (i > 0) {
+                fragment.append("OR".equalsIgnoreCase(trim(condition.getLogic())) ? " OR " : " AND ");
+            }
+            fragment.append(field).append(' ').append(operator.getSqlOperator());
+            ParameterTypeEnum type = operator.getParameterType();
+            if (type == ParameterTypeEnum.NONE) {
+                continue;
+            }
+            fragment.append(' ');
+            String variable = variable(condition.getValue());
+            if (variable == null) {
+                // 固定值沿用既有格式化规则
+                fragment.append(DataScopeVariableResolver.resolveVariables(null, condition.getValue(), null, operator));
+                continue;
+            }
+            String pattern = operator.getValuePattern();
+            if (type == ParameterTypeEnum.SCALAR || type == ParameterTypeEnum.DATETIME) {
+                // 单值参数保留模式中 ? 两侧的文本，如 CONCAT('%', ?, '%')
+                int index = pattern.indexOf(StringPools.QUESTION_MARK);
+                fragment.append(pattern, 0, index);
+                fragments.add(fragment.toString());
+                fragment.setLength(0);
+                fragment.append(pattern, index + 1, pattern.length());
+            } else {
+                fragments.add(fragment.toString());
+                fragment.setLength(0);
+            }
+            variables.add(variable);
+            types.add(type);
+        }
+        fragments.add(fragment.append(')').toString());
+
+        String[] fragmentArray = fragments.toArray(String[]::new);
+        ParameterTypeEnum[] typeArray = types.toArray(ParameterTypeEnum[]::new);
+        // 校验：固定值中不得出现引号外的 ?，否则参数位置会错位
+        for (String part : fragmentArray) {
+            if (DataScopeSqlTemplate.countParameters(part) > 0) {
+                throw new JSQLParserException("规则条件固定值不得包含参数占位符: " + part);
+            }
+        }
+        Expression expression = CCJSqlParserUtil.parseCondExpression(join(fragmentArray, typeArray, null));
+        return new DataScopeRuleTemplate(fragmentArray, variables.toArray(String[]::new), typeArray, expression);
+    }
+
+    /**
+     * 绑定变量值，生成参数方式的谓词
+     *
+     * @param variableValues 变量名 -> 变量值，缺失的变量按 NULL 绑定
+     * @return {@link DataScopePredicate} 权限谓词，SQL 以括号包裹
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:45:08
+     */
+    public DataScopePredicate bind(Map<String, Object> variableValues) {
+        if (fixedParameters == 0) {
+            return new DataScopePredicate(fixedSql, null);
+        }
+        if (fixedParameters > 0) {
+            Object[] values = new Object[fixedParameters];
+            int index = 0;
+            for (int i = 0; i < types.length; i++) {
+                Object value = value(variableValues, i);
+                if (types[i] == ParameterTypeEnum.RANGE) {
+                    index = range(value, values, index);
+                } else {
+                    values[index++] = value;
+                }
+            }
+            return new DataScopePredicate(fixedSql, values);
+        }
+        // 含 LIST 参数组时按集合长度补齐并拼接
+        List<Object> values = new ArrayList<>();
+        int[] sizes = new int[types.length];
+        for (int i = 0; i < types.length; i++) {
+            Object value = value(variableValues, i);
+            switch (types[i]) {
+                case RANGE -> {
+                    Object[] range = new Object[2];
+                    range(value, range, 0);
+                    values.add(range[0]);
+                    values.add(range[1]);
+                }
+                case LIST -> {
+                    Object[] items = toArray(value);
+                    int padded = items.length <= 1 ? items.length : Integer.highestOneBit(items.length - 1) << 1;
+                    for (int j = 0; j < padded; j++) {
+                        values.add(items[Math.min(j, items.length - 1)]);
+                    }
+                    sizes[i] = padded;
+                }
+                default -> values.add(value);
+            }
+        }
+        return new DataScopePredicate(join(fragments, types, sizes), values.toArray());
+    }
+
+    /**
+     * 以字面量渲染谓词，用于参数位置无法对应或参数数量超限时的降级，以及多角色规则合并
+     *
+     * @param variableValues 变量名 -> 变量值
+     * @return {@link String} 谓词 SQL，以括号包裹
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:46:40
+     */
+    public String renderLiteral(Map<String, Object> variableValues) {
+        // 先解析全部变量值：惰性变量视图会调用变量提供者，提供者内部可能再次使用写入器
+        Object[] values = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            values[i] = value(variableValues, i);
+        }
+        SqlLiteralWriter writer = SqlLiteralWriter.acquire();
+        writer.append(fragments[0]);
+        for (int i = 0; i < types.length; i++) {
+            Object value = values[i];
+            switch (types[i]) {
+                case RANGE -> {
+                    Object[] range = new Object[2];
+                    range(value, range, 0);
+                    writer.appendValue(range[0]).append(StringPools.AND).appendValue(range[1]);
+                }
+                case LIST -> {
+                    Object[] items = toArray(value);
+                    if (items.length == 0) {
+                        writer.append(EMPTY_LIST);
+                    } else {
+                        writer.append('(');
+                        for (int j = 0; j < items.length; j++) {
+                            if (j > 0) {
+                                writer.append(SqlLiteralWriter.COLLECTION_SEPARATOR);
+                            }
+                            writer.appendValue(items[j]);
+                        }
+                        writer.append(')');
+                    }
+                }
+                default -> writer.appendValue(value);
+            }
+            writer.append(fragments[i + 1]);
+        }
+        return writer.finish();
+    }
+
+    public Expression expression() {
+        return expression;
+    }
+
+    /**
+     * 参数组数量
+     *
+     * @return int 参数组数量
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:47:12
+     */
+    public int groupCount() {
+        return types.length;
+    }
+
+    // 拼接片段与参数组，sizes 为 null 时 LIST 参数组以单个参数表示
+    private static String join(String[] fragments, ParameterTypeEnum[] types, int[] sizes) {
+        StringBuilder sql = new StringBuilder(64);
+        sql.append(fragments[0]);
+        for (int i = 0; i < types.length; i++) {
+            switch (types[i]) {
+                case RANGE -> sql.append(StringPools.AND_PATTERN);
+                case LIST -> {
+                    int size = sizes == null ? 1 : sizes[i];
+                    if (size == 0) {
+                        sql.append(EMPTY_LIST);
+                    } else {
+                        sql.append("(?");
+                        for (int j = 1; j < size; j++) {
+                            sql.append(", ?");
+                        }
+                        sql.append(')');
+                    }
+                }
+                default -> sql.append(StringPools.QUESTION_MARK);
+            }
+            sql.append(fragments[i + 1]);
+        }
+        return sql.toString();
+    }
+
+    private Object value(Map<String, Object> variableValues, int group) {
+        return variableValues == null ? null : variableValues.get(variables[group]);
+    }
+
+    // 区间值：数组或集合取前两个元素，逗号分隔的字符串按逗号拆分，其余情况上下限相同
+    private static int range(Object value, Object[] values, int index) {
+        if (value instanceof String text && text.indexOf(',') > 0) {
+            int comma = text.indexOf(',');
+            values[index++] = text.substring(0, comma).trim();
+            values[index++] = text.substring(comma + 1).trim();
+            return index;
+        }
+        Object[] items = value instanceof Collection<?> || value != null && value.getClass().isArray() ? toArray(value) : null;
+        if (items != null && items.length >= 2) {
+            values[index++] = items[0];
+            values[index++] = items[1];
+        } else {
+            Object bound = items == null ? value : items.length == 1 ? items[0] : null;
+            values[index++] = bound;
+            values[index++] = bound;
+        }
+        return index;
+    }
+
+    // 集合值：集合与数组（含基本类型数组）展开，null 为空集合，其余为单个元素
+    private static Object[] toArray(Object value) {
+        if (value == null) {
+            return new Object[0];
+        }
+        if (value instanceof Collection<?> collection) {
+            return collection.toArray();
+        }
+        if (value instanceof Object[] array) {
+            return array;
+        }
+        if (value.getClass().isArray()) {
+            Object[] array = new Object[Array.getLength(value)];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = Array.get(value, i);
+            }
+            return array;
+        }
+        return new Object[]{value};
+    }
+
+    // 条件值恰为 #{变量名} 时返回变量名，固定值返回 null
+    private static String variable(String value) throws JSQLParserException {
+        String text = trim(value);
+        if (text == null || !text.contains(VARIABLE_PREFIX)) {
+            return null;
+        }
+        if (!text.startsWith(VARIABLE_PREFIX) || !text.endsWith(VARIABLE_SUFFIX) || text.length() <= 3
+                || text.indexOf(VARIABLE_PREFIX, 1) >= 0) {
+            throw new JSQLParserException("规则条件变量占位符须独占条件值: " + value);
+        }
+        return text.substring(VARIABLE_PREFIX.length(), text.length() - 1).trim();
+    }
+
+    // 字段名：字母、数字、下划线、$、转义符与限定名分隔点
+    private static boolean isField(String field) {
+        if (field == null || field.isBlank()) {
+            return false;
+        }
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '_' && c != '$' && c != '.' && c != '`' && c != '"') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String trim(String value) {
+        return value == null ? null : value.trim();
+    }
+}
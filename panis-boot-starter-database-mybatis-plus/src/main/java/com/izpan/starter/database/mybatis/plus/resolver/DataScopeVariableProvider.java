@@ -0,0 +1,58 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.resolver;
+
+import com.izpan.starter.database.mybatis.plus.domain.DataScope;
+
+/**
+ * 数据权限规则变量提供者
+ * <p>
+ * 按变量名提供规则条件中 {@code #{变量名}} 的取值，注册为 Spring Bean 即生效。
+ * 变量只在预编译规则实际引用时才会解析，并在缓存作用域（见 {@link com.izpan.starter.database.mybatis.plus.memo.DataScopeMemoStore}）内按用户缓存，
+ * 因此下级组织、角色列表等计算成本较高的变量可以放心注册。
+ * {@link DataScope#getRuleVariables()} 中已提供的变量优先于提供者。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.resolver.DataScopeVariableProvider
+ * @CreateTime 2026/10/17 - 23:59
+ */
+public interface DataScopeVariableProvider {
+
+    /**
+     * 变量名，对应条件值中的 #{变量名}
+     *
+     * @return {@link String} 变量名
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:59:12
+     */
+    String name();
+
+    /**
+     * 解析变量值
+     *
+     * @param dataScope 当前数据权限
+     * @return {@link Object} 变量值，集合类变量返回 Collection 或数组，允许为 null
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:59:30
+     */
+    Object resolve(DataScope dataScope);
+}
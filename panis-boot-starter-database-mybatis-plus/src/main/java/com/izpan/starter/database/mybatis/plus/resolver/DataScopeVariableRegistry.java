@@ -0,0 +1,162 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.resolver;
+
+import com.izpan.starter.database.mybatis.plus.domain.DataScope;
+import com.izpan.starter.database.mybatis.plus.memo.DataScopeMemoStore;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 数据权限规则变量注册表
+ * <p>
+ * 汇总所有 {@link DataScopeVariableProvider}，为每次查询提供惰性的变量视图：
+ * 预编译规则模板绑定参数时按变量名调用 {@link Map#get(Object)}，此时才解析对应变量，未被引用的变量不会计算。
+ * 解析结果先缓存于本次视图，再按（变量名, 用户 ID）缓存于当前作用域，同一请求内的多次查询只解析一次。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.resolver.DataScopeVariableRegistry
+ * @CreateTime 2026/10/17 - 23:59
+ */
+@Slf4j
+public class DataScopeVariableRegistry {
+
+    // 变量名 -> 变量提供者
+    private final Map<String, DataScopeVariableProvider> providers;
+
+    // 作用域缓存存储
+    private final DataScopeMemoStore memoStore;
+
+    public DataScopeVariableRegistry(Collection<DataScopeVariableProvider> providers, DataScopeMemoStore memoStore) {
+        this.providers = new HashMap<>(providers.size() * 2);
+        for (DataScopeVariableProvider provider : providers) {
+            DataScopeVariableProvider previous = this.providers.put(provider.name(), provider);
+            if (previous != null) {
+                log.warn("[DataScope] 规则变量 {} 存在多个提供者, 使用 {}", provider.name(), provider.getClass().getName());
+            }
+        }
+        this.memoStore = memoStore;
+    }
+
+    /**
+     * 获取数据权限的惰性变量视图
+     *
+     * @param dataScope 数据权限信息
+     * @return {@link Map} 变量名 -> 变量值，未注册提供者时直接返回 {@link DataScope#getRuleVariables()}
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:59:48
+     */
+    public Map<String, Object> variables(DataScope dataScope) {
+        if (providers.isEmpty()) {
+            return dataScope.getRuleVariables();
+        }
+        return new LazyVariables(dataScope);
+    }
+
+    /**
+     * 解析变量，优先读取作用域缓存
+     *
+     * @param provider  变量提供者
+     * @param dataScope 数据权限信息
+     * @return {@link Object} 变量值
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:59:56
+     */
+    @SuppressWarnings("unchecked")
+    private Object resolve(DataScopeVariableProvider provider, DataScope dataScope) {
+        Map<Object, Object> memo = memoStore.current();
+        MemoKey key = new MemoKey(provider.name(), dataScope.getCurrentUserId());
+        if (memo != null) {
+            Optional<Object> cached = (Optional<Object>) memo.get(key);
+            if (cached != null) {
+                return cached.orElse(null);
+            }
+        }
+        Object value = provider.resolve(dataScope);
+        if (memo != null) {
+            memo.put(key, Optional.ofNullable(value));
+        }
+        return value;
+    }
+
+    // 作用域缓存键，与数据权限缓存键区分
+    private record MemoKey(String variable, Long userId) {
+    }
+
+    // 惰性变量视图，get / containsKey 按需解析，遍历时解析全部变量
+    private final class LazyVariables extends AbstractMap<String, Object> {
+
+        // 数据权限信息
+        private final DataScope dataScope;
+
+        // 已解析的变量
+        private final Map<String, Object> resolved = new HashMap<>();
+
+        private LazyVariables(DataScope dataScope) {
+            this.dataScope = dataScope;
+        }
+
+        @Override
+        public Object get(Object key) {
+            Map<String, Object> explicit = dataScope.getRuleVariables();
+            if (explicit != null && explicit.containsKey(key)) {
+                return explicit.get(key);
+            }
+            if (resolved.containsKey(key)) {
+                return resolved.get(key);
+            }
+            DataScopeVariableProvider provider = providers.get(key);
+            if (provider == null) {
+                return null;
+            }
+            Object value = resolve(provider, dataScope);
+            resolved.put(provider.name(), value);
+            return value;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            Map<String, Object> explicit = dataScope.getRuleVariables();
+            return explicit != null && explicit.containsKey(key) || providers.containsKey(key);
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            Set<String> keys = new LinkedHashSet<>(providers.keySet());
+            if (dataScope.getRuleVariables() != null) {
+                keys.addAll(dataScope.getRuleVariables().keySet());
+            }
+            Set<Entry<String, Object>> entries = new LinkedHashSet<>();
+            for (String name : keys) {
+                entries.add(new SimpleImmutableEntry<>(name, get(name)));
+            }
+            return entries;
+        }
+    }
+}
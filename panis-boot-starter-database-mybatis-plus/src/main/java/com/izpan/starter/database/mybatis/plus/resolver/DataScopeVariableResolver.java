@@ -20,15 +20,11 @@
 package com.izpan.starter.database.mybatis.plus.resolver;
 
 import com.izpan.starter.common.pool.StringPools;
+import com.izpan.starter.database.mybatis.plus.domain.ScopeIdSet;
 import com.izpan.starter.database.mybatis.plus.enums.QueryConditionsEnum;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 /**
  * 数据权限变量解析器（Starter层通用实现）
  * <p>
@@ -57,14 +53,9 @@ import java.util.regex.Pattern;
 public class DataScopeVariableResolver {
 
     /**
-     * 变量占位符正则表达式，匹配 #{variableName} 格式
+     * 变量占位符前缀，占位符格式为 #{variableName}
      */
-    private static final Pattern VARIABLE_PATTERN = Pattern.compile("#\\{([^}]+)}");
-
-    /**
-     * 标准日期时间格式化器：yyyy-MM-dd HH:mm:ss
-     */
-    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String VARIABLE_PREFIX = "#{";
 
     /**
      * 解析并替换变量占位符，并根据操作符进行格式化
@@ -87,20 +78,40 @@ public class DataScopeVariableResolver {
     @SuppressWarnings("unused")
     public static String resolveVariables(Long ignore, String value, Object variableValue, QueryConditionsEnum operator) {
         // 固定值直接格式化
-        if (value == null || !value.contains("#{")) {
+        if (value == null || !value.contains(VARIABLE_PREFIX)) {
             return formatValueWithPattern(value, operator);
         }
 
         try {
+            // 条件值恰为单个占位符（常见情况）时直接按操作符写入，无需二次格式化
+            if (isSinglePlaceholder(value)) {
+                String resolvedValue = formatVariable(variableValue, operator);
+                if (resolvedValue != null) {
+                    log.debug("[DataScope] 变量替换成功: 原值={}, 替换后={}, 操作符={}", value, resolvedValue, operator.getCode());
+                    return resolvedValue;
+                }
+            }
+
             // 替换变量占位符
-            Matcher matcher = VARIABLE_PATTERN.matcher(value);
-            StringBuilder result = new StringBuilder();
-            while (matcher.find()) {
-                String replacement = variableValue != null ? formatValue(variableValue) : StringPools.NULL;
-                matcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
+            SqlLiteralWriter writer = SqlLiteralWriter.acquire();
+            int length = value.length();
+            int from = 0;
+            int start;
+            while ((start = value.indexOf(VARIABLE_PREFIX, from)) >= 0) {
+                int end = value.indexOf('}', start + VARIABLE_PREFIX.length());
+                if (end < 0) {
+                    break;
+                }
+                writer.append(value, from, start);
+                if (end == start + VARIABLE_PREFIX.length()) {
+                    // 空变量名不是占位符，原样保留
+                    writer.append(value, start, end + 1);
+                } else {
+                    writer.appendValue(variableValue);
+                }
+                from = end + 1;
             }
-            matcher.appendTail(result);
-            String resolvedValue = result.toString();
+            String resolvedValue = writer.append(value, from, length).finish();
 
             // 根据操作符格式化
             resolvedValue = formatValueWithPattern(resolvedValue, operator);
@@ -115,62 +126,44 @@ public class DataScopeVariableResolver {
     }
 
     /**
-     * 格式化变量值为 SQL 可用的字符串格式
-     * <p>
-     * 支持的数据类型：
-     * - null: 转换为 "NULL"
-     * - String: 用单引号包围
-     * - LocalDateTime: 格式化为 'yyyy-MM-dd HH:mm:ss' 格式
-     * - LocalDateTime[]: 时间数组，格式化为逗号分隔的时间字符串
-     * - Object[]: 其他数组类型，递归格式化为逗号分隔格式
-     * - Iterable: 转换为SQL IN格式的括号形式 (value1, value2)
-     * - 其他类型: 转换为字符串表示
-     * </p>
+     * 按操作符将单个变量值直接写入缓冲区，结果与先格式化再套用 valuePattern 一致
      *
-     * @param value 待格式化的值
-     * @return 格式化后的字符串
+     * @param variableValue 变量值
+     * @param operator      查询条件操作符
+     * @return {@link String} 格式化后的 SQL 值，需回退到通用格式化时返回 null
      * @author payne.zhuang
-     * @CreateTime 2025-06-02 - 16:22
+     * @CreateTime 2026-10-17 - 23:36:12
      */
-    private static String formatValue(Object value) {
-        return switch (value) {
-            // 处理null值，直接返回NULL
-            case null -> StringPools.NULL;
-            // 处理String类型，加单引号
-            case String ignore -> StringPools.SINGLE_QUOTE + value + StringPools.SINGLE_QUOTE;
-            // 处理LocalDateTime类型，格式化为标准时间格式并加单引号
-            case LocalDateTime dateTime ->
-                    StringPools.SINGLE_QUOTE + dateTime.format(DATETIME_FORMATTER) + StringPools.SINGLE_QUOTE;
-            // 处理LocalDateTime数组类型，格式化为逗号分隔的时间字符串
-            case LocalDateTime[] dateTimeArray -> {
-                StringBuilder sb = new StringBuilder();
-                for (int i = 0; i < dateTimeArray.length; i++) {
-                    if (i > 0) sb.append(StringPools.COMMA);
-                    // 格式化每个 LocalDateTime 并加单引号
-                    sb.append(StringPools.SINGLE_QUOTE)
-                            .append(dateTimeArray[i].format(DATETIME_FORMATTER))
-                            .append(StringPools.SINGLE_QUOTE);
-                }
-                yield sb.toString();
-            }
-            // 处理其他数组类型，递归格式化为逗号分隔格式
-            case Object[] array -> {
-                StringBuilder sb = new StringBuilder();
-                for (int i = 0; i < array.length; i++) {
-                    if (i > 0) sb.append(StringPools.COMMA);
-                    // 对数组元素进行递归格式化
-                    sb.append(formatValue(array[i]));
-                }
-                yield sb.toString();
+    private static String formatVariable(Object variableValue, QueryConditionsEnum operator) {
+        if (variableValue == null) {
+            return StringPools.NULL;
+        }
+        return switch (operator.getParameterType()) {
+            // valuePattern 为空，保持格式化后的值
+            case NONE -> SqlLiteralWriter.acquire().appendValue(variableValue).finish();
+            // 集合自带括号，其余值补齐括号
+            case LIST -> variableValue instanceof Iterable<?> || variableValue instanceof ScopeIdSet
+                    ? SqlLiteralWriter.acquire().appendValue(variableValue).finish()
+                    : SqlLiteralWriter.acquire().append('(').appendValue(variableValue).append(')').finish();
+            // 区间仅直接处理两个及以上元素的数组，其余交由通用格式化，此时不占用缓冲区
+            case RANGE -> variableValue instanceof Object[] array && array.length >= 2
+                    ? SqlLiteralWriter.acquire().appendValue(array[0]).append(StringPools.AND).appendValue(array[1]).finish()
+                    : null;
+            default -> {
+                String pattern = operator.getValuePattern();
+                int index = pattern.indexOf('?');
+                yield SqlLiteralWriter.acquire().append(pattern, 0, index).appendValue(variableValue)
+                        .append(pattern, index + 1, pattern.length()).finish();
             }
-            // 处理Iterable类型，转换为SQL IN格式的括号形式 (value1, value2)
-            case Iterable<?> collection -> collection.toString()
-                    .replace(StringPools.LEFT_SQ_BRACKET, StringPools.LEFT_BRACKET)
-                    .replace(StringPools.RIGHT_SQ_BRACKET, StringPools.RIGHT_BRACKET);
-            default -> String.valueOf(value);
         };
     }
 
+    // 条件值是否恰为单个 #{变量名}
+    private static boolean isSinglePlaceholder(String value) {
+        return value.startsWith(VARIABLE_PREFIX) && value.length() > VARIABLE_PREFIX.length() + 1
+                && value.indexOf('}') == value.length() - 1;
+    }
+
     /**
      * 根据操作符的 valuePattern 格式化值
      * <p>
@@ -195,47 +188,45 @@ public class DataScopeVariableResolver {
 
         // 获取操作符的valuePattern，如EQUAL为"?"，LIKE为"CONCAT('%', ?, '%')"
         String valuePattern = operator.getValuePattern();
-        // 如果valuePattern为空，直接返回value（通常已由formatValue加引号）
+        // 如果valuePattern为空，直接返回value（通常已由 SqlLiteralWriter 加引号）
         if (valuePattern.isEmpty()) {
             return value;
         }
 
-        switch (operator) {
+        return switch (operator) {
             // 处理IN和NOT_IN操作符
             // 逻辑：确保值被括号包裹，用于SQL IN语句
             // 输入示例：value="1,2" 或 "(1,2)"
             // 输出示例："(1,2)"
-            case IN, NOT_IN:
-                return value.startsWith(StringPools.LEFT_BRACKET) && value.endsWith(StringPools.RIGHT_BRACKET)
-                        ? value : StringPools.LEFT_BRACKET + value + StringPools.RIGHT_BRACKET;
+            case IN, NOT_IN -> value.startsWith(StringPools.LEFT_BRACKET) && value.endsWith(StringPools.RIGHT_BRACKET)
+                    ? value : StringPools.LEFT_BRACKET + value + StringPools.RIGHT_BRACKET;
 
             // 处理BETWEEN和NO_BETWEEN操作符
             // 逻辑：将逗号分隔的值转为"start AND end"格式
             // 输入示例：value="1,2" 或 "2023-01-01,2023-12-31"
             // 输出示例："1 AND 2" 或 "'2023-01-01' AND '2023-12-31'"
-            case BETWEEN, NO_BETWEEN:
+            case BETWEEN, NO_BETWEEN -> {
                 if (value.contains(StringPools.AND)) {
-                    return value; // 已格式化为 "start AND end"，直接返回
+                    yield value; // 已格式化为 "start AND end"，直接返回
                 }
                 String[] parts = value.split(StringPools.COMMA + "\\s*");
                 if (parts.length >= 2) {
-                    return parts[0].trim() + StringPools.AND + parts[1].trim();
+                    yield parts[0].trim() + StringPools.AND + parts[1].trim();
                 }
                 // 降级到 valuePattern
-                return valuePattern.replace(StringPools.AND_PATTERN, value);
+                yield valuePattern.replace(StringPools.AND_PATTERN, value);
+            }
 
             // 处理 IS_NUL L和 IS_NOT_NULL 操作符
             // 逻辑：这些操作符不需要值，SQL直接使用"field IS NULL"
             // 输出：空字符串
-            case IS_NULL, IS_NOT_NULL:
-                return StringPools.EMPTY;
+            case IS_NULL, IS_NOT_NULL -> StringPools.EMPTY;
 
             // 处理其他标准操作符（EQUAL, NOT_EQUAL, GT, LT, GE, LE, LIKE, LEFT_LIKE, RIGHT_LIKE）
             // 逻辑：直接替换valuePattern中的"?"占位符
             // 输入示例：value="'admin'"，operator=LIKE，valuePattern="CONCAT('%', ?, '%')"
             // 输出示例："CONCAT('%', 'admin', '%')"
-            default:
-                return valuePattern.replace(StringPools.QUESTION_MARK, value);
-        }
+            default -> valuePattern.replace(StringPools.QUESTION_MARK, value);
+        };
     }
-} 
\ No newline at end of file
+}
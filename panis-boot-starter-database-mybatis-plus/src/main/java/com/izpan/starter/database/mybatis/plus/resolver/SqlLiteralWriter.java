@@ -0,0 +1,301 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.resolver;
+
+import com.izpan.starter.common.pool.StringPools;
+import com.izpan.starter.database.mybatis.plus.domain.ScopeIdSet;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * SQL 字面量写入器
+ * <p>
+ * 将变量值直接追加到同一个缓冲区，代替逐个元素拼接字符串再合并：
+ * long[] / int[] / {@link ScopeIdSet} 直接写入数字，不装箱；LocalDateTime 按 yyyy-MM-dd HH:mm:ss 逐位写入，不创建中间字符串；
+ * 字符序列加单引号并转义单引号与反斜杠；集合与数组逐个元素递归写入。
+ * </p>
+ * <p>
+ * 缓冲区按线程复用，通过 {@link #acquire()} 获取并以 {@link #finish()} 取出结果，一次改写只使用一个缓冲区。
+ * 获取时将写入器从线程池位中取出，完成后归还：写入过程中嵌套获取（如变量值的 toString、变量提供者内部再次格式化）
+ * 会得到新的写入器，不会清空外层正在写入的缓冲区；写入异常未归还时，下次获取重新创建。
+ * {@link #finish()} 之后不可继续使用该写入器，写入器本身不可跨线程共享。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.resolver.SqlLiteralWriter
+ * @CreateTime 2026/10/17 - 23:30
+ */
+public final class SqlLiteralWriter {
+
+    /**
+     * 数组元素分隔符
+     */
+    public static final String ARRAY_SEPARATOR = StringPools.COMMA;
+
+    /**
+     * 集合元素分隔符
+     */
+    public static final String COLLECTION_SEPARATOR = ", ";
+
+    // 标准日期时间格式，年份超出四位时使用
+    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // 按线程复用的写入器，使用中时为 null
+    private static final ThreadLocal<SqlLiteralWriter> POOL = new ThreadLocal<>();
+
+    // 复用缓冲区的容量上限，超出后丢弃，避免单次超大集合长期占用内存
+    private static final int MAX_POOLED_CAPACITY = 16 * 1024;
+
+    // 写入缓冲区
+    private final StringBuilder buffer = new StringBuilder(256);
+
+    private SqlLiteralWriter() {
+    }
+
+    /**
+     * 获取当前线程复用的写入器，缓冲区已清空；复用的写入器正在使用时（嵌套获取）返回新的写入器
+     *
+     * @return {@link SqlLiteralWriter} 写入器
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:31:10
+     */
+    public static SqlLiteralWriter acquire() {
+        SqlLiteralWriter writer = POOL.get();
+        if (writer == null) {
+            return new SqlLiteralWriter();
+        }
+        POOL.set(null);
+        writer.buffer.setLength(0);
+        return writer;
+    }
+
+    /**
+     * 取出写入结果，并将写入器归还当前线程复用，超出容量上限的缓冲区不再复用
+     *
+     * @return {@link String} 写入的 SQL
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:31:36
+     */
+    public String finish() {
+        String sql = buffer.toString();
+        if (buffer.capacity() <= MAX_POOLED_CAPACITY) {
+            POOL.set(this);
+        }
+        return sql;
+    }
+
+    public int length() {
+        return buffer.length();
+    }
+
+    public char charAt(int index) {
+        return buffer.charAt(index);
+    }
+
+    /**
+     * 追加原始 SQL 文本，不做转义
+     *
+     * @param sql SQL 文本
+     * @return {@link SqlLiteralWriter} 写入器
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:32:02
+     */
+    public SqlLiteralWriter append(CharSequence sql) {
+        buffer.append(sql);
+        return this;
+    }
+
+    public SqlLiteralWriter append(CharSequence sql, int start, int end) {
+        buffer.append(sql, start, end);
+        return this;
+    }
+
+    public SqlLiteralWriter append(char c) {
+        buffer.append(c);
+        return this;
+    }
+
+    /**
+     * 追加变量值的 SQL 字面量
+     * <p>
+     * null 写入 NULL；数值与布尔值原样写入；字符序列、时间及其他对象加单引号并转义；
+     * 数组以逗号分隔，集合以括号包裹并以逗号加空格分隔，元素按同样规则写入
+     * </p>
+     *
+     * @param value 变量值
+     * @return {@link SqlLiteralWriter} 写入器
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:32:40
+     */
+    public SqlLiteralWriter appendValue(Object value) {
+        switch (value) {
+            case null -> buffer.append(StringPools.NULL);
+            case Long number -> buffer.append(number.longValue());
+            case Integer number -> buffer.append(number.intValue());
+            case Number number -> buffer.append(number);
+            case Boolean bool -> buffer.append(bool.booleanValue());
+            case CharSequence text -> appendString(text);
+            case LocalDateTime dateTime -> appendDateTime(dateTime);
+            case long[] array -> appendLongs(array);
+            case int[] array -> appendInts(array);
+            case Object[] array -> appendArray(array);
+            case ScopeIdSet ids -> appendIds(ids);
+            case Collection<?> collection -> appendCollection(collection);
+            case Iterable<?> iterable -> appendIterable(iterable);
+            default -> appendString(value.toString());
+        }
+        return this;
+    }
+
+    /**
+     * 追加字符串字面量，单引号与反斜杠加倍转义
+     *
+     * @param text 字符序列
+     * @return {@link SqlLiteralWriter} 写入器
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:33:18
+     */
+    public SqlLiteralWriter appendString(CharSequence text) {
+        buffer.append('\'');
+        int length = text.length();
+        int from = 0;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '\'' || c == '\\') {
+                buffer.append(text, from, i + 1).append(c);
+                from = i + 1;
+            }
+        }
+        buffer.append(text, from, length).append('\'');
+        return this;
+    }
+
+    /**
+     * 追加时间字面量，格式为 'yyyy-MM-dd HH:mm:ss'
+     *
+     * @param dateTime 时间
+     * @return {@link SqlLiteralWriter} 写入器
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:33:52
+     */
+    public SqlLiteralWriter appendDateTime(LocalDateTime dateTime) {
+        int year = dateTime.getYear();
+        buffer.append('\'');
+        if (year < 0 || year > 9999) {
+            DATETIME_FORMATTER.formatTo(dateTime, buffer);
+        } else {
+            pad(year, 4).append('-');
+            pad(dateTime.getMonthValue(), 2).append('-');
+            pad(dateTime.getDayOfMonth(), 2).append(' ');
+            pad(dateTime.getHour(), 2).append(':');
+            pad(dateTime.getMinute(), 2).append(':');
+            pad(dateTime.getSecond(), 2);
+        }
+        buffer.append('\'');
+        return this;
+    }
+
+    private void appendLongs(long[] array) {
+        for (int i = 0; i < array.length; i++) {
+            if (i > 0) {
+                buffer.append(ARRAY_SEPARATOR);
+            }
+            buffer.append(array[i]);
+        }
+    }
+
+    private void appendInts(int[] array) {
+        for (int i = 0; i < array.length; i++) {
+            if (i > 0) {
+                buffer.append(ARRAY_SEPARATOR);
+            }
+            buffer.append(array[i]);
+        }
+    }
+
+    private void appendArray(Object[] array) {
+        for (int i = 0; i < array.length; i++) {
+            if (i > 0) {
+                buffer.append(ARRAY_SEPARATOR);
+            }
+            appendValue(array[i]);
+        }
+    }
+
+    // 紧凑 ID 集合按区间展开，写为集合形式
+    private void appendIds(ScopeIdSet ids) {
+        buffer.append('(');
+        boolean first = true;
+        for (int run = 0; run < ids.runCount(); run++) {
+            for (long id = ids.runStart(run), end = ids.runEnd(run); id <= end; id++) {
+                if (!first) {
+                    buffer.append(COLLECTION_SEPARATOR);
+                }
+                buffer.append(id);
+                first = false;
+            }
+        }
+        buffer.append(')');
+    }
+
+    // 随机访问列表按下标遍历，避免创建迭代器
+    private void appendCollection(Collection<?> collection) {
+        if (!(collection instanceof List<?> list) || !(collection instanceof RandomAccess)) {
+            appendIterable(collection);
+            return;
+        }
+        buffer.append('(');
+        for (int i = 0, size = list.size(); i < size; i++) {
+            if (i > 0) {
+                buffer.append(COLLECTION_SEPARATOR);
+            }
+            appendValue(list.get(i));
+        }
+        buffer.append(')');
+    }
+
+    private void appendIterable(Iterable<?> iterable) {
+        buffer.append('(');
+        boolean first = true;
+        for (Object item : iterable) {
+            if (!first) {
+                buffer.append(COLLECTION_SEPARATOR);
+            }
+            appendValue(item);
+            first = false;
+        }
+        buffer.append(')');
+    }
+
+    // 左侧补零写入非负整数
+    private StringBuilder pad(int value, int width) {
+        for (int limit = 10, digits = 1; digits < width; limit *= 10, digits++) {
+            if (value < limit) {
+                buffer.append('0');
+            }
+        }
+        return buffer.append(value);
+    }
+}
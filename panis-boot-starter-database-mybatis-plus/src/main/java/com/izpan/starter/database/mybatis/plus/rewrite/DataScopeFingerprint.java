@@ -0,0 +1,45 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.rewrite;
+
+import com.izpan.starter.database.mybatis.plus.enums.DataScopeTypeEnum;
+
+/**
+ * 数据权限指纹
+ * <p>
+ * 描述会影响改写后 SQL 结构的权限信息，用户 ID 等权限值不参与指纹，由模板渲染时单独填入。
+ * 自定义规则与可见字段直接以原文参与比较，其哈希值由 String 自身缓存。
+ * </p>
+ *
+ * @param scopeType    数据权限类型
+ * @param column       权限过滤列名
+ * @param customRules  自定义规则，非自定义类型为多角色合并规则，无规则时为 null
+ * @param ownerSlot    是否注入用户权限占位
+ * @param ruleSlot     是否注入预编译规则占位，规则内容与变量值在渲染时填入，不参与指纹
+ * @param unitSlot     是否按组织单位列过滤
+ * @param customFields 可见字段，不裁剪结果列时为 null
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.rewrite.DataScopeFingerprint
+ * @CreateTime 2026/10/17 - 10:38
+ */
+public record DataScopeFingerprint(DataScopeTypeEnum scopeType, String column, String customRules, boolean ownerSlot,
+                                   boolean ruleSlot, boolean unitSlot, String customFields) {
+}
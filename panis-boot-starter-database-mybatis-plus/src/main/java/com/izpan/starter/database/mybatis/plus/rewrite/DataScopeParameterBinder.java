@@ -0,0 +1,216 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.rewrite;
+
+import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.session.Configuration;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 数据权限参数绑定器
+ * <p>
+ * 将权限谓词中的参数值写入 BoundSql 附加参数，并按模板记录的位置把参数映射插入原参数映射列表，
+ * 保证 JDBC 参数顺序与 SQL 中 ? 的出现顺序一致。分页插件生成 COUNT 语句时会复制参数映射与附加参数，无需额外处理。
+ * </p>
+ * <p>
+ * 用户 / 组织单位 ID 按 Long 绑定；预编译规则（占位键 {@link DataScopeSqlTemplate#RULE_SLOT_KEY}）的变量值类型不定，
+ * 使用单独命名的参数映射，由 MyBatis 按实际值类型选择类型处理器。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.rewrite.DataScopeParameterBinder
+ * @CreateTime 2026/10/17 - 13:52
+ */
+public class DataScopeParameterBinder {
+
+    /**
+     * 附加参数名前缀
+     */
+    public static final String PARAMETER_PREFIX = "__dataScope_";
+
+    /**
+     * 规则变量附加参数名前缀
+     */
+    public static final String RULE_PARAMETER_PREFIX = "__dataScope_rule_";
+
+    // ID 参数映射
+    private final MappingCache idMappings = new MappingCache(PARAMETER_PREFIX, Long.class);
+
+    // 规则变量参数映射
+    private final MappingCache ruleMappings = new MappingCache(RULE_PARAMETER_PREFIX, Object.class);
+
+    /**
+     * 绑定权限参数
+     *
+     * @param boundSql      绑定 SQL
+     * @param configuration MyBatis 配置
+     * @param template      SQL 模板
+     * @param values        权限参数值
+     * @return boolean 模板参数位置与原参数映射不一致时返回 false，调用方需降级为字面量
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 13:55:18
+     */
+    public boolean bind(BoundSql boundSql, Configuration configuration, DataScopeSqlTemplate template, Object[] values) {
+        List<ParameterMapping> original = boundSql.getParameterMappings();
+        int slotCount = template.slotCount();
+        if (slotCount == 0 || template.parameterOffset(slotCount - 1) > original.size()) {
+            return false;
+        }
+
+        ParameterMapping[] mappings = mappings(template.slotKey(0)).get(configuration, values.length);
+        for (int i = 0; i < values.length; i++) {
+            boundSql.setAdditionalParameter(mappings[i].getProperty(), values[i]);
+        }
+
+        // 在每个占位之前的原参数之后插入权限参数
+        List<ParameterMapping> merged = new ArrayList<>(original.size() + values.length * slotCount);
+        int from = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            int offset = template.parameterOffset(slot);
+            merged.addAll(original.subList(from, offset));
+            from = offset;
+            for (int i = 0; i < values.length; i++) {
+                merged.add(mappings[i]);
+            }
+        }
+        merged.addAll(original.subList(from, original.size()));
+        PluginUtils.mpBoundSql(boundSql).parameterMappings(merged);
+        return true;
+    }
+
+    /**
+     * 按占位键绑定权限参数，用于不同占位使用不同谓词的模板（如多表查询中部分表按组织单位列过滤）
+     *
+     * @param boundSql      绑定 SQL
+     * @param configuration MyBatis 配置
+     * @param template      SQL 模板
+     * @param values        占位键 -> 权限参数值，字面量谓词对应 null
+     * @return boolean 模板参数位置与原参数映射不一致时返回 false，调用方需降级为字面量
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 22:26:40
+     */
+    public boolean bind(BoundSql boundSql, Configuration configuration, DataScopeSqlTemplate template, Map<String, Object[]> values) {
+        List<ParameterMapping> original = boundSql.getParameterMappings();
+        int slotCount = template.slotCount();
+        if (slotCount == 0 || template.parameterOffset(slotCount - 1) > original.size()) {
+            return false;
+        }
+
+        // 每个占位键的参数在各自的参数映射中依次编号，记录各键的起始下标
+        String[] slotKeys = template.slotKeys();
+        Map<String, Integer> bases = new HashMap<>(slotKeys.length * 2);
+        int idTotal = 0;
+        int ruleTotal = 0;
+        for (String slotKey : slotKeys) {
+            Object[] keyValues = values.get(slotKey);
+            int size = keyValues == null ? 0 : keyValues.length;
+            if (isRule(slotKey)) {
+                bases.put(slotKey, ruleTotal);
+                ruleTotal += size;
+            } else {
+                bases.put(slotKey, idTotal);
+                idTotal += size;
+            }
+        }
+        int total = idTotal + ruleTotal;
+        ParameterMapping[] ids = idMappings.get(configuration, idTotal);
+        ParameterMapping[] rules = ruleMappings.get(configuration, ruleTotal);
+        for (String slotKey : slotKeys) {
+            Object[] keyValues = values.get(slotKey);
+            ParameterMapping[] mappings = isRule(slotKey) ? rules : ids;
+            int base = bases.get(slotKey);
+            for (int i = 0; keyValues != null && i < keyValues.length; i++) {
+                boundSql.setAdditionalParameter(mappings[base + i].getProperty(), keyValues[i]);
+            }
+        }
+
+        List<ParameterMapping> merged = new ArrayList<>(original.size() + total * 2);
+        int from = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            int offset = template.parameterOffset(slot);
+            merged.addAll(original.subList(from, offset));
+            from = offset;
+            String slotKey = template.slotKey(slot);
+            Object[] keyValues = values.get(slotKey);
+            ParameterMapping[] mappings = isRule(slotKey) ? rules : ids;
+            int base = bases.get(slotKey);
+            for (int i = 0; keyValues != null && i < keyValues.length; i++) {
+                merged.add(mappings[base + i]);
+            }
+        }
+        merged.addAll(original.subList(from, original.size()));
+        PluginUtils.mpBoundSql(boundSql).parameterMappings(merged);
+        return true;
+    }
+
+    // 占位键对应的参数映射
+    private MappingCache mappings(String slotKey) {
+        return isRule(slotKey) ? ruleMappings : idMappings;
+    }
+
+    private static boolean isRule(String slotKey) {
+        return DataScopeSqlTemplate.RULE_SLOT_KEY.equals(slotKey);
+    }
+
+    // 按下标缓存的参数映射，避免每次查询重复创建；以不可变快照发布，读取无锁
+    private static final class MappingCache {
+
+        // 附加参数名前缀
+        private final String prefix;
+
+        // 参数 Java 类型
+        private final Class<?> javaType;
+
+        // 当前快照，扩容或配置变更时整体替换，并发扩容时可能重复创建，各线程取得的映射均等价
+        private volatile Snapshot snapshot = new Snapshot(null, new ParameterMapping[0]);
+
+        private MappingCache(String prefix, Class<?> javaType) {
+            this.prefix = prefix;
+            this.javaType = javaType;
+        }
+
+        // 获取至少 size 个参数映射，配置变更时重建
+        private ParameterMapping[] get(Configuration configuration, int size) {
+            Snapshot current = snapshot;
+            if (current.configuration() == configuration && current.mappings().length >= size) {
+                return current.mappings();
+            }
+            ParameterMapping[] mappings = current.configuration() == configuration ? current.mappings() : new ParameterMapping[0];
+            ParameterMapping[] grown = new ParameterMapping[Math.max(size, mappings.length * 2)];
+            System.arraycopy(mappings, 0, grown, 0, mappings.length);
+            for (int i = mappings.length; i < grown.length; i++) {
+                grown[i] = new ParameterMapping.Builder(configuration, prefix + i, javaType).build();
+            }
+            snapshot = new Snapshot(configuration, grown);
+            return grown;
+        }
+
+        // 参数映射快照：所属 MyBatis 配置与发布后不再修改的参数映射数组
+        private record Snapshot(Configuration configuration, ParameterMapping[] mappings) {
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.rewrite;
+
+import net.sf.jsqlparser.JSQLParserException;
+
+import java.io.Serial;
+
+/**
+ * SQL 超出解析预算异常
+ * <p>
+ * SQL 长度、词法单元数量、括号表达式数量、括号嵌套深度、AND / OR 条件数量或解析耗时超出配置上限时抛出，按解析失败处理。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.rewrite.DataScopeParseBudgetException
+ * @CreateTime 2026/10/17 - 19:52
+ */
+public class DataScopeParseBudgetException extends JSQLParserException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public DataScopeParseBudgetException(String message) {
+        super(message);
+    }
+}
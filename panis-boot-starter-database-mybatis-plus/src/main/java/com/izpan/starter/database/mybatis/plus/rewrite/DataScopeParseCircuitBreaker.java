@@ -0,0 +1,183 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.rewrite;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 数据权限 SQL 解析熔断器
+ * <p>
+ * 按 msId 统计连续解析失败（含超出预算）次数，达到阈值后熔断：熔断期间不再解析该语句，
+ * 直接使用预先生成的恒假模板；熔断到期后放行一次解析，成功则恢复，失败则继续熔断。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.rewrite.DataScopeParseCircuitBreaker
+ * @CreateTime 2026/10/17 - 20:06
+ */
+@Slf4j
+public class DataScopeParseCircuitBreaker {
+
+    // 连续失败阈值
+    private final int failureThreshold;
+
+    // 熔断时长（纳秒）
+    private final long openNanos;
+
+    // 存在解析失败记录的语句
+    private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    public DataScopeParseCircuitBreaker(int failureThreshold, Duration openDuration) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openDuration.toNanos();
+    }
+
+    /**
+     * 是否允许解析指定语句；熔断到期时仅放行一个调用重试
+     *
+     * @param msId MappedStatement ID
+     * @return boolean 是否允许解析
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 20:08:14
+     */
+    public boolean allowParse(String msId) {
+        if (circuits.isEmpty()) {
+            return true;
+        }
+        Circuit circuit = circuits.get(msId);
+        return circuit == null || circuit.tryAcquire(openNanos);
+    }
+
+    /**
+     * 记录一次解析失败，连续失败达到阈值时熔断
+     *
+     * @param msId MappedStatement ID
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 20:09:02
+     */
+    public void recordFailure(String msId) {
+        Circuit circuit = circuits.computeIfAbsent(msId, id -> new Circuit());
+        if (circuit.recordFailure(failureThreshold, openNanos)) {
+            log.warn("[DataScope] msId={} - SQL 连续解析失败 {} 次, 熔断 {}s, 期间使用恒假条件",
+                    msId, failureThreshold, openNanos / 1_000_000_000L);
+        }
+    }
+
+    /**
+     * 记录一次解析成功，清除失败记录
+     *
+     * @param msId MappedStatement ID
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 20:09:40
+     */
+    public void recordSuccess(String msId) {
+        if (!circuits.isEmpty()) {
+            circuits.remove(msId);
+        }
+    }
+
+    /**
+     * 获取指定语句的恒假模板，同一 SQL 只生成一次
+     *
+     * @param msId MappedStatement ID
+     * @param sql  原始 SQL
+     * @return {@link DataScopeSqlTemplate} 恒假模板
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 20:10:25
+     */
+    public DataScopeSqlTemplate failClosedTemplate(String msId, String sql) {
+        Circuit circuit = circuits.get(msId);
+        if (circuit == null) {
+            return DataScopeSqlTemplate.failClosed(sql);
+        }
+        FailClosed failClosed = circuit.failClosed;
+        if (failClosed == null || !failClosed.sql().equals(sql)) {
+            failClosed = new FailClosed(sql, DataScopeSqlTemplate.failClosed(sql));
+            circuit.failClosed = failClosed;
+        }
+        return failClosed.template();
+    }
+
+    /**
+     * 当前处于熔断状态的语句数量
+     *
+     * @return int 熔断数量
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 20:11:03
+     */
+    public int openCount() {
+        long now = System.nanoTime();
+        return (int) circuits.values().stream().filter(circuit -> circuit.isOpen(now)).count();
+    }
+
+    /**
+     * 原始 SQL 与对应的恒假模板
+     */
+    private record FailClosed(String sql, DataScopeSqlTemplate template) {
+    }
+
+    /**
+     * 单条语句的熔断状态
+     */
+    private static final class Circuit {
+
+        // 连续失败次数
+        private int failures;
+
+        // 熔断截止时间，0 表示未熔断
+        private long openUntil;
+
+        // 预先生成的恒假模板
+        private volatile FailClosed failClosed;
+
+        // 记录失败，返回是否由此次失败触发熔断
+        private synchronized boolean recordFailure(int threshold, long openNanos) {
+            failures++;
+            if (failures < threshold) {
+                return false;
+            }
+            boolean opened = openUntil == 0;
+            openUntil = System.nanoTime() + openNanos;
+            return opened;
+        }
+
+        // 未熔断时放行；熔断到期时延长熔断并放行当前调用，其余调用继续熔断
+        private synchronized boolean tryAcquire(long openNanos) {
+            if (openUntil == 0) {
+                return true;
+            }
+            long now = System.nanoTime();
+            if (now - openUntil < 0) {
+                return false;
+            }
+            openUntil = now + openNanos;
+            return true;
+        }
+
+        private synchronized boolean isOpen(long now) {
+            return openUntil != 0 && now - openUntil < 0;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.rewrite;
+
+import org.apache.ibatis.mapping.BoundSql;
+
+import java.util.Map;
+
+/**
+ * 数据权限 SQL 解析上下文
+ * <p>
+ * 数据权限拦截器改写 SQL 后将上下文挂载到 BoundSql 附加参数，拦截器链中后续的分页等拦截器可据此
+ * 从已缓存的带占位模板派生 COUNT / ORDER BY 语句，再填入同一权限谓词，无需重新解析已注入权限条件的 SQL。
+ * </p>
+ *
+ * @param sql       改写后的 SQL，用于确认 BoundSql 未被其他拦截器修改
+ * @param markedSql 带占位标记的 SQL
+ * @param predicates 占位键 -> 填入占位的权限谓词，无占位时为 null
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.rewrite.DataScopeParseContext
+ * @CreateTime 2026/10/17 - 18:40
+ */
+public record DataScopeParseContext(String sql, String markedSql, Map<String, String> predicates) {
+
+    /**
+     * 附加参数名
+     */
+    public static final String PARAMETER_NAME = "__dataScope_context";
+
+    /**
+     * 挂载上下文到 BoundSql
+     *
+     * @param boundSql 绑定 SQL
+     * @param context  解析上下文
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 18:42:30
+     */
+    public static void attach(BoundSql boundSql, DataScopeParseContext context) {
+        boundSql.setAdditionalParameter(PARAMETER_NAME, context);
+    }
+
+    /**
+     * 获取 BoundSql 上挂载的上下文
+     *
+     * @param boundSql 绑定 SQL
+     * @return {@link DataScopeParseContext} 解析上下文，不存在或 SQL 已被修改时返回 null
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 18:43:12
+     */
+    public static DataScopeParseContext of(BoundSql boundSql) {
+        if (!boundSql.hasAdditionalParameter(PARAMETER_NAME)) {
+            return null;
+        }
+        return boundSql.getAdditionalParameter(PARAMETER_NAME) instanceof DataScopeParseContext context
+                && context.sql().equals(boundSql.getSql()) ? context : null;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.rewrite;
+
+/**
+ * 数据权限谓词
+ * <p>
+ * 用于填充 SQL 模板占位，参数绑定模式下谓词中的 ? 与 values 一一对应，字面量模式下 values 为 null。
+ * </p>
+ *
+ * @param sql    谓词 SQL，如 create_user_id IN (?, ?)
+ * @param values JDBC 参数值，按出现顺序排列
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.rewrite.DataScopePredicate
+ * @CreateTime 2026/10/17 - 13:36
+ */
+public record DataScopePredicate(String sql, Object[] values) {
+
+    /**
+     * 是否需要绑定 JDBC 参数
+     *
+     * @return boolean 存在参数值时返回 true
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 13:37:10
+     */
+    public boolean hasParameters() {
+        return values != null && values.length > 0;
+    }
+}
@@ -0,0 +1,397 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.rewrite;
+
+import com.izpan.starter.database.mybatis.plus.decision.DataScopeDecision;
+import com.izpan.starter.database.mybatis.plus.enums.DataScopeUnitModeEnum;
+import lombok.extern.slf4j.Slf4j;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
+import net.sf.jsqlparser.expression.operators.conditional.OrExpression;
+import net.sf.jsqlparser.expression.operators.conditional.XorExpression;
+import net.sf.jsqlparser.expression.operators.relational.ParenthesedExpressionList;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.schema.Table;
+import net.sf.jsqlparser.statement.select.FromItem;
+import net.sf.jsqlparser.statement.select.Join;
+import net.sf.jsqlparser.statement.select.LateralSubSelect;
+import net.sf.jsqlparser.statement.select.ParenthesedSelect;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.Select;
+import net.sf.jsqlparser.statement.select.SetOperationList;
+import net.sf.jsqlparser.statement.select.WithItem;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 数据权限谓词下推
+ * <p>
+ * 对每个 PlainSelect 确定权限列所属的 FROM 项后再注入条件：
+ * 1. 单表查询：直接追加到 WHERE，不加限定名，与快速改写结果一致（见 {@link #tableExpression(String)}） <br>
+ * 2. 多表连接：只为所属表注入，以其别名限定列名，避免列名歧义。所属表默认为 FROM 主表；
+ * 主表已注册但无权限列（如字典表）时取第一个有权限列的连接表，其余连接表不注入，避免字典、关联表按创建人被过滤 <br>
+ * 3. 派生表：主表为子查询时，将条件下推到子查询内部，使最内层扫描即可使用用户列索引 <br>
+ * 4. WITH：主表引用 CTE 时下推到 CTE 定义内部，同一 CTE 只处理一次；递归 CTE 不下推，仍在外层追加 <br>
+ * 5. UNION 等集合查询：每个分支分别处理
+ * </p>
+ * <p>
+ * 外连接不能退化为内连接：所属表位于 LEFT JOIN 的可空侧时，条件追加到该连接的 ON；
+ * 所属表之后存在 RIGHT JOIN 时，条件追加到第一个 RIGHT JOIN 的 ON。
+ * FULL JOIN 或使用 USING / NATURAL 的外连接无法通过 ON 限定，仍追加到 WHERE，宁可少返回也不越权。
+ * </p>
+ * <p>
+ * 含 LIMIT / OFFSET / FETCH 等行数限制的派生表与 CTE 不下推：下推会变为先过滤再截取，改变原查询语义，改为在外层以派生表别名限定后追加，
+ * 此时派生表需输出权限列。
+ * 无法确定所属表时（如未注册实体的多表查询）保持原有行为：主表未注册时以主表限定，否则不加限定名追加到当前 WHERE。
+ * 仅用户权限占位会加限定名；所属表的权限列（配置的用户列，或按组织单位过滤时的单位列）与默认列不同时在占位中写入列名。
+ * 本人及下级组织单位权限在表中同时有用户列与单位列时注入 {@code (用户列占位 OR 单位列占位)}。
+ * 多角色合并的自定义规则与权限占位以 OR 连接：{@code (权限占位 OR (规则))}。
+ * 自定义规则等其他条件原样注入。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.rewrite.DataScopePredicatePushdown
+ * @CreateTime 2026/10/17 - 21:02
+ */
+@Slf4j
+public class DataScopePredicatePushdown {
+
+    // 权限条件
+    private final Expression scopeExpression;
+
+    // 权限条件是否为用户权限占位
+    private final boolean ownerSlot;
+
+    // 与用户权限占位以 OR 连接的合并规则，无合并规则时为 null
+    private final Expression mergedRules;
+
+    // 默认用户列名
+    private final String defaultColumn;
+
+    // 组织单位过滤方式
+    private final DataScopeUnitModeEnum unitMode;
+
+    // 是否优先使用组织单位列
+    private final boolean unit;
+
+    // 表名 -> 权限列决策，表未注册时返回 null
+    private final Function<String, DataScopeDecision> tableResolver;
+
+    // 已下推过的派生表与 CTE 定义，避免重复处理
+    private final Set<Select> pushedSelects = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    public DataScopePredicatePushdown(Expression scopeExpression, String defaultColumn, DataScopeUnitModeEnum unitMode,
+                                      Function<String, DataScopeDecision> tableResolver) {
+        this(scopeExpression, null, defaultColumn, unitMode, tableResolver);
+    }
+
+    public DataScopePredicatePushdown(Expression scopeExpression, Expression mergedRules, String defaultColumn,
+                                      DataScopeUnitModeEnum unitMode, Function<String, DataScopeDecision> tableResolver) {
+        this.scopeExpression = scopeExpression;
+        this.ownerSlot = scopeExpression instanceof Column column && DataScopeSqlTemplate.SLOT_MARKER.equals(column.getColumnName());
+        this.mergedRules = ownerSlot ? mergedRules : null;
+        this.defaultColumn = defaultColumn;
+        this.unitMode = unitMode;
+        this.unit = unitMode != DataScopeUnitModeEnum.NONE;
+        this.tableResolver = tableResolver;
+    }
+
+    /**
+     * 为查询注入权限条件
+     *
+     * @param select 查询语句
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 21:05:12
+     */
+    public void apply(Select select) {
+        apply(select, Map.of());
+    }
+
+    /**
+     * 生成单表查询的权限条件，供快速改写使用，与 JSqlParser 改写单表查询的结果一致
+     *
+     * @param tableName 表名，可带库名与转义符
+     * @return {@link String} 权限条件
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 22:14:50
+     */
+    public String tableExpression(String tableName) {
+        return ownerSlot ? withMergedRules(siteSlot(null, tableResolver.apply(tableName))).toString() : scopeExpression.toString();
+    }
+
+    /**
+     * 处理查询，先登记当前层级声明的 CTE
+     *
+     * @param select 查询语句
+     * @param scope  可见的 CTE，名称小写 -> 定义
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 21:06:30
+     */
+    private void apply(Select select, Map<String, WithItem> scope) {
+        Map<String, WithItem> withItems = declare(select, scope);
+        switch (select) {
+            case PlainSelect plainSelect -> apply(plainSelect, withItems);
+            case SetOperationList setOperationList -> setOperationList.getSelects().forEach(s -> apply(s, withItems));
+            case ParenthesedSelect parenthesedSelect when !(parenthesedSelect instanceof LateralSubSelect) ->
+                    apply(parenthesedSelect.getSelect(), withItems);
+            default -> log.warn("[DataScope] 查询包含不支持的类型 {}, 跳过处理", select.getClass().getSimpleName());
+        }
+    }
+
+    // 登记当前层级声明的 CTE，未声明时复用外层作用域
+    private static Map<String, WithItem> declare(Select select, Map<String, WithItem> scope) {
+        if (select.getWithItemsList() == null || select.getWithItemsList().isEmpty()) {
+            return scope;
+        }
+        Map<String, WithItem> withItems = new HashMap<>(scope);
+        for (WithItem withItem : select.getWithItemsList()) {
+            if (withItem.getAlias() != null) {
+                withItems.put(normalize(withItem.getAlias().getName()), withItem);
+            }
+        }
+        return withItems;
+    }
+
+    /**
+     * 处理 PlainSelect：主表为派生表或 CTE 时下推，否则为所属表注入条件，所属表位于外连接可空侧时注入到 ON
+     *
+     * @param plainSelect 简单 SELECT 语句
+     * @param scope       可见的 CTE
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 21:08:45
+     */
+    private void apply(PlainSelect plainSelect, Map<String, WithItem> scope) {
+        FromItem main = plainSelect.getFromItem();
+        Select target = pushdownTarget(main, scope);
+        if (target != null) {
+            if (pushedSelects.add(target)) {
+                apply(target, scope);
+            }
+            return;
+        }
+        List<Join> joins = plainSelect.getJoins();
+        if (joins == null || joins.isEmpty()) {
+            addWhere(plainSelect, siteExpression(plainSelect, main));
+            return;
+        }
+        int position = ownerPosition(main, joins, scope);
+        FromItem owner = position < 0 ? fallbackOwner(main) : position == 0 ? main : joins.get(position - 1).getFromItem();
+        Expression expression = siteExpression(plainSelect, owner);
+        Join site = position < 0 ? null : joinSite(joins, position);
+        if (site == null) {
+            addWhere(plainSelect, expression);
+        } else {
+            site.setOnExpressions(List.of(and(site.getOnExpressions().iterator().next(), expression)));
+        }
+    }
+
+    /**
+     * 确定多表连接中所属表的位置：主表拥有权限列或未注册时为主表，主表已注册但无权限列时为第一个有权限列的连接表
+     *
+     * @param main  主表
+     * @param joins 连接
+     * @param scope 可见的 CTE
+     * @return int 0 为主表，i 为第 i 个连接，无法确定时返回 -1
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 21:10:20
+     */
+    private int ownerPosition(FromItem main, List<Join> joins, Map<String, WithItem> scope) {
+        if (!(main instanceof Table table) || tableResolver.apply(table.getFullyQualifiedName()) == null || eligible(main, scope)) {
+            return main instanceof Table || main instanceof ParenthesedSelect ? 0 : -1;
+        }
+        for (int i = 0; i < joins.size(); i++) {
+            if (eligible(joins.get(i).getFromItem(), scope)) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 确定所属表需注入到哪个连接的 ON：自身为 LEFT JOIN 时注入到自身，之后存在 RIGHT JOIN 时注入到第一个 RIGHT JOIN
+     *
+     * @param joins    连接
+     * @param position 所属表位置，0 为主表
+     * @return {@link Join} 注入 ON 的连接，应注入 WHERE 时返回 null
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 14:21:36
+     */
+    private static Join joinSite(List<Join> joins, int position) {
+        if (position > 0) {
+            Join own = joins.get(position - 1);
+            if (own.isFull()) {
+                return null;
+            }
+            if (own.isLeft()) {
+                return singleOn(own) ? own : null;
+            }
+        }
+        for (int i = position; i < joins.size(); i++) {
+            Join join = joins.get(i);
+            if (join.isFull()) {
+                return null;
+            }
+            if (join.isRight()) {
+                return singleOn(join) ? join : null;
+            }
+        }
+        return null;
+    }
+
+    // 连接仅有一个 ON 条件，USING / NATURAL 连接无法追加
+    private static boolean singleOn(Join join) {
+        return !join.isNatural() && join.getOnExpressions() != null && join.getOnExpressions().size() == 1;
+    }
+
+    /**
+     * 获取 FROM 项可下推的查询：派生表的子查询或引用的 CTE 定义
+     *
+     * @param fromItem FROM 项
+     * @param scope    可见的 CTE
+     * @return {@link Select} 可下推的查询，非派生表 / CTE、递归 CTE 或含行数限制时返回 null
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 21:10:20
+     */
+    private static Select pushdownTarget(FromItem fromItem, Map<String, WithItem> scope) {
+        Select target = null;
+        if (fromItem instanceof ParenthesedSelect derived && !(derived instanceof LateralSubSelect) && !(derived instanceof WithItem)) {
+            target = derived.getSelect();
+        } else if (fromItem instanceof Table table && table.getSchemaName() == null) {
+            WithItem withItem = scope.get(normalize(table.getName()));
+            target = withItem == null || withItem.isRecursive() ? null : withItem.getSelect();
+        }
+        return target == null || limited(target) ? null : target;
+    }
+
+    // 含 LIMIT / OFFSET / FETCH / TOP 等行数限制的查询，下推条件会改变结果
+    private static boolean limited(Select select) {
+        if (select.getLimit() != null || select.getOffset() != null || select.getFetch() != null || select.getLimitBy() != null) {
+            return true;
+        }
+        return switch (select) {
+            case PlainSelect plainSelect -> plainSelect.getTop() != null || plainSelect.getFirst() != null || plainSelect.getSkip() != null;
+            case ParenthesedSelect parenthesedSelect -> limited(parenthesedSelect.getSelect());
+            default -> false;
+        };
+    }
+
+    // 是否为拥有权限列的已注册表（不含 CTE 引用）
+    private boolean eligible(FromItem fromItem, Map<String, WithItem> scope) {
+        if (!(fromItem instanceof Table table) || table.getSchemaName() == null && scope.containsKey(normalize(table.getName()))) {
+            return false;
+        }
+        DataScopeDecision decision = tableResolver.apply(table.getFullyQualifiedName());
+        return decision != null && decision.scopeColumn(unit) != null;
+    }
+
+    // 兜底所属 FROM 项：主表未注册或为派生表时取主表，主表已注册但无权限列时返回 null（不加限定名）
+    private FromItem fallbackOwner(FromItem main) {
+        if (main instanceof Table table) {
+            return tableResolver.apply(table.getFullyQualifiedName()) == null ? main : null;
+        }
+        return main instanceof ParenthesedSelect ? main : null;
+    }
+
+    /**
+     * 生成当前注入点的权限条件：多表连接时以所属表或派生表别名限定列名，所属表的权限列与默认列不同时写入列名
+     *
+     * @param plainSelect 简单 SELECT 语句
+     * @param owner       权限列所属的 FROM 项，可能为 null
+     * @return {@link Expression} 权限条件
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 21:12:06
+     */
+    private Expression siteExpression(PlainSelect plainSelect, FromItem owner) {
+        if (!ownerSlot || owner == null) {
+            return withMergedRules(scopeExpression);
+        }
+        boolean joined = plainSelect.getJoins() != null && !plainSelect.getJoins().isEmpty();
+        if (!(owner instanceof Table table)) {
+            return withMergedRules(siteSlot(joined && owner.getAlias() != null ? owner.getAlias().getName() : null, null));
+        }
+        String qualifier = !joined ? null : table.getAlias() != null ? table.getAlias().getName() : table.getFullyQualifiedName();
+        return withMergedRules(siteSlot(qualifier, tableResolver.apply(table.getFullyQualifiedName())));
+    }
+
+    // 以 OR 连接合并规则
+    private Expression withMergedRules(Expression slot) {
+        return mergedRules == null ? slot : new ParenthesedExpressionList<>(new OrExpression(slot, mergedRules));
+    }
+
+    /**
+     * 生成权限占位：按限定名与权限列生成占位标记，本人及下级组织单位且表中同时有用户列与单位列时生成两者的 OR 条件
+     *
+     * @param qualifier 表别名或表名，无需限定时为 null
+     * @param decision  所属表的权限列决策，表未注册时为 null
+     * @return {@link Expression} 权限占位
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 22:56:48
+     */
+    private Expression siteSlot(String qualifier, DataScopeDecision decision) {
+        Expression slot = slot(qualifier, siteColumn(decision, unit));
+        if (unitMode != DataScopeUnitModeEnum.OWNER_OR_UNIT || decision == null || decision.column() == null || decision.unitColumn() == null) {
+            return slot;
+        }
+        return new ParenthesedExpressionList<>(new OrExpression(slot(qualifier, siteColumn(decision, false)), slot));
+    }
+
+    private Expression slot(String qualifier, String column) {
+        return qualifier == null && column == null ? scopeExpression : new Column(DataScopeSqlTemplate.marker(qualifier, column));
+    }
+
+    // 表的权限列，与默认列相同或表未注册时返回 null
+    private String siteColumn(DataScopeDecision decision, boolean useUnit) {
+        String column = decision == null ? null : decision.scopeColumn(useUnit);
+        if (column != null && column.length() > 1 && (column.charAt(0) == '`' || column.charAt(0) == '"')) {
+            column = column.substring(1, column.length() - 1);
+        }
+        return column != null && !column.equalsIgnoreCase(defaultColumn) ? column : null;
+    }
+
+    // 追加 WHERE 条件
+    private static void addWhere(PlainSelect plainSelect, Expression expression) {
+        Expression where = plainSelect.getWhere();
+        plainSelect.setWhere(where == null ? expression : and(where, expression));
+    }
+
+    // 以 AND 连接原条件，原条件包含 OR 时需加括号，避免权限条件只约束最后一个分支
+    private static Expression and(Expression condition, Expression expression) {
+        if (condition instanceof OrExpression || condition instanceof XorExpression) {
+            return new AndExpression(new ParenthesedExpressionList<>(condition), expression);
+        }
+        return new AndExpression(condition, expression);
+    }
+
+    // CTE 名称不区分大小写，去除转义符
+    private static String normalize(String name) {
+        if (name.length() > 1 && (name.charAt(0) == '`' || name.charAt(0) == '"')) {
+            name = name.substring(1, name.length() - 1);
+        }
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.rewrite;
+
+import com.izpan.starter.database.mybatis.plus.domain.DataScope;
+import com.izpan.starter.database.mybatis.plus.domain.ScopeIdSet;
+import com.izpan.starter.database.mybatis.plus.enums.DataScopeBindModeEnum;
+import com.izpan.starter.database.mybatis.plus.enums.DataScopeTypeEnum;
+import com.izpan.starter.database.mybatis.plus.visibility.DataScopeVisibilityStore;
+
+/**
+ * 数据权限谓词渲染器
+ * <p>
+ * 根据数据权限生成填充模板占位的谓词：字面量模式直接内联用户 ID；
+ * 参数绑定模式生成 ? 占位，IN 列表长度向上补齐到 2 的幂（以最后一个 ID 填充），BETWEEN 区间数量同样补齐到 2 的幂（重复最后一个区间），
+ * 使同一 mapper 方法在每种权限类型下只产生少量固定的语句形态，便于数据库与驱动复用预编译语句。
+ * 用户 ID 数量超过参数上限时降级为字面量，避免超出数据库参数个数限制。
+ * 连续 ID 区间（长度不小于 {@link #MIN_RANGE_LENGTH}）输出为 BETWEEN，其余 ID 合并为一个 IN 列表。
+ * 组织单位列的渲染器使用权限组织单位 ID 集合；ID 集合为空时输出恒假条件。
+ * 用户 ID 集合已物化到可见性表时（见 {@link DataScopeVisibilityStore}），输出以查看人与集合摘要过滤的子查询，语句文本与用户数量无关。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.rewrite.DataScopePredicateRenderer
+ * @CreateTime 2026/10/17 - 13:40
+ */
+public final class DataScopePredicateRenderer {
+
+    /**
+     * 输出为 BETWEEN 的最小连续区间长度
+     */
+    public static final int MIN_RANGE_LENGTH = 3;
+
+    private static final String OR = " OR ";
+
+    // ID 集合为空时的恒假条件
+    private static final DataScopePredicate NONE = new DataScopePredicate("1 = 0", null);
+
+    // 权限过滤列名
+    private final String column;
+
+    // 是否为组织单位列，按权限组织单位 ID 过滤
+    private final boolean unit;
+
+    // 权限值绑定方式
+    private final DataScopeBindModeEnum bindMode;
+
+    // 参数绑定模式下单条谓词允许的最大参数数量
+    private final int maxBindParameters;
+
+    // 可见性物化表，未启用时为 null
+    private final DataScopeVisibilityStore visibilityStore;
+
+    // 可见性子查询谓词（参数绑定）
+    private final String visibilityPredicate;
+
+    // 按补齐后长度（2 的幂）缓存 IN 参数谓词，下标为指数
+    private final String[] inPredicates = new String[Integer.SIZE];
+
+    public DataScopePredicateRenderer(String column, DataScopeBindModeEnum bindMode, int maxBindParameters) {
+        this(column, false, bindMode, maxBindParameters, null);
+    }
+
+    public DataScopePredicateRenderer(String column, boolean unit, DataScopeBindModeEnum bindMode, int maxBindParameters) {
+        this(column, unit, bindMode, maxBindParameters, null);
+    }
+
+    public DataScopePredicateRenderer(String column, boolean unit, DataScopeBindModeEnum bindMode, int maxBindParameters,
+                                      DataScopeVisibilityStore visibilityStore) {
+        this.column = column;
+        this.unit = unit;
+        this.bindMode = bindMode;
+        this.maxBindParameters = maxBindParameters;
+        this.visibilityStore = unit ? null : visibilityStore;
+        this.visibilityPredicate = this.visibilityStore == null ? null : column + " IN (" + this.visibilityStore.subquery() + ")";
+    }
+
+    /**
+     * 渲染用户权限谓词
+     *
+     * @param dataScope 数据权限信息
+     * @return {@link DataScopePredicate} 权限谓词
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 13:44:26
+     */
+    public DataScopePredicate render(DataScope dataScope) {
+        return render(dataScope, bindMode == DataScopeBindModeEnum.PARAMETER);
+    }
+
+    /**
+     * 以字面量方式渲染用户权限谓词，用于参数绑定无法进行时降级
+     *
+     * @param dataScope 数据权限信息
+     * @return {@link DataScopePredicate} 权限谓词
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 13:46:02
+     */
+    public DataScopePredicate renderLiteral(DataScope dataScope) {
+        return render(dataScope, false);
+    }
+
+    // 按指定方式渲染用户权限谓词
+    private DataScopePredicate render(DataScope dataScope, boolean bind) {
+        // 处理 SELF 类型（当前用户）
+        if (!unit && dataScope.getScopeType() == DataScopeTypeEnum.SELF) {
+            return renderSelf(dataScope, bind);
+        }
+
+        // 用户 ID 集合已物化：按查看人与集合摘要子查询过滤
+        Long scopeKey = visibilityStore == null ? null : visibilityStore.scopeKey(dataScope);
+        if (scopeKey != null) {
+            return renderVisibility(dataScope, scopeKey, bind);
+        }
+
+        // 处理用户 / 组织单位 ID 集合：长区间输出 BETWEEN，其余离散 ID 合并为 IN
+        ScopeIdSet ids = unit ? dataScope.getScopeUnitIdSet() : dataScope.getScopeUserIdSet();
+        if (ids.isEmpty()) {
+            // 本人及下级组织单位：未提供用户 ID 集合时用户列仅匹配本人，下级组织由单位列过滤
+            if (!unit && dataScope.getScopeType() == DataScopeTypeEnum.SELF_AND_CHILD && dataScope.getCurrentUserId() != null) {
+                return renderSelf(dataScope, bind);
+            }
+            return NONE;
+        }
+        int ranges = 0;
+        int singles = 0;
+        for (int run = 0; run < ids.runCount(); run++) {
+            long length = ids.runEnd(run) - ids.runStart(run) + 1;
+            if (length >= MIN_RANGE_LENGTH) {
+                ranges++;
+            } else {
+                singles += (int) length;
+            }
+        }
+        int padded = padded(singles);
+        int paddedRanges = padded(ranges);
+        if (bind && paddedRanges * 2 + padded <= maxBindParameters) {
+            return renderParameters(ids, paddedRanges, singles, padded);
+        }
+        return renderLiteral(ids, ranges, singles);
+    }
+
+    // 渲染本人谓词
+    private DataScopePredicate renderSelf(DataScope dataScope, boolean bind) {
+        return bind
+                ? new DataScopePredicate(column + " = ?", new Object[]{dataScope.getCurrentUserId()})
+                : new DataScopePredicate(column + " = " + dataScope.getCurrentUserId(), null);
+    }
+
+    // 渲染可见性子查询谓词
+    private DataScopePredicate renderVisibility(DataScope dataScope, long scopeKey, boolean bind) {
+        return bind
+                ? new DataScopePredicate(visibilityPredicate, new Object[]{dataScope.getCurrentUserId(), scopeKey})
+                : new DataScopePredicate(column + " IN (" + visibilityStore.subquery(dataScope.getCurrentUserId(), scopeKey) + ")", null);
+    }
+
+    // 补齐到 2 的幂，0 与 1 保持不变
+    private static int padded(int count) {
+        return count <= 1 ? count : Integer.highestOneBit(count - 1) << 1;
+    }
+
+    // 参数绑定方式渲染 ID 集合，ranges 为补齐后的区间数量
+    private DataScopePredicate renderParameters(ScopeIdSet ids, int ranges, int singles, int padded) {
+        Object[] values = new Object[ranges * 2 + padded];
+        int index = 0;
+        int singleIndex = ranges * 2;
+        for (int run = 0; run < ids.runCount(); run++) {
+            long start = ids.runStart(run);
+            long end = ids.runEnd(run);
+            if (end - start + 1 >= MIN_RANGE_LENGTH) {
+                values[index++] = start;
+                values[index++] = end;
+            } else {
+                for (long id = start; id <= end; id++) {
+                    values[singleIndex++] = id;
+                }
+            }
+        }
+        // 以最后一个区间补齐区间数量，重复区间不改变匹配结果
+        for (; index > 0 && index < ranges * 2; index += 2) {
+            values[index] = values[index - 2];
+            values[index + 1] = values[index - 1];
+        }
+        for (; singleIndex < values.length; singleIndex++) {
+            values[singleIndex] = values[singleIndex - 1];
+        }
+
+        if (ranges == 0) {
+            return new DataScopePredicate(inPredicate(padded), values);
+        }
+        StringBuilder predicate = new StringBuilder(ranges * (column.length() + 24) + padded * 3 + column.length() + 8);
+        predicate.append('(');
+        for (int i = 0; i < ranges; i++) {
+            if (i > 0) {
+                predicate.append(OR);
+            }
+            predicate.append(column).append(" BETWEEN ? AND ?");
+        }
+        if (singles > 0) {
+            predicate.append(OR).append(inPredicate(padded));
+        }
+        return new DataScopePredicate(predicate.append(')').toString(), values);
+    }
+
+    // 字面量方式渲染 ID 集合
+    private DataScopePredicate renderLiteral(ScopeIdSet ids, int ranges, int singles) {
+        StringBuilder predicate = new StringBuilder(ranges * (column.length() + 40) + singles * 8 + column.length() + 8);
+        boolean wrap = ranges + (singles > 0 ? 1 : 0) > 1;
+        if (wrap) {
+            predicate.append('(');
+        }
+        boolean first = true;
+        for (int run = 0; run < ids.runCount(); run++) {
+            long start = ids.runStart(run);
+            long end = ids.runEnd(run);
+            if (end - start + 1 >= MIN_RANGE_LENGTH) {
+                if (!first) {
+                    predicate.append(OR);
+                }
+                predicate.append(column).append(" BETWEEN ").append(start).append(" AND ").append(end);
+                first = false;
+            }
+        }
+        if (singles > 0) {
+            if (!first) {
+                predicate.append(OR);
+            }
+            predicate.append(column).append(" IN (");
+            boolean firstId = true;
+            for (int run = 0; run < ids.runCount(); run++) {
+                long start = ids.runStart(run);
+                long end = ids.runEnd(run);
+                if (end - start + 1 < MIN_RANGE_LENGTH) {
+                    for (long id = start; id <= end; id++) {
+                        if (!firstId) {
+                            predicate.append(", ");
+                        }
+                        predicate.append(id);
+                        firstId = false;
+                    }
+                }
+            }
+            predicate.append(')');
+        }
+        if (wrap) {
+            predicate.append(')');
+        }
+        return new DataScopePredicate(predicate.toString(), null);
+    }
+
+    // 获取补齐后长度对应的 IN 参数谓词
+    private String inPredicate(int padded) {
+        int exponent = Integer.numberOfTrailingZeros(padded);
+        String predicate = inPredicates[exponent];
+        if (predicate == null) {
+            StringBuilder sb = new StringBuilder(column.length() + 6 + padded * 3);
+            sb.append(column).append(" IN (?");
+            for (int i = 1; i < padded; i++) {
+                sb.append(", ?");
+            }
+            predicate = sb.append(')').toString();
+            inPredicates[exponent] = predicate;
+        }
+        return predicate;
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.rewrite;
+
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import lombok.extern.slf4j.Slf4j;
+import net.sf.jsqlparser.expression.Alias;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.schema.Table;
+import net.sf.jsqlparser.statement.select.AllColumns;
+import net.sf.jsqlparser.statement.select.AllTableColumns;
+import net.sf.jsqlparser.statement.select.FromItem;
+import net.sf.jsqlparser.statement.select.Join;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.Select;
+import net.sf.jsqlparser.statement.select.SelectItem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 数据权限列裁剪
+ * <p>
+ * 按 {@code DataScope.customFields}（逗号分隔的列名或实体属性名）收窄最外层查询的结果列，不可见列不再从数据库返回：
+ * 1. {@code *} / {@code t.*}：按 MyBatis-Plus 表信息展开为可见列，表未注册时保持原样 <br>
+ * 2. 列：列名、别名均不在可见字段中时移除 <br>
+ * 3. 函数、子查询等其他表达式保持原样 <br>
+ * 主键列始终保留，保证结果映射与后续按主键更新可用。
+ * UNION 等集合查询各分支的列数必须一致，不做裁剪；多表连接中的 {@code *} 无法确定所属表，保持原样。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.rewrite.DataScopeProjectionPruner
+ * @CreateTime 2026/10/17 - 19:20
+ */
+@Slf4j
+public class DataScopeProjectionPruner {
+
+    // 可见字段，小写且去除转义符
+    private final Set<String> visibleFields;
+
+    // 表名 -> 表信息，表未注册时返回 null
+    private final Function<String, TableInfo> tableResolver;
+
+    public DataScopeProjectionPruner(String customFields, Function<String, TableInfo> tableResolver) {
+        this.visibleFields = Arrays.stream(customFields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .map(DataScopeProjectionPruner::normalize)
+                .collect(Collectors.toUnmodifiableSet());
+        this.tableResolver = tableResolver;
+    }
+
+    /**
+     * 裁剪最外层查询的结果列
+     *
+     * @param select 查询语句
+     * @return boolean 是否发生裁剪
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 19:24:36
+     */
+    public boolean apply(Select select) {
+        if (!(select instanceof PlainSelect plainSelect) || visibleFields.isEmpty()) {
+            log.debug("[DataScope] 非简单查询或未配置可见字段, 不做列裁剪");
+            return false;
+        }
+        List<Table> tables = tables(plainSelect);
+        boolean single = tables.size() == 1;
+        Set<String> keyColumns = new HashSet<>();
+        for (Table table : tables) {
+            TableInfo tableInfo = table == null ? null : tableResolver.apply(table.getFullyQualifiedName());
+            if (tableInfo != null && tableInfo.getKeyColumn() != null) {
+                keyColumns.add(normalize(tableInfo.getKeyColumn()));
+            }
+        }
+
+        List<SelectItem<?>> items = new ArrayList<>(plainSelect.getSelectItems().size());
+        boolean pruned = false;
+        for (SelectItem<?> item : plainSelect.getSelectItems()) {
+            Expression expression = item.getExpression();
+            if (expression instanceof AllTableColumns allTableColumns) {
+                Table table = find(tables, allTableColumns.getTable());
+                List<SelectItem<?>> expanded = table == null ? null : expand(table, allTableColumns.getTable());
+                pruned |= expanded != null;
+                items.addAll(expanded == null ? List.of(item) : expanded);
+            } else if (expression instanceof AllColumns) {
+                List<SelectItem<?>> expanded = single ? expand(tables.getFirst(), null) : null;
+                pruned |= expanded != null;
+                items.addAll(expanded == null ? List.of(item) : expanded);
+            } else if (expression instanceof Column column && !visible(column, item.getAlias(), keyColumns)) {
+                pruned = true;
+            } else {
+                items.add(item);
+            }
+        }
+        if (!pruned) {
+            return false;
+        }
+        if (items.isEmpty()) {
+            log.warn("[DataScope] 可见字段与查询列无交集, 不做列裁剪, customFields={}", visibleFields);
+            return false;
+        }
+        plainSelect.setSelectItems(items);
+        return true;
+    }
+
+    /**
+     * 按表信息展开可见列：主键与可见字段（按列名或属性名匹配）
+     *
+     * @param table     表
+     * @param qualifier 列限定表，无需限定时为 null
+     * @return {@link List} 展开后的结果列，表未注册时返回 null
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 19:27:10
+     */
+    private List<SelectItem<?>> expand(Table table, Table qualifier) {
+        TableInfo tableInfo = table == null ? null : tableResolver.apply(table.getFullyQualifiedName());
+        if (tableInfo == null) {
+            return null;
+        }
+        List<SelectItem<?>> items = new ArrayList<>();
+        if (tableInfo.getKeyColumn() != null) {
+            items.add(SelectItem.from(new Column(qualifier, tableInfo.getKeyColumn())));
+        }
+        for (TableFieldInfo field : tableInfo.getFieldList()) {
+            if (field.isSelect() && (visibleFields.contains(normalize(field.getColumn())) || visibleFields.contains(normalize(field.getProperty())))) {
+                items.add(SelectItem.from(new Column(qualifier, field.getColumn())));
+            }
+        }
+        return items;
+    }
+
+    // 列是否可见：列名或别名在可见字段中，或为主键列
+    private boolean visible(Column column, Alias alias, Set<String> keyColumns) {
+        String name = normalize(column.getColumnName());
+        return visibleFields.contains(name) || keyColumns.contains(name)
+                || alias != null && visibleFields.contains(normalize(alias.getName()));
+    }
+
+    // FROM 与 JOIN 中的表，FROM 项不是表时返回空集合
+    private static List<Table> tables(PlainSelect plainSelect) {
+        List<Table> tables = new ArrayList<>();
+        FromItem fromItem = plainSelect.getFromItem();
+        if (!(fromItem instanceof Table table)) {
+            return tables;
+        }
+        tables.add(table);
+        if (plainSelect.getJoins() != null) {
+            for (Join join : plainSelect.getJoins()) {
+                if (join.getFromItem() instanceof Table joinTable) {
+                    tables.add(joinTable);
+                } else {
+                    // 连接了子查询等非表项，视为多表
+                    tables.add(null);
+                }
+            }
+        }
+        return tables;
+    }
+
+    // 按别名或表名查找 t.* 所属的表
+    private static Table find(List<Table> tables, Table reference) {
+        String name = normalize(reference.getName());
+        for (Table table : tables) {
+            if (table != null && (table.getAlias() != null ? normalize(table.getAlias().getName()).equals(name)
+                    : normalize(table.getName()).equals(name))) {
+                return table;
+            }
+        }
+        return null;
+    }
+
+    // 字段名不区分大小写，去除转义符
+    private static String normalize(String name) {
+        if (name.length() > 1 && (name.charAt(0) == '`' || name.charAt(0) == '"')) {
+            name = name.substring(1, name.length() - 1);
+        }
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
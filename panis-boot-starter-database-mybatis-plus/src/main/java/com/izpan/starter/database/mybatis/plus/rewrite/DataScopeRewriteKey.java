@@ -0,0 +1,38 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.rewrite;
+
+/**
+ * 数据权限 SQL 改写缓存键
+ * <p>
+ * 由 msId、原始 SQL 与权限指纹共同组成，原始 SQL 中的查询参数均为 ? 占位，
+ * 不同参数值不会产生不同的键，而不同的动态 SQL 形态则各自缓存。
+ * </p>
+ *
+ * @param msId        MappedStatement ID
+ * @param originalSql 原始 SQL
+ * @param fingerprint 权限指纹
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.rewrite.DataScopeRewriteKey
+ * @CreateTime 2026/10/17 - 10:40
+ */
+public record DataScopeRewriteKey(String msId, String originalSql, DataScopeFingerprint fingerprint) {
+}
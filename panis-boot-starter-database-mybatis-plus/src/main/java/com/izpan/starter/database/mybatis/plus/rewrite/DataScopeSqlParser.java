@@ -0,0 +1,190 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.rewrite;
+
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.parser.CCJSqlParser;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.statement.Statement;
+
+import java.time.Duration;
+
+/**
+ * 带预算的数据权限 SQL 解析器
+ * <p>
+ * {@link CCJSqlParserUtil#parse(String)} 每次调用都会新建线程池并在其中解析，且没有复杂度限制。
+ * 本解析器在当前线程内解析，解析前先做一次线性扫描，SQL 长度、词法单元数量、括号表达式数量、括号嵌套深度或 AND / OR 条件数量
+ * 超出上限时直接拒绝。解析开销随这些规模线性或多项式增长，预扫描是唯一能在解析开始前生效的硬性限制；
+ * 解析过程无法中断，耗时上限只在解析结束后检查，超出时视为失败并由调用方计入熔断，避免同一语句反复消耗解析时间。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.rewrite.DataScopeSqlParser
+ * @CreateTime 2026/10/17 - 19:55
+ */
+public class DataScopeSqlParser {
+
+    // SQL 最大长度
+    private final int maxLength;
+
+    // 词法单元最大数量
+    private final int maxTokens;
+
+    // 括号表达式最大数量
+    private final int maxParentheses;
+
+    // 括号最大嵌套深度
+    private final int maxNestingDepth;
+
+    // AND / OR 条件最大数量
+    private final int maxBooleanTerms;
+
+    // 单次解析耗时上限（纳秒）
+    private final long timeoutNanos;
+
+    public DataScopeSqlParser(int maxLength, int maxTokens, int maxParentheses, int maxNestingDepth, int maxBooleanTerms, Duration timeout) {
+        this.maxLength = maxLength;
+        this.maxTokens = maxTokens;
+        this.maxParentheses = maxParentheses;
+        this.maxNestingDepth = maxNestingDepth;
+        this.maxBooleanTerms = maxBooleanTerms;
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    /**
+     * 在当前线程内解析 SQL
+     *
+     * @param sql SQL
+     * @return {@link Statement} 解析结果
+     * @throws JSQLParserException 解析失败或超出预算（{@link DataScopeParseBudgetException}）
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 19:57:40
+     */
+    public Statement parse(String sql) throws JSQLParserException {
+        int nestingDepth = checkBudget(sql);
+        long startNanos = System.nanoTime();
+        Statement statement;
+        try {
+            statement = parse(sql, false);
+        } catch (JSQLParserException e) {
+            // 与 CCJSqlParserUtil 一致：简单模式失败且嵌套不深时再尝试复杂模式
+            if (nestingDepth > CCJSqlParserUtil.ALLOWED_NESTING_DEPTH) {
+                throw e;
+            }
+            statement = parse(sql, true);
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        if (elapsedNanos > timeoutNanos) {
+            throw new DataScopeParseBudgetException("SQL 解析耗时 " + elapsedNanos / 1_000_000 + "ms 超出预算 " + timeoutNanos / 1_000_000 + "ms");
+        }
+        return statement;
+    }
+
+    // 使用指定解析模式解析，按 MySQL 规则识别字符串中的反斜杠转义，词法异常同样包装为 JSQLParserException
+    private static Statement parse(String sql, boolean allowComplexParsing) throws JSQLParserException {
+        CCJSqlParser parser = CCJSqlParserUtil.newParser(sql).withAllowComplexParsing(allowComplexParsing).withBackslashEscapeCharacter(true);
+        try {
+            return parser.Statement();
+        } catch (Exception e) {
+            throw new JSQLParserException(e);
+        }
+    }
+
+    /**
+     * 线性扫描 SQL，校验长度、词法单元数量、括号表达式数量、括号嵌套深度与 AND / OR 条件数量，忽略引号内的内容
+     * 标识符、数字与引号字面量各计为一个词法单元，其余非空白字符每个计为一个
+     *
+     * @param sql SQL
+     * @return int 括号最大嵌套深度
+     * @throws DataScopeParseBudgetException 超出预算
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 19:59:12
+     */
+    private int checkBudget(String sql) throws DataScopeParseBudgetException {
+        int length = sql.length();
+        if (length > maxLength) {
+            throw new DataScopeParseBudgetException("SQL 长度 " + length + " 超出上限 " + maxLength);
+        }
+        int depth = 0;
+        int maxDepth = 0;
+        int booleanTerms = 0;
+        int tokens = 0;
+        int parentheses = 0;
+        char quote = 0;
+        for (int i = 0; i < length; i++) {
+            char c = sql.charAt(i);
+            if (quote != 0) {
+                if (c == '\\' && quote != '`') {
+                    // 跳过转义字符
+                    i++;
+                } else if (c == quote) {
+                    quote = 0;
+                }
+                continue;
+            }
+            if (Character.isWhitespace(c) || isIdentifierPart(c) && i > 0 && isIdentifierPart(sql.charAt(i - 1))) {
+                continue;
+            }
+            if (++tokens > maxTokens) {
+                throw new DataScopeParseBudgetException("SQL 词法单元数量超出上限 " + maxTokens);
+            }
+            if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+            } else if (c == '(') {
+                if (++parentheses > maxParentheses) {
+                    throw new DataScopeParseBudgetException("SQL 括号表达式数量超出上限 " + maxParentheses);
+                }
+                if (++depth > maxDepth) {
+                    maxDepth = depth;
+                    if (maxDepth > maxNestingDepth) {
+                        throw new DataScopeParseBudgetException("SQL 括号嵌套深度超出上限 " + maxNestingDepth);
+                    }
+                }
+            } else if (c == ')') {
+                depth--;
+            } else if (isBooleanKeyword(sql, i, length) && ++booleanTerms > maxBooleanTerms) {
+                throw new DataScopeParseBudgetException("SQL AND / OR 条件数量超出上限 " + maxBooleanTerms);
+            }
+        }
+        return maxDepth;
+    }
+
+    // 当前位置是否为独立的 AND / OR 关键字
+    private static boolean isBooleanKeyword(String sql, int index, int length) {
+        char c = sql.charAt(index);
+        int keywordLength;
+        if ((c == 'o' || c == 'O') && index + 1 < length && (sql.charAt(index + 1) | 0x20) == 'r') {
+            keywordLength = 2;
+        } else if ((c == 'a' || c == 'A') && index + 2 < length
+                && (sql.charAt(index + 1) | 0x20) == 'n' && (sql.charAt(index + 2) | 0x20) == 'd') {
+            keywordLength = 3;
+        } else {
+            return false;
+        }
+        boolean startBoundary = index == 0 || !isIdentifierPart(sql.charAt(index - 1));
+        boolean endBoundary = index + keywordLength == length || !isIdentifierPart(sql.charAt(index + keywordLength));
+        return startBoundary && endBoundary;
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+}
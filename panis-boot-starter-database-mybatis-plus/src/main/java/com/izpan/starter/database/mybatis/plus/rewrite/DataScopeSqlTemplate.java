@@ -0,0 +1,333 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.rewrite;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 数据权限 SQL 模板
+ * <p>
+ * 改写后的 SQL 以占位标记 {@link #SLOT_MARKER} 切分为若干片段，权限值不写入模板，
+ * 每次查询时再将权限谓词填入占位处，因此同一形态的 SQL 只需解析一次。
+ * 同时记录每个占位之前原有 JDBC 参数（?）的数量，便于以参数方式绑定权限值时插入正确位置。
+ * </p>
+ * <p>
+ * 占位可带表限定名与列名：{@code [限定名.]__PANIS_DATA_SCOPE__[列名]}，切分时提取为占位键，如 {@code o.}、{@code o.creator_id}；
+ * 无限定名且使用默认列时占位键为空串。同一键的占位使用同一谓词，见 {@link #slotColumn(String, String)}；
+ * 预编译规则使用固定的占位键 {@link #RULE_SLOT_KEY}。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.rewrite.DataScopeSqlTemplate
+ * @CreateTime 2026/10/17 - 10:31
+ */
+public final class DataScopeSqlTemplate {
+
+    /**
+     * 权限谓词占位标记，以列名形式注入 AST，打印后再切分
+     */
+    public static final String SLOT_MARKER = "__PANIS_DATA_SCOPE__";
+
+    /**
+     * 预编译规则的占位键，规则谓词由 {@link com.izpan.starter.database.mybatis.plus.resolver.DataScopeRuleTemplate} 绑定变量后填入
+     */
+    public static final String RULE_SLOT_KEY = "__rule";
+
+    /**
+     * 游标分页条件的占位键，由 {@link com.izpan.starter.database.mybatis.plus.interceptor.KeysetPaginationInterceptor} 填入，不进入数据权限模板
+     */
+    public static final String KEYSET_SLOT_KEY = "__keyset";
+
+    /**
+     * 恒假模板中包裹原 SQL 的派生表别名
+     */
+    public static final String FAIL_CLOSED_ALIAS = "__panis_fail_closed";
+
+    // 带占位标记的 SQL
+    private final String markedSql;
+
+    // SQL 片段，长度为占位数量 + 1
+    private final String[] fragments;
+
+    // 每个占位的键
+    private final String[] slotKeys;
+
+    // 去重后的占位键，按出现顺序
+    private final String[] distinctSlotKeys;
+
+    // 所有片段长度之和，用于预估渲染结果容量
+    private final int fragmentLength;
+
+    // 每个占位之前原 SQL 中 JDBC 参数的数量
+    private final int[] parameterOffsets;
+
+    // 是否为解析失败时使用的恒假模板
+    private final boolean failClosed;
+
+    private DataScopeSqlTemplate(String markedSql, String[] fragments, String[] slotKeys, boolean failClosed) {
+        this.markedSql = markedSql;
+        this.fragments = fragments;
+        this.slotKeys = slotKeys;
+        this.distinctSlotKeys = Arrays.stream(slotKeys).distinct().toArray(String[]::new);
+        this.failClosed = failClosed;
+        this.parameterOffsets = new int[fragments.length - 1];
+        int length = 0;
+        int parameters = 0;
+        for (int i = 0; i < fragments.length; i++) {
+            length += fragments[i].length();
+            if (i < parameterOffsets.length) {
+                parameters += countParameters(fragments[i]);
+                parameterOffsets[i] = parameters;
+            }
+        }
+        this.fragmentLength = length;
+    }
+
+    /**
+     * 将带占位标记的 SQL 编译为模板
+     *
+     * @param markedSql 带占位标记的 SQL
+     * @return {@link DataScopeSqlTemplate} SQL 模板
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 10:33:20
+     */
+    public static DataScopeSqlTemplate compile(String markedSql) {
+        List<String> parts = new ArrayList<>(4);
+        List<String> keys = new ArrayList<>(2);
+        int length = markedSql.length();
+        int from = 0;
+        int index;
+        while ((index = markedSql.indexOf(SLOT_MARKER, from)) >= 0) {
+            // 向前提取限定名（含末尾的点），向后提取列名
+            int start = index;
+            if (start > from && markedSql.charAt(start - 1) == '.') {
+                start--;
+                while (start > from && isQualifierPart(markedSql.charAt(start - 1))) {
+                    start--;
+                }
+            }
+            int end = index + SLOT_MARKER.length();
+            while (end < length && isColumnPart(markedSql.charAt(end))) {
+                end++;
+            }
+            parts.add(markedSql.substring(from, start));
+            keys.add(markedSql.substring(start, index) + markedSql.substring(index + SLOT_MARKER.length(), end));
+            from = end;
+        }
+        parts.add(markedSql.substring(from));
+        return new DataScopeSqlTemplate(markedSql, parts.toArray(String[]::new), keys.toArray(String[]::new), false);
+    }
+
+    /**
+     * 生成带限定名与列名的占位标记，用于注入 AST
+     *
+     * @param qualifier 表别名或表名，无需限定时为 null
+     * @param column    列名，使用默认列时为 null
+     * @return {@link String} 占位标记
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 20:48:12
+     */
+    public static String marker(String qualifier, String column) {
+        String marker = column == null ? SLOT_MARKER : SLOT_MARKER + column;
+        return qualifier == null ? marker : qualifier + "." + marker;
+    }
+
+    /**
+     * 将占位键解析为谓词使用的列，如 {@code o.} 与默认列 create_user_id 解析为 {@code o.create_user_id}
+     *
+     * @param slotKey       占位键
+     * @param defaultColumn 默认列名
+     * @return {@link String} 谓词列
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 20:49:36
+     */
+    public static String slotColumn(String slotKey, String defaultColumn) {
+        if (slotKey.isEmpty()) {
+            return defaultColumn;
+        }
+        return slotKey.charAt(slotKey.length() - 1) == '.' ? slotKey + defaultColumn : slotKey;
+    }
+
+    /**
+     * 构建恒假模板：原 SQL 作为派生表并追加 1 = 0，不依赖解析即可保证不返回数据，
+     * 结果列与 JDBC 参数顺序均与原 SQL 一致；右括号前换行，避免被原 SQL 末尾的单行注释吞掉
+     * <p>
+     * 限制：派生表要求结果列名唯一，原 SQL 存在重名结果列（如 {@code SELECT a.id, b.id FROM a JOIN b ...}）时
+     * MySQL 报错 Duplicate column name，查询以异常结束，仍不会返回数据。
+     * 不使用 {@code (原 SQL) LIMIT 0} 等免派生表写法，因其与分页插件追加的 LIMIT 冲突
+     * </p>
+     *
+     * @param sql 原始 SQL
+     * @return {@link DataScopeSqlTemplate} 恒假模板
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 20:14:36
+     */
+    public static DataScopeSqlTemplate failClosed(String sql) {
+        int end = sql.length();
+        while (end > 0 && (sql.charAt(end - 1) == ';' || Character.isWhitespace(sql.charAt(end - 1)))) {
+            end--;
+        }
+        String markedSql = "SELECT * FROM (" + sql.substring(0, end) + "\n) " + FAIL_CLOSED_ALIAS + " WHERE 1 = 0";
+        return new DataScopeSqlTemplate(markedSql, new String[]{markedSql}, new String[0], true);
+    }
+
+    /**
+     * 占位数量
+     *
+     * @return int 占位数量
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 10:34:02
+     */
+    public int slotCount() {
+        return fragments.length - 1;
+    }
+
+    /**
+     * 去重后的占位键，按出现顺序
+     *
+     * @return String[] 占位键
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 20:51:08
+     */
+    public String[] slotKeys() {
+        return distinctSlotKeys;
+    }
+
+    /**
+     * 获取指定占位的键
+     *
+     * @param slot 占位下标
+     * @return {@link String} 占位键
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 22:28:12
+     */
+    public String slotKey(int slot) {
+        return slotKeys[slot];
+    }
+
+    public String markedSql() {
+        return markedSql;
+    }
+
+    public boolean isFailClosed() {
+        return failClosed;
+    }
+
+    /**
+     * 获取指定占位之前原 SQL 中 JDBC 参数的数量
+     *
+     * @param slot 占位下标
+     * @return int 参数数量
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 13:20:12
+     */
+    public int parameterOffset(int slot) {
+        return parameterOffsets[slot];
+    }
+
+    /**
+     * 使用权限谓词渲染最终 SQL
+     *
+     * @param predicate 权限谓词，所有占位使用同一谓词，仅适用于占位键唯一的模板
+     * @return {@link String} 渲染后的 SQL
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 10:34:40
+     */
+    public String render(String predicate) {
+        if (fragments.length == 1) {
+            return fragments[0];
+        }
+        StringBuilder sql = new StringBuilder(fragmentLength + predicate.length() * slotCount());
+        sql.append(fragments[0]);
+        for (int i = 1; i < fragments.length; i++) {
+            sql.append(predicate).append(fragments[i]);
+        }
+        return sql.toString();
+    }
+
+    /**
+     * 按占位键填入对应的权限谓词渲染最终 SQL
+     *
+     * @param predicates 占位键 -> 权限谓词
+     * @return {@link String} 渲染后的 SQL
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 20:53:44
+     */
+    public String render(Map<String, String> predicates) {
+        if (fragments.length == 1) {
+            return fragments[0];
+        }
+        if (distinctSlotKeys.length == 1) {
+            return render(predicates.get(distinctSlotKeys[0]));
+        }
+        int predicateLength = 0;
+        for (String slotKey : slotKeys) {
+            predicateLength += predicates.get(slotKey).length();
+        }
+        StringBuilder sql = new StringBuilder(fragmentLength + predicateLength);
+        sql.append(fragments[0]);
+        for (int i = 1; i < fragments.length; i++) {
+            sql.append(predicates.get(slotKeys[i - 1])).append(fragments[i]);
+        }
+        return sql.toString();
+    }
+
+    // 限定名字符：标识符、转义符与库表分隔点
+    private static boolean isQualifierPart(char c) {
+        return isColumnPart(c) || c == '.' || c == '`' || c == '"';
+    }
+
+    private static boolean isColumnPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+
+    /**
+     * 统计 SQL 片段中的 JDBC 参数数量，忽略引号内的问号
+     *
+     * @param fragment SQL 片段
+     * @return int 参数数量
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 13:22:48
+     */
+    public static int countParameters(String fragment) {
+        int count = 0;
+        char quote = 0;
+        for (int i = 0, length = fragment.length(); i < length; i++) {
+            char c = fragment.charAt(i);
+            if (quote != 0) {
+                if (c == '\\' && quote != '`') {
+                    // 跳过转义字符
+                    i++;
+                } else if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+            } else if (c == '?') {
+                count++;
+            }
+        }
+        return count;
+    }
+}
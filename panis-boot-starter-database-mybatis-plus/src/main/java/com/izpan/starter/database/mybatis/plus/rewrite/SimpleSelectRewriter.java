@@ -0,0 +1,294 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.rewrite;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 简单单表 SELECT 改写器
+ * <p>
+ * 以轻量词法扫描代替完整 AST 解析，定位 WHERE 条件的插入位置并直接拼接权限条件，适用于 MyBatis-Plus 条件构造器生成的
+ * {@code SELECT ... FROM t [WHERE ...] [GROUP BY ...] [ORDER BY ...] [LIMIT ...]} 形态。
+ * 遇到 JOIN、多表、子查询、UNION、WITH、注释或多条语句等无法确定的结构时返回 null，由 JSqlParser 完整解析处理。
+ * 原 WHERE 条件顶层包含 OR / XOR 时加括号，与 JSqlParser 改写结果保持一致。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.rewrite.SimpleSelectRewriter
+ * @CreateTime 2026/10/17 - 17:40
+ */
+public final class SimpleSelectRewriter {
+
+    // WHERE 之后可能出现的子句关键字（均为 MySQL 保留字），标志 WHERE 条件结束
+    private static final Set<String> CLAUSE_KEYWORDS = Set.of("GROUP", "HAVING", "WINDOW", "ORDER", "LIMIT", "FOR");
+
+    // 出现即放弃快速改写的关键字
+    private static final Set<String> UNSUPPORTED_KEYWORDS = Set.of("SELECT", "UNION", "INTERSECT", "EXCEPT", "MINUS", "WITH", "INTO");
+
+    // 非保留字但可能构成子句的关键字，出现在顶层时无法区分列名与子句，放弃快速改写
+    private static final Set<String> AMBIGUOUS_KEYWORDS = Set.of("LOCK", "OFFSET", "FETCH");
+
+    // 不能作为表别名的关键字，出现在 FROM 之后说明存在连接
+    private static final Set<String> JOIN_KEYWORDS = Set.of("JOIN", "STRAIGHT_JOIN", "NATURAL", "LEFT", "RIGHT", "INNER", "OUTER",
+            "CROSS", "FULL", "LATERAL", "USE", "FORCE", "IGNORE", "PARTITION", "ON", "USING");
+
+    private SimpleSelectRewriter() {
+    }
+
+    /**
+     * 为简单单表 SELECT 注入权限条件
+     *
+     * @param sql        原始 SQL
+     * @param expression 权限条件，为 null 时仅识别语句形态、不做改写
+     * @return {@link String} 改写后的 SQL，语句不属于简单单表 SELECT 时返回 null
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 17:43:26
+     */
+    public static String rewrite(String sql, String expression) {
+        return rewrite(sql, expression == null ? null : table -> expression);
+    }
+
+    /**
+     * 为简单单表 SELECT 注入权限条件，权限条件按表名生成
+     *
+     * @param sql        原始 SQL
+     * @param expression 表名（原文，可带库名与转义符） -> 权限条件，为 null 时仅识别语句形态、不做改写
+     * @return {@link String} 改写后的 SQL，语句不属于简单单表 SELECT 时返回 null
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 22:18:06
+     */
+    public static String rewrite(String sql, Function<String, String> expression) {
+        int length = sql.length();
+        int depth = 0;
+        // 0: SELECT 列表，1: FROM 表名，2: WHERE 条件，3: 其余子句
+        int state = -1;
+        int fromWords = 0;
+        boolean aliasKeyword = false;
+        int whereStart = -1;
+        int whereEnd = -1;
+        int clauseStart = -1;
+        boolean topLevelOr = false;
+        int tableStart = -1;
+        int tableEnd = -1;
+
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            if (c == '\'' || c == '"' || c == '`') {
+                int end = skipQuoted(sql, i, c);
+                if (end < 0 || state == -1) {
+                    return null;
+                }
+                if (state == 1 && depth == 0) {
+                    if (++fromWords > 2) {
+                        return null;
+                    }
+                    if (fromWords == 1) {
+                        tableStart = tableStart < 0 ? i : tableStart;
+                        tableEnd = end;
+                    }
+                }
+                i = end;
+                continue;
+            }
+            if (isWordStart(c)) {
+                int end = i + 1;
+                while (end < length && isWordPart(sql.charAt(end))) {
+                    end++;
+                }
+                String word = sql.substring(i, end).toUpperCase(Locale.ROOT);
+                if (state == -1) {
+                    if (!"SELECT".equals(word)) {
+                        return null;
+                    }
+                    state = 0;
+                } else if (UNSUPPORTED_KEYWORDS.contains(word)) {
+                    return null;
+                } else if (depth == 0) {
+                    if (AMBIGUOUS_KEYWORDS.contains(word) || state == 1 && JOIN_KEYWORDS.contains(word)) {
+                        return null;
+                    }
+                    if (state == 0 && "FROM".equals(word)) {
+                        state = 1;
+                    } else if (state == 1 && "WHERE".equals(word)) {
+                        if (fromWords == 0) {
+                            return null;
+                        }
+                        state = 2;
+                        whereStart = end;
+                    } else if ((state == 1 || state == 2) && CLAUSE_KEYWORDS.contains(word)) {
+                        if (state == 1 && fromWords == 0) {
+                            return null;
+                        }
+                        if (state == 2) {
+                            whereEnd = i;
+                        }
+                        state = 3;
+                        clauseStart = i;
+                    } else if (state == 1) {
+                        if ("AS".equals(word)) {
+                            if (fromWords != 1 || aliasKeyword) {
+                                return null;
+                            }
+                            aliasKeyword = true;
+                        } else if (++fromWords > 2) {
+                            return null;
+                        } else if (fromWords == 1) {
+                            tableStart = tableStart < 0 ? i : tableStart;
+                            tableEnd = end;
+                        }
+                    } else if (state == 2 && ("OR".equals(word) || "XOR".equals(word))) {
+                        topLevelOr = true;
+                    }
+                }
+                i = end;
+                continue;
+            }
+            if (state == -1) {
+                return null;
+            }
+            switch (c) {
+                case '(' -> {
+                    if (state == 1) {
+                        return null;
+                    }
+                    depth++;
+                }
+                case ')' -> {
+                    if (--depth < 0) {
+                        return null;
+                    }
+                }
+                case ';', '#', '|', '&', ',' -> {
+                    // 多语句、注释、|| / && 运算符及多表 FROM 均交由完整解析
+                    if (c != ',' || state == 1) {
+                        return null;
+                    }
+                }
+                case '-' -> {
+                    if (i + 1 < length && sql.charAt(i + 1) == '-') {
+                        return null;
+                    }
+                }
+                case '/' -> {
+                    if (i + 1 < length && sql.charAt(i + 1) == '*') {
+                        return null;
+                    }
+                }
+                case '.' -> {
+                    // schema.table 中的点号不计入表名单词
+                    if (state == 1 && depth == 0) {
+                        if (fromWords != 1 || aliasKeyword) {
+                            return null;
+                        }
+                        fromWords = 0;
+                    }
+                }
+                default -> {
+                    if (state == 1) {
+                        return null;
+                    }
+                }
+            }
+            i++;
+        }
+
+        if (depth != 0 || state < 1 || state == 1 && fromWords == 0 || aliasKeyword && fromWords < 2) {
+            return null;
+        }
+        if (expression == null) {
+            return sql;
+        }
+        if (state == 2) {
+            whereEnd = length;
+        }
+        String predicate = expression.apply(sql.substring(tableStart, tableEnd));
+
+        StringBuilder builder = new StringBuilder(length + predicate.length() + 16);
+        if (whereStart >= 0) {
+            String where = sql.substring(whereStart, whereEnd).trim();
+            if (where.isEmpty()) {
+                return null;
+            }
+            builder.append(sql, 0, whereStart).append(' ');
+            if (topLevelOr) {
+                builder.append('(').append(where).append(')');
+            } else {
+                builder.append(where);
+            }
+            builder.append(" AND ").append(predicate);
+            if (whereEnd < length) {
+                builder.append(' ').append(sql, whereEnd, length);
+            }
+        } else {
+            int insertAt = clauseStart >= 0 ? clauseStart : length;
+            builder.append(sql, 0, insertAt);
+            builder.setLength(trimmedLength(builder));
+            builder.append(" WHERE ").append(predicate);
+            if (insertAt < length) {
+                builder.append(' ').append(sql, insertAt, length);
+            }
+        }
+        return builder.toString();
+    }
+
+    // 跳过引号内容，返回结束引号之后的位置；单引号内反斜杠转义下一字符，双引号内出现反斜杠时 JSqlParser 无法识别，与未闭合一样返回 -1
+    private static int skipQuoted(String sql, int start, char quote) {
+        for (int i = start + 1, length = sql.length(); i < length; i++) {
+            char c = sql.charAt(i);
+            if (c == '\\' && quote != '`') {
+                if (quote == '"') {
+                    return -1;
+                }
+                i++;
+            } else if (c == quote) {
+                if (i + 1 < length && sql.charAt(i + 1) == quote) {
+                    i++;
+                } else {
+                    return i + 1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static int trimmedLength(StringBuilder builder) {
+        int end = builder.length();
+        while (end > 0 && Character.isWhitespace(builder.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    private static boolean isWordStart(char c) {
+        return Character.isLetter(c) || c == '_' || c == '$';
+    }
+
+    private static boolean isWordPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+}
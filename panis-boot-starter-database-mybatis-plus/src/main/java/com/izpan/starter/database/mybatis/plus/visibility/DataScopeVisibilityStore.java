@@ -0,0 +1,469 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.visibility;
+
+import com.izpan.starter.database.mybatis.plus.domain.DataScope;
+import com.izpan.starter.database.mybatis.plus.domain.ScopeIdSet;
+import com.izpan.starter.database.mybatis.plus.enums.DataScopeTypeEnum;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 数据权限可见性物化表
+ * <p>
+ * 权限用户数量达到阈值时，将「查看人 -> 可见用户」关系物化到数据库表 {@code data_scope_visibility(viewer_id, scope_key, owner_id)}，
+ * 权限谓词改为 {@code create_user_id IN (SELECT owner_id FROM data_scope_visibility WHERE viewer_id = ? AND scope_key = ?)}，
+ * 语句文本固定，由数据库通过 (viewer_id, scope_key, owner_id) 主键索引完成半连接过滤，不再生成超长 IN 列表。
+ * </p>
+ * <p>
+ * scope_key 为权限用户集合的内容摘要，同一 (查看人, scope_key) 下的行只对应一个集合，各节点按各自计算出的集合绑定摘要，
+ * 不会读到其他节点写入的不同集合。本地物化记录只在 verifyInterval 内视为有效，到期后以主键范围 COUNT 核对表中行数，
+ * 其他节点删除或替换后不会继续使用本地记录；核对完成前权限谓词回退为 IN 列表。
+ * </p>
+ * <p>
+ * 增量维护：查看人的权限用户集合变化时，在数据库内复制上一集合的行并仅删除失效行、插入新增行，提交后删除该查看人的其他集合。
+ * 物化可能写入 1 万至数十万行：配置执行器时在后台完成，物化完成前权限谓词使用 IN 列表，查询不等待写入；
+ * 未配置执行器时在查询线程同步完成，首次查询耗时随集合大小增长。
+ * 物化失败时同样回退为 IN 列表；同一权限用户集合失败后不再重试，直至集合变化或调用 {@link #invalidate}。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.visibility.DataScopeVisibilityStore
+ * @CreateTime 2026/10/17 - 23:14
+ */
+@Slf4j
+public class DataScopeVisibilityStore {
+
+    // 数据源
+    private final DataSource dataSource;
+
+    // 启用物化表的最小权限用户数量
+    private final long threshold;
+
+    // 批量写入大小
+    private final int batchSize;
+
+    // 本地物化记录的有效期（纳秒）
+    private final long verifyIntervalNanos;
+
+    // 后台物化执行器，为 null 时在查询线程同步物化
+    private final Executor executor;
+
+    // 可见用户子查询（参数绑定）
+    private final String subquery;
+
+    // 可见用户子查询前缀，拼接查看人与集合摘要字面量
+    private final String literalSubquery;
+
+    private final String scopeKeyCondition;
+
+    private final String createSql;
+
+    private final String countSql;
+
+    private final String copySql;
+
+    private final String insertSql;
+
+    private final String deleteSql;
+
+    private final String deleteKeySql;
+
+    private final String deleteOtherKeysSql;
+
+    private final String deleteViewerSql;
+
+    // 查看人 -> 最近一次物化或核对的集合
+    private final Map<Long, Materialized> materialized = new ConcurrentHashMap<>();
+
+    // 查看人 -> 最近一次物化失败的用户集合
+    private final Map<Long, ScopeIdSet> failed = new ConcurrentHashMap<>();
+
+    // 已提交后台物化、尚未完成的查看人
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    // 查看人 -> 物化锁，同一查看人串行更新
+    private final Map<Long, Object> locks = new ConcurrentHashMap<>();
+
+    public DataScopeVisibilityStore(DataSource dataSource, String table, String viewerColumn, String scopeKeyColumn, String ownerColumn,
+                                    long threshold, int batchSize, Duration verifyInterval, Executor executor) {
+        this.dataSource = dataSource;
+        this.threshold = threshold;
+        this.batchSize = batchSize;
+        this.verifyIntervalNanos = verifyInterval.toNanos();
+        this.executor = executor;
+        String viewerKey = " WHERE " + viewerColumn + " = ? AND " + scopeKeyColumn + " = ?";
+        this.subquery = "SELECT " + ownerColumn + " FROM " + table + viewerKey;
+        this.literalSubquery = "SELECT " + ownerColumn + " FROM " + table + " WHERE " + viewerColumn + " = ";
+        this.scopeKeyCondition = " AND " + scopeKeyColumn + " = ";
+        this.createSql = "CREATE TABLE IF NOT EXISTS " + table + " (" + viewerColumn + " BIGINT NOT NULL, " + scopeKeyColumn + " BIGINT NOT NULL, "
+                + ownerColumn + " BIGINT NOT NULL, PRIMARY KEY (" + viewerColumn + ", " + scopeKeyColumn + ", " + ownerColumn + "))";
+        this.countSql = "SELECT COUNT(*) FROM " + table + viewerKey;
+        this.copySql = "INSERT INTO " + table + " (" + viewerColumn + ", " + scopeKeyColumn + ", " + ownerColumn + ") SELECT "
+                + viewerColumn + ", ?, " + ownerColumn + " FROM " + table + viewerKey;
+        this.insertSql = "INSERT INTO " + table + " (" + viewerColumn + ", " + scopeKeyColumn + ", " + ownerColumn + ") VALUES (?, ?, ?)";
+        this.deleteSql = "DELETE FROM " + table + viewerKey + " AND " + ownerColumn + " = ?";
+        this.deleteKeySql = "DELETE FROM " + table + viewerKey;
+        this.deleteOtherKeysSql = "DELETE FROM " + table + " WHERE " + viewerColumn + " = ? AND " + scopeKeyColumn + " <> ?";
+        this.deleteViewerSql = "DELETE FROM " + table + " WHERE " + viewerColumn + " = ?";
+    }
+
+    /**
+     * 创建物化表（不存在时）
+     *
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:18:20
+     */
+    public void initializeTable() {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(createSql);
+        } catch (SQLException e) {
+            log.warn("[DataScope] 可见性物化表创建失败, sql={}, 错误={}", createSql, e.getMessage());
+        }
+    }
+
+    /**
+     * 权限用户数量达到阈值时确保查看人的可见关系已物化，本地记录有效时不访问数据库；配置执行器时提交后台物化并立即返回
+     *
+     * @param dataScope 数据权限信息
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:19:46
+     */
+    public void materialize(DataScope dataScope) {
+        if (!eligible(dataScope) || scopeKey(dataScope) != null) {
+            return;
+        }
+        long viewerId = dataScope.getCurrentUserId();
+        ScopeIdSet owners = dataScope.getScopeUserIdSet();
+        if (owners.equals(failed.get(viewerId))) {
+            return;
+        }
+        if (executor == null) {
+            materialize(viewerId, owners);
+            return;
+        }
+        // 同一查看人只保留一个后台任务，任务完成后集合仍有变化时由后续查询再次提交
+        if (pending.add(viewerId)) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        materialize(viewerId, owners);
+                    } finally {
+                        pending.remove(viewerId);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                pending.remove(viewerId);
+                log.warn("[DataScope] 用户ID={} - 可见性物化任务被拒绝, 使用 IN 列表, 错误={}", viewerId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 获取查看人当前权限用户集合已物化且在有效期内的集合摘要，可使用物化表子查询
+     *
+     * @param dataScope 数据权限信息
+     * @return {@link Long} 集合摘要，未物化、集合已变化或本地记录过期时返回 null
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:21:08
+     */
+    public Long scopeKey(DataScope dataScope) {
+        if (!eligible(dataScope)) {
+            return null;
+        }
+        Materialized current = materialized.get(dataScope.getCurrentUserId());
+        return current != null && current.matches(dataScope.getScopeUserIdSet()) && current.isFresh(verifyIntervalNanos)
+                ? current.scopeKey() : null;
+    }
+
+    /**
+     * 查看人的可见关系是否已按当前权限用户集合物化，可使用物化表子查询
+     *
+     * @param dataScope 数据权限信息
+     * @return boolean 是否可使用物化表
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:21:08
+     */
+    public boolean covers(DataScope dataScope) {
+        return scopeKey(dataScope) != null;
+    }
+
+    /**
+     * 按权限用户集合物化查看人的可见关系：表中已有完整的同摘要行时仅刷新本地记录；
+     * 否则在数据库内复制上一集合的行后增量调整（无可用上一集合时全量写入），提交后删除该查看人的其他集合
+     *
+     * @param viewerId 查看人 ID
+     * @param owners   可见用户集合
+     * @throws SQLException 数据库访问失败
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:23:40
+     */
+    public void refresh(long viewerId, ScopeIdSet owners) throws SQLException {
+        synchronized (locks.computeIfAbsent(viewerId, key -> new Object())) {
+            Materialized previous = materialized.get(viewerId);
+            if (previous != null && previous.matches(owners) && previous.isFresh(verifyIntervalNanos)) {
+                return;
+            }
+            long scopeKey = previous != null && previous.matches(owners) ? previous.scopeKey() : digest(owners);
+            try (Connection connection = dataSource.getConnection()) {
+                // 同摘要的行在同一事务内写入，行数一致即为完整集合
+                if (count(connection, viewerId, scopeKey) == owners.size()) {
+                    materialized.put(viewerId, new Materialized(owners, scopeKey, System.nanoTime()));
+                    return;
+                }
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+                try {
+                    int cleared = executeUpdate(connection, deleteKeySql, viewerId, scopeKey);
+                    writeScope(connection, viewerId, scopeKey, owners, previous, cleared);
+                    executeUpdate(connection, deleteOtherKeysSql, viewerId, scopeKey);
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+            }
+            materialized.put(viewerId, new Materialized(owners, scopeKey, System.nanoTime()));
+        }
+    }
+
+    /**
+     * 删除查看人的全部可见关系
+     *
+     * @param viewerId 查看人 ID
+     * @throws SQLException 数据库访问失败
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:25:12
+     */
+    public void remove(long viewerId) throws SQLException {
+        synchronized (locks.computeIfAbsent(viewerId, key -> new Object())) {
+            materialized.remove(viewerId);
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(deleteViewerSql)) {
+                statement.setLong(1, viewerId);
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * 使查看人的物化记录失效，下次查询时与表中现有记录重新核对
+     *
+     * @param viewerId 查看人 ID
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:25:50
+     */
+    public void invalidate(long viewerId) {
+        materialized.remove(viewerId);
+        failed.remove(viewerId);
+    }
+
+    /**
+     * 使所有查看人的物化记录失效，如组织树整体变更后调用
+     *
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:26:14
+     */
+    public void invalidateAll() {
+        materialized.clear();
+        failed.clear();
+    }
+
+    /**
+     * 可见用户子查询，依次绑定查看人 ID 与集合摘要（{@link #scopeKey(DataScope)}）
+     *
+     * @return {@link String} 子查询
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:27:02
+     */
+    public String subquery() {
+        return subquery;
+    }
+
+    /**
+     * 以字面量拼接查看人 ID 与集合摘要的可见用户子查询，用于参数绑定无法进行时降级
+     *
+     * @param viewerId 查看人 ID
+     * @param scopeKey 集合摘要
+     * @return {@link String} 子查询
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:27:30
+     */
+    public String subquery(long viewerId, long scopeKey) {
+        return literalSubquery + viewerId + scopeKeyCondition + scopeKey;
+    }
+
+    /**
+     * 计算权限用户集合的内容摘要：区间边界的 SHA-256 前 8 字节，各节点对同一集合得到相同的值
+     *
+     * @param owners 可见用户集合
+     * @return long 集合摘要
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:28:16
+     */
+    public static long digest(ScopeIdSet owners) {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        for (int run = 0; run < owners.runCount(); run++) {
+            if (buffer.remaining() < Long.BYTES * 2) {
+                sha256.update(buffer.array(), 0, buffer.position());
+                buffer.clear();
+            }
+            buffer.putLong(owners.runStart(run)).putLong(owners.runEnd(run));
+        }
+        sha256.update(buffer.array(), 0, buffer.position());
+        return ByteBuffer.wrap(sha256.digest()).getLong();
+    }
+
+    // 是否使用物化表：用户 ID 集合类权限且数量达到阈值
+    private boolean eligible(DataScope dataScope) {
+        DataScopeTypeEnum scope = dataScope.getScopeType();
+        return dataScope.getCurrentUserId() != null && scope != DataScopeTypeEnum.SELF && scope != DataScopeTypeEnum.UN_KNOWN
+                && scope != DataScopeTypeEnum.ALL && dataScope.getScopeUserIdSet().size() >= threshold;
+    }
+
+    // 物化并记录失败，失败后同一集合不再重试
+    private void materialize(long viewerId, ScopeIdSet owners) {
+        try {
+            refresh(viewerId, owners);
+            failed.remove(viewerId);
+        } catch (SQLException e) {
+            failed.put(viewerId, owners);
+            log.error("[DataScope] 用户ID={} - 可见性物化失败, 回退为 IN 列表, 错误={}", viewerId, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 写入集合摘要对应的行：上一集合的行完整时在数据库内复制后增量调整，否则全量写入
+     *
+     * @param connection 数据库连接
+     * @param viewerId   查看人 ID
+     * @param scopeKey   集合摘要
+     * @param owners     可见用户集合
+     * @param previous   本节点上一次物化的集合，可能为 null
+     * @param cleared    写入前清除的残留行数
+     * @throws SQLException 数据库访问失败
+     * @author payne.zhuang
+     * @CreateTime 2026-10-17 - 23:30:42
+     */
+    private void writeScope(Connection connection, long viewerId, long scopeKey, ScopeIdSet owners, Materialized previous,
+                            int cleared) throws SQLException {
+        if (previous != null && previous.scopeKey() != scopeKey) {
+            int copied = copy(connection, viewerId, previous.scopeKey(), scopeKey);
+            if (copied == previous.owners().size()) {
+                ScopeIdSet base = previous.owners();
+                int deleted = write(connection, deleteSql, viewerId, scopeKey, base.stream().filter(id -> !owners.contains(id)).iterator());
+                int inserted = write(connection, insertSql, viewerId, scopeKey, owners.stream().filter(id -> !base.contains(id)).iterator());
+                log.info("[DataScope] 用户ID={} - 可见性增量物化完成, 可见用户数={}, 新增={}, 删除={}", viewerId, owners.size(), inserted, deleted);
+                return;
+            }
+            // 上一集合的行已被删除或不完整，清除复制结果后全量写入
+            executeUpdate(connection, deleteKeySql, viewerId, scopeKey);
+        }
+        int inserted = write(connection, insertSql, viewerId, scopeKey, owners.stream().iterator());
+        log.info("[DataScope] 用户ID={} - 可见性物化完成, 可见用户数={}, 清除残留={}", viewerId, inserted, cleared);
+    }
+
+    // 统计 (查看人, 集合摘要) 的行数
+    private long count(Connection connection, long viewerId, long scopeKey) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(countSql)) {
+            statement.setLong(1, viewerId);
+            statement.setLong(2, scopeKey);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    // 在数据库内将上一集合的行复制为新集合摘要，返回复制的行数
+    private int copy(Connection connection, long viewerId, long fromKey, long toKey) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(copySql)) {
+            statement.setLong(1, toKey);
+            statement.setLong(2, viewerId);
+            statement.setLong(3, fromKey);
+            return statement.executeUpdate();
+        }
+    }
+
+    // 执行以 (查看人, 集合摘要) 为参数的语句
+    private static int executeUpdate(Connection connection, String sql, long viewerId, long scopeKey) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, viewerId);
+            statement.setLong(2, scopeKey);
+            return statement.executeUpdate();
+        }
+    }
+
+    // 批量执行 (查看人, 集合摘要, 可见用户) 写入，返回影响的用户数量
+    private int write(Connection connection, String sql, long viewerId, long scopeKey, PrimitiveIterator.OfLong ownerIds) throws SQLException {
+        int count = 0;
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            while (ownerIds.hasNext()) {
+                statement.setLong(1, viewerId);
+                statement.setLong(2, scopeKey);
+                statement.setLong(3, ownerIds.nextLong());
+                statement.addBatch();
+                if (++count % batchSize == 0) {
+                    statement.executeBatch();
+                }
+            }
+            if (count % batchSize != 0) {
+                statement.executeBatch();
+            }
+        }
+        return count;
+    }
+
+    // 本地物化记录：集合、集合摘要与最近一次写入或核对的时间
+    private record Materialized(ScopeIdSet owners, long scopeKey, long verifiedNanos) {
+
+        private boolean matches(ScopeIdSet other) {
+            return owners == other || owners.equals(other);
+        }
+
+        private boolean isFresh(long intervalNanos) {
+            return System.nanoTime() - verifiedNanos < intervalNanos;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.algebra;
+
+import com.izpan.starter.database.mybatis.plus.domain.DataScope;
+import com.izpan.starter.database.mybatis.plus.domain.ScopeIdSet;
+import com.izpan.starter.database.mybatis.plus.enums.DataScopeTypeEnum;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 数据权限合并测试
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.algebra.DataScopeAlgebraTest
+ * @CreateTime 2026/10/17 - 15:12
+ */
+class DataScopeAlgebraTest {
+
+    private static final long USER_ID = 7L;
+
+    private static final long UNIT_ID = 100L;
+
+    private final DataScopeAlgebra algebra = new DataScopeAlgebra(null);
+
+    @Test
+    void selfIsKeptWhenUnitUsersAreUnknown() {
+        // 处理器只提供了单位 ID：表中无单位列时按用户列过滤，本人条件不能被单位吸收
+        DataScope merged = combine(scope(DataScopeTypeEnum.SELF),
+                scope(DataScopeTypeEnum.UNIT).toBuilder().scopeUnitIds(Set.of(UNIT_ID)).build());
+
+        assertEquals(DataScopeTypeEnum.SELF_AND_CHILD, merged.getScopeType());
+        assertEquals(ScopeIdSet.of(USER_ID), merged.getScopeUserIdSet());
+        assertEquals(ScopeIdSet.of(UNIT_ID), merged.getScopeUnitIdSet());
+    }
+
+    @Test
+    void selfIsSubsumedWhenUnitUsersContainCurrentUser() {
+        DataScope merged = combine(scope(DataScopeTypeEnum.SELF),
+                scope(DataScopeTypeEnum.UNIT).toBuilder().scopeUnitIds(Set.of(UNIT_ID)).scopeUserIds(Set.of(5L, 6L, 7L)).build());
+
+        assertEquals(DataScopeTypeEnum.UNIT, merged.getScopeType());
+        assertEquals(ScopeIdSet.range(5, 7), merged.getScopeUserIdSet());
+        assertEquals(ScopeIdSet.of(UNIT_ID), merged.getScopeUnitIdSet());
+    }
+
+    @Test
+    void allAbsorbsOtherScopes() {
+        DataScope merged = combine(scope(DataScopeTypeEnum.SELF),
+                scope(DataScopeTypeEnum.CUSTOM).toBuilder().customRules("status = 1").build(),
+                scope(DataScopeTypeEnum.ALL));
+
+        assertEquals(DataScopeTypeEnum.ALL, merged.getScopeType());
+        assertTrue(merged.getScopeUserIdSet().isEmpty());
+        assertNull(merged.getCustomRules());
+        assertNull(merged.getMergedRules());
+    }
+
+    @Test
+    void unknownContributesNothing() {
+        DataScope merged = combine(scope(DataScopeTypeEnum.UN_KNOWN), scope(DataScopeTypeEnum.SELF));
+        assertEquals(DataScopeTypeEnum.SELF, merged.getScopeType());
+        assertEquals(ScopeIdSet.of(USER_ID), merged.getScopeUserIdSet());
+
+        DataScope unknown = combine(scope(DataScopeTypeEnum.UN_KNOWN), scope(DataScopeTypeEnum.UN_KNOWN));
+        assertEquals(DataScopeTypeEnum.UN_KNOWN, unknown.getScopeType());
+        assertTrue(unknown.getScopeUserIdSet().isEmpty());
+    }
+
+    @Test
+    void rulesAreMergedWithOwners() {
+        DataScope merged = combine(scope(DataScopeTypeEnum.SELF),
+                scope(DataScopeTypeEnum.CUSTOM).toBuilder().customRules(" status = 1 ").build(),
+                scope(DataScopeTypeEnum.CUSTOM).toBuilder().customRules("status = 1").build(),
+                scope(DataScopeTypeEnum.CUSTOM).toBuilder().customRules("type = 2").build());
+
+        assertEquals(DataScopeTypeEnum.SELF, merged.getScopeType());
+        assertEquals(ScopeIdSet.of(USER_ID), merged.getScopeUserIdSet());
+        assertEquals("(status = 1) OR (type = 2)", merged.getMergedRules());
+    }
+
+    @Test
+    void rulesOnlyMergeIntoCustom() {
+        DataScope merged = combine(scope(DataScopeTypeEnum.CUSTOM).toBuilder().customRules("status = 1").build(),
+                scope(DataScopeTypeEnum.CUSTOM).toBuilder().customRules("type = 2").build());
+
+        assertEquals(DataScopeTypeEnum.CUSTOM, merged.getScopeType());
+        assertEquals("(status = 1) OR (type = 2)", merged.getCustomRules());
+        assertNull(merged.getMergedRules());
+    }
+
+    @Test
+    void combineDoesNotModifyInputs() {
+        DataScope single = scope(DataScopeTypeEnum.SELF);
+        assertSame(single, algebra.combine(Arrays.asList(null, single)));
+        assertNull(algebra.combine(List.of()));
+
+        DataScope unit = scope(DataScopeTypeEnum.UNIT);
+        combine(unit, scope(DataScopeTypeEnum.SELF));
+        assertTrue(unit.getScopeUnitIdSet().isEmpty());
+    }
+
+    private DataScope combine(DataScope... scopes) {
+        return algebra.combine(List.of(scopes));
+    }
+
+    private static DataScope scope(DataScopeTypeEnum type) {
+        return DataScope.builder().scopeType(type).currentUserId(USER_ID).currentUnitId(UNIT_ID).build();
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 有界近似 LRU 缓存测试
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.cache.LruCacheTest
+ * @CreateTime 2026/10/17 - 15:52
+ */
+class LruCacheTest {
+
+    @Test
+    void countsHitsAndMisses() {
+        LruCache<String, String> cache = new LruCache<>(4);
+        assertNull(cache.get("a"));
+        cache.put("a", "A");
+        assertEquals("A", cache.get("a"));
+        assertEquals("A", cache.computeIfAbsent("a", key -> "X"));
+        assertEquals("B", cache.computeIfAbsent("b", String::toUpperCase));
+        // 加载结果为 null 时不缓存
+        assertNull(cache.computeIfAbsent("c", key -> null));
+
+        assertEquals(2, cache.hitCount());
+        assertEquals(3, cache.missCount());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void evictsUnreferencedEntriesFirst() {
+        LruCache<Integer, String> cache = new LruCache<>(3);
+        cache.put(1, "1");
+        cache.put(2, "2");
+        cache.put(3, "3");
+        cache.get(1);
+        cache.get(3);
+
+        cache.put(4, "4");
+
+        assertEquals(3, cache.size());
+        assertNull(cache.get(2));
+        assertNotNull(cache.get(1));
+        assertNotNull(cache.get(3));
+        assertNotNull(cache.get(4));
+    }
+
+    @Test
+    void evictsWhenEveryEntryIsReferenced() {
+        LruCache<Integer, Integer> cache = new LruCache<>(8);
+        for (int i = 0; i < 64; i++) {
+            cache.put(i, i);
+            for (int j = 0; j <= i; j++) {
+                cache.get(j);
+            }
+            assertTrue(cache.size() <= 8);
+        }
+        assertNotNull(cache.get(63));
+    }
+
+    @Test
+    void invalidatesEntries() {
+        LruCache<String, String> cache = new LruCache<>(8);
+        cache.put("a:1", "1");
+        cache.put("a:2", "2");
+        cache.put("b:1", "3");
+        cache.invalidate("a:1");
+        cache.invalidateIf(key -> key.startsWith("b:"));
+        assertEquals(1, cache.size());
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertThrows(IllegalArgumentException.class, () -> new LruCache<>(0));
+    }
+
+    @Test
+    void staysBoundedUnderConcurrentWrites() throws Exception {
+        LruCache<Integer, Integer> cache = new LruCache<>(64);
+        AtomicInteger sequence = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        int key = sequence.incrementAndGet();
+                        cache.computeIfAbsent(key, k -> k);
+                        cache.get(key % 128);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(cache.size() <= 64, "size=" + cache.size());
+        assertEquals(80_000, cache.hitCount() + cache.missCount());
+    }
+}
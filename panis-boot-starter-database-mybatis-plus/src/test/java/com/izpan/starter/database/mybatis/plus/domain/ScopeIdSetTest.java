@@ -0,0 +1,157 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.domain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.izpan.starter.database.mybatis.plus.enums.DataScopeTypeEnum;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 数据权限 ID 集合测试
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.domain.ScopeIdSetTest
+ * @CreateTime 2026/10/17 - 16:10
+ */
+class ScopeIdSetTest {
+
+    @Test
+    void mergesAdjacentIdsIntoRuns() {
+        ScopeIdSet set = ScopeIdSet.of(5, 3, 1, 2, 2, 9, 10, 3);
+        assertEquals("[1..3, 5, 9..10]", set.toString());
+        assertEquals(3, set.runCount());
+        assertEquals(6, set.size());
+        assertArrayEquals(new long[]{1, 2, 3, 5, 9, 10}, set.stream().toArray());
+        assertEquals(set, ScopeIdSet.of(List.of(10L, 9L, 5L, 3L, 2L, 1L)));
+        assertEquals(ScopeIdSet.range(1, 3), ScopeIdSet.of(1, 2, 3));
+    }
+
+    @Test
+    void unionMergesOverlappingAndAdjacentRuns() {
+        ScopeIdSet left = ScopeIdSet.of(1, 2, 3, 10, 11);
+        ScopeIdSet right = ScopeIdSet.of(3, 4, 8, 9, 20);
+        ScopeIdSet union = left.union(right);
+        assertEquals("[1..4, 8..11, 20]", union.toString());
+        assertEquals(9, union.size());
+        assertEquals(union, right.union(left));
+        // 与空集合并返回自身
+        assertSame(left, left.union(ScopeIdSet.EMPTY));
+        assertSame(right, ScopeIdSet.EMPTY.union(right));
+        assertSame(left, left.union(null));
+    }
+
+    @Test
+    void containsAllRequiresEachRunToBeCovered() {
+        ScopeIdSet set = ScopeIdSet.of(1, 2, 3, 4, 8, 9);
+        assertTrue(set.containsAll(ScopeIdSet.of(2, 3, 9)));
+        assertTrue(set.containsAll(set));
+        // 区间 [4..8] 两端都在集合内，但中间 5..7 缺失
+        assertFalse(set.containsAll(ScopeIdSet.range(4, 8)));
+        assertFalse(set.containsAll(ScopeIdSet.of(0)));
+        assertFalse(set.containsAll(ScopeIdSet.of(9, 10)));
+        assertTrue(set.contains(4));
+        assertFalse(set.contains(5));
+    }
+
+    @Test
+    void emptySets() {
+        assertSame(ScopeIdSet.EMPTY, ScopeIdSet.of());
+        assertSame(ScopeIdSet.EMPTY, ScopeIdSet.of((Set<Long>) null));
+        assertSame(ScopeIdSet.EMPTY, ScopeIdSet.range(2, 1));
+        assertTrue(ScopeIdSet.EMPTY.isEmpty());
+        assertEquals(0, ScopeIdSet.EMPTY.runCount());
+        assertEquals("[]", ScopeIdSet.EMPTY.toString());
+        assertFalse(ScopeIdSet.EMPTY.contains(0));
+        assertTrue(ScopeIdSet.EMPTY.containsAll(ScopeIdSet.EMPTY));
+        assertTrue(ScopeIdSet.of(1).containsAll(ScopeIdSet.EMPTY));
+        assertFalse(ScopeIdSet.EMPTY.containsAll(ScopeIdSet.of(1)));
+    }
+
+    @Test
+    void runsRoundTripAndRejectInvalidInput() {
+        ScopeIdSet set = ScopeIdSet.of(1, 2, 3, 5);
+        long[] runs = set.toRuns();
+        assertArrayEquals(new long[]{1, 3, 5, 5}, runs);
+        // 返回副本，修改不影响集合
+        runs[0] = 0;
+        assertEquals("[1..3, 5]", set.toString());
+        assertEquals(set, ScopeIdSet.ofRuns(new long[]{1, 3, 5, 5}));
+        assertEquals(4, ScopeIdSet.ofRuns(new long[]{1, 3, 5, 5}).size());
+        assertSame(ScopeIdSet.EMPTY, ScopeIdSet.ofRuns(new long[0]));
+
+        assertThrows(IllegalArgumentException.class, () -> ScopeIdSet.ofRuns(new long[]{1}));
+        assertThrows(IllegalArgumentException.class, () -> ScopeIdSet.ofRuns(new long[]{3, 1}));
+        // 相邻或乱序的区间应已合并，视为非法
+        assertThrows(IllegalArgumentException.class, () -> ScopeIdSet.ofRuns(new long[]{1, 3, 4, 5}));
+        assertThrows(IllegalArgumentException.class, () -> ScopeIdSet.ofRuns(new long[]{5, 6, 1, 2}));
+    }
+
+    @Test
+    void dataScopeGettersDoNotMutateAndSurviveSerialization() throws Exception {
+        DataScope dataScope = DataScope.builder()
+                .scopeType(DataScopeTypeEnum.CUSTOM)
+                .currentUserId(1L)
+                .scopeUserIds(Set.of(1L, 2L, 3L, 7L))
+                .build();
+        ScopeIdSet expected = ScopeIdSet.of(1, 2, 3, 7);
+        assertEquals(expected, dataScope.getScopeUserIdSet());
+        assertSame(ScopeIdSet.EMPTY, dataScope.getScopeUnitIdSet());
+        // 读取不写回，toBuilder 修改 IDs 后重新转换
+        DataScope copy = dataScope.toBuilder().scopeUserIds(Set.of(9L)).build();
+        assertEquals(ScopeIdSet.of(9), copy.getScopeUserIdSet());
+        dataScope.setScopeUnitIds(Set.of(4L, 5L));
+        assertEquals(ScopeIdSet.range(4, 5), dataScope.getScopeUnitIdSet());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(dataScope);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            DataScope restored = (DataScope) in.readObject();
+            assertEquals(expected, restored.getScopeUserIdSet());
+            assertEquals(ScopeIdSet.range(4, 5), restored.getScopeUnitIdSet());
+        }
+
+        ObjectMapper mapper = new ObjectMapper();
+        String json = mapper.writeValueAsString(dataScope);
+        assertTrue(json.contains("\"scopeUserIdSet\":[1,3,7,7]"), json);
+        assertFalse(json.contains("resolved"), json);
+        DataScope parsed = mapper.readValue(json, DataScope.class);
+        assertEquals(expected, parsed.getScopeUserIdSet());
+        assertEquals(ScopeIdSet.range(4, 5), parsed.getScopeUnitIdSet());
+        assertEquals(Arrays.asList(1L, 2L, 3L, 7L), parsed.getScopeUserIdSet().stream().boxed().toList());
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.izpan.starter.database.mybatis.plus.handler;
+
+import com.izpan.starter.database.mybatis.plus.cache.DataScopeHandlerCache;
+import com.izpan.starter.database.mybatis.plus.domain.DataScope;
+import com.izpan.starter.database.mybatis.plus.enums.DataScopeTypeEnum;
+import com.izpan.starter.database.mybatis.plus.memo.DataScopeMemoStore;
+import com.izpan.starter.database.mybatis.plus.memo.ThreadLocalDataScopeMemoStore;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * 带缓存的数据权限处理器测试
+ * <p>
+ * 验证作用域缓存按用户区分、命中时不再调用被包装的处理器，以及跨请求缓存在加载期间失效时不写回旧结果。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.handler.CachingDataScopeHandlerTest
+ * @CreateTime 2026/10/17 - 15:58
+ */
+class CachingDataScopeHandlerTest {
+
+    private static final String PERMISSION = "order:list";
+
+    private static final DataScopeHandlerCache NO_SHARED_CACHE = new DataScopeHandlerCache(false, 0, Duration.ZERO);
+
+    /**
+     * 计数的数据权限处理器，当前用户可切换
+     */
+    private static class CountingHandler implements IDataScopeHandler {
+
+        private final AtomicInteger loads = new AtomicInteger();
+
+        private Long currentUserId = 1L;
+
+        // 加载时执行的额外逻辑，模拟加载期间的并发失效
+        private Runnable onLoad = () -> {
+        };
+
+        @Override
+        public String getPermissionCode() {
+            return PERMISSION;
+        }
+
+        @Override
+        public Long getCurrentUserId() {
+            return currentUserId;
+        }
+
+        @Override
+        public DataScope getDataScope(MappedStatement ms, String permissionCode) {
+            loads.incrementAndGet();
+            onLoad.run();
+            if (currentUserId == null) {
+                return null;
+            }
+            return DataScope.builder().scopeType(DataScopeTypeEnum.SELF).currentUserId(currentUserId).permissionCode(permissionCode).build();
+        }
+    }
+
+    @Test
+    void memoHitSkipsDelegate() {
+        CountingHandler delegate = new CountingHandler();
+        CachingDataScopeHandler handler = new CachingDataScopeHandler(delegate, new ThreadLocalDataScopeMemoStore(), NO_SHARED_CACHE);
+        ThreadLocalDataScopeMemoStore.run(() -> {
+            DataScope first = handler.getDataScope(null, PERMISSION);
+            assertSame(first, handler.getDataScope(null, PERMISSION));
+            assertEquals(1, delegate.loads.get());
+            // 不同权限标识单独缓存
+            handler.getDataScope(null, "user:list");
+            assertEquals(2, delegate.loads.get());
+        });
+        // 作用域结束后重新加载
+        ThreadLocalDataScopeMemoStore.run(() -> handler.getDataScope(null, PERMISSION));
+        assertEquals(3, delegate.loads.get());
+    }
+
+    @Test
+    void memoCachesNullResults() {
+        CountingHandler delegate = new CountingHandler();
+        delegate.currentUserId = null;
+        CachingDataScopeHandler handler = new CachingDataScopeHandler(delegate, new ThreadLocalDataScopeMemoStore(), NO_SHARED_CACHE);
+        ThreadLocalDataScopeMemoStore.run(() -> {
+            assertNull(handler.getDataScope(null, PERMISSION));
+            assertNull(handler.getDataScope(null, PERMISSION));
+        });
+        assertEquals(1, delegate.loads.get());
+    }
+
+    @Test
+    void memoIsKeyedByUser() {
+        CountingHandler delegate = new CountingHandler();
+        CachingDataScopeHandler handler = new CachingDataScopeHandler(delegate, new ThreadLocalDataScopeMemoStore(), NO_SHARED_CACHE);
+        ThreadLocalDataScopeMemoStore.run(() -> {
+            assertEquals(1L, handler.getDataScope(null, PERMISSION).getCurrentUserId());
+            // 同一作用域内切换用户（如批处理任务逐个用户执行）不应复用上一个用户的数据权限
+            delegate.currentUserId = 2L;
+            assertEquals(2L, handler.getDataScope(null, PERMISSION).getCurrentUserId());
+            delegate.currentUserId = 1L;
+            assertEquals(1L, handler.getDataScope(null, PERMISSION).getCurrentUserId());
+        });
+        assertEquals(2, delegate.loads.get());
+    }
+
+    @Test
+    void sharedCacheIsReusedAcrossScopes() {
+        CountingHandler delegate = new CountingHandler();
+        DataScopeHandlerCache sharedCache = new DataScopeHandlerCache(true, 16, Duration.ofMinutes(5));
+        CachingDataScopeHandler handler = new CachingDataScopeHandler(delegate, DataScopeMemoStore.NONE, sharedCache);
+        DataScope first = handler.getDataScope(null, PERMISSION);
+        assertSame(first, handler.getDataScope(null, PERMISSION));
+        assertEquals(1, delegate.loads.get());
+
+        sharedCache.invalidate(1L);
+        assertNotSame(first, handler.getDataScope(null, PERMISSION));
+        assertEquals(2, delegate.loads.get());
+    }
+
+    @Test
+    void invalidationDuringLoadIsNotOverwritten() {
+        CountingHandler delegate = new CountingHandler();
+        DataScopeHandlerCache sharedCache = new DataScopeHandlerCache(true, 16, Duration.ofMinutes(5));
+        CachingDataScopeHandler handler = new CachingDataScopeHandler(delegate, DataScopeMemoStore.NONE, sharedCache);
+        // 加载期间角色变更并失效缓存，加载结果基于旧数据，不应写回
+        delegate.onLoad = () -> sharedCache.invalidate(1L, PERMISSION);
+        DataScope stale = handler.getDataScope(null, PERMISSION);
+        delegate.onLoad = () -> {
+        };
+        DataScope fresh = handler.getDataScope(null, PERMISSION);
+        assertNotSame(stale, fresh);
+        assertEquals(2, delegate.loads.get());
+        // 未发生失效的加载正常写回
+        assertSame(fresh, handler.getDataScope(null, PERMISSION));
+        assertEquals(2, delegate.loads.get());
+    }
+}
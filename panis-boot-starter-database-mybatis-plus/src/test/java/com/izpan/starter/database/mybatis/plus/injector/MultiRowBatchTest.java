@@ -0,0 +1,218 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.izpan.starter.database.mybatis.plus.injector;
+
+import com.baomidou.mybatisplus.annotation.FieldFill;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.MybatisSqlSessionFactoryBuilder;
+import com.baomidou.mybatisplus.core.config.GlobalConfig;
+import com.baomidou.mybatisplus.core.toolkit.GlobalConfigUtils;
+import com.izpan.starter.database.mybatis.plus.mapper.PanisBaseMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * 多行批量写入测试（H2，MySQL 模式）
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.injector.MultiRowBatchTest
+ * @CreateTime 2026/10/17 - 11:50
+ */
+class MultiRowBatchTest {
+
+    // H2 内存库
+    private JdbcDataSource dataSource;
+
+    // 保持内存库存活的连接
+    private Connection keepAlive;
+
+    private SqlSessionFactory sessionFactory;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @TableName("t_member")
+    public static class Member {
+
+        @TableId(type = IdType.INPUT)
+        private Long id;
+
+        private String name;
+
+        private Integer age;
+
+        @TableField(fill = FieldFill.INSERT)
+        private Long createUserId;
+    }
+
+    public interface MemberMapper extends PanisBaseMapper<Member> {
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:multi_row;MODE=MySQL");
+        keepAlive = dataSource.getConnection();
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.execute("CREATE TABLE t_member (id BIGINT PRIMARY KEY, name VARCHAR(4000), age INT, create_user_id BIGINT)");
+        }
+        MybatisConfiguration configuration = new MybatisConfiguration(new Environment("test", new JdbcTransactionFactory(), dataSource));
+        configuration.setMapUnderscoreToCamelCase(true);
+        GlobalConfig globalConfig = GlobalConfigUtils.defaults().setSqlInjector(new PanisSqlInjector());
+        GlobalConfigUtils.setGlobalConfig(configuration, globalConfig);
+        configuration.addMapper(MemberMapper.class);
+        sessionFactory = new MybatisSqlSessionFactoryBuilder().build(configuration);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        MultiRowBatch.setMaxPacketBytes(MultiRowBatch.DEFAULT_MAX_PACKET_BYTES);
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        keepAlive.close();
+    }
+
+    @Test
+    void splitsByPacketBudget() {
+        // 预算取下限 8192 字节，每行约 3084 字节，每批 2 行
+        MultiRowBatch.setMaxPacketBytes(0);
+        List<Member> members = members(1, 5, 1000, 1L);
+        List<Integer> chunks = new ArrayList<>();
+        try (SqlSession session = sessionFactory.openSession(true)) {
+            MemberMapper mapper = session.getMapper(MemberMapper.class);
+            int affected = MultiRowBatch.execute(members, chunk -> {
+                chunks.add(chunk.size());
+                return mapper.insertBatchValues(chunk);
+            });
+            assertEquals(5, affected);
+            assertEquals(List.of(2, 2, 1), chunks);
+            assertEquals(5, mapper.selectCount(null));
+            assertEquals(members.get(4).getName(), mapper.selectById(5L).getName());
+        }
+    }
+
+    @Test
+    void splitsByParameterLimit() {
+        // 包大小取 MySQL 上限 1GB，4 列时单条语句最多 65535 / 4 = 16383 行
+        MultiRowBatch.setMaxPacketBytes(1024L * 1024 * 1024);
+        List<Member> members = members(1, 16384, 1, 1L);
+        List<Integer> chunks = new ArrayList<>();
+        try (SqlSession session = sessionFactory.openSession(true)) {
+            MemberMapper mapper = session.getMapper(MemberMapper.class);
+            int affected = MultiRowBatch.execute(members, chunk -> {
+                chunks.add(chunk.size());
+                return mapper.insertBatchValues(chunk);
+            });
+            assertEquals(16384, affected);
+            assertEquals(List.of(16383, 1), chunks);
+            assertEquals(16384, mapper.selectCount(null));
+        }
+    }
+
+    @Test
+    void emptyInputExecutesNothing() {
+        ToIntFunction<List<Member>> statement = chunk -> fail("空集合不应执行语句");
+        assertEquals(0, MultiRowBatch.execute(List.of(), statement));
+        assertEquals(0, MultiRowBatch.execute(null, statement));
+        try (SqlSession session = sessionFactory.openSession(true)) {
+            assertEquals(0, session.getMapper(MemberMapper.class).insertBatch(Set.of()));
+        }
+    }
+
+    @Test
+    void upsertSqlSkipsKeyAndInsertFillColumns() {
+        MappedStatement statement = sessionFactory.getConfiguration()
+                .getMappedStatement(MemberMapper.class.getName() + "." + UpsertBatch.METHOD);
+        String sql = statement.getBoundSql(Map.of("list", members(1, 2, 1, 1L))).getSql().replaceAll("\\s+", " ");
+        assertEquals("INSERT INTO t_member (id,name,age,create_user_id) VALUES (?,?,?,?) , (?,?,?,?) "
+                + "ON DUPLICATE KEY UPDATE name = VALUES(name),age = VALUES(age)", sql);
+    }
+
+    @Test
+    void upsertAcrossChunksUpdatesExistingRowsAndKeepsInsertFillColumns() {
+        MultiRowBatch.setMaxPacketBytes(0);
+        try (SqlSession session = sessionFactory.openSession(true)) {
+            MemberMapper mapper = session.getMapper(MemberMapper.class);
+            assertEquals(3, mapper.insertBatch(members(1, 3, 1000, 1L)));
+
+            // 2、3 已存在，4、5 新增，每行约 2800 字节，分 2 + 2 两批执行
+            List<Member> changes = members(2, 4, 1000, 9L);
+            changes.forEach(member -> {
+                member.setName(("changed-" + member.getId()).repeat(100));
+                member.setAge(99);
+            });
+            List<Integer> chunks = new ArrayList<>();
+            MultiRowBatch.execute(changes, chunk -> {
+                chunks.add(chunk.size());
+                return mapper.upsertBatchValues(chunk);
+            });
+            assertEquals(List.of(2, 2), chunks);
+
+            assertEquals(5, mapper.selectCount(null));
+            Member untouched = mapper.selectById(1L);
+            assertEquals(1, untouched.getAge());
+            Member updated = mapper.selectById(3L);
+            assertEquals("changed-3".repeat(100), updated.getName());
+            assertEquals(99, updated.getAge());
+            // 插入填充列不参与更新
+            assertEquals(1L, updated.getCreateUserId());
+            Member inserted = mapper.selectById(5L);
+            assertEquals("changed-5".repeat(100), inserted.getName());
+            assertEquals(9L, inserted.getCreateUserId());
+        }
+    }
+
+    // 生成 ID 连续的成员，名称为指定长度的字符
+    private static List<Member> members(long firstId, int count, int nameLength, Long createUserId) {
+        List<Member> members = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long id = firstId + i;
+            members.add(new Member(id, String.valueOf((char) ('a' + id % 26)).repeat(nameLength), (int) (id % 100), createUserId));
+        }
+        return members;
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.izpan.starter.database.mybatis.plus.injector;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.MybatisSqlSessionFactoryBuilder;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.config.GlobalConfig;
+import com.baomidou.mybatisplus.core.toolkit.GlobalConfigUtils;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.izpan.starter.database.mybatis.plus.mapper.PanisBaseMapper;
+import lombok.Data;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 流式分块查询测试（H2，MySQL 模式）
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.injector.SelectStreamListTest
+ * @CreateTime 2026/10/17 - 12:10
+ */
+class SelectStreamListTest {
+
+    // H2 下使用正数 fetchSize，Integer.MIN_VALUE 仅 MySQL 驱动支持
+    private static final int FETCH_SIZE = 2;
+
+    // 保持内存库存活的连接
+    private Connection keepAlive;
+
+    private SqlSessionFactory sessionFactory;
+
+    @Data
+    @TableName("t_event")
+    public static class Event {
+
+        @TableId(type = IdType.INPUT)
+        private Long id;
+
+        private Integer status;
+    }
+
+    public interface EventMapper extends PanisBaseMapper<Event> {
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:select_stream;MODE=MySQL");
+        keepAlive = dataSource.getConnection();
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.execute("CREATE TABLE t_event (id BIGINT PRIMARY KEY, status INT)");
+            // 1 ~ 10 状态为 1，11 ~ 12 状态为 2
+            for (int id = 1; id <= 12; id++) {
+                statement.execute("INSERT INTO t_event VALUES (" + id + ", " + (id <= 10 ? 1 : 2) + ")");
+            }
+        }
+        MybatisConfiguration configuration = new MybatisConfiguration(new Environment("test", new JdbcTransactionFactory(), dataSource));
+        GlobalConfig globalConfig = GlobalConfigUtils.defaults().setSqlInjector(new PanisSqlInjector(FETCH_SIZE));
+        GlobalConfigUtils.setGlobalConfig(configuration, globalConfig);
+        configuration.addMapper(EventMapper.class);
+        sessionFactory = new MybatisSqlSessionFactoryBuilder().build(configuration);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        keepAlive.close();
+    }
+
+    @Test
+    void statementIsForwardOnlyWithFetchSizeAndNoCache() {
+        MappedStatement statement = sessionFactory.getConfiguration()
+                .getMappedStatement(EventMapper.class.getName() + "." + SelectStreamList.METHOD);
+        assertEquals(FETCH_SIZE, statement.getFetchSize());
+        assertEquals(ResultSetType.FORWARD_ONLY, statement.getResultSetType());
+        assertFalse(statement.isUseCache());
+    }
+
+    @Test
+    void deliversFullChunksWhenCountIsMultiple() {
+        List<List<Long>> chunks = stream(status(1), 5);
+        assertEquals(List.of(List.of(1L, 2L, 3L, 4L, 5L), List.of(6L, 7L, 8L, 9L, 10L)), chunks);
+    }
+
+    @Test
+    void deliversRemainderAsLastChunk() {
+        List<List<Long>> chunks = stream(status(1), 4);
+        assertEquals(List.of(List.of(1L, 2L, 3L, 4L), List.of(5L, 6L, 7L, 8L), List.of(9L, 10L)), chunks);
+        // 无条件时读取全部 12 行，块大于结果集时只交付一块
+        assertEquals(List.of(ids(1, 12)), stream(Wrappers.<Event>lambdaQuery().orderByAsc(Event::getId), 100));
+    }
+
+    @Test
+    void emptyResultDoesNotCallConsumer() {
+        try (SqlSession session = sessionFactory.openSession(true)) {
+            List<List<Event>> chunks = new ArrayList<>();
+            long count = session.getMapper(EventMapper.class).selectStream(status(3), 5, chunks::add);
+            assertEquals(0, count);
+            assertTrue(chunks.isEmpty());
+        }
+    }
+
+    @Test
+    void rejectsNonPositiveChunkSize() {
+        try (SqlSession session = sessionFactory.openSession(true)) {
+            EventMapper mapper = session.getMapper(EventMapper.class);
+            assertThrows(IllegalArgumentException.class, () -> mapper.selectStream(status(1), 0, chunk -> {
+            }));
+            assertThrows(IllegalArgumentException.class, () -> mapper.selectStream(status(1), -1, chunk -> {
+            }));
+        }
+    }
+
+    @Test
+    void consumerFailureStopsReadingAndKeepsSessionUsable() {
+        try (SqlSession session = sessionFactory.openSession(true)) {
+            EventMapper mapper = session.getMapper(EventMapper.class);
+            List<List<Event>> chunks = new ArrayList<>();
+            PersistenceException exception = assertThrows(PersistenceException.class, () -> mapper.selectStream(status(1), 3, chunk -> {
+                chunks.add(chunk);
+                if (chunks.size() == 2) {
+                    throw new IllegalStateException("stop");
+                }
+            }));
+            assertInstanceOf(IllegalStateException.class, exception.getCause());
+            assertEquals(2, chunks.size());
+            // 结果集已关闭，同一会话可继续查询
+            assertEquals(12, mapper.selectCount(null));
+        }
+    }
+
+    // 流式读取并返回每块的 ID，同时核对返回的记录数
+    private List<List<Long>> stream(LambdaQueryWrapper<Event> wrapper, int chunkSize) {
+        try (SqlSession session = sessionFactory.openSession(true)) {
+            List<List<Long>> chunks = new ArrayList<>();
+            long count = session.getMapper(EventMapper.class).selectStream(wrapper, chunkSize,
+                    chunk -> chunks.add(chunk.stream().map(Event::getId).toList()));
+            assertEquals(chunks.stream().mapToInt(List::size).sum(), count);
+            return chunks;
+        }
+    }
+
+    private static LambdaQueryWrapper<Event> status(int status) {
+        return Wrappers.<Event>lambdaQuery().eq(Event::getStatus, status).orderByAsc(Event::getId);
+    }
+
+    private static List<Long> ids(long from, long to) {
+        List<Long> ids = new ArrayList<>();
+        for (long id = from; id <= to; id++) {
+            ids.add(id);
+        }
+        return ids;
+    }
+}
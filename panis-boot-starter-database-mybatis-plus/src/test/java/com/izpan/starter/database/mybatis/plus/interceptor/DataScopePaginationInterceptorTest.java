@@ -0,0 +1,194 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.izpan.starter.database.mybatis.plus.interceptor;
+
+import com.baomidou.mybatisplus.annotation.DbType;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.MybatisSqlSessionFactoryBuilder;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
+import com.izpan.starter.database.mybatis.plus.cache.PageCountCache;
+import com.izpan.starter.database.mybatis.plus.domain.CountPage;
+import com.izpan.starter.database.mybatis.plus.enums.PageCountModeEnum;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.LocalCacheScope;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * 分页总数统计测试（H2，MySQL 模式）
+ * <p>
+ * 验证缓存模式下翻页复用首页总数、参数不同的查询不共享总数、失效与 TTL 到期后重新统计，精确模式每次统计，
+ * 以及估算模式在无法估算（非 EXPLAIN 行数格式）时回退为 COUNT 查询。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.interceptor.DataScopePaginationInterceptorTest
+ * @CreateTime 2026/10/17 - 10:40
+ */
+class DataScopePaginationInterceptorTest {
+
+    // H2 内存库
+    private JdbcDataSource dataSource;
+
+    // 保持内存库存活的连接
+    private Connection keepAlive;
+
+    public interface OrderMapper {
+
+        @Select("SELECT id, status FROM t_order WHERE status = #{status} ORDER BY id")
+        IPage<Map<String, Object>> selectByStatus(@Param("page") IPage<Map<String, Object>> page, @Param("status") int status);
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:page_count;MODE=MySQL");
+        keepAlive = dataSource.getConnection();
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.execute("CREATE TABLE t_order (id BIGINT PRIMARY KEY, status INT NOT NULL)");
+            for (int i = 1; i <= 25; i++) {
+                statement.execute("INSERT INTO t_order VALUES (" + i + ", " + (i <= 20 ? 1 : 2) + ")");
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        keepAlive.close();
+    }
+
+    @Test
+    void cachedModeReusesTotalAcrossPages() throws SQLException {
+        PageCountCache countCache = new PageCountCache(true, 16, Duration.ofMinutes(5));
+        SqlSessionFactory sessionFactory = sessionFactory(countCache, PageCountModeEnum.CACHED);
+        try (SqlSession session = sessionFactory.openSession()) {
+            OrderMapper mapper = session.getMapper(OrderMapper.class);
+            assertEquals(20, mapper.selectByStatus(CountPage.of(1, 5, null), 1).getTotal());
+            assertEquals(1, countCache.getCache().missCount());
+
+            // 新增数据后翻页仍使用缓存的总数，记录按当前数据读取
+            insert(26, 1);
+            IPage<Map<String, Object>> second = mapper.selectByStatus(CountPage.of(2, 5, null), 1);
+            assertEquals(20, second.getTotal());
+            assertEquals(5, second.getRecords().size());
+            assertEquals(1, countCache.getCache().hitCount());
+
+            // 参数值不同的查询单独统计
+            assertEquals(5, mapper.selectByStatus(CountPage.of(1, 5, null), 2).getTotal());
+            assertEquals(2, countCache.getCache().size());
+
+            // 失效后重新统计
+            countCache.invalidateAll();
+            assertEquals(21, mapper.selectByStatus(CountPage.of(2, 5, null), 1).getTotal());
+        }
+    }
+
+    @Test
+    void expiredTotalIsRecounted() throws SQLException, InterruptedException {
+        PageCountCache countCache = new PageCountCache(true, 16, Duration.ofMillis(20));
+        SqlSessionFactory sessionFactory = sessionFactory(countCache, PageCountModeEnum.CACHED);
+        try (SqlSession session = sessionFactory.openSession()) {
+            OrderMapper mapper = session.getMapper(OrderMapper.class);
+            assertEquals(20, mapper.selectByStatus(CountPage.of(1, 5, null), 1).getTotal());
+            insert(26, 1);
+            Thread.sleep(40);
+            assertEquals(21, mapper.selectByStatus(CountPage.of(1, 5, null), 1).getTotal());
+        }
+    }
+
+    @Test
+    void pageModeOverridesGlobalMode() throws SQLException {
+        PageCountCache countCache = new PageCountCache(true, 16, Duration.ofMinutes(5));
+        SqlSessionFactory sessionFactory = sessionFactory(countCache, PageCountModeEnum.CACHED);
+        try (SqlSession session = sessionFactory.openSession()) {
+            OrderMapper mapper = session.getMapper(OrderMapper.class);
+            assertEquals(20, mapper.selectByStatus(CountPage.of(1, 5, null), 1).getTotal());
+            insert(26, 1);
+            // 分页对象指定精确统计时不读取缓存
+            assertEquals(21, mapper.selectByStatus(CountPage.of(1, 5, PageCountModeEnum.EXACT), 1).getTotal());
+            assertEquals(20, mapper.selectByStatus(CountPage.of(1, 5, null), 1).getTotal());
+        }
+    }
+
+    @Test
+    void exactModeCountsEveryPage() throws SQLException {
+        PageCountCache countCache = new PageCountCache(true, 16, Duration.ofMinutes(5));
+        SqlSessionFactory sessionFactory = sessionFactory(countCache, PageCountModeEnum.EXACT);
+        try (SqlSession session = sessionFactory.openSession()) {
+            OrderMapper mapper = session.getMapper(OrderMapper.class);
+            assertEquals(20, mapper.selectByStatus(CountPage.of(1, 5, null), 1).getTotal());
+            insert(26, 1);
+            assertEquals(21, mapper.selectByStatus(CountPage.of(2, 5, null), 1).getTotal());
+            assertEquals(0, countCache.getCache().size());
+        }
+    }
+
+    @Test
+    void estimatedModeFallsBackToCountWhenExplainIsUnavailable() {
+        PageCountCache countCache = new PageCountCache(true, 16, Duration.ofMinutes(5));
+        SqlSessionFactory sessionFactory = sessionFactory(countCache, PageCountModeEnum.ESTIMATED);
+        try (SqlSession session = sessionFactory.openSession()) {
+            OrderMapper mapper = session.getMapper(OrderMapper.class);
+            CountPage<Map<String, Object>> page = CountPage.of(1, 5, null);
+            List<Map<String, Object>> records = mapper.selectByStatus(page, 1).getRecords();
+            assertEquals(20, page.getTotal());
+            assertFalse(page.isTotalEstimated());
+            assertEquals(5, records.size());
+        }
+    }
+
+    private SqlSessionFactory sessionFactory(PageCountCache countCache, PageCountModeEnum countMode) {
+        MybatisConfiguration configuration = new MybatisConfiguration(new Environment("test", new JdbcTransactionFactory(), dataSource));
+        // 关闭会话级缓存，测试中的新增数据由其他连接写入
+        configuration.setLocalCacheScope(LocalCacheScope.STATEMENT);
+        MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
+        interceptor.addInnerInterceptor(new DataScopePaginationInterceptor(DbType.MYSQL, true, 64, countCache, countMode, 1000));
+        configuration.addInterceptor(interceptor);
+        configuration.addMapper(OrderMapper.class);
+        return new MybatisSqlSessionFactoryBuilder().build(configuration);
+    }
+
+    private void insert(long id, int status) throws SQLException {
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.execute("INSERT INTO t_order VALUES (" + id + ", " + status + ")");
+        }
+    }
+}
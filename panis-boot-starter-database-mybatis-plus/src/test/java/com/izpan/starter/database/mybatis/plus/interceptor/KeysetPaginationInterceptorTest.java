@@ -0,0 +1,227 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.izpan.starter.database.mybatis.plus.interceptor;
+
+import com.baomidou.mybatisplus.annotation.DbType;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.MybatisSqlSessionFactoryBuilder;
+import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
+import com.izpan.starter.database.mybatis.plus.domain.KeysetPage;
+import lombok.Data;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 游标分页拦截器测试（H2，MySQL 模式）
+ * <p>
+ * 逐页读取直到没有下一页，验证排序键存在重复值时既不重复也不遗漏，混合排序方向、OR 条件、游标之前的原参数与集合查询均按游标续读，
+ * 以及 COUNT 仅在首页执行。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.interceptor.KeysetPaginationInterceptorTest
+ * @CreateTime 2026/10/17 - 09:40
+ */
+class KeysetPaginationInterceptorTest {
+
+    // 分数存在大量重复，排序须以主键收尾
+    private static final int[] SCORES = {30, 10, 20, 30, 20, 10, 30, 20, 20, 10, 40};
+
+    // H2 内存库
+    private JdbcDataSource dataSource;
+
+    // 保持内存库存活的连接
+    private Connection keepAlive;
+
+    private SqlSessionFactory sessionFactory;
+
+    @Data
+    public static class Item {
+
+        private Long id;
+
+        private Integer score;
+
+        private String name;
+    }
+
+    public interface ItemMapper {
+
+        @Select("SELECT id, score, name FROM t_item ORDER BY name")
+        List<Item> selectAll(@Param("page") KeysetPage<Item> page);
+
+        @Select("SELECT id, score, name FROM t_item WHERE score = 10 OR score = 40")
+        List<Item> selectLowOrTop(@Param("page") KeysetPage<Item> page);
+
+        @Select("SELECT id, score, name FROM t_item WHERE score >= #{minScore} AND name <> #{excluded}")
+        List<Item> selectAbove(@Param("page") KeysetPage<Item> page, @Param("minScore") int minScore, @Param("excluded") String excluded);
+
+        @Select("SELECT id, score, name FROM t_item WHERE score < 20 UNION ALL SELECT id, score, name FROM t_item WHERE score > 30")
+        List<Item> selectUnion(@Param("page") KeysetPage<Item> page);
+
+        @Select("SELECT id FROM t_item ORDER BY score DESC, id")
+        List<Long> selectOrderedIds();
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:keyset;MODE=MySQL");
+        keepAlive = dataSource.getConnection();
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.execute("CREATE TABLE t_item (id BIGINT PRIMARY KEY, score INT NOT NULL, name VARCHAR(32) NOT NULL)");
+            for (int i = 0; i < SCORES.length; i++) {
+                statement.execute("INSERT INTO t_item VALUES (" + (i + 1) + ", " + SCORES[i] + ", 'item-" + (i + 1) + "')");
+            }
+        }
+        MybatisConfiguration configuration = new MybatisConfiguration(new Environment("test", new JdbcTransactionFactory(), dataSource));
+        MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
+        interceptor.addInnerInterceptor(new KeysetPaginationInterceptor(true, 64));
+        interceptor.addInnerInterceptor(new DataScopePaginationInterceptor(DbType.MYSQL, true, 64));
+        configuration.addInterceptor(interceptor);
+        configuration.addMapper(ItemMapper.class);
+        sessionFactory = new MybatisSqlSessionFactoryBuilder().build(configuration);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        keepAlive.close();
+    }
+
+    @Test
+    void mixedDirectionsWalkTiesWithoutGapsOrDuplicates() {
+        try (SqlSession session = sessionFactory.openSession()) {
+            ItemMapper mapper = session.getMapper(ItemMapper.class);
+            List<Long> expected = mapper.selectOrderedIds();
+            // 每页 3 条，分数 30 / 20 的重复值跨页
+            List<Long> ids = walk(3, mapper::selectAll, KeysetPage.Key.desc("score", "score"), KeysetPage.Key.asc("id", "id"));
+            assertEquals(expected, ids);
+        }
+    }
+
+    @Test
+    void uniformDirectionUsesRowValueComparison() {
+        try (SqlSession session = sessionFactory.openSession()) {
+            ItemMapper mapper = session.getMapper(ItemMapper.class);
+            List<Long> ids = walk(4, mapper::selectAll, KeysetPage.Key.asc("score", "score"), KeysetPage.Key.asc("id", "id"));
+            assertEquals(List.of(2L, 6L, 10L, 3L, 5L, 8L, 9L, 1L, 4L, 7L, 11L), ids);
+        }
+    }
+
+    @Test
+    void cursorIsAndedWithOrCondition() {
+        try (SqlSession session = sessionFactory.openSession()) {
+            ItemMapper mapper = session.getMapper(ItemMapper.class);
+            List<Long> ids = walk(2, mapper::selectLowOrTop, KeysetPage.Key.asc("id", "id"));
+            assertEquals(List.of(2L, 6L, 10L, 11L), ids);
+        }
+    }
+
+    @Test
+    void cursorParametersFollowOriginalParameters() {
+        try (SqlSession session = sessionFactory.openSession()) {
+            ItemMapper mapper = session.getMapper(ItemMapper.class);
+            List<Long> ids = walk(2, page -> mapper.selectAbove(page, 20, "item-4"), KeysetPage.Key.desc("score", "score"), KeysetPage.Key.desc("id", "id"));
+            assertEquals(List.of(11L, 7L, 1L, 9L, 8L, 5L, 3L), ids);
+        }
+    }
+
+    @Test
+    void unionIsWrappedAsDerivedTable() {
+        try (SqlSession session = sessionFactory.openSession()) {
+            ItemMapper mapper = session.getMapper(ItemMapper.class);
+            List<Long> ids = walk(2, mapper::selectUnion, KeysetPage.Key.desc("id", "id"));
+            assertEquals(List.of(11L, 10L, 6L, 2L), ids);
+        }
+    }
+
+    @Test
+    void countsOnlyOnTheFirstPage() {
+        try (SqlSession session = sessionFactory.openSession()) {
+            ItemMapper mapper = session.getMapper(ItemMapper.class);
+            KeysetPage<Item> first = KeysetPage.<Item>of(5, KeysetPage.Key.asc("id", "id")).setSearchCount(true);
+            first.setRecords(mapper.selectAll(first));
+            assertEquals(11, first.getTotal());
+            assertArrayEquals(new Object[]{5L}, first.nextCursor());
+
+            KeysetPage<Item> second = KeysetPage.<Item>of(5, KeysetPage.Key.asc("id", "id")).setSearchCount(true).after(first.nextCursor());
+            second.setRecords(mapper.selectAll(second));
+            assertFalse(second.searchCount());
+            assertEquals(0, second.getTotal());
+            assertEquals(List.of(6L, 7L, 8L, 9L, 10L), second.getRecords().stream().map(Item::getId).toList());
+            assertTrue(second.hasNext());
+
+            KeysetPage<Item> last = KeysetPage.<Item>of(5, KeysetPage.Key.asc("id", "id")).after(second.nextCursor());
+            last.setRecords(mapper.selectAll(last));
+            assertEquals(1, last.getRecords().size());
+            assertNull(last.nextCursor());
+        }
+    }
+
+    @Test
+    void rejectsInvalidKeysAndCursors() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetPage.Key.asc("id; DROP TABLE t_item", "id"));
+        KeysetPage<Item> page = KeysetPage.of(5, KeysetPage.Key.asc("score", "score"), KeysetPage.Key.asc("id", "id"));
+        assertThrows(IllegalArgumentException.class, () -> page.after(1));
+        assertThrows(IllegalArgumentException.class, () -> page.after(1, null));
+    }
+
+    // 从首页开始以上一页返回的游标逐页读取，直到没有下一页
+    private static List<Long> walk(long size, Function<KeysetPage<Item>, List<Item>> query, KeysetPage.Key... keys) {
+        List<Long> ids = new ArrayList<>();
+        Object[] cursor = null;
+        for (int pages = 0; pages < 20; pages++) {
+            KeysetPage<Item> page = KeysetPage.<Item>of(size, keys).after(cursor);
+            page.setRecords(query.apply(page));
+            assertTrue(page.getRecords().size() <= size);
+            page.getRecords().forEach(item -> ids.add(item.getId()));
+            cursor = page.nextCursor();
+            if (cursor == null) {
+                return ids;
+            }
+        }
+        throw new AssertionError("游标分页未结束: " + ids);
+    }
+}
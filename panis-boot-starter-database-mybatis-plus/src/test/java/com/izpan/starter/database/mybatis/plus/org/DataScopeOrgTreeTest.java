@@ -0,0 +1,159 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.org;
+
+import com.izpan.starter.database.mybatis.plus.domain.ScopeIdSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 数据权限组织树索引测试
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.org.DataScopeOrgTreeTest
+ * @CreateTime 2026/10/17 - 22:50
+ */
+class DataScopeOrgTreeTest {
+
+    // 1 -> (2 -> (3, 4), 5)，10 为独立根节点
+    private static Map<Long, Long> sample() {
+        Map<Long, Long> parents = new HashMap<>();
+        parents.put(1L, null);
+        parents.put(2L, 1L);
+        parents.put(3L, 2L);
+        parents.put(4L, 2L);
+        parents.put(5L, 1L);
+        parents.put(10L, null);
+        return parents;
+    }
+
+    @Test
+    void subtreeAndDescendants() {
+        DataScopeOrgTree tree = new DataScopeOrgTree();
+        tree.load(sample());
+        assertEquals(6, tree.size());
+        assertEquals(ScopeIdSet.range(1, 5), tree.subtree(1));
+        assertEquals(ScopeIdSet.range(2, 5), tree.descendants(1));
+        assertEquals(ScopeIdSet.range(2, 4), tree.subtree(2));
+        assertEquals(ScopeIdSet.of(5), tree.subtree(5));
+        assertSame(ScopeIdSet.EMPTY, tree.descendants(5));
+        assertEquals(ScopeIdSet.of(10), tree.subtree(10));
+        // 不存在的组织只包含自身
+        assertEquals(ScopeIdSet.of(99), tree.subtree(99));
+        assertSame(ScopeIdSet.EMPTY, tree.descendants(99));
+        // 结果按节点缓存
+        assertSame(tree.subtree(2), tree.subtree(2));
+    }
+
+    @Test
+    void putAndRemoveRebuildSynchronouslyWithoutExecutor() {
+        DataScopeOrgTree tree = new DataScopeOrgTree();
+        tree.load(sample());
+        tree.put(6L, 5L);
+        assertEquals(ScopeIdSet.of(5, 6), tree.subtree(5));
+        // 调整上级后旧上级不再包含该子树
+        tree.put(2L, 10L);
+        assertEquals(ScopeIdSet.of(1, 5, 6), tree.subtree(1));
+        assertEquals(ScopeIdSet.of(2, 3, 4, 10), tree.subtree(10));
+        // 删除组织后其下级挂到上级
+        tree.remove(2L);
+        assertFalse(tree.contains(2));
+        assertEquals(ScopeIdSet.of(3, 4, 10), tree.subtree(10));
+        assertEquals(6, tree.size());
+    }
+
+    @Test
+    void rejectsCycles() {
+        DataScopeOrgTree tree = new DataScopeOrgTree();
+        tree.load(sample());
+        assertThrows(IllegalArgumentException.class, () -> tree.put(1L, 3L));
+        assertThrows(IllegalArgumentException.class, () -> tree.put(2L, 2L));
+        assertEquals(ScopeIdSet.range(1, 5), tree.subtree(1));
+    }
+
+    @Test
+    void queriesUseThePreviousSnapshotUntilTheRebuildRuns() {
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        DataScopeOrgTree tree = new DataScopeOrgTree(tasks::add);
+        tree.load(sample());
+        assertTrue(tasks.isEmpty());
+
+        tree.put(6L, 5L);
+        tree.put(7L, 6L);
+        tree.remove(10L);
+        // 连续变更只提交一次重建，查询不重建，仍读取旧快照
+        assertEquals(1, tasks.size());
+        assertEquals(ScopeIdSet.of(5), tree.subtree(5));
+        assertTrue(tree.contains(10));
+
+        tasks.poll().run();
+        assertEquals(ScopeIdSet.of(5, 6, 7), tree.subtree(5));
+        assertFalse(tree.contains(10));
+        assertEquals(7, tree.size());
+
+        // 重建后再次变更会提交新的重建
+        tree.put(8L, 1L);
+        assertEquals(1, tasks.size());
+        tree.refresh();
+        assertTrue(tree.contains(8));
+        // refresh 已替换快照，后台重建无事可做
+        tasks.poll().run();
+        assertTrue(tree.contains(8));
+    }
+
+    @Test
+    void staleRebuildDoesNotReplaceNewerSnapshot() {
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        DataScopeOrgTree tree = new DataScopeOrgTree(tasks::add);
+        tree.load(sample());
+        tree.put(6L, 5L);
+        // 全量加载同步构建，早先提交的重建不应覆盖
+        Map<Long, Long> reloaded = new HashMap<>();
+        reloaded.put(20L, null);
+        tree.load(reloaded);
+        tasks.poll().run();
+        assertEquals(1, tree.size());
+        assertTrue(tree.contains(20));
+    }
+
+    @Test
+    void rejectedRebuildFallsBackToSynchronous() {
+        DataScopeOrgTree tree = new DataScopeOrgTree(task -> {
+            throw new RejectedExecutionException("shutdown");
+        });
+        tree.load(sample());
+        tree.put(6L, 5L);
+        assertEquals(ScopeIdSet.of(5, 6), tree.subtree(5));
+        tree.put(7L, 5L);
+        assertEquals(ScopeIdSet.of(5, 6, 7), tree.subtree(5));
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.izpan.starter.database.mybatis.plus.resolver;
+
+import com.izpan.starter.database.mybatis.plus.domain.ScopeIdSet;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.izpan.starter.database.mybatis.plus.enums.QueryConditionsEnum.BETWEEN;
+import static com.izpan.starter.database.mybatis.plus.enums.QueryConditionsEnum.EQUAL;
+import static com.izpan.starter.database.mybatis.plus.enums.QueryConditionsEnum.IN;
+import static com.izpan.starter.database.mybatis.plus.enums.QueryConditionsEnum.IS_NULL;
+import static com.izpan.starter.database.mybatis.plus.enums.QueryConditionsEnum.LEFT_LIKE;
+import static com.izpan.starter.database.mybatis.plus.enums.QueryConditionsEnum.LIKE;
+import static com.izpan.starter.database.mybatis.plus.enums.QueryConditionsEnum.NOT_IN;
+import static com.izpan.starter.database.mybatis.plus.enums.QueryConditionsEnum.NO_BETWEEN;
+import static com.izpan.starter.database.mybatis.plus.enums.QueryConditionsEnum.RIGHT_LIKE;
+import static com.izpan.starter.database.mybatis.plus.resolver.DataScopeVariableResolver.resolveVariables;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 数据权限变量解析器测试
+ * <p>
+ * 覆盖字符串转义、集合 / 区间 / 模糊匹配格式，以及单占位符快速路径与通用替换路径结果一致。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.resolver.DataScopeVariableResolverTest
+ * @CreateTime 2026/10/17 - 23:40
+ */
+class DataScopeVariableResolverTest {
+
+    @Test
+    void escapesQuotesAndBackslashes() {
+        assertEquals("'O''Brien'", resolveVariables(1L, "#{name}", "O'Brien", EQUAL));
+        assertEquals("'C:\\\\tmp'", resolveVariables(1L, "#{path}", "C:\\tmp", EQUAL));
+        // 反斜杠与单引号相邻时各自转义，无法闭合字面量
+        assertEquals("'a\\\\'' OR 1 = 1 -- '", resolveVariables(1L, "#{name}", "a\\' OR 1 = 1 -- ", EQUAL));
+        // 通用替换路径同样转义
+        assertEquals("x-'O''Brien'", resolveVariables(1L, "x-#{name}", "O'Brien", EQUAL));
+    }
+
+    @Test
+    void formatsScalarsAndNull() {
+        assertEquals("42", resolveVariables(1L, "#{id}", 42L, EQUAL));
+        assertEquals("'2026-10-17 08:05:09'", resolveVariables(1L, "#{now}", LocalDateTime.of(2026, 10, 17, 8, 5, 9), EQUAL));
+        assertEquals("NULL", resolveVariables(1L, "#{id}", null, EQUAL));
+        assertEquals("NULL", resolveVariables(1L, "NULL", null, IS_NULL));
+        // 固定值按操作符格式化
+        assertEquals("'admin'", resolveVariables(1L, "'admin'", null, EQUAL));
+    }
+
+    @Test
+    void formatsListPatterns() {
+        assertEquals("(1, 2, 3)", resolveVariables(1L, "#{ids}", List.of(1L, 2L, 3L), IN));
+        assertEquals("('a', 'b''c')", resolveVariables(1L, "#{codes}", List.of("a", "b'c"), NOT_IN));
+        assertEquals("(1, 2, 3, 7)", resolveVariables(1L, "#{units}", ScopeIdSet.of(1, 2, 3, 7), IN));
+        // 数组与单值补齐括号
+        assertEquals("(1,2)", resolveVariables(1L, "#{ids}", new long[]{1, 2}, IN));
+        assertEquals("(5)", resolveVariables(1L, "#{id}", 5, IN));
+        // 固定值已带括号时不重复包裹
+        assertEquals("(1,2)", resolveVariables(1L, "(1,2)", null, IN));
+        assertEquals("(1,2)", resolveVariables(1L, "1,2", null, IN));
+    }
+
+    @Test
+    void formatsRangePatterns() {
+        assertEquals("1 AND 10", resolveVariables(1L, "#{range}", new Object[]{1, 10}, BETWEEN));
+        assertEquals("'2026-01-01' AND '2026-12-31'",
+                resolveVariables(1L, "#{range}", new Object[]{"2026-01-01", "2026-12-31"}, NO_BETWEEN));
+        // long[] 不走快速路径，由通用格式化按逗号拆分
+        assertEquals("1 AND 10", resolveVariables(1L, "#{range}", new long[]{1, 10}, BETWEEN));
+        assertEquals("1 AND 10", resolveVariables(1L, "1, 10", null, BETWEEN));
+    }
+
+    @Test
+    void formatsLikePatterns() {
+        assertEquals("CONCAT('%', 'ad''min', '%')", resolveVariables(1L, "#{name}", "ad'min", LIKE));
+        assertEquals("CONCAT('%', 'admin')", resolveVariables(1L, "#{name}", "admin", LEFT_LIKE));
+        assertEquals("CONCAT('admin', '%')", resolveVariables(1L, "#{name}", "admin", RIGHT_LIKE));
+        assertEquals("CONCAT('%', 'admin', '%')", resolveVariables(1L, "'admin'", null, LIKE));
+    }
+
+    @Test
+    void replacesEveryPlaceholderOccurrence() {
+        assertEquals("'a'-'a'", resolveVariables(1L, "#{v}-#{v}", "a", EQUAL));
+        // 空变量名不是占位符，原样保留
+        assertEquals("#{}-'a'", resolveVariables(1L, "#{}-#{v}", "a", EQUAL));
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.resolver;
+
+import com.izpan.starter.database.mybatis.plus.domain.DataScope;
+import com.izpan.starter.database.mybatis.plus.domain.DataScopeCondition;
+import com.izpan.starter.database.mybatis.plus.enums.QueryConditionsEnum;
+import com.izpan.starter.database.mybatis.plus.memo.DataScopeMemoStore;
+import net.sf.jsqlparser.JSQLParserException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * SQL 字面量写入器测试
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.resolver.SqlLiteralWriterTest
+ * @CreateTime 2026/10/17 - 15:34
+ */
+class SqlLiteralWriterTest {
+
+    @Test
+    void writerIsReusedAfterFinish() {
+        SqlLiteralWriter writer = SqlLiteralWriter.acquire();
+        assertEquals("'a'", writer.appendValue("a").finish());
+        assertSame(writer, SqlLiteralWriter.acquire());
+    }
+
+    @Test
+    void nestedAcquireDoesNotClearOuterBuffer() {
+        // 变量值的 toString 内部再次格式化
+        Object nested = new Object() {
+            @Override
+            public String toString() {
+                return SqlLiteralWriter.acquire().appendValue(List.of(1, 2)).finish();
+            }
+        };
+        SqlLiteralWriter writer = SqlLiteralWriter.acquire();
+        writer.append("dept_id = ");
+        assertEquals("dept_id = '(1, 2)'", writer.appendValue(nested).finish());
+    }
+
+    @Test
+    void unfinishedWriterIsNotReused() {
+        SqlLiteralWriter failed = SqlLiteralWriter.acquire();
+        failed.append("partial");
+        assertThrows(IllegalStateException.class, () -> failed.appendValue(new Object() {
+            @Override
+            public String toString() {
+                throw new IllegalStateException();
+            }
+        }));
+        SqlLiteralWriter writer = SqlLiteralWriter.acquire();
+        assertNotSame(failed, writer);
+        assertEquals("1", writer.appendValue(1).finish());
+    }
+
+    @Test
+    void renderLiteralWithProviderThatFormats() throws JSQLParserException {
+        // 变量提供者内部通过解析器格式化，不得破坏正在渲染的规则
+        DataScopeVariableProvider provider = new DataScopeVariableProvider() {
+            @Override
+            public String name() {
+                return "deptName";
+            }
+
+            @Override
+            public Object resolve(DataScope dataScope) {
+                DataScopeVariableResolver.resolveVariables(null, "#{x}", "ignored", QueryConditionsEnum.EQUAL);
+                return "R&D";
+            }
+        };
+        DataScopeVariableRegistry registry = new DataScopeVariableRegistry(List.of(provider), DataScopeMemoStore.NONE);
+        DataScopeRuleTemplate template = DataScopeRuleTemplate.compile(List.of(
+                condition("status", "equal", "1", null),
+                condition("dept_name", "equal", "#{deptName}", "AND")));
+
+        assertEquals("(status = 1 AND dept_name = 'R&D')",
+                template.renderLiteral(registry.variables(DataScope.builder().currentUserId(7L).build())));
+    }
+
+    private static DataScopeCondition condition(String field, String operator, String value, String logic) {
+        return DataScopeCondition.builder().field(field).operator(operator).value(value).logic(logic).build();
+    }
+}
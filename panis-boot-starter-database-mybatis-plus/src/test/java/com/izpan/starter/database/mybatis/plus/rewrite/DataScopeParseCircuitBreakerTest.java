@@ -0,0 +1,111 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.izpan.starter.database.mybatis.plus.rewrite;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * SQL 解析熔断器测试
+ * <p>
+ * 验证连续失败达到阈值后熔断、熔断到期后只放行一次重试（半开），以及重试成功恢复、失败继续熔断。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.rewrite.DataScopeParseCircuitBreakerTest
+ * @CreateTime 2026/10/17 - 20:32
+ */
+class DataScopeParseCircuitBreakerTest {
+
+    private static final String MS_ID = "com.example.OrderMapper.selectList";
+
+    // 熔断时长，半开测试需等待到期
+    private static final Duration OPEN_DURATION = Duration.ofMillis(200);
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        DataScopeParseCircuitBreaker breaker = new DataScopeParseCircuitBreaker(3, Duration.ofMinutes(10));
+        breaker.recordFailure(MS_ID);
+        breaker.recordFailure(MS_ID);
+        assertTrue(breaker.allowParse(MS_ID));
+        assertEquals(0, breaker.openCount());
+
+        breaker.recordFailure(MS_ID);
+        assertFalse(breaker.allowParse(MS_ID));
+        assertEquals(1, breaker.openCount());
+        // 其他语句不受影响
+        assertTrue(breaker.allowParse("com.example.OrderMapper.selectById"));
+    }
+
+    @Test
+    void successResetsConsecutiveFailures() {
+        DataScopeParseCircuitBreaker breaker = new DataScopeParseCircuitBreaker(2, Duration.ofMinutes(10));
+        breaker.recordFailure(MS_ID);
+        breaker.recordSuccess(MS_ID);
+        breaker.recordFailure(MS_ID);
+        assertTrue(breaker.allowParse(MS_ID));
+        assertEquals(0, breaker.openCount());
+    }
+
+    @Test
+    void halfOpenAllowsSingleRetryAndClosesOnSuccess() throws InterruptedException {
+        DataScopeParseCircuitBreaker breaker = new DataScopeParseCircuitBreaker(1, OPEN_DURATION);
+        breaker.recordFailure(MS_ID);
+        assertFalse(breaker.allowParse(MS_ID));
+
+        Thread.sleep(OPEN_DURATION.toMillis() + 50);
+        // 到期后只放行一个调用，其余调用继续熔断
+        assertTrue(breaker.allowParse(MS_ID));
+        assertFalse(breaker.allowParse(MS_ID));
+
+        breaker.recordSuccess(MS_ID);
+        assertTrue(breaker.allowParse(MS_ID));
+        assertTrue(breaker.allowParse(MS_ID));
+        assertEquals(0, breaker.openCount());
+    }
+
+    @Test
+    void halfOpenFailureReopens() throws InterruptedException {
+        DataScopeParseCircuitBreaker breaker = new DataScopeParseCircuitBreaker(1, OPEN_DURATION);
+        breaker.recordFailure(MS_ID);
+        Thread.sleep(OPEN_DURATION.toMillis() + 50);
+        assertTrue(breaker.allowParse(MS_ID));
+
+        breaker.recordFailure(MS_ID);
+        assertFalse(breaker.allowParse(MS_ID));
+        assertEquals(1, breaker.openCount());
+    }
+
+    @Test
+    void failClosedTemplateIsReusedPerSql() {
+        DataScopeParseCircuitBreaker breaker = new DataScopeParseCircuitBreaker(1, Duration.ofMinutes(10));
+        breaker.recordFailure(MS_ID);
+        DataScopeSqlTemplate template = breaker.failClosedTemplate(MS_ID, "SELECT id FROM t_order");
+        assertTrue(template.isFailClosed());
+        assertSame(template, breaker.failClosedTemplate(MS_ID, "SELECT id FROM t_order"));
+        assertFalse(template == breaker.failClosedTemplate(MS_ID, "SELECT id FROM t_user"));
+    }
+}
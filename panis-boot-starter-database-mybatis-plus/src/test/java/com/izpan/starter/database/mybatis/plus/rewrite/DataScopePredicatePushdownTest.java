@@ -0,0 +1,123 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.rewrite;
+
+import com.izpan.starter.database.mybatis.plus.decision.DataScopeDecision;
+import com.izpan.starter.database.mybatis.plus.enums.DataScopeDecisionTypeEnum;
+import com.izpan.starter.database.mybatis.plus.enums.DataScopeUnitModeEnum;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.statement.select.Select;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 权限谓词下推测试
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.rewrite.DataScopePredicatePushdownTest
+ * @CreateTime 2026/10/17 - 14:05
+ */
+class DataScopePredicatePushdownTest {
+
+    // 已注册的表：t_order / t_invoice 有用户列，t_dict 无用户列
+    private static final Map<String, DataScopeDecision> TABLES = Map.of(
+            "t_order", new DataScopeDecision(DataScopeDecisionTypeEnum.OWNER_COLUMN, "create_user_id", null),
+            "t_invoice", new DataScopeDecision(DataScopeDecisionTypeEnum.MAPPED_COLUMN, "creator_id", null),
+            "t_dict", DataScopeDecision.NO_OWNER_COLUMN);
+
+    @Test
+    void scopesOnlyTheMainTableOfAJoin() throws JSQLParserException {
+        assertEquals("SELECT o.id FROM t_order o JOIN t_invoice i ON i.order_id = o.id WHERE o.__PANIS_DATA_SCOPE__",
+                rewrite("SELECT o.id FROM t_order o JOIN t_invoice i ON i.order_id = o.id"));
+        assertEquals("SELECT o.id FROM t_order o JOIN (SELECT order_id FROM t_invoice) i ON i.order_id = o.id WHERE o.__PANIS_DATA_SCOPE__",
+                rewrite("SELECT o.id FROM t_order o JOIN (SELECT order_id FROM t_invoice) i ON i.order_id = o.id"));
+    }
+
+    @Test
+    void joinedOwnerOfMainTableWithoutScopeColumn() throws JSQLParserException {
+        assertEquals("SELECT d.name FROM t_dict d JOIN t_order o ON o.type = d.code JOIN t_invoice i ON i.order_id = o.id "
+                        + "WHERE (d.deleted = 0 OR d.code IS NULL) AND o.__PANIS_DATA_SCOPE__",
+                rewrite("SELECT d.name FROM t_dict d JOIN t_order o ON o.type = d.code JOIN t_invoice i ON i.order_id = o.id "
+                        + "WHERE d.deleted = 0 OR d.code IS NULL"));
+    }
+
+    @Test
+    void leftJoinStaysAnOuterJoin() throws JSQLParserException {
+        assertEquals("SELECT d.name FROM t_dict d LEFT JOIN t_order o ON o.type = d.code AND o.__PANIS_DATA_SCOPE__ WHERE d.deleted = 0",
+                rewrite("SELECT d.name FROM t_dict d LEFT JOIN t_order o ON o.type = d.code WHERE d.deleted = 0"));
+        assertEquals("SELECT d.name FROM t_dict d LEFT JOIN t_order o ON (o.type = d.code OR o.type IS NULL) AND o.__PANIS_DATA_SCOPE__",
+                rewrite("SELECT d.name FROM t_dict d LEFT JOIN t_order o ON o.type = d.code OR o.type IS NULL"));
+        // 主表为外连接的保留侧，LEFT JOIN 的连接表不注入
+        assertEquals("SELECT o.id FROM t_order o LEFT JOIN t_invoice i ON i.order_id = o.id WHERE o.__PANIS_DATA_SCOPE__",
+                rewrite("SELECT o.id FROM t_order o LEFT JOIN t_invoice i ON i.order_id = o.id"));
+    }
+
+    @Test
+    void rightJoinScopesTheNullableMainTableInOn() throws JSQLParserException {
+        assertEquals("SELECT o.id FROM t_order o RIGHT JOIN t_dict d ON o.type = d.code AND o.__PANIS_DATA_SCOPE__",
+                rewrite("SELECT o.id FROM t_order o RIGHT JOIN t_dict d ON o.type = d.code"));
+        assertEquals("SELECT o.id FROM t_order o FULL JOIN t_dict d ON o.type = d.code WHERE o.__PANIS_DATA_SCOPE__",
+                rewrite("SELECT o.id FROM t_order o FULL JOIN t_dict d ON o.type = d.code"));
+        assertEquals("SELECT d.name FROM t_dict d LEFT JOIN t_order o USING (code) WHERE o.__PANIS_DATA_SCOPE__",
+                rewrite("SELECT d.name FROM t_dict d LEFT JOIN t_order o USING (code)"));
+    }
+
+    @Test
+    void unknownJoinFallsBackToMainTable() throws JSQLParserException {
+        assertEquals("SELECT a.id FROM t_a a JOIN t_b b ON b.a_id = a.id WHERE a.__PANIS_DATA_SCOPE__",
+                rewrite("SELECT a.id FROM t_a a JOIN t_b b ON b.a_id = a.id"));
+        assertEquals("SELECT d.id FROM t_dict d JOIN t_b b ON b.code = d.code WHERE __PANIS_DATA_SCOPE__",
+                rewrite("SELECT d.id FROM t_dict d JOIN t_b b ON b.code = d.code"));
+    }
+
+    @Test
+    void derivedTableIsPushedDown() throws JSQLParserException {
+        assertEquals("SELECT t.id FROM (SELECT id FROM t_order WHERE status = 1 AND __PANIS_DATA_SCOPE__) t",
+                rewrite("SELECT t.id FROM (SELECT id FROM t_order WHERE status = 1) t"));
+        assertEquals("WITH o AS (SELECT id FROM t_order WHERE __PANIS_DATA_SCOPE__) SELECT id FROM o",
+                rewrite("WITH o AS (SELECT id FROM t_order) SELECT id FROM o"));
+    }
+
+    @Test
+    void limitedDerivedTableIsNotPushedDown() throws JSQLParserException {
+        assertEquals("SELECT t.id FROM (SELECT id, create_user_id FROM t_order ORDER BY id LIMIT 10) t WHERE __PANIS_DATA_SCOPE__",
+                rewrite("SELECT t.id FROM (SELECT id, create_user_id FROM t_order ORDER BY id LIMIT 10) t"));
+        assertEquals("SELECT t.id FROM (SELECT id, create_user_id FROM t_order LIMIT 10 OFFSET 20) t JOIN t_b b ON b.id = t.id "
+                        + "WHERE t.__PANIS_DATA_SCOPE__",
+                rewrite("SELECT t.id FROM (SELECT id, create_user_id FROM t_order LIMIT 10 OFFSET 20) t JOIN t_b b ON b.id = t.id"));
+        assertEquals("WITH o AS (SELECT id, create_user_id FROM t_order LIMIT 10) SELECT id FROM o WHERE __PANIS_DATA_SCOPE__",
+                rewrite("WITH o AS (SELECT id, create_user_id FROM t_order LIMIT 10) SELECT id FROM o"));
+    }
+
+    private static String rewrite(String sql) throws JSQLParserException {
+        DataScopePredicatePushdown pushdown = new DataScopePredicatePushdown(new Column(DataScopeSqlTemplate.SLOT_MARKER),
+                "create_user_id", DataScopeUnitModeEnum.NONE, table -> TABLES.get(table.toLowerCase(Locale.ROOT)));
+        Select select = (Select) CCJSqlParserUtil.parse(sql);
+        pushdown.apply(select);
+        return select.toString();
+    }
+}
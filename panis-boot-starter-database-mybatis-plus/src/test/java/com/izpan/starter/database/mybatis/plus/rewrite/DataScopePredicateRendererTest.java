@@ -0,0 +1,83 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.rewrite;
+
+import com.izpan.starter.database.mybatis.plus.domain.DataScope;
+import com.izpan.starter.database.mybatis.plus.domain.ScopeIdSet;
+import com.izpan.starter.database.mybatis.plus.enums.DataScopeBindModeEnum;
+import com.izpan.starter.database.mybatis.plus.enums.DataScopeTypeEnum;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 权限谓词渲染测试：参数绑定模式下语句形态只随补齐后的 IN 长度与区间数量变化
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.rewrite.DataScopePredicateRendererTest
+ * @CreateTime 2026/10/17 - 13:26
+ */
+class DataScopePredicateRendererTest {
+
+    private final DataScopePredicateRenderer renderer = new DataScopePredicateRenderer("create_user_id", DataScopeBindModeEnum.PARAMETER, 1000);
+
+    @Test
+    void rangeCountIsPaddedToPowerOfTwo() {
+        DataScopePredicate three = renderer.render(scope(ScopeIdSet.range(1, 5).union(ScopeIdSet.range(10, 15)).union(ScopeIdSet.range(20, 25))));
+        DataScopePredicate four = renderer.render(scope(ScopeIdSet.range(1, 5).union(ScopeIdSet.range(10, 15))
+                .union(ScopeIdSet.range(20, 25)).union(ScopeIdSet.range(30, 35))));
+        assertEquals(four.sql(), three.sql());
+        assertEquals("(create_user_id BETWEEN ? AND ? OR create_user_id BETWEEN ? AND ? OR create_user_id BETWEEN ? AND ? "
+                + "OR create_user_id BETWEEN ? AND ?)", three.sql());
+        assertArrayEquals(new Object[]{1L, 5L, 10L, 15L, 20L, 25L, 20L, 25L}, three.values());
+    }
+
+    @Test
+    void rangesAndSinglesArePaddedIndependently() {
+        DataScopePredicate predicate = renderer.render(scope(ScopeIdSet.range(1, 5).union(ScopeIdSet.range(10, 15))
+                .union(ScopeIdSet.range(20, 25)).union(ScopeIdSet.of(40L, 42L, 44L))));
+        assertEquals("(create_user_id BETWEEN ? AND ? OR create_user_id BETWEEN ? AND ? OR create_user_id BETWEEN ? AND ? "
+                + "OR create_user_id BETWEEN ? AND ? OR create_user_id IN (?, ?, ?, ?))", predicate.sql());
+        assertArrayEquals(new Object[]{1L, 5L, 10L, 15L, 20L, 25L, 20L, 25L, 40L, 42L, 44L, 44L}, predicate.values());
+    }
+
+    @Test
+    void singleRangeIsNotPadded() {
+        DataScopePredicate predicate = renderer.render(scope(ScopeIdSet.range(1, 5)));
+        assertEquals("(create_user_id BETWEEN ? AND ?)", predicate.sql());
+        assertArrayEquals(new Object[]{1L, 5L}, predicate.values());
+    }
+
+    @Test
+    void literalModeIsNotPadded() {
+        DataScopePredicate predicate = renderer.renderLiteral(scope(ScopeIdSet.range(1, 5).union(ScopeIdSet.range(10, 15))
+                .union(ScopeIdSet.range(20, 25))));
+        assertEquals("(create_user_id BETWEEN 1 AND 5 OR create_user_id BETWEEN 10 AND 15 OR create_user_id BETWEEN 20 AND 25)", predicate.sql());
+        assertNull(predicate.values());
+    }
+
+    private static DataScope scope(ScopeIdSet userIds) {
+        return DataScope.builder().scopeType(DataScopeTypeEnum.CUSTOM).currentUserId(1L).permissionCode("order:list")
+                .scopeUserIdSet(userIds).build();
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.izpan.starter.database.mybatis.plus.rewrite;
+
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.select.Select;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 带预算的 SQL 解析器测试
+ * <p>
+ * 验证预扫描在解析前按长度、词法单元数量、括号表达式数量、嵌套深度与 AND / OR 条件数量拒绝 SQL，且忽略引号内的内容。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.rewrite.DataScopeSqlParserTest
+ * @CreateTime 2026/10/17 - 20:20
+ */
+class DataScopeSqlParserTest {
+
+    private static DataScopeSqlParser parser(int maxLength, int maxTokens, int maxParentheses, int maxNestingDepth, int maxBooleanTerms) {
+        return new DataScopeSqlParser(maxLength, maxTokens, maxParentheses, maxNestingDepth, maxBooleanTerms, Duration.ofSeconds(10));
+    }
+
+    private static void assertRejected(DataScopeSqlParser parser, String sql, String reason) {
+        DataScopeParseBudgetException e = assertThrows(DataScopeParseBudgetException.class, () -> parser.parse(sql));
+        assertTrue(e.getMessage().contains(reason), e.getMessage());
+    }
+
+    @Test
+    void parsesWithinBudget() throws Exception {
+        Statement statement = parser(1000, 100, 10, 4, 10).parse("SELECT id FROM t_order WHERE status = 1 AND (type = 2 OR type = 3)");
+        assertInstanceOf(Select.class, statement);
+    }
+
+    @Test
+    void rejectsLength() {
+        assertRejected(parser(20, 100, 10, 4, 10), "SELECT id FROM t_order WHERE status = 1", "长度");
+    }
+
+    @Test
+    void rejectsTokenCount() {
+        // SELECT id , name FROM t_order = 6 个词法单元
+        DataScopeSqlParser parser = parser(1000, 6, 10, 4, 10);
+        assertDoesNotThrow(() -> parser.parse("SELECT id, name FROM t_order"));
+        assertRejected(parser, "SELECT id, name FROM t_order t", "词法单元");
+        // 长列表即使不含括号嵌套与 AND / OR 也会被拒绝
+        assertRejected(parser(1000, 20, 10, 4, 10), "SELECT id FROM t WHERE id IN (1, 2, 3, 4, 5, 6, 7, 8, 9)", "词法单元");
+    }
+
+    @Test
+    void rejectsParenthesisedExpressionCount() {
+        // 嵌套深度为 1，但括号表达式总数超出上限
+        DataScopeSqlParser parser = parser(1000, 100, 3, 4, 10);
+        assertDoesNotThrow(() -> parser.parse("SELECT COUNT(1), MAX(id), MIN(id) FROM t_order"));
+        assertRejected(parser, "SELECT COUNT(1), MAX(id), MIN(id), SUM(id) FROM t_order", "括号表达式");
+    }
+
+    @Test
+    void rejectsNestingDepthAndBooleanTerms() {
+        assertRejected(parser(1000, 100, 10, 2, 10), "SELECT id FROM t WHERE ((((id = 1))))", "嵌套深度");
+        assertRejected(parser(1000, 100, 10, 4, 2), "SELECT id FROM t WHERE a = 1 AND b = 2 OR c = 3 AND d = 4", "AND / OR");
+    }
+
+    @Test
+    void ignoresQuotedContent() {
+        // 引号内的括号、关键字与转义引号不计入预算，整个字面量计为一个词法单元
+        DataScopeSqlParser parser = parser(1000, 8, 0, 0, 0);
+        assertDoesNotThrow(() -> parser.parse("SELECT id FROM t WHERE name = '((a AND b) OR \\'c\\')'"));
+        // 标识符中包含的 and / or 不是关键字
+        assertDoesNotThrow(() -> parser.parse("SELECT brand FROM t WHERE orders = 1"));
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.rewrite;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 恒假模板测试
+ * <p>
+ * 在 H2（MySQL 模式）中执行恒假模板，验证不返回数据、JDBC 参数顺序不变，以及结果列重名时的已知限制。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.rewrite.DataScopeSqlTemplateTest
+ * @CreateTime 2026/10/17 - 12:48
+ */
+class DataScopeSqlTemplateTest {
+
+    // H2 内存库连接
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:fail_closed;MODE=MySQL");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE t_order (id BIGINT PRIMARY KEY, user_id BIGINT, status INT, create_user_id BIGINT)");
+            statement.execute("CREATE TABLE t_user (id BIGINT PRIMARY KEY, name VARCHAR(64))");
+            statement.execute("INSERT INTO t_order VALUES (1, 1, 1, 1), (2, 1, 2, 1)");
+            statement.execute("INSERT INTO t_user VALUES (1, 'payne')");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Test
+    void failClosedWrapsOriginalSql() {
+        DataScopeSqlTemplate template = DataScopeSqlTemplate.failClosed("SELECT id FROM t_order WHERE status = ? ; \n");
+        assertTrue(template.isFailClosed());
+        assertEquals(0, template.slotCount());
+        assertEquals("SELECT * FROM (SELECT id FROM t_order WHERE status = ?\n) " + DataScopeSqlTemplate.FAIL_CLOSED_ALIAS + " WHERE 1 = 0",
+                template.render((String) null));
+        assertEquals(1, DataScopeSqlTemplate.countParameters(template.markedSql()));
+    }
+
+    @Test
+    void failClosedReturnsNoRows() throws SQLException {
+        assertFalse(hasRows(DataScopeSqlTemplate.failClosed("SELECT id, status FROM t_order WHERE status = ? OR user_id = ?"), 1L, 1L));
+        // 原 SQL 以单行注释结尾时右括号不会被吞掉
+        assertFalse(hasRows(DataScopeSqlTemplate.failClosed("SELECT id FROM t_order -- trailing comment")));
+        assertFalse(hasRows(DataScopeSqlTemplate.failClosed("SELECT o.id, u.id AS user_id FROM t_order o JOIN t_user u ON u.id = o.user_id")));
+    }
+
+    @Test
+    void failClosedRejectsDuplicateColumnNames() {
+        // 已知限制：派生表要求结果列名唯一，重名时数据库拒绝执行，以异常结束且不返回数据
+        DataScopeSqlTemplate template = DataScopeSqlTemplate.failClosed("SELECT o.id, u.id FROM t_order o JOIN t_user u ON u.id = o.user_id");
+        SQLException e = assertThrows(SQLException.class, () -> hasRows(template));
+        assertTrue(e.getMessage().contains("Duplicate column name"), e.getMessage());
+    }
+
+    // 执行模板并返回是否有结果行
+    private boolean hasRows(DataScopeSqlTemplate template, Object... parameters) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(template.render((String) null))) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next();
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.rewrite;
+
+import com.izpan.starter.database.mybatis.plus.enums.DataScopeUnitModeEnum;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.statement.select.Select;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 快速改写与 JSqlParser 改写一致性测试
+ * <p>
+ * 快速改写可处理的 SQL 必须与 JSqlParser 改写结果规范化后一致（与 fast-path-verify 的比较方式相同），且 JDBC 参数数量不变；
+ * 快速改写无法识别的 SQL 必须返回 null，交由完整解析处理。
+ * </p>
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.rewrite.SimpleSelectRewriterTest
+ * @CreateTime 2026/10/17 - 12:20
+ */
+class SimpleSelectRewriterTest {
+
+    // 与默认配置一致的解析器
+    private final DataScopeSqlParser parser = new DataScopeSqlParser(65536, 32768, 2048, 32, 2000, Duration.ofMillis(500));
+
+    // 用户权限占位，表均未注册
+    private final DataScopePredicatePushdown pushdown = new DataScopePredicatePushdown(
+            new Column(DataScopeSqlTemplate.SLOT_MARKER), "create_user_id", DataScopeUnitModeEnum.NONE, table -> null);
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            // 基本形态
+            "SELECT id, name FROM t_order",
+            "SELECT id FROM t_order WHERE status = ?",
+            "SELECT id FROM t_order WHERE status = ? OR deleted = 0",
+            "SELECT id FROM t_order WHERE (status = ? OR deleted = 0) AND tenant_id = ?",
+            "SELECT id FROM t_order WHERE status = ? XOR deleted = 0",
+            "SELECT id FROM t_order WHERE id IN (?, ?, ?)",
+            "SELECT id FROM t_order WHERE create_time >= DATE_SUB(NOW(), INTERVAL 1 DAY)",
+            "select id from t_order where status = ?",
+            // 别名与库名
+            "SELECT o.id FROM t_order o WHERE o.status = ?",
+            "SELECT o.id FROM t_order AS o WHERE o.status = ?",
+            "SELECT o.id AS order_id, o.name order_name FROM `t_order` `o`",
+            "SELECT id FROM mall.t_order WHERE id = ?",
+            "SELECT id FROM `mall`.`t_order` o",
+            // 引号字符串
+            "SELECT id FROM t_order WHERE name = 'it''s' AND status = ?",
+            "SELECT id FROM t_order WHERE name = 'a\\'b' AND status = ?",
+            "SELECT id FROM t_order WHERE name = 'C:\\\\' AND status = ?",
+            "SELECT id FROM t_order WHERE name = 'x OR y' AND status = ?",
+            "SELECT id FROM t_order WHERE name = 'x) ORDER BY (y' LIMIT 1",
+            "SELECT id FROM t_order WHERE name = \"x OR y\"",
+            "SELECT `select`, `from` FROM t_order WHERE `where` = ?",
+            // 字符串中的注释符号
+            "SELECT id FROM t_order WHERE remark = '-- not a comment' AND status = ?",
+            "SELECT id FROM t_order WHERE remark = '/* not a comment */ #' AND status = ?",
+            // 字符串中的问号
+            "SELECT id FROM t_order WHERE name LIKE '%?%' AND status = ?",
+            "SELECT id FROM t_order WHERE name = '?' OR remark = '\\'?'",
+            // GROUP BY / HAVING / ORDER BY / LIMIT
+            "SELECT id FROM t_order ORDER BY id DESC",
+            "SELECT id FROM t_order ORDER BY id LIMIT 10",
+            "SELECT id FROM t_order WHERE status = ? ORDER BY id LIMIT ?, ?",
+            "SELECT status, COUNT(*) FROM t_order GROUP BY status",
+            "SELECT status, COUNT(*) FROM t_order WHERE deleted = 0 GROUP BY status HAVING COUNT(*) > ? ORDER BY status DESC LIMIT ?",
+            "SELECT id FROM t_order o WHERE o.status = ? OR o.deleted = 0 ORDER BY o.id LIMIT 10",
+            "SELECT id FROM t_order WHERE status = ? FOR UPDATE"
+    })
+    void fastPathMatchesParser(String sql) throws JSQLParserException {
+        String fast = SimpleSelectRewriter.rewrite(sql, pushdown::tableExpression);
+        assertNotNull(fast, () -> "快速改写应可处理: " + sql);
+        assertEquals(parserRewrite(sql), parser.parse(fast).toString(), sql);
+        int parameters = DataScopeSqlTemplate.countParameters(sql);
+        assertEquals(parameters, DataScopeSqlTemplate.countParameters(fast), sql);
+        assertEquals(parameters, DataScopeSqlTemplate.countParameters(parserRewrite(sql)), sql);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            // 注释
+            "SELECT id FROM t_order -- comment\nWHERE status = ?",
+            "SELECT id FROM t_order WHERE status = ? # comment",
+            "/* comment */ SELECT id FROM t_order",
+            "SELECT id FROM t_order /* comment */ WHERE status = ?",
+            // 多表、子查询与集合查询
+            "SELECT o.id FROM t_order o LEFT JOIN t_user u ON u.id = o.user_id",
+            "SELECT o.id FROM t_order o, t_user u WHERE u.id = o.user_id",
+            "SELECT id FROM (SELECT id FROM t_order) t",
+            "SELECT id FROM t_order WHERE user_id IN (SELECT id FROM t_user)",
+            "SELECT id FROM t_order UNION SELECT id FROM t_order_history",
+            "WITH o AS (SELECT id FROM t_order) SELECT id FROM o",
+            // 非保留字子句与多语句
+            "SELECT id FROM t_order LIMIT 10 OFFSET 20",
+            "SELECT id FROM t_order; SELECT id FROM t_user",
+            // 双引号字符串中的反斜杠转义
+            "SELECT id FROM t_order WHERE name = \"a\\\" LIMIT \\\"b\" AND status = ?",
+            // 未闭合的引号
+            "SELECT id FROM t_order WHERE name = 'abc"
+    })
+    void fastPathDeclines(String sql) {
+        assertNull(SimpleSelectRewriter.rewrite(sql, pushdown::tableExpression), sql);
+    }
+
+    @Test
+    void parserHandlesDeclinedStatements() throws JSQLParserException {
+        assertTrue(parserRewrite("SELECT id FROM t_order -- comment\nWHERE status = ?").contains(DataScopeSqlTemplate.SLOT_MARKER));
+        assertTrue(parserRewrite("SELECT id FROM t_order LIMIT 10 OFFSET 20").contains(DataScopeSqlTemplate.SLOT_MARKER));
+        // JSqlParser 同样无法识别双引号内的反斜杠转义，解析失败后由拦截器按恒假条件处理
+        assertThrows(JSQLParserException.class,
+                () -> parser.parse("SELECT id FROM t_order WHERE name = \"a\\\" LIMIT \\\"b\" AND status = ?"));
+    }
+
+    @Test
+    void countParametersSkipsEscapedQuotes() {
+        assertEquals(1, DataScopeSqlTemplate.countParameters("name = 'a\\'?' AND status = ?"));
+        assertEquals(1, DataScopeSqlTemplate.countParameters("name = \"a\\\"?\" AND status = ?"));
+        assertEquals(1, DataScopeSqlTemplate.countParameters("`a\\` = ?"));
+    }
+
+    // 与拦截器相同的 JSqlParser 改写
+    private String parserRewrite(String sql) throws JSQLParserException {
+        Select select = (Select) parser.parse(sql);
+        pushdown.apply(select);
+        return select.toString();
+    }
+}
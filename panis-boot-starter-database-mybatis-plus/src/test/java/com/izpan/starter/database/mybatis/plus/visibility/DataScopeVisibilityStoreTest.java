@@ -0,0 +1,165 @@
+/*
+ * All Rights Reserved: Copyright [2025] [Zhuang Pan (paynezhuang@gmail.com)]
+ * Open Source Agreement: Apache License, Version 2.0
+ * For educational purposes only, commercial use shall comply with the author's copyright information.
+ * The author does not guarantee or assume any responsibility for the risks of using software.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.izpan.starter.database.mybatis.plus.visibility;
+
+import com.izpan.starter.database.mybatis.plus.domain.DataScope;
+import com.izpan.starter.database.mybatis.plus.domain.ScopeIdSet;
+import com.izpan.starter.database.mybatis.plus.enums.DataScopeTypeEnum;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 可见性物化表测试（H2，MySQL 模式）
+ *
+ * @Author payne.zhuang <paynezhuang@gmail.com>
+ * @ProjectName panis-boot
+ * @ClassName com.izpan.starter.database.mybatis.plus.visibility.DataScopeVisibilityStoreTest
+ * @CreateTime 2026/10/17 - 15:10
+ */
+class DataScopeVisibilityStoreTest {
+
+    private static final long VIEWER = 7L;
+
+    // H2 内存库
+    private JdbcDataSource dataSource;
+
+    // 保持内存库存活的连接
+    private Connection keepAlive;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:visibility;MODE=MySQL");
+        keepAlive = dataSource.getConnection();
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        keepAlive.close();
+    }
+
+    @Test
+    void subqueryIsBoundToScopeKey() throws SQLException {
+        DataScopeVisibilityStore store = store(Duration.ofMinutes(1), null);
+        DataScope first = scope(ScopeIdSet.range(1, 5));
+        store.materialize(first);
+        Long firstKey = store.scopeKey(first);
+        assertNotNull(firstKey);
+        assertEquals(ScopeIdSet.range(1, 5), visible(store, firstKey));
+
+        // 集合变化：增量物化为新的摘要，旧摘要的行被删除
+        DataScope second = scope(ScopeIdSet.range(3, 8));
+        assertNull(store.scopeKey(second));
+        store.materialize(second);
+        Long secondKey = store.scopeKey(second);
+        assertNotNull(secondKey);
+        assertNotEquals(firstKey, secondKey);
+        assertEquals(ScopeIdSet.range(3, 8), visible(store, secondKey));
+        assertEquals(ScopeIdSet.EMPTY, visible(store, firstKey));
+        assertEquals("SELECT owner_id FROM data_scope_visibility WHERE viewer_id = 7 AND scope_key = " + secondKey,
+                store.subquery(VIEWER, secondKey));
+    }
+
+    @Test
+    void expiredLocalRecordIsVerifiedAgainstTable() throws SQLException, InterruptedException {
+        DataScopeVisibilityStore node = store(Duration.ofMillis(20), null);
+        DataScopeVisibilityStore other = store(Duration.ofMinutes(1), null);
+        DataScope scope = scope(ScopeIdSet.range(1, 5));
+        node.materialize(scope);
+        long key = node.scopeKey(scope);
+
+        // 其他节点替换了该查看人的集合，本节点到期后不再使用本地记录，核对行数后重新物化
+        other.materialize(scope(ScopeIdSet.range(10, 20)));
+        assertEquals(ScopeIdSet.EMPTY, visible(node, key));
+        Thread.sleep(40);
+        assertNull(node.scopeKey(scope));
+        node.materialize(scope);
+        assertEquals(key, node.scopeKey(scope));
+        assertEquals(ScopeIdSet.range(1, 5), visible(node, key));
+    }
+
+    @Test
+    void asyncMaterializationFallsBackUntilDone() throws SQLException {
+        List<Runnable> tasks = new ArrayList<>();
+        DataScopeVisibilityStore store = store(Duration.ofMinutes(1), tasks::add);
+        DataScope scope = scope(ScopeIdSet.range(1, 5));
+        store.materialize(scope);
+        store.materialize(scope);
+        assertEquals(1, tasks.size());
+        assertNull(store.scopeKey(scope));
+        tasks.getFirst().run();
+        assertEquals(ScopeIdSet.range(1, 5), visible(store, store.scopeKey(scope)));
+    }
+
+    @Test
+    void belowThresholdIsNotMaterialized() {
+        DataScopeVisibilityStore store = store(Duration.ofMinutes(1), null);
+        DataScope scope = scope(ScopeIdSet.of(1L, 2L));
+        store.materialize(scope);
+        assertNull(store.scopeKey(scope));
+    }
+
+    private DataScopeVisibilityStore store(Duration verifyInterval, Executor executor) {
+        DataScopeVisibilityStore store = new DataScopeVisibilityStore(dataSource, "data_scope_visibility", "viewer_id", "scope_key", "owner_id",
+                3, 2, verifyInterval, executor);
+        store.initializeTable();
+        return store;
+    }
+
+    private static DataScope scope(ScopeIdSet owners) {
+        return DataScope.builder().scopeType(DataScopeTypeEnum.CUSTOM).currentUserId(VIEWER).permissionCode("order:list")
+                .scopeUserIdSet(owners).build();
+    }
+
+    // 按参数绑定的子查询读取可见用户
+    private ScopeIdSet visible(DataScopeVisibilityStore store, long scopeKey) throws SQLException {
+        List<Long> owners = new ArrayList<>();
+        try (PreparedStatement statement = keepAlive.prepareStatement(store.subquery())) {
+            statement.setLong(1, VIEWER);
+            statement.setLong(2, scopeKey);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    owners.add(rs.getLong(1));
+                }
+            }
+        }
+        return ScopeIdSet.of(owners);
+    }
+}